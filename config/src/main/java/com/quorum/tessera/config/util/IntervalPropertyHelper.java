@@ -50,4 +50,13 @@ public class IntervalPropertyHelper {
       return "7200000";
     }
   }
+
+  public long keyValidationCacheTtl() {
+    try {
+      return Long.parseLong(properties.getOrDefault("keyValidationCacheTtl", "300000"));
+    } catch (NumberFormatException ex) {
+      LOGGER.warn("Not able to parse configured property. Will use default value instead");
+      return 300000L;
+    }
+  }
 }
@@ -17,6 +17,7 @@ public class IntervalPropertyHelperTest {
     assertThat(util.enclaveKeySyncInterval()).isEqualTo(2000);
     assertThat(util.syncInterval()).isEqualTo(60000);
     assertThat(util.resendWaitTime()).isEqualTo("7200000");
+    assertThat(util.keyValidationCacheTtl()).isEqualTo(300000);
   }
 
   @Test
@@ -26,6 +27,7 @@ public class IntervalPropertyHelperTest {
     props.put("enclaveKeySyncInterval", "3000");
     props.put("syncInterval", "4000");
     props.put("resendWaitTime", "4000");
+    props.put("keyValidationCacheTtl", "0");
 
     final IntervalPropertyHelper util = new IntervalPropertyHelper(props);
 
@@ -33,6 +35,7 @@ public class IntervalPropertyHelperTest {
     assertThat(util.enclaveKeySyncInterval()).isEqualTo(3000);
     assertThat(util.syncInterval()).isEqualTo(4000);
     assertThat(util.resendWaitTime()).isEqualTo("4000");
+    assertThat(util.keyValidationCacheTtl()).isZero();
   }
 
   @Test
@@ -42,6 +45,7 @@ public class IntervalPropertyHelperTest {
     props.put("enclaveKeySyncInterval", "abc");
     props.put("syncInterval", "4000L");
     props.put("resendWaitTime", "4000L");
+    props.put("keyValidationCacheTtl", "five minutes");
 
     final IntervalPropertyHelper util = new IntervalPropertyHelper(props);
 
@@ -49,5 +53,6 @@ public class IntervalPropertyHelperTest {
     assertThat(util.enclaveKeySyncInterval()).isEqualTo(2000);
     assertThat(util.syncInterval()).isEqualTo(60000);
     assertThat(util.resendWaitTime()).isEqualTo("7200000");
+    assertThat(util.keyValidationCacheTtl()).isEqualTo(300000);
   }
 }
@@ -0,0 +1,5 @@
+-- required: keyset paging compares the TIMESTAMP column itself, so rows stored before it existed
+-- must be given a timestamp of 0 or they are skipped
+UPDATE ENCRYPTED_TRANSACTION SET TIMESTAMP = 0 WHERE TIMESTAMP IS NULL;
+ALTER TABLE ENCRYPTED_TRANSACTION ADD INDEX ENCRYPTED_TRANSACTION_TSHASH (TIMESTAMP, HASH);
+ALTER TABLE ST_TRANSACTION ADD INDEX ST_TRANSACTION_VALSTG_HASH (VALIDATION_STAGE, HASH, ID);
@@ -0,0 +1,5 @@
+-- required: keyset paging compares the TIMESTAMP column itself, so rows stored before it existed
+-- must be given a timestamp of 0 or they are skipped
+UPDATE ENCRYPTED_TRANSACTION SET TIMESTAMP = 0 WHERE TIMESTAMP IS NULL;
+CREATE INDEX ENCRYPTED_TRANSACTION_TSHASH ON ENCRYPTED_TRANSACTION(TIMESTAMP, HASH);
+CREATE INDEX ST_TRANSACTION_VALSTG_HASH ON ST_TRANSACTION(VALIDATION_STAGE, HASH, ID);
@@ -0,0 +1,2 @@
+CREATE TABLE ENCRYPTED_TRANSACTION_RECIPIENT (RECIPIENT_KEY VARBINARY(100) NOT NULL, HASH VARBINARY(100) NOT NULL, PRIMARY KEY (RECIPIENT_KEY, HASH));
+ALTER TABLE ENCRYPTED_TRANSACTION_RECIPIENT ADD INDEX ENCRYPTED_TRANSACTION_RECIPIENT_HASH (HASH);
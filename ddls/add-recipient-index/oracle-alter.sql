@@ -0,0 +1,2 @@
+CREATE TABLE ENCRYPTED_TRANSACTION_RECIPIENT (RECIPIENT_KEY RAW(100) NOT NULL, HASH RAW(100) NOT NULL, PRIMARY KEY (RECIPIENT_KEY, HASH));
+CREATE INDEX ENCRYPTED_TRANSACTION_RECIPIENT_HASH ON ENCRYPTED_TRANSACTION_RECIPIENT(HASH);
@@ -0,0 +1,2 @@
+CREATE TABLE ENCRYPTED_TRANSACTION_RECIPIENT (RECIPIENT_KEY BLOB NOT NULL, HASH BLOB NOT NULL, PRIMARY KEY (RECIPIENT_KEY, HASH));
+CREATE INDEX IF NOT EXISTS ENCRYPTED_TRANSACTION_RECIPIENT_HASH ON ENCRYPTED_TRANSACTION_RECIPIENT(HASH);
@@ -11,7 +11,8 @@ import org.eclipse.persistence.sessions.Session;
 
 /**
  * Quick and dirty sequence generator for staging data. Cannot be used for non staging use cass as
- * sequence only lives for duration of process.
+ * sequence only lives for duration of process, unless it is moved past the existing ids with
+ * {@link #startAfter(long)}.
  *
  * <h6>Usage</h6>
  *
@@ -37,6 +38,16 @@ public class AtomicLongSequence extends Sequence implements SessionCustomizer {
     super(SEQUENCE_NAME);
   }
 
+  /**
+   * Makes sure the values generated from now on are greater than the given value, so that rows
+   * stored by an earlier process are not given the same ids again.
+   *
+   * @param value the greatest id already in use
+   */
+  public static void startAfter(long value) {
+    SEQUENCE.accumulateAndGet(value, Math::max);
+  }
+
   @Override
   public void customize(Session session) throws Exception {
 
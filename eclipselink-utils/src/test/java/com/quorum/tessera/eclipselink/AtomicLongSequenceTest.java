@@ -55,6 +55,18 @@ public class AtomicLongSequenceTest {
     assertThat(anotherEntity.getId()).isNotNull().isNotEqualTo(someEntity.getId());
   }
 
+  @Test
+  public void startAfterMovesPastExistingIds() {
+    AtomicLongSequence atomicLongSequence = new AtomicLongSequence();
+    long current = (Long) atomicLongSequence.getGeneratedValue(null, null, null);
+
+    AtomicLongSequence.startAfter(current + 100);
+    assertThat(atomicLongSequence.getGeneratedValue(null, null, null)).isEqualTo(current + 101);
+
+    AtomicLongSequence.startAfter(1);
+    assertThat(atomicLongSequence.getGeneratedValue(null, null, null)).isEqualTo(current + 102);
+  }
+
   @Test(expected = UnsupportedOperationException.class)
   public void getGeneratedVectorIsNotSupported() {
     AtomicLongSequence atomicLongSequence = new AtomicLongSequence();
@@ -27,21 +27,10 @@ public interface BinaryEncoder {
    * @return the encoded byte array
    */
   default byte[] encodeArray(final List<byte[]> data) {
-    final byte[] elements =
-        data.stream()
-            .map(this::encodeField)
-            .reduce(
-                new byte[0],
-                (a, b) -> {
-                  final byte[] concat = new byte[a.length + b.length];
-                  System.arraycopy(a, 0, concat, 0, a.length);
-                  System.arraycopy(b, 0, concat, a.length, b.length);
-                  return concat;
-                });
+    final int length = data.stream().mapToInt(element -> Long.BYTES + element.length).sum();
 
-    return ByteBuffer.allocate(Long.BYTES + elements.length)
-        .putLong(data.size())
-        .put(elements)
-        .array();
+    final ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + length).putLong(data.size());
+    data.forEach(element -> buffer.putLong(element.length).put(element));
+    return buffer.array();
   }
 }
@@ -10,12 +10,22 @@ import java.util.*;
 
 public class CBOREncoder implements PayloadEncoder {
 
+  private static final int ESTIMATED_FIXED_SIZE = 256;
+
+  private static final int ESTIMATED_PER_RECIPIENT_SIZE = 64;
+
   final CBORFactory cborFactory = new CBORFactory();
 
   @Override
   public byte[] encode(EncodedPayload payload) {
 
-    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    // size the output up front from the variable length fields so it doesn't have to keep growing
+    final int estimatedSize =
+        ESTIMATED_FIXED_SIZE
+            + payload.getCipherText().length
+            + ESTIMATED_PER_RECIPIENT_SIZE * payload.getRecipientBoxes().size()
+            + ESTIMATED_PER_RECIPIENT_SIZE * payload.getRecipientKeys().size();
+    ByteArrayOutputStream output = new ByteArrayOutputStream(estimatedSize);
 
     try (CBORGenerator generator = cborFactory.createGenerator(output)) {
 
@@ -183,6 +193,50 @@ public class CBOREncoder implements PayloadEncoder {
     return payloadBuilder.build();
   }
 
+  @Override
+  public EncodedPayloadHeader decodeHeader(byte[] input) {
+
+    PublicKey senderKey = null;
+    PrivacyMode privacyMode = PrivacyMode.STANDARD_PRIVATE;
+    final List<PublicKey> recipientKeys = new ArrayList<>();
+
+    try (final CBORParser parser = cborFactory.createParser(input)) {
+
+      validateToken(JsonToken.START_OBJECT, parser.nextToken());
+
+      while (parser.nextFieldName() != null) {
+
+        if (parser.getCurrentName().equals("sender")) {
+          validateToken(JsonToken.VALUE_EMBEDDED_OBJECT, parser.nextToken());
+          senderKey = PublicKey.from(parser.getBinaryValue());
+          continue;
+        }
+
+        if (parser.getCurrentName().equals("recipients")) {
+          validateToken(JsonToken.START_ARRAY, parser.nextToken());
+          while (parser.nextToken() != JsonToken.END_ARRAY) {
+            recipientKeys.add(PublicKey.from(parser.getBinaryValue()));
+          }
+          continue;
+        }
+
+        if (parser.getCurrentName().equals("privacyFlag")) {
+          privacyMode = PrivacyMode.fromFlag(parser.nextIntValue(0));
+          continue;
+        }
+
+        // the parser only reads binary values when asked for them, so anything else is skipped
+        // over without being copied
+        parser.nextToken();
+        parser.skipChildren();
+      }
+    } catch (Exception ex) {
+      throw new RuntimeException("Unable to decode payload data. ", ex);
+    }
+
+    return new EncodedPayloadHeader(senderKey, privacyMode, recipientKeys);
+  }
+
   @Override
   public EncodedPayloadCodec encodedPayloadCodec() {
     return EncodedPayloadCodec.CBOR;
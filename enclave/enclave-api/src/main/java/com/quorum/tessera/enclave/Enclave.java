@@ -3,6 +3,7 @@ package com.quorum.tessera.enclave;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.service.Service;
 import java.util.List;
+import java.util.Optional;
 import java.util.ServiceLoader;
 import java.util.Set;
 
@@ -98,6 +99,16 @@ public interface Enclave extends Service {
    */
   byte[] unencryptTransaction(EncodedPayload payload, PublicKey providedKey);
 
+  /**
+   * Finds the key managed by this Enclave that the payload can be decrypted with, by opening only
+   * the recipient box of the payload with each managed key in turn. The cipher text is never
+   * decrypted.
+   *
+   * @param payload the encrypted payload, whose recipient keys may not be known
+   * @return the first managed key that can open the recipient box, or empty if there is none
+   */
+  Optional<PublicKey> findRecipientKey(EncodedPayload payload);
+
   /**
    * Decrypt a raw payload and fetch the original message. Throws an {@link
    * com.quorum.tessera.encryption.EncryptorException} if the provided public key OR one of the
@@ -7,6 +7,12 @@ import java.util.ServiceLoader;
 /** A client which interfaces with a remote {@link Enclave} over a defined transport mechanism. */
 public interface EnclaveClient extends Enclave {
 
+  /**
+   * Refreshes any view of the remote enclave's keys that the client holds locally. Clients that do
+   * not cache keys have nothing to do.
+   */
+  default void refreshKeys() {}
+
   default void validateEnclaveStatus() {
     if (status() == Service.Status.STOPPED) {
       throw new EnclaveNotAvailableException();
@@ -9,10 +9,13 @@ import com.quorum.tessera.config.keys.KeyEncryptorFactory;
 import com.quorum.tessera.config.util.EnvironmentVariableProvider;
 import com.quorum.tessera.config.util.KeyDataUtil;
 import com.quorum.tessera.encryption.*;
+import java.lang.management.ManagementFactory;
 import java.util.Collection;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import javax.management.JMException;
+import javax.management.ObjectName;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -70,7 +73,19 @@ public class EnclaveFactoryImpl {
 
     LOGGER.debug("Creating enclave");
 
-    Enclave enclave = new EnclaveImpl(encryptor, new KeyManagerImpl(keys, forwardKeys));
+    final SharedKeyCache sharedKeyCache = SharedKeyCache.from(encryptorConfig.getProperties());
+    if (sharedKeyCache.isEnabled()) {
+      try {
+        ManagementFactory.getPlatformMBeanServer()
+            .registerMBean(
+                sharedKeyCache, new ObjectName("com.quorum.tessera:type=SharedKeyCache"));
+      } catch (JMException ex) {
+        LOGGER.warn("Unable to register SharedKeyCache metrics", ex);
+      }
+    }
+
+    Enclave enclave =
+        new EnclaveImpl(encryptor, new KeyManagerImpl(keys, forwardKeys), sharedKeyCache);
 
     LOGGER.debug("Created enclave {}", enclave);
 
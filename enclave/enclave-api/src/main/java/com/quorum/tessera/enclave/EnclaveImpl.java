@@ -3,6 +3,7 @@ package com.quorum.tessera.enclave;
 import com.quorum.tessera.encryption.*;
 import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 import org.bouncycastle.jcajce.provider.digest.SHA3;
 import org.slf4j.Logger;
@@ -16,9 +17,16 @@ public class EnclaveImpl implements Enclave {
 
   private final KeyManager keyManager;
 
+  private final SharedKeyCache sharedKeyCache;
+
   public EnclaveImpl(Encryptor encryptor, KeyManager keyManager) {
+    this(encryptor, keyManager, SharedKeyCache.disabled());
+  }
+
+  public EnclaveImpl(Encryptor encryptor, KeyManager keyManager, SharedKeyCache sharedKeyCache) {
     this.encryptor = Objects.requireNonNull(encryptor);
     this.keyManager = Objects.requireNonNull(keyManager);
+    this.sharedKeyCache = Objects.requireNonNull(sharedKeyCache);
   }
 
   @Override
@@ -187,7 +195,7 @@ public class EnclaveImpl implements Enclave {
     final PrivateKey privateKey = keyManager.getPrivateKeyForPublicKey(senderPublicKey);
 
     return recipientPublicKeys.stream()
-        .map(publicKey -> encryptor.computeSharedKey(publicKey, privateKey))
+        .map(publicKey -> computeSharedKey(publicKey, senderPublicKey, privateKey))
         .map(
             sharedKey ->
                 encryptor.sealAfterPrecomputation(
@@ -204,7 +212,7 @@ public class EnclaveImpl implements Enclave {
 
     final PrivateKey privateKey = keyManager.getPrivateKeyForPublicKey(sender);
 
-    final SharedKey sharedKey = encryptor.computeSharedKey(sender, privateKey);
+    final SharedKey sharedKey = computeSharedKey(sender, sender, privateKey);
     final byte[] encryptedMasterKey =
         encryptor.sealAfterPrecomputation(masterKey.getKeyBytes(), nonce, sharedKey);
 
@@ -214,8 +222,73 @@ public class EnclaveImpl implements Enclave {
   @Override
   public byte[] unencryptTransaction(
       final EncodedPayload payload, final PublicKey publicToFindPrivateFor) {
-    PublicKey senderPublicKey = payload.getSenderKey();
-    final RecipientBox recipientBox;
+
+    final SelectedRecipientBox selected =
+        selectRecipientBox(
+                payload,
+                publicToFindPrivateFor,
+                () -> this.getPublicKeys().contains(payload.getSenderKey()))
+            .orElseThrow(() -> new EnclaveException("recipient not found in listed keys"));
+
+    final PrivateKey privateKey = keyManager.getPrivateKeyForPublicKey(publicToFindPrivateFor);
+    final SharedKey sharedKey =
+        computeSharedKey(selected.senderPublicKey, publicToFindPrivateFor, privateKey);
+
+    final Nonce recipientNonce = payload.getRecipientNonce();
+
+    final byte[] masterKeyBytes =
+        encryptor.openAfterPrecomputation(
+            selected.recipientBox.getData(), recipientNonce, sharedKey);
+
+    final MasterKey masterKey = MasterKey.from(masterKeyBytes);
+
+    final byte[] cipherText = payload.getCipherText();
+    final Nonce cipherTextNonce = payload.getCipherTextNonce();
+
+    return encryptor.openAfterPrecomputation(cipherText, cipherTextNonce, masterKey);
+  }
+
+  @Override
+  public Optional<PublicKey> findRecipientKey(final EncodedPayload payload) {
+    if (payload.getRecipientBoxes().isEmpty()) {
+      return Optional.empty();
+    }
+
+    final Set<PublicKey> publicKeys = getPublicKeys();
+    final boolean isSender = publicKeys.contains(payload.getSenderKey());
+
+    for (final PublicKey publicKey : publicKeys) {
+      final Optional<byte[]> masterKeyBytes =
+          selectRecipientBox(payload, publicKey, () -> isSender)
+              .flatMap(
+                  selected ->
+                      encryptor.tryOpenAfterPrecomputation(
+                          selected.recipientBox.getData(),
+                          payload.getRecipientNonce(),
+                          computeSharedKey(
+                              selected.senderPublicKey,
+                              publicKey,
+                              keyManager.getPrivateKeyForPublicKey(publicKey))));
+
+      if (masterKeyBytes.isPresent()) {
+        Arrays.fill(masterKeyBytes.get(), (byte) 0);
+        return Optional.of(publicKey);
+      }
+      LOGGER.debug("Recipient box of payload cannot be opened with key, trying next key");
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Picks the recipient box of the payload that was sealed for the given key, along with the key
+   * it was sealed with on the other side.
+   *
+   * @return the box and the other key, or empty if the key has no box in the payload
+   */
+  private Optional<SelectedRecipientBox> selectRecipientBox(
+      final EncodedPayload payload,
+      final PublicKey publicToFindPrivateFor,
+      final BooleanSupplier isSenderManagedHere) {
 
     // Case 1: PSV transaction, only one box but all recipients known, but our keys come first
     // Case 2: we are a recipient, and only one single box is present, but no recipient key
@@ -226,75 +299,50 @@ public class EnclaveImpl implements Enclave {
 
     if (payload.getPrivacyMode() == PrivacyMode.PRIVATE_STATE_VALIDATION) {
       // Case 1
-      int index = payload.getRecipientKeys().indexOf(publicToFindPrivateFor);
-      if (index == -1) {
-        // this key was not listed as a recipient, exit early
-        throw new EnclaveException("recipient not found in listed keys");
-      }
-      recipientBox = payload.getRecipientBoxes().get(index);
+      return boxForListedKey(payload, publicToFindPrivateFor);
     } else if (payload.getRecipientKeys().isEmpty()) {
       // Case 2
       // we are just a standard recipient, so try the only box we have
       // we don't know if it will work, but no other choice
-      recipientBox = payload.getRecipientBoxes().get(0);
+      return Optional.of(
+          new SelectedRecipientBox(payload.getSenderKey(), payload.getRecipientBoxes().get(0)));
     } else if (payload.getRecipientKeys().contains(payload.getSenderKey())) {
       // Case 3
       // we are the sender, so any key (incl. the sender) privy should be in the recipient list
-      int index = payload.getRecipientKeys().indexOf(publicToFindPrivateFor);
-      if (index == -1) {
-        // this key was not listed as a recipient, exit early
-        throw new EnclaveException("recipient not found in listed keys");
-      }
-      recipientBox = payload.getRecipientBoxes().get(index);
-    } else {
-      // Cases 4 and 5
-      if (this.getPublicKeys().contains(payload.getSenderKey())) {
-        // Case 4
-
-        // all the keys available are the recipients
-
-        // Case 4.1, if the public key to find is the sender, then just pick the first box
-        // Case 4.2, otherwise, pick the key and the index
-
-        if (Objects.equals(payload.getSenderKey(), publicToFindPrivateFor)) {
-          // Case 4.1
-          // we are the sender, so choose some other key as the "sender"
-          senderPublicKey = payload.getRecipientKeys().get(0);
-          recipientBox = payload.getRecipientBoxes().get(0);
-        } else {
-          // Case 4.2
-          int index = payload.getRecipientKeys().indexOf(publicToFindPrivateFor);
-          if (index == -1) {
-            // this key was not listed as a recipient, exit early
-            throw new EnclaveException("recipient not found in listed keys");
-          }
-          recipientBox = payload.getRecipientBoxes().get(index);
-        }
-      } else {
-        // Case 5
-        int index = payload.getRecipientKeys().indexOf(publicToFindPrivateFor);
-        if (index == -1) {
-          // this key was not listed as a recipient, exit early
-          throw new EnclaveException("recipient not found in listed keys");
-        }
-        recipientBox = payload.getRecipientBoxes().get(index);
-      }
+      return boxForListedKey(payload, publicToFindPrivateFor);
+    } else if (isSenderManagedHere.getAsBoolean()
+        && Objects.equals(payload.getSenderKey(), publicToFindPrivateFor)) {
+      // Case 4.1
+      // we are the sender, so choose some other key as the "sender"
+      return Optional.of(
+          new SelectedRecipientBox(
+              payload.getRecipientKeys().get(0), payload.getRecipientBoxes().get(0)));
     }
+    // Cases 4.2 and 5
+    return boxForListedKey(payload, publicToFindPrivateFor);
+  }
 
-    final PrivateKey privateKey = keyManager.getPrivateKeyForPublicKey(publicToFindPrivateFor);
-    final SharedKey sharedKey = encryptor.computeSharedKey(senderPublicKey, privateKey);
-
-    final Nonce recipientNonce = payload.getRecipientNonce();
+  private static Optional<SelectedRecipientBox> boxForListedKey(
+      final EncodedPayload payload, final PublicKey publicToFindPrivateFor) {
+    final int index = payload.getRecipientKeys().indexOf(publicToFindPrivateFor);
+    if (index == -1 || index >= payload.getRecipientBoxes().size()) {
+      // this key was not listed as a recipient, exit early
+      return Optional.empty();
+    }
+    return Optional.of(
+        new SelectedRecipientBox(payload.getSenderKey(), payload.getRecipientBoxes().get(index)));
+  }
 
-    final byte[] masterKeyBytes =
-        encryptor.openAfterPrecomputation(recipientBox.getData(), recipientNonce, sharedKey);
+  private static final class SelectedRecipientBox {
 
-    final MasterKey masterKey = MasterKey.from(masterKeyBytes);
+    private final PublicKey senderPublicKey;
 
-    final byte[] cipherText = payload.getCipherText();
-    final Nonce cipherTextNonce = payload.getCipherTextNonce();
+    private final RecipientBox recipientBox;
 
-    return encryptor.openAfterPrecomputation(cipherText, cipherTextNonce, masterKey);
+    private SelectedRecipientBox(final PublicKey senderPublicKey, final RecipientBox recipientBox) {
+      this.senderPublicKey = senderPublicKey;
+      this.recipientBox = recipientBox;
+    }
   }
 
   @Override
@@ -302,7 +350,8 @@ public class EnclaveImpl implements Enclave {
 
     final PrivateKey senderPrivateKey = keyManager.getPrivateKeyForPublicKey(payload.getFrom());
 
-    final SharedKey sharedKey = encryptor.computeSharedKey(payload.getFrom(), senderPrivateKey);
+    final SharedKey sharedKey =
+        computeSharedKey(payload.getFrom(), payload.getFrom(), senderPrivateKey);
 
     final byte[] recipientBox = payload.getEncryptedKey();
 
@@ -323,7 +372,7 @@ public class EnclaveImpl implements Enclave {
       PublicKey recipient, PublicKey sender, Nonce nonce, byte[] encryptedKey) {
 
     final SharedKey sharedKey =
-        encryptor.computeSharedKey(recipient, keyManager.getPrivateKeyForPublicKey(sender));
+        computeSharedKey(recipient, sender, keyManager.getPrivateKeyForPublicKey(sender));
 
     final byte[] masterKeyBytes = encryptor.openAfterPrecomputation(encryptedKey, nonce, sharedKey);
 
@@ -371,6 +420,16 @@ public class EnclaveImpl implements Enclave {
         recipientPubKey, senderPubKey, encodedPayload.getRecipientNonce(), recipientBox);
   }
 
+  private SharedKey computeSharedKey(
+      final PublicKey remoteKey, final PublicKey localKey, final PrivateKey privateKey) {
+    return sharedKeyCache.get(
+        localKey, privateKey, remoteKey, () -> encryptor.computeSharedKey(remoteKey, privateKey));
+  }
+
+  SharedKeyCache getSharedKeyCache() {
+    return sharedKeyCache;
+  }
+
   @Override
   public PublicKey defaultPublicKey() {
     return keyManager.defaultPublicKey();
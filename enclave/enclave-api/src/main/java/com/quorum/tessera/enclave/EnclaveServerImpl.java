@@ -4,6 +4,7 @@ import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.service.Service;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 
 class EnclaveServerImpl implements EnclaveServer {
@@ -62,6 +63,11 @@ class EnclaveServerImpl implements EnclaveServer {
     return enclave.unencryptTransaction(payload, providedKey);
   }
 
+  @Override
+  public Optional<PublicKey> findRecipientKey(EncodedPayload payload) {
+    return enclave.findRecipientKey(payload);
+  }
+
   @Override
   public byte[] unencryptRawPayload(RawTransaction payload) {
     return enclave.unencryptRawPayload(payload);
@@ -0,0 +1,60 @@
+package com.quorum.tessera.enclave;
+
+import com.quorum.tessera.encryption.PublicKey;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The parties and privacy mode of an {@link EncodedPayload}, without its cipher text, nonces or
+ * recipient boxes. Useful where a stored payload only needs to be inspected, not decrypted.
+ */
+public class EncodedPayloadHeader {
+
+  private final PublicKey senderKey;
+
+  private final PrivacyMode privacyMode;
+
+  private final List<PublicKey> recipientKeys;
+
+  public EncodedPayloadHeader(
+      final PublicKey senderKey,
+      final PrivacyMode privacyMode,
+      final List<PublicKey> recipientKeys) {
+    this.senderKey = senderKey;
+    this.privacyMode = Objects.requireNonNullElse(privacyMode, PrivacyMode.STANDARD_PRIVATE);
+    this.recipientKeys = List.copyOf(recipientKeys);
+  }
+
+  public static EncodedPayloadHeader from(final EncodedPayload payload) {
+    return new EncodedPayloadHeader(
+        payload.getSenderKey(), payload.getPrivacyMode(), payload.getRecipientKeys());
+  }
+
+  public PublicKey getSenderKey() {
+    return senderKey;
+  }
+
+  public PrivacyMode getPrivacyMode() {
+    return privacyMode;
+  }
+
+  public List<PublicKey> getRecipientKeys() {
+    return recipientKeys;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (!(o instanceof EncodedPayloadHeader)) {
+      return false;
+    }
+    final EncodedPayloadHeader other = (EncodedPayloadHeader) o;
+    return Objects.equals(senderKey, other.senderKey)
+        && privacyMode == other.privacyMode
+        && Objects.equals(recipientKeys, other.recipientKeys);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(senderKey, privacyMode, recipientKeys);
+  }
+}
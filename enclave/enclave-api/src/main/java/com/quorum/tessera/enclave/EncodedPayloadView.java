@@ -0,0 +1,173 @@
+package com.quorum.tessera.enclave;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
+
+import com.quorum.tessera.encryption.PublicKey;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * A read-only view of a payload in the binary encoding produced by {@link PayloadEncoderImpl}.
+ *
+ * <p>Every field is a slice of the buffer the payload was decoded from, so nothing is copied until
+ * {@link #toEncodedPayload()} is called or a caller copies a field out itself. The source buffer
+ * must not be modified while the view is in use.
+ */
+public class EncodedPayloadView {
+
+  private final ByteBuffer senderKey;
+
+  private final ByteBuffer cipherText;
+
+  private final ByteBuffer cipherTextNonce;
+
+  private final List<ByteBuffer> recipientBoxes;
+
+  private final ByteBuffer recipientNonce;
+
+  private final List<ByteBuffer> recipientKeys;
+
+  private final PrivacyMode privacyMode;
+
+  private final Map<TxHash, ByteBuffer> affectedContractTransactions;
+
+  private final ByteBuffer execHash;
+
+  private final List<ByteBuffer> mandatoryRecipients;
+
+  private final ByteBuffer privacyGroupId;
+
+  EncodedPayloadView(
+      final ByteBuffer senderKey,
+      final ByteBuffer cipherText,
+      final ByteBuffer cipherTextNonce,
+      final List<ByteBuffer> recipientBoxes,
+      final ByteBuffer recipientNonce,
+      final List<ByteBuffer> recipientKeys,
+      final PrivacyMode privacyMode,
+      final Map<TxHash, ByteBuffer> affectedContractTransactions,
+      final ByteBuffer execHash,
+      final List<ByteBuffer> mandatoryRecipients,
+      final ByteBuffer privacyGroupId) {
+    this.senderKey = senderKey;
+    this.cipherText = cipherText;
+    this.cipherTextNonce = cipherTextNonce;
+    this.recipientBoxes = recipientBoxes;
+    this.recipientNonce = recipientNonce;
+    this.recipientKeys = recipientKeys;
+    this.privacyMode = privacyMode;
+    this.affectedContractTransactions = affectedContractTransactions;
+    this.execHash = execHash;
+    this.mandatoryRecipients = mandatoryRecipients;
+    this.privacyGroupId = privacyGroupId;
+  }
+
+  public ByteBuffer getSenderKey() {
+    return senderKey.duplicate();
+  }
+
+  public ByteBuffer getCipherText() {
+    return cipherText.duplicate();
+  }
+
+  public ByteBuffer getCipherTextNonce() {
+    return cipherTextNonce.duplicate();
+  }
+
+  public List<ByteBuffer> getRecipientBoxes() {
+    return recipientBoxes.stream().map(ByteBuffer::duplicate).collect(toList());
+  }
+
+  public ByteBuffer getRecipientNonce() {
+    return recipientNonce.duplicate();
+  }
+
+  public List<ByteBuffer> getRecipientKeys() {
+    return recipientKeys.stream().map(ByteBuffer::duplicate).collect(toList());
+  }
+
+  public PrivacyMode getPrivacyMode() {
+    return privacyMode;
+  }
+
+  public Map<TxHash, ByteBuffer> getAffectedContractTransactions() {
+    return affectedContractTransactions.entrySet().stream()
+        .collect(toMap(Map.Entry::getKey, e -> e.getValue().duplicate()));
+  }
+
+  public ByteBuffer getExecHash() {
+    return execHash.duplicate();
+  }
+
+  public List<ByteBuffer> getMandatoryRecipients() {
+    return mandatoryRecipients.stream().map(ByteBuffer::duplicate).collect(toList());
+  }
+
+  public Optional<ByteBuffer> getPrivacyGroupId() {
+    return Optional.ofNullable(privacyGroupId).map(ByteBuffer::duplicate);
+  }
+
+  /**
+   * Copy the parties and privacy mode out of the view, leaving the cipher text and recipient boxes
+   * uncopied.
+   *
+   * @return the header of the payload
+   */
+  public EncodedPayloadHeader toHeader() {
+    return new EncodedPayloadHeader(
+        PublicKey.from(toBytes(senderKey)),
+        privacyMode,
+        recipientKeys.stream()
+            .map(EncodedPayloadView::toBytes)
+            .map(PublicKey::from)
+            .collect(toList()));
+  }
+
+  /**
+   * Copy every field out of the view into a payload that no longer refers to the source buffer.
+   *
+   * @return the decoded payload
+   */
+  public EncodedPayload toEncodedPayload() {
+    final EncodedPayload.Builder builder =
+        EncodedPayload.Builder.create()
+            .withSenderKey(PublicKey.from(toBytes(senderKey)))
+            .withCipherText(toBytes(cipherText))
+            .withCipherTextNonce(toBytes(cipherTextNonce))
+            .withRecipientBoxes(
+                recipientBoxes.stream().map(EncodedPayloadView::toBytes).collect(toList()))
+            .withRecipientNonce(toBytes(recipientNonce))
+            .withRecipientKeys(
+                recipientKeys.stream()
+                    .map(EncodedPayloadView::toBytes)
+                    .map(PublicKey::from)
+                    .collect(toList()))
+            .withPrivacyMode(privacyMode)
+            .withAffectedContractTransactions(
+                affectedContractTransactions.entrySet().stream()
+                    .collect(toMap(Map.Entry::getKey, e -> toBytes(e.getValue()))))
+            .withExecHash(toBytes(execHash));
+
+    if (!mandatoryRecipients.isEmpty()) {
+      builder.withMandatoryRecipients(
+          mandatoryRecipients.stream()
+              .map(EncodedPayloadView::toBytes)
+              .map(PublicKey::from)
+              .collect(toSet()));
+    }
+
+    if (Objects.nonNull(privacyGroupId) && privacyGroupId.hasRemaining()) {
+      builder.withPrivacyGroupId(PrivacyGroup.Id.fromBytes(toBytes(privacyGroupId)));
+    }
+
+    return builder.build();
+  }
+
+  static byte[] toBytes(final ByteBuffer field) {
+    final byte[] bytes = new byte[field.remaining()];
+    field.duplicate().get(bytes);
+    return bytes;
+  }
+}
@@ -21,6 +21,17 @@ public interface PayloadEncoder {
    */
   EncodedPayload decode(byte[] input);
 
+  /**
+   * Decodes only the parties and privacy mode of an encoded payload, without copying out the
+   * cipher text or recipient boxes
+   *
+   * @param input The byte array to decode the header from
+   * @return the header of the encoded payload
+   */
+  default EncodedPayloadHeader decodeHeader(byte[] input) {
+    return EncodedPayloadHeader.from(decode(input));
+  }
+
   EncodedPayloadCodec encodedPayloadCodec();
 
   static PayloadEncoder create(EncodedPayloadCodec encodedPayloadCodec) {
@@ -4,229 +4,208 @@ import static java.util.Collections.*;
 import static java.util.stream.Collectors.toList;
 
 import com.quorum.tessera.encryption.PublicKey;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class PayloadEncoderImpl implements PayloadEncoder, BinaryEncoder {
 
   @Override
   public byte[] encode(final EncodedPayload payload) {
 
-    final byte[] senderKey = encodeField(payload.getSenderKey().getKeyBytes());
-    final byte[] cipherText = encodeField(payload.getCipherText());
-    final byte[] nonce = encodeField(payload.getCipherTextNonce().getNonceBytes());
-    final byte[] recipientNonce = encodeField(payload.getRecipientNonce().getNonceBytes());
-    final byte[] recipients =
-        encodeArray(
-            payload.getRecipientBoxes().stream()
-                .map(RecipientBox::getData)
-                .collect(Collectors.toUnmodifiableList()));
-    final byte[] recipientBytes =
-        encodeArray(
-            payload.getRecipientKeys().stream().map(PublicKey::getKeyBytes).collect(toList()));
+    final byte[] senderKey = payload.getSenderKey().getKeyBytes();
+    final byte[] cipherText = payload.getCipherText();
+    final byte[] nonce = payload.getCipherTextNonce().getNonceBytes();
+    final byte[] recipientNonce = payload.getRecipientNonce().getNonceBytes();
+    final List<byte[]> recipientBoxes =
+        payload.getRecipientBoxes().stream().map(RecipientBox::getData).collect(toList());
+    final List<byte[]> recipientKeys =
+        payload.getRecipientKeys().stream().map(PublicKey::getKeyBytes).collect(toList());
     final PrivacyMode privacyMode =
         Optional.ofNullable(payload.getPrivacyMode()).orElse(PrivacyMode.STANDARD_PRIVATE);
-    final byte[] privacyModeByte = encodeField(new byte[] {(byte) privacyMode.getPrivacyFlag()});
+    final byte[] privacyModeByte = new byte[] {(byte) privacyMode.getPrivacyFlag()};
+    final Map<TxHash, SecurityHash> affectedContractTransactions =
+        payload.getAffectedContractTransactions();
 
-    final int affectedContractsPayloadLength =
-        payload.getAffectedContractTransactions().entrySet().stream()
-                .mapToInt(
-                    entry -> entry.getKey().getBytes().length + entry.getValue().getData().length)
-                .sum() // total size of all keys and values
-            + Long.BYTES
-            + // the number of entries in the map
-            payload.getAffectedContractTransactions().size()
-                * 2
-                * Long.BYTES; // sizes of key and value lengths (for each entry)
-    final ByteBuffer affectedContractTxs = ByteBuffer.allocate(affectedContractsPayloadLength);
-    affectedContractTxs.putLong(payload.getAffectedContractTransactions().size());
-    for (Map.Entry<TxHash, SecurityHash> entry :
-        payload.getAffectedContractTransactions().entrySet()) {
-      affectedContractTxs.putLong(entry.getKey().getBytes().length);
-      affectedContractTxs.put(entry.getKey().getBytes());
-      affectedContractTxs.putLong(entry.getValue().getData().length);
-      affectedContractTxs.put(entry.getValue().getData());
-    }
-    byte[] executionHash = new byte[0];
+    byte[] executionHash = null;
     if (Objects.nonNull(payload.getExecHash()) && payload.getExecHash().length > 0) {
-      executionHash = encodeField(payload.getExecHash());
+      executionHash = payload.getExecHash();
     }
 
-    byte[] mandatoryRecipients = new byte[0];
+    List<byte[]> mandatoryRecipients = null;
     if (payload.getPrivacyMode() == PrivacyMode.MANDATORY_RECIPIENTS) {
       mandatoryRecipients =
-          encodeArray(
-              payload.getMandatoryRecipients().stream()
-                  .map(PublicKey::getKeyBytes)
-                  .collect(Collectors.toUnmodifiableList()));
+          payload.getMandatoryRecipients().stream().map(PublicKey::getKeyBytes).collect(toList());
     }
 
-    byte[] privacyGroupId =
-        payload
-            .getPrivacyGroupId()
-            .map(PrivacyGroup.Id::getBytes)
-            .map(this::encodeField)
-            .orElse(new byte[0]);
-
-    return ByteBuffer.allocate(
-            senderKey.length
-                + cipherText.length
-                + nonce.length
-                + recipients.length
-                + recipientNonce.length
-                + recipientBytes.length
-                + privacyModeByte.length
-                + affectedContractsPayloadLength
-                + executionHash.length
-                + mandatoryRecipients.length
-                + privacyGroupId.length)
-        .put(senderKey)
-        .put(cipherText)
-        .put(nonce)
-        .put(recipients)
-        .put(recipientNonce)
-        .put(recipientBytes)
-        .put(privacyModeByte)
-        .put(affectedContractTxs.array())
-        .put(executionHash)
-        .put(mandatoryRecipients)
-        .put(privacyGroupId)
-        .array();
-  }
+    final byte[] privacyGroupId =
+        payload.getPrivacyGroupId().map(PrivacyGroup.Id::getBytes).orElse(null);
 
-  @Override
-  public EncodedPayload decode(final byte[] input) {
-    final ByteBuffer buffer = ByteBuffer.wrap(input);
-
-    final long senderSize = buffer.getLong();
-    final byte[] senderKey = new byte[Math.toIntExact(senderSize)];
-    buffer.get(senderKey);
-
-    final long cipherTextSize = buffer.getLong();
-    final byte[] cipherText = new byte[Math.toIntExact(cipherTextSize)];
-    buffer.get(cipherText);
-
-    final long nonceSize = buffer.getLong();
-    final byte[] nonce = new byte[Math.toIntExact(nonceSize)];
-    buffer.get(nonce);
-
-    final long numberOfRecipients = buffer.getLong();
-    final List<byte[]> recipientBoxes = new ArrayList<>();
-    for (long i = 0; i < numberOfRecipients; i++) {
-      final long boxSize = buffer.getLong();
-      final byte[] box = new byte[Math.toIntExact(boxSize)];
-      buffer.get(box);
-      recipientBoxes.add(box);
+    final int affectedContractsPayloadLength =
+        Long.BYTES
+            + affectedContractTransactions.entrySet().stream()
+                .mapToInt(
+                    entry ->
+                        fieldLength(entry.getKey().getBytes())
+                            + fieldLength(entry.getValue().getData()))
+                .sum();
+
+    final int size =
+        fieldLength(senderKey)
+            + fieldLength(cipherText)
+            + fieldLength(nonce)
+            + arrayLength(recipientBoxes)
+            + fieldLength(recipientNonce)
+            + arrayLength(recipientKeys)
+            + fieldLength(privacyModeByte)
+            + affectedContractsPayloadLength
+            + (Objects.isNull(executionHash) ? 0 : fieldLength(executionHash))
+            + (Objects.isNull(mandatoryRecipients) ? 0 : arrayLength(mandatoryRecipients))
+            + (Objects.isNull(privacyGroupId) ? 0 : fieldLength(privacyGroupId));
+
+    // everything is written straight into a single buffer of the exact size needed
+    final ByteBuffer output = ByteBuffer.allocate(size);
+    putField(output, senderKey);
+    putField(output, cipherText);
+    putField(output, nonce);
+    putArray(output, recipientBoxes);
+    putField(output, recipientNonce);
+    putArray(output, recipientKeys);
+    putField(output, privacyModeByte);
+
+    output.putLong(affectedContractTransactions.size());
+    for (Map.Entry<TxHash, SecurityHash> entry : affectedContractTransactions.entrySet()) {
+      putField(output, entry.getKey().getBytes());
+      putField(output, entry.getValue().getData());
     }
 
-    final long recipientNonceSize = buffer.getLong();
-    final byte[] recipientNonce = new byte[Math.toIntExact(recipientNonceSize)];
-    buffer.get(recipientNonce);
-
-    EncodedPayload.Builder payloadBuilder = EncodedPayload.Builder.create();
-
-    payloadBuilder
-        .withSenderKey(PublicKey.from(senderKey))
-        .withCipherText(cipherText)
-        .withCipherTextNonce(nonce)
-        .withRecipientBoxes(recipientBoxes)
-        .withRecipientNonce(recipientNonce);
-
-    // this means there are no recipients in the payload (which we receive when we are a
-    // participant)
-    if (!buffer.hasRemaining()) {
-      return payloadBuilder
-          .withRecipientKeys(emptyList())
-          .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
-          .withAffectedContractTransactions(emptyMap())
-          .withExecHash(new byte[0])
-          .build();
+    if (Objects.nonNull(executionHash)) {
+      putField(output, executionHash);
     }
-
-    final long recipientLength = buffer.getLong();
-
-    final List<byte[]> recipientKeys = new ArrayList<>();
-    for (long i = 0; i < recipientLength; i++) {
-      final long boxSize = buffer.getLong();
-      final byte[] box = new byte[Math.toIntExact(boxSize)];
-      buffer.get(box);
-      recipientKeys.add(box);
+    if (Objects.nonNull(mandatoryRecipients)) {
+      putArray(output, mandatoryRecipients);
     }
-
-    payloadBuilder.withRecipientKeys(recipientKeys.stream().map(PublicKey::from).collect(toList()));
-
-    if (!buffer.hasRemaining()) {
-      return payloadBuilder
-          .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
-          .withAffectedContractTransactions(emptyMap())
-          .withExecHash(new byte[0])
-          .build();
+    if (Objects.nonNull(privacyGroupId)) {
+      putField(output, privacyGroupId);
     }
 
-    final long privacyFlagLength = buffer.getLong();
-    final byte[] privacyFlag = new byte[Math.toIntExact(privacyFlagLength)];
-    buffer.get(privacyFlag);
+    return output.array();
+  }
 
-    final long affectedContractTransactionsLength = buffer.getLong();
-    final Map<TxHash, byte[]> affectedContractTransactions = new HashMap<>();
-    for (long i = 0; i < affectedContractTransactionsLength; i++) {
-      final long txHashSize = buffer.getLong();
-      final byte[] txHash = new byte[Math.toIntExact(txHashSize)];
-      buffer.get(txHash);
+  @Override
+  public EncodedPayload decode(final byte[] input) {
+    return decodeView(ByteBuffer.wrap(input)).toEncodedPayload();
+  }
 
-      final long txSecHashSize = buffer.getLong();
-      final byte[] txSecHash = new byte[Math.toIntExact(txSecHashSize)];
-      buffer.get(txSecHash);
+  @Override
+  public EncodedPayloadHeader decodeHeader(final byte[] input) {
+    return decodeView(ByteBuffer.wrap(input)).toHeader();
+  }
 
-      affectedContractTransactions.put(new TxHash(txHash), txSecHash);
+  /**
+   * Decodes a payload into a view over the input, without copying any of its fields. The input's
+   * position is left unchanged.
+   *
+   * @param input the buffer holding the encoded payload, from its position to its limit
+   * @return a view of the payload backed by the input
+   */
+  public EncodedPayloadView decodeView(final ByteBuffer input) {
+    final ByteBuffer buffer = input.slice();
+
+    final ByteBuffer senderKey = sliceField(buffer);
+    final ByteBuffer cipherText = sliceField(buffer);
+    final ByteBuffer nonce = sliceField(buffer);
+    final List<ByteBuffer> recipientBoxes = sliceArray(buffer);
+    final ByteBuffer recipientNonce = sliceField(buffer);
+
+    List<ByteBuffer> recipientKeys = emptyList();
+    PrivacyMode privacyMode = PrivacyMode.STANDARD_PRIVATE;
+    Map<TxHash, ByteBuffer> affectedContractTransactions = emptyMap();
+    ByteBuffer executionHash = ByteBuffer.allocate(0);
+    List<ByteBuffer> mandatoryRecipients = emptyList();
+    ByteBuffer privacyGroupId = null;
+
+    // if there is nothing left then there are no recipients in the payload (which we receive when
+    // we are a participant)
+    if (buffer.hasRemaining()) {
+      recipientKeys = sliceArray(buffer);
     }
 
-    final PrivacyMode privacyMode = PrivacyMode.fromFlag(privacyFlag[0]);
-
-    byte[] executionHash = new byte[0];
     if (buffer.hasRemaining()) {
-      if (privacyMode == PrivacyMode.PRIVATE_STATE_VALIDATION) {
-        final long executionHashSize = buffer.getLong();
-        executionHash = new byte[Math.toIntExact(executionHashSize)];
-        buffer.get(executionHash);
+      final ByteBuffer privacyFlag = sliceField(buffer);
+
+      final long affectedContractTransactionsLength = buffer.getLong();
+      affectedContractTransactions = new HashMap<>();
+      for (long i = 0; i < affectedContractTransactionsLength; i++) {
+        final ByteBuffer txHash = sliceField(buffer);
+        final ByteBuffer txSecHash = sliceField(buffer);
+        affectedContractTransactions.put(
+            new TxHash(EncodedPayloadView.toBytes(txHash)), txSecHash);
       }
-    }
 
-    payloadBuilder
-        .withPrivacyMode(privacyMode)
-        .withAffectedContractTransactions(affectedContractTransactions)
-        .withExecHash(executionHash);
+      privacyMode = PrivacyMode.fromFlag(privacyFlag.get(0));
 
-    if (buffer.hasRemaining()) {
-      if (privacyMode == PrivacyMode.MANDATORY_RECIPIENTS) {
-        final long mandatoryRecipientLength = buffer.getLong();
-
-        final List<byte[]> mandatoryRecipients = new ArrayList<>();
-        for (long i = 0; i < mandatoryRecipientLength; i++) {
-          final long boxSize = buffer.getLong();
-          final byte[] box = new byte[Math.toIntExact(boxSize)];
-          buffer.get(box);
-          mandatoryRecipients.add(box);
-        }
-        payloadBuilder.withMandatoryRecipients(
-            mandatoryRecipients.stream().map(PublicKey::from).collect(Collectors.toSet()));
+      if (buffer.hasRemaining() && privacyMode == PrivacyMode.PRIVATE_STATE_VALIDATION) {
+        executionHash = sliceField(buffer);
       }
-    }
 
-    if (!buffer.hasRemaining()) {
-      return payloadBuilder.build();
+      if (buffer.hasRemaining() && privacyMode == PrivacyMode.MANDATORY_RECIPIENTS) {
+        mandatoryRecipients = sliceArray(buffer);
+      }
+
+      if (buffer.hasRemaining()) {
+        privacyGroupId = sliceField(buffer);
+      }
     }
 
-    final long privacyGroupIdSize = buffer.getLong();
-    final byte[] privacyGroupId = new byte[Math.toIntExact(privacyGroupIdSize)];
-    buffer.get(privacyGroupId);
+    return new EncodedPayloadView(
+        senderKey,
+        cipherText,
+        nonce,
+        recipientBoxes,
+        recipientNonce,
+        recipientKeys,
+        privacyMode,
+        affectedContractTransactions,
+        executionHash,
+        mandatoryRecipients,
+        privacyGroupId);
+  }
+
+  private static int fieldLength(final byte[] data) {
+    return Long.BYTES + data.length;
+  }
+
+  private static int arrayLength(final List<byte[]> data) {
+    return Long.BYTES + data.stream().mapToInt(PayloadEncoderImpl::fieldLength).sum();
+  }
+
+  private static void putField(final ByteBuffer output, final byte[] data) {
+    output.putLong(data.length).put(data);
+  }
 
-    if (privacyGroupId.length > 0) {
-      payloadBuilder.withPrivacyGroupId(PrivacyGroup.Id.fromBytes(privacyGroupId));
+  private static void putArray(final ByteBuffer output, final List<byte[]> data) {
+    output.putLong(data.size());
+    data.forEach(element -> putField(output, element));
+  }
+
+  private static ByteBuffer sliceField(final ByteBuffer buffer) {
+    final int size = Math.toIntExact(buffer.getLong());
+    if (size < 0 || size > buffer.remaining()) {
+      throw new BufferUnderflowException();
     }
+    final ByteBuffer field = buffer.slice(buffer.position(), size).asReadOnlyBuffer();
+    buffer.position(buffer.position() + size);
+    return field;
+  }
 
-    return payloadBuilder.build();
+  private static List<ByteBuffer> sliceArray(final ByteBuffer buffer) {
+    final long count = buffer.getLong();
+    final List<ByteBuffer> elements = new ArrayList<>();
+    for (long i = 0; i < count; i++) {
+      elements.add(sliceField(buffer));
+    }
+    return elements;
   }
 
   @Override
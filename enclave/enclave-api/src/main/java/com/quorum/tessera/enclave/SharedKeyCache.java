@@ -0,0 +1,204 @@
+package com.quorum.tessera.enclave;
+
+import com.quorum.tessera.encryption.PrivateKey;
+import com.quorum.tessera.encryption.PublicKey;
+import com.quorum.tessera.encryption.SharedKey;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A size bounded, least-recently-used cache of {@link SharedKey}s keyed by the local and remote
+ * public keys that were used to compute them.
+ *
+ * <p>Each entry remembers the private key it was computed with. If the private key held for a
+ * local public key changes then the key set is considered to have changed and the whole cache is
+ * wiped.
+ */
+public class SharedKeyCache implements SharedKeyCacheMXBean {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SharedKeyCache.class);
+
+  static final String MAX_ENTRIES_PROPERTY = "sharedKeyCacheMaxEntries";
+
+  static final String TTL_PROPERTY = "sharedKeyCacheTtlMillis";
+
+  static final int DEFAULT_MAX_ENTRIES = 1000;
+
+  static final long DEFAULT_TTL_MILLIS = 3600000L; // 1 hour
+
+  private final int maxEntries;
+
+  private final long ttlNanos;
+
+  private final LongSupplier clock;
+
+  private final Map<CacheKey, CacheEntry> entries;
+
+  private final LongAdder hits = new LongAdder();
+
+  private final LongAdder misses = new LongAdder();
+
+  public SharedKeyCache(final int maxEntries, final Duration ttl) {
+    this(maxEntries, ttl, System::nanoTime);
+  }
+
+  SharedKeyCache(final int maxEntries, final Duration ttl, final LongSupplier clock) {
+    this.maxEntries = Math.max(0, maxEntries);
+    this.ttlNanos = Objects.requireNonNull(ttl).toNanos();
+    this.clock = Objects.requireNonNull(clock);
+    this.entries =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest) {
+            return size() > SharedKeyCache.this.maxEntries;
+          }
+        };
+  }
+
+  public static SharedKeyCache disabled() {
+    return new SharedKeyCache(0, Duration.ZERO);
+  }
+
+  public static SharedKeyCache from(final Map<String, String> properties) {
+    final Map<String, String> props =
+        Optional.ofNullable(properties).orElse(Collections.emptyMap());
+    try {
+      final int maxEntries =
+          Integer.parseInt(
+              props.getOrDefault(MAX_ENTRIES_PROPERTY, String.valueOf(DEFAULT_MAX_ENTRIES)));
+      final long ttl =
+          Long.parseLong(props.getOrDefault(TTL_PROPERTY, String.valueOf(DEFAULT_TTL_MILLIS)));
+      return new SharedKeyCache(maxEntries, Duration.ofMillis(ttl));
+    } catch (NumberFormatException ex) {
+      LOGGER.warn("Not able to parse configured property. Will use default value instead");
+      return new SharedKeyCache(DEFAULT_MAX_ENTRIES, Duration.ofMillis(DEFAULT_TTL_MILLIS));
+    }
+  }
+
+  public boolean isEnabled() {
+    return maxEntries > 0 && ttlNanos > 0;
+  }
+
+  /**
+   * Returns the cached shared key for the given key pair, computing and caching it if it is not
+   * present or has expired.
+   *
+   * @param localKey the public key managed by this enclave
+   * @param privateKey the private key that corresponds to {@code localKey}
+   * @param remoteKey the other party's public key
+   * @param computation computes the shared key on a cache miss
+   * @return the shared key between the local and remote keys
+   */
+  public SharedKey get(
+      final PublicKey localKey,
+      final PrivateKey privateKey,
+      final PublicKey remoteKey,
+      final Supplier<SharedKey> computation) {
+
+    if (!isEnabled()) {
+      return computation.get();
+    }
+
+    final CacheKey cacheKey = new CacheKey(localKey, remoteKey);
+    final long now = clock.getAsLong();
+
+    synchronized (entries) {
+      final CacheEntry entry = entries.get(cacheKey);
+      if (entry != null) {
+        if (!Objects.equals(entry.privateKey, privateKey)) {
+          LOGGER.debug("Key set has changed, clearing shared key cache");
+          entries.clear();
+        } else if (now - entry.createdAt < ttlNanos) {
+          hits.increment();
+          return entry.sharedKey;
+        } else {
+          entries.remove(cacheKey);
+        }
+      }
+    }
+
+    misses.increment();
+    final SharedKey sharedKey = computation.get();
+
+    synchronized (entries) {
+      entries.put(cacheKey, new CacheEntry(privateKey, sharedKey, now));
+    }
+
+    return sharedKey;
+  }
+
+  public void invalidateAll() {
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  @Override
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  @Override
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  private static final class CacheKey {
+
+    private final PublicKey localKey;
+
+    private final PublicKey remoteKey;
+
+    CacheKey(PublicKey localKey, PublicKey remoteKey) {
+      this.localKey = localKey;
+      this.remoteKey = remoteKey;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof CacheKey)) {
+        return false;
+      }
+      CacheKey other = (CacheKey) o;
+      return Objects.equals(localKey, other.localKey) && Objects.equals(remoteKey, other.remoteKey);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(localKey, remoteKey);
+    }
+  }
+
+  private static final class CacheEntry {
+
+    private final PrivateKey privateKey;
+
+    private final SharedKey sharedKey;
+
+    private final long createdAt;
+
+    CacheEntry(PrivateKey privateKey, SharedKey sharedKey, long createdAt) {
+      this.privateKey = privateKey;
+      this.sharedKey = sharedKey;
+      this.createdAt = createdAt;
+    }
+  }
+}
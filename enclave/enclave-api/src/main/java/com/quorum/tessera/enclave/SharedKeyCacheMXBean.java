@@ -0,0 +1,11 @@
+package com.quorum.tessera.enclave;
+
+/** Statistics of the cache of shared keys computed by the enclave. */
+public interface SharedKeyCacheMXBean {
+
+  /** @return how many shared keys were served from the cache */
+  long getHitCount();
+
+  /** @return how many shared keys had to be computed */
+  long getMissCount();
+}
@@ -1,4 +1,5 @@
 module tessera.enclave.api {
+  requires java.management;
   requires tessera.config;
   requires tessera.encryption.api;
   requires tessera.keyvault.api;
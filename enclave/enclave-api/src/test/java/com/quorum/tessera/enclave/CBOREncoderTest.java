@@ -50,6 +50,33 @@ public class CBOREncoderTest {
     assertThat(result.getPrivacyGroupId()).isEmpty();
   }
 
+  @Test
+  public void decodeHeaderSkipsCipherTextAndBoxes() {
+
+    EncodedPayload payload =
+        EncodedPayload.Builder.from(standardPayload)
+            .withPrivacyMode(PrivacyMode.PARTY_PROTECTION)
+            .withAffectedContractTransactions(
+                Map.of(TxHash.from("txHash1".getBytes()), "securityHash1".getBytes()))
+            .build();
+
+    final EncodedPayloadHeader header = encoder.decodeHeader(encoder.encode(payload));
+
+    assertThat(header.getSenderKey()).isEqualTo(PublicKey.from("sender".getBytes()));
+    assertThat(header.getPrivacyMode()).isEqualTo(PrivacyMode.PARTY_PROTECTION);
+    assertThat(header.getRecipientKeys())
+        .containsExactly(
+            PublicKey.from("recipient1".getBytes()), PublicKey.from("recipient2".getBytes()));
+    assertThat(header).isEqualTo(EncodedPayloadHeader.from(payload));
+  }
+
+  @Test
+  public void decodeHeaderInvalidData() {
+    assertThatExceptionOfType(RuntimeException.class)
+        .isThrownBy(() -> encoder.decodeHeader("invalid".getBytes()))
+        .withMessageContaining("Unable to decode payload data. ");
+  }
+
   @Test
   public void testEncodeDecodePP() {
 
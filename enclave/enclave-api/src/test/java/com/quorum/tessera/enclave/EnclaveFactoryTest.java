@@ -6,8 +6,11 @@ import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
 import static org.mockito.Mockito.*;
 
 import com.quorum.tessera.config.*;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.stream.Stream;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import org.junit.Test;
 
 public class EnclaveFactoryTest {
@@ -144,6 +147,46 @@ public class EnclaveFactoryTest {
     assertThat(result).isInstanceOf(EnclaveImpl.class);
   }
 
+  @Test
+  public void createLocalRegistersSharedKeyCacheMetrics() throws Exception {
+    final ObjectName name = new ObjectName("com.quorum.tessera:type=SharedKeyCache");
+    final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    if (mBeanServer.isRegistered(name)) {
+      mBeanServer.unregisterMBean(name);
+    }
+
+    Config config = new Config();
+    config.setEncryptor(
+        new EncryptorConfig() {
+          {
+            setType(EncryptorType.NACL);
+          }
+        });
+
+    KeyConfiguration keyConfiguration = new KeyConfiguration();
+
+    KeyData keyData = new KeyData();
+    keyData.setPrivateKey("yAWAJjwPqUtNVlqGjSrBmr1/iIkghuOh1803Yzx9jLM=");
+    keyData.setPublicKey("/+UuD63zItL1EbjxkKUljMgG8Z1w0AJ8pNOR4iq2yQc=");
+    keyConfiguration.setKeyData(singletonList(keyData));
+    config.setKeys(keyConfiguration);
+
+    config.setAlwaysSendTo(new ArrayList<>());
+    EnclaveFactoryImpl enclaveFactory = new EnclaveFactoryImpl(config);
+
+    try {
+      assertThat(enclaveFactory.createLocal()).isInstanceOf(EnclaveImpl.class);
+      assertThat(mBeanServer.isRegistered(name)).isTrue();
+      assertThat(mBeanServer.getAttribute(name, "HitCount")).isEqualTo(0L);
+      assertThat(mBeanServer.getAttribute(name, "MissCount")).isEqualTo(0L);
+
+      // a second cache cannot take the name, which only loses its metrics
+      assertThat(enclaveFactory.createLocal()).isInstanceOf(EnclaveImpl.class);
+    } finally {
+      mBeanServer.unregisterMBean(name);
+    }
+  }
+
   @Test
   public void handleException() {
     Config config = mock(Config.class);
@@ -515,6 +515,162 @@ public class EnclaveTest {
     verify(keyManager).getPublicKeys();
   }
 
+  @Test
+  public void findRecipientKeyOfLegacyPayloadTriesEachKey() {
+    final PublicKey senderKey = PublicKey.from("senderKey".getBytes());
+    final PublicKey firstKey = PublicKey.from("firstKey".getBytes());
+    final PublicKey secondKey = PublicKey.from("secondKey".getBytes());
+    final RecipientBox recipientBox = RecipientBox.from("recipientBox".getBytes());
+    final Nonce recipientNonce = mock(Nonce.class);
+
+    final EncodedPayload payload =
+        EncodedPayload.Builder.create()
+            .withSenderKey(senderKey)
+            .withCipherText("cipherText".getBytes())
+            .withCipherTextNonce(mock(Nonce.class))
+            .withRecipientBox(recipientBox.getData())
+            .withRecipientNonce(recipientNonce)
+            .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
+            .build();
+
+    when(keyManager.getPublicKeys()).thenReturn(new LinkedHashSet<>(List.of(firstKey, secondKey)));
+
+    final PrivateKey firstPrivateKey = PrivateKey.from("firstPrivateKey".getBytes());
+    final PrivateKey secondPrivateKey = PrivateKey.from("secondPrivateKey".getBytes());
+    when(keyManager.getPrivateKeyForPublicKey(firstKey)).thenReturn(firstPrivateKey);
+    when(keyManager.getPrivateKeyForPublicKey(secondKey)).thenReturn(secondPrivateKey);
+
+    final SharedKey firstSharedKey = SharedKey.from("firstSharedKey".getBytes());
+    final SharedKey secondSharedKey = SharedKey.from("secondSharedKey".getBytes());
+    when(nacl.computeSharedKey(senderKey, firstPrivateKey)).thenReturn(firstSharedKey);
+    when(nacl.computeSharedKey(senderKey, secondPrivateKey)).thenReturn(secondSharedKey);
+
+    when(nacl.tryOpenAfterPrecomputation(recipientBox.getData(), recipientNonce, firstSharedKey))
+        .thenReturn(Optional.empty());
+    final byte[] masterKeyBytes = "masterKeyBytes".getBytes();
+    when(nacl.tryOpenAfterPrecomputation(recipientBox.getData(), recipientNonce, secondSharedKey))
+        .thenReturn(Optional.of(masterKeyBytes));
+
+    final Optional<PublicKey> result = enclave.findRecipientKey(payload);
+
+    assertThat(result).contains(secondKey);
+    assertThat(masterKeyBytes).containsOnly(0);
+
+    verify(keyManager).getPublicKeys();
+    verify(keyManager).getPrivateKeyForPublicKey(firstKey);
+    verify(keyManager).getPrivateKeyForPublicKey(secondKey);
+    verify(nacl).computeSharedKey(senderKey, firstPrivateKey);
+    verify(nacl).computeSharedKey(senderKey, secondPrivateKey);
+    verify(nacl).tryOpenAfterPrecomputation(recipientBox.getData(), recipientNonce, firstSharedKey);
+    verify(nacl)
+        .tryOpenAfterPrecomputation(recipientBox.getData(), recipientNonce, secondSharedKey);
+  }
+
+  @Test
+  public void findRecipientKeyWhenNoKeyOpensTheBox() {
+    final PublicKey senderKey = PublicKey.from("senderKey".getBytes());
+    final PublicKey localKey = PublicKey.from("localKey".getBytes());
+    final RecipientBox recipientBox = RecipientBox.from("recipientBox".getBytes());
+    final Nonce recipientNonce = mock(Nonce.class);
+
+    final EncodedPayload payload =
+        EncodedPayload.Builder.create()
+            .withSenderKey(senderKey)
+            .withCipherText("cipherText".getBytes())
+            .withCipherTextNonce(mock(Nonce.class))
+            .withRecipientBox(recipientBox.getData())
+            .withRecipientNonce(recipientNonce)
+            .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
+            .build();
+
+    when(keyManager.getPublicKeys()).thenReturn(Set.of(localKey));
+    final PrivateKey privateKey = PrivateKey.from("privateKey".getBytes());
+    when(keyManager.getPrivateKeyForPublicKey(localKey)).thenReturn(privateKey);
+    final SharedKey sharedKey = SharedKey.from("sharedKey".getBytes());
+    when(nacl.computeSharedKey(senderKey, privateKey)).thenReturn(sharedKey);
+    when(nacl.tryOpenAfterPrecomputation(recipientBox.getData(), recipientNonce, sharedKey))
+        .thenReturn(Optional.empty());
+
+    assertThat(enclave.findRecipientKey(payload)).isEmpty();
+
+    verify(keyManager).getPublicKeys();
+    verify(keyManager).getPrivateKeyForPublicKey(localKey);
+    verify(nacl).computeSharedKey(senderKey, privateKey);
+    verify(nacl).tryOpenAfterPrecomputation(recipientBox.getData(), recipientNonce, sharedKey);
+  }
+
+  @Test
+  public void findRecipientKeyOfPayloadWithoutBoxes() {
+    final EncodedPayload payload =
+        EncodedPayload.Builder.create()
+            .withSenderKey(PublicKey.from("senderKey".getBytes()))
+            .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
+            .build();
+
+    assertThat(enclave.findRecipientKey(payload)).isEmpty();
+  }
+
+  @Test
+  public void findRecipientKeySkipsKeysWithoutABox() {
+    final PublicKey senderKey = PublicKey.from("senderKey".getBytes());
+    final PublicKey recipientKey = PublicKey.from("recipientKey".getBytes());
+    final PublicKey otherRecipientKey = PublicKey.from("otherRecipientKey".getBytes());
+    final PublicKey unlistedKey = PublicKey.from("unlistedKey".getBytes());
+
+    // a PSV payload formatted for the first recipient only has the first recipient's box
+    final EncodedPayload payload =
+        EncodedPayload.Builder.create()
+            .withSenderKey(senderKey)
+            .withCipherText("cipherText".getBytes())
+            .withCipherTextNonce(mock(Nonce.class))
+            .withRecipientBox("recipientBox".getBytes())
+            .withRecipientNonce(mock(Nonce.class))
+            .withRecipientKeys(List.of(recipientKey, otherRecipientKey))
+            .withPrivacyMode(PrivacyMode.PRIVATE_STATE_VALIDATION)
+            .withExecHash("EXEC_HASH".getBytes())
+            .build();
+
+    when(keyManager.getPublicKeys()).thenReturn(Set.of(otherRecipientKey, unlistedKey));
+
+    assertThat(enclave.findRecipientKey(payload)).isEmpty();
+
+    verify(keyManager).getPublicKeys();
+  }
+
+  @Test
+  public void findRecipientKeyOfPayloadWeSentFromEarlyVersion() {
+    final PublicKey senderKey = PublicKey.from("senderKey".getBytes());
+    final PublicKey recipientKey = PublicKey.from("recipientKey".getBytes());
+    final RecipientBox recipientBox = RecipientBox.from("recipientBox".getBytes());
+    final Nonce recipientNonce = mock(Nonce.class);
+
+    final EncodedPayload payload =
+        EncodedPayload.Builder.create()
+            .withSenderKey(senderKey)
+            .withCipherText("cipherText".getBytes())
+            .withCipherTextNonce(mock(Nonce.class))
+            .withRecipientBox(recipientBox.getData())
+            .withRecipientKey(recipientKey)
+            .withRecipientNonce(recipientNonce)
+            .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
+            .build();
+
+    when(keyManager.getPublicKeys()).thenReturn(Set.of(senderKey));
+    final PrivateKey senderPrivateKey = PrivateKey.from("private-key".getBytes());
+    when(keyManager.getPrivateKeyForPublicKey(senderKey)).thenReturn(senderPrivateKey);
+    final SharedKey sharedKey = SharedKey.from("shared-key".getBytes());
+    when(nacl.computeSharedKey(recipientKey, senderPrivateKey)).thenReturn(sharedKey);
+    when(nacl.tryOpenAfterPrecomputation(recipientBox.getData(), recipientNonce, sharedKey))
+        .thenReturn(Optional.of("masterKeyBytes".getBytes()));
+
+    assertThat(enclave.findRecipientKey(payload)).contains(senderKey);
+
+    verify(keyManager).getPublicKeys();
+    verify(keyManager).getPrivateKeyForPublicKey(senderKey);
+    verify(nacl).computeSharedKey(recipientKey, senderPrivateKey);
+    verify(nacl).tryOpenAfterPrecomputation(recipientBox.getData(), recipientNonce, sharedKey);
+  }
+
   @Test
   public void unencryptRawPayload() {
 
@@ -0,0 +1,145 @@
+package com.quorum.tessera.enclave;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import com.quorum.tessera.encryption.Nonce;
+import com.quorum.tessera.encryption.PublicKey;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+
+public class EncodedPayloadViewTest {
+
+  private final PayloadEncoderImpl payloadEncoder = new PayloadEncoderImpl();
+
+  private final EncodedPayload payload =
+      EncodedPayload.Builder.create()
+          .withSenderKey(PublicKey.from("SENDER".getBytes()))
+          .withCipherText("CIPHER_TEXT".getBytes())
+          .withCipherTextNonce(new Nonce("NONCE".getBytes()))
+          .withRecipientBoxes(List.of("box1".getBytes(), "box2".getBytes()))
+          .withRecipientNonce(new Nonce("recipientNonce".getBytes()))
+          .withRecipientKeys(
+              List.of(PublicKey.from("KEY1".getBytes()), PublicKey.from("KEY2".getBytes())))
+          .withPrivacyMode(PrivacyMode.MANDATORY_RECIPIENTS)
+          .withAffectedContractTransactions(
+              Map.of(TxHash.from("hash1".getBytes()), "1".getBytes()))
+          .withMandatoryRecipients(Set.of(PublicKey.from("KEY1".getBytes())))
+          .withPrivacyGroupId(PrivacyGroup.Id.fromBytes("group".getBytes()))
+          .build();
+
+  @Test
+  public void fieldsAreViewsOfTheInput() {
+
+    final byte[] encoded = payloadEncoder.encode(payload);
+
+    final EncodedPayloadView view = payloadEncoder.decodeView(ByteBuffer.wrap(encoded));
+
+    assertThat(toBytes(view.getCipherText())).isEqualTo("CIPHER_TEXT".getBytes());
+
+    // changing the input is visible through the view, so nothing was copied
+    final int offset = indexOf(encoded, "CIPHER_TEXT".getBytes());
+    encoded[offset] = 'X';
+    assertThat(toBytes(view.getCipherText())).isEqualTo("XIPHER_TEXT".getBytes());
+  }
+
+  @Test
+  public void viewExposesEveryField() {
+
+    final EncodedPayloadView view =
+        payloadEncoder.decodeView(ByteBuffer.wrap(payloadEncoder.encode(payload)));
+
+    assertThat(toBytes(view.getSenderKey())).isEqualTo("SENDER".getBytes());
+    assertThat(toBytes(view.getCipherTextNonce())).isEqualTo("NONCE".getBytes());
+    assertThat(view.getRecipientBoxes())
+        .extracting(this::toBytes)
+        .containsExactly("box1".getBytes(), "box2".getBytes());
+    assertThat(toBytes(view.getRecipientNonce())).isEqualTo("recipientNonce".getBytes());
+    assertThat(view.getRecipientKeys())
+        .extracting(this::toBytes)
+        .containsExactly("KEY1".getBytes(), "KEY2".getBytes());
+    assertThat(view.getPrivacyMode()).isEqualTo(PrivacyMode.MANDATORY_RECIPIENTS);
+    assertThat(view.getAffectedContractTransactions()).hasSize(1);
+    assertThat(view.getAffectedContractTransactions())
+        .extractingByKey(TxHash.from("hash1".getBytes()))
+        .extracting(this::toBytes)
+        .isEqualTo("1".getBytes());
+    assertThat(view.getExecHash().hasRemaining()).isFalse();
+    assertThat(view.getMandatoryRecipients())
+        .extracting(this::toBytes)
+        .containsExactly("KEY1".getBytes());
+    assertThat(view.getPrivacyGroupId()).map(this::toBytes).contains("group".getBytes());
+  }
+
+  @Test
+  public void viewCopiesOutToEquivalentPayload() {
+
+    final EncodedPayloadView view =
+        payloadEncoder.decodeView(ByteBuffer.wrap(payloadEncoder.encode(payload)));
+
+    final EncodedPayload result = view.toEncodedPayload();
+
+    assertThat(result).isEqualTo(payload);
+    assertThat(result.getMandatoryRecipients()).isEqualTo(payload.getMandatoryRecipients());
+    assertThat(result.getPrivacyGroupId()).isEqualTo(payload.getPrivacyGroupId());
+    assertThat(view.toHeader()).isEqualTo(EncodedPayloadHeader.from(payload));
+  }
+
+  @Test
+  public void decodeViewStartsFromBufferPosition() {
+
+    final byte[] encoded = payloadEncoder.encode(payload);
+    final ByteBuffer buffer = ByteBuffer.allocate(encoded.length + 3);
+    buffer.put(new byte[] {1, 2, 3}).put(encoded).flip().position(3);
+
+    final EncodedPayloadView view = payloadEncoder.decodeView(buffer);
+
+    assertThat(view.toEncodedPayload()).isEqualTo(payload);
+    assertThat(buffer.position()).isEqualTo(3);
+  }
+
+  @Test
+  public void encodeAndDecodeThroughViewAreByteIdentical() {
+
+    final byte[] encoded = payloadEncoder.encode(payload);
+
+    final EncodedPayload decoded =
+        payloadEncoder.decodeView(ByteBuffer.wrap(encoded)).toEncodedPayload();
+
+    final byte[] reencoded = payloadEncoder.encode(decoded);
+
+    assertThat(reencoded).isEqualTo(encoded);
+  }
+
+  @Test
+  public void truncatedFieldIsRejected() {
+
+    final byte[] encoded = payloadEncoder.encode(payload);
+    final byte[] truncated = Arrays.copyOf(encoded, Long.BYTES + 2);
+
+    final Throwable throwable =
+        catchThrowable(() -> payloadEncoder.decodeView(ByteBuffer.wrap(truncated)));
+
+    assertThat(throwable).isInstanceOf(BufferUnderflowException.class);
+  }
+
+  private byte[] toBytes(final ByteBuffer buffer) {
+    final byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  private static int indexOf(final byte[] array, final byte[] target) {
+    for (int i = 0; i <= array.length - target.length; i++) {
+      if (Arrays.equals(array, i, i + target.length, target, 0, target.length)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
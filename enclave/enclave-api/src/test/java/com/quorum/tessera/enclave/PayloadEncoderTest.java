@@ -2116,6 +2116,54 @@ public class PayloadEncoderTest {
     assertThat(result.getMandatoryRecipients()).isEmpty();
   }
 
+  @Test
+  public void decodeHeaderPSV() {
+
+    final EncodedPayload payload =
+        EncodedPayload.Builder.create()
+            .withSenderKey(PublicKey.from("SENDER".getBytes()))
+            .withCipherText("CIPHER_TEXT".getBytes())
+            .withCipherTextNonce(new Nonce("NONCE".getBytes()))
+            .withRecipientBoxes(List.of("box1".getBytes(), "box2".getBytes()))
+            .withRecipientNonce(new Nonce("recipientNonce".getBytes()))
+            .withRecipientKeys(
+                List.of(PublicKey.from("KEY1".getBytes()), PublicKey.from("KEY2".getBytes())))
+            .withPrivacyMode(PrivacyMode.PRIVATE_STATE_VALIDATION)
+            .withAffectedContractTransactions(
+                Map.of(TxHash.from("hash1".getBytes()), "1".getBytes()))
+            .withExecHash("execHash".getBytes())
+            .build();
+
+    final EncodedPayloadHeader header =
+        payloadEncoder.decodeHeader(payloadEncoder.encode(payload));
+
+    assertThat(header).isEqualTo(EncodedPayloadHeader.from(payload));
+    assertThat(header.getSenderKey()).isEqualTo(PublicKey.from("SENDER".getBytes()));
+    assertThat(header.getPrivacyMode()).isEqualTo(PrivacyMode.PRIVATE_STATE_VALIDATION);
+    assertThat(header.getRecipientKeys())
+        .containsExactly(PublicKey.from("KEY1".getBytes()), PublicKey.from("KEY2".getBytes()));
+  }
+
+  @Test
+  public void decodeHeaderFromLegacyEncoderNoRecipient() {
+
+    LegacyEncodedPayload legacyPayload =
+        new LegacyEncodedPayload(
+            PublicKey.from("SENDER".getBytes()),
+            "CIPHER_TEXT".getBytes(),
+            new Nonce("NONCE".getBytes()),
+            singletonList("recipientBox".getBytes()),
+            new Nonce("recipientNonce".getBytes()),
+            emptyList());
+
+    final EncodedPayloadHeader header =
+        payloadEncoder.decodeHeader(legacyPayloadEncoder.encode(legacyPayload));
+
+    assertThat(header.getSenderKey()).isEqualTo(legacyPayload.getSenderKey());
+    assertThat(header.getRecipientKeys()).isEmpty();
+    assertThat(header.getPrivacyMode()).isEqualTo(PrivacyMode.STANDARD_PRIVATE);
+  }
+
   @Test
   public void encodeDecodePSVWithPrivacyGroupId() {
 
@@ -0,0 +1,128 @@
+package com.quorum.tessera.enclave;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import com.quorum.tessera.encryption.PrivateKey;
+import com.quorum.tessera.encryption.PublicKey;
+import com.quorum.tessera.encryption.SharedKey;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SharedKeyCacheTest {
+
+  private AtomicLong clock;
+
+  private SharedKeyCache cache;
+
+  private PublicKey localKey;
+
+  private PrivateKey privateKey;
+
+  private PublicKey remoteKey;
+
+  private Supplier<SharedKey> computation;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void onSetUp() {
+    clock = new AtomicLong();
+    cache = new SharedKeyCache(2, Duration.ofNanos(100), clock::get);
+    localKey = PublicKey.from("local".getBytes());
+    privateKey = PrivateKey.from("private".getBytes());
+    remoteKey = PublicKey.from("remote".getBytes());
+    computation = mock(Supplier.class);
+    when(computation.get()).thenReturn(SharedKey.from("shared".getBytes()));
+  }
+
+  @Test
+  public void repeatedLookupIsServedFromCache() {
+    SharedKey first = cache.get(localKey, privateKey, remoteKey, computation);
+    SharedKey second = cache.get(localKey, privateKey, remoteKey, computation);
+
+    assertThat(second).isSameAs(first);
+    assertThat(cache.getMissCount()).isEqualTo(1);
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    verify(computation).get();
+  }
+
+  @Test
+  public void expiredEntryIsRecomputed() {
+    cache.get(localKey, privateKey, remoteKey, computation);
+    clock.addAndGet(100);
+    cache.get(localKey, privateKey, remoteKey, computation);
+
+    assertThat(cache.getMissCount()).isEqualTo(2);
+    assertThat(cache.getHitCount()).isZero();
+    verify(computation, times(2)).get();
+  }
+
+  @Test
+  public void leastRecentlyUsedEntryIsEvicted() {
+    PublicKey otherRemote = PublicKey.from("other".getBytes());
+    PublicKey thirdRemote = PublicKey.from("third".getBytes());
+
+    cache.get(localKey, privateKey, remoteKey, computation);
+    cache.get(localKey, privateKey, otherRemote, computation);
+    cache.get(localKey, privateKey, remoteKey, computation);
+    cache.get(localKey, privateKey, thirdRemote, computation);
+
+    assertThat(cache.size()).isEqualTo(2);
+
+    cache.get(localKey, privateKey, remoteKey, computation);
+    cache.get(localKey, privateKey, otherRemote, computation);
+
+    assertThat(cache.getHitCount()).isEqualTo(2);
+    assertThat(cache.getMissCount()).isEqualTo(4);
+  }
+
+  @Test
+  public void changedPrivateKeyClearsCache() {
+    PublicKey otherRemote = PublicKey.from("other".getBytes());
+    cache.get(localKey, privateKey, remoteKey, computation);
+    cache.get(localKey, privateKey, otherRemote, computation);
+
+    PrivateKey rotated = PrivateKey.from("rotated".getBytes());
+    cache.get(localKey, rotated, remoteKey, computation);
+
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.getHitCount()).isZero();
+    verify(computation, times(3)).get();
+  }
+
+  @Test
+  public void invalidateAll() {
+    cache.get(localKey, privateKey, remoteKey, computation);
+    cache.invalidateAll();
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  public void disabledCacheAlwaysComputes() {
+    SharedKeyCache disabled = SharedKeyCache.disabled();
+    assertThat(disabled.isEnabled()).isFalse();
+
+    disabled.get(localKey, privateKey, remoteKey, computation);
+    disabled.get(localKey, privateKey, remoteKey, computation);
+
+    assertThat(disabled.size()).isZero();
+    verify(computation, times(2)).get();
+  }
+
+  @Test
+  public void fromProperties() {
+    SharedKeyCache configured =
+        SharedKeyCache.from(
+            Map.of(
+                SharedKeyCache.MAX_ENTRIES_PROPERTY, "0", SharedKeyCache.TTL_PROPERTY, "1000"));
+    assertThat(configured.isEnabled()).isFalse();
+
+    assertThat(SharedKeyCache.from(null).isEnabled()).isTrue();
+    assertThat(SharedKeyCache.from(Map.of(SharedKeyCache.TTL_PROPERTY, "bogus")).isEnabled())
+        .isTrue();
+  }
+}
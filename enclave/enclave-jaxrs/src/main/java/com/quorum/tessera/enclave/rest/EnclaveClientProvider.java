@@ -5,6 +5,7 @@ import com.quorum.tessera.enclave.EnclaveClient;
 import com.quorum.tessera.jaxrs.client.ClientFactory;
 import jakarta.ws.rs.client.Client;
 import java.util.Optional;
+import java.util.concurrent.Executors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,6 +29,7 @@ public class EnclaveClientProvider {
 
     Client client = clientFactory.buildFrom(serverConfig);
     LOGGER.info("Creating remoted enclave for {}", serverConfig.getServerUri());
-    return new RestfulEnclaveClient(client, serverConfig.getServerUri());
+    return new RestfulEnclaveClient(
+        client, serverConfig.getServerUri(), Executors.newSingleThreadExecutor(), true);
   }
 }
@@ -6,15 +6,21 @@ import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.service.Service;
 import jakarta.json.Json;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.Response.Status;
 import jakarta.ws.rs.core.StreamingOutput;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import org.bouncycastle.jcajce.provider.digest.SHA3;
 
 @Path("/")
 public class EnclaveResource {
@@ -80,6 +86,54 @@ public class EnclaveResource {
         .build();
   }
 
+  /**
+   * Returns the default, public and forwarding keys in a single response, tagged with a version of
+   * the key set so clients can cache the keys and make conditional requests for them.
+   */
+  @GET
+  @Produces(MediaType.APPLICATION_JSON)
+  @Path("keys")
+  public Response getKeys(@Context Request request) {
+
+    final List<PublicKey> publicKeys = sorted(enclave.getPublicKeys());
+    final List<PublicKey> forwardingKeys = sorted(enclave.getForwardingKeys());
+    final PublicKey defaultKey = enclave.defaultPublicKey();
+
+    final EntityTag entityTag =
+        new EntityTag(keySetVersion(defaultKey, publicKeys, forwardingKeys));
+
+    final Response.ResponseBuilder notModified = request.evaluatePreconditions(entityTag);
+    if (notModified != null) {
+      return notModified.build();
+    }
+
+    final EnclaveKeysPayload payload = new EnclaveKeysPayload();
+    payload.setDefaultKey(defaultKey.getKeyBytes());
+    payload.setPublicKeys(
+        publicKeys.stream().map(PublicKey::getKeyBytes).collect(Collectors.toList()));
+    payload.setForwardingKeys(
+        forwardingKeys.stream().map(PublicKey::getKeyBytes).collect(Collectors.toList()));
+
+    return Response.ok(payload).tag(entityTag).build();
+  }
+
+  private static List<PublicKey> sorted(Set<PublicKey> keys) {
+    return keys.stream()
+        .sorted(Comparator.comparing(PublicKey::encodeToBase64))
+        .collect(Collectors.toList());
+  }
+
+  private static String keySetVersion(
+      PublicKey defaultKey, List<PublicKey> publicKeys, List<PublicKey> forwardingKeys) {
+    final SHA3.DigestSHA3 digest = new SHA3.Digest256();
+    digest.update(defaultKey.getKeyBytes());
+    digest.update((byte) 0);
+    publicKeys.forEach(k -> digest.update(k.getKeyBytes()));
+    digest.update((byte) 0);
+    forwardingKeys.forEach(k -> digest.update(k.getKeyBytes()));
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest());
+  }
+
   @POST
   @Path("encrypt")
   @Consumes(MediaType.APPLICATION_JSON)
@@ -262,6 +316,24 @@ public class EnclaveResource {
     return Response.ok(streamingOutput).build();
   }
 
+  @POST
+  @Path("findrecipientkey")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_OCTET_STREAM)
+  public Response findRecipientKey(EnclaveUnencryptPayload enclaveUnencryptPayload) {
+
+    EncodedPayload payload = payloadEncoder.decode(enclaveUnencryptPayload.getData());
+
+    return enclave
+        .findRecipientKey(payload)
+        .map(
+            recipientKey -> {
+              final StreamingOutput streamingOutput = out -> out.write(recipientKey.getKeyBytes());
+              return Response.ok(streamingOutput).build();
+            })
+        .orElseGet(() -> Response.noContent().build());
+  }
+
   private List<AffectedTransaction> convertToAffectedTransactions(
       final List<KeyValuePair> keyValuePairs) {
     return keyValuePairs.stream()
@@ -6,13 +6,19 @@ import com.quorum.tessera.encryption.PublicKey;
 import jakarta.json.JsonArray;
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.client.Invocation;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import java.net.URI;
 import java.util.Base64;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import org.slf4j.Logger;
@@ -23,6 +29,8 @@ public class RestfulEnclaveClient implements EnclaveClient {
   private static final Logger LOGGER = LoggerFactory.getLogger(RestfulEnclaveClient.class);
   public static final int TIMEOUT = 2;
 
+  private static final String NOT_FOUND_MESSAGE = "HTTP 404 Not Found";
+
   private final Client client;
 
   private final URI uri;
@@ -31,20 +39,132 @@ public class RestfulEnclaveClient implements EnclaveClient {
 
   private final PayloadEncoder payloadEncoder;
 
+  private final boolean cacheKeys;
+
+  private final AtomicReference<KeySet> cachedKeys = new AtomicReference<>();
+
+  private volatile boolean separateKeyRequests;
+
+  private volatile boolean decryptToFindRecipientKey;
+
   public RestfulEnclaveClient(Client client, URI uri) {
     this(client, uri, Executors.newSingleThreadExecutor());
   }
 
   public RestfulEnclaveClient(Client client, URI uri, ExecutorService executorService) {
+    this(client, uri, executorService, false);
+  }
+
+  public RestfulEnclaveClient(
+      Client client, URI uri, ExecutorService executorService, boolean cacheKeys) {
     this.client = Objects.requireNonNull(client);
     this.uri = Objects.requireNonNull(uri);
     this.payloadEncoder = PayloadEncoder.create(EncodedPayloadCodec.LEGACY);
     this.executorService = executorService;
+    this.cacheKeys = cacheKeys;
+  }
+
+  /**
+   * Fetches the remote enclave's keys, sending the version of the currently cached key set so the
+   * remote enclave only sends the keys back if they have changed. An older remote enclave that
+   * cannot send its keys together has them fetched separately instead.
+   */
+  @Override
+  public void refreshKeys() {
+    if (!cacheKeys) {
+      return;
+    }
+
+    if (separateKeyRequests) {
+      cachedKeys.set(fetchKeysSeparately());
+      return;
+    }
+
+    ClientCallback.execute(
+        () -> {
+          final KeySet current = cachedKeys.get();
+
+          Invocation.Builder request =
+              client.target(uri).path("keys").request(MediaType.APPLICATION_JSON);
+          if (current != null) {
+            request = request.header(HttpHeaders.IF_NONE_MATCH, current.version);
+          }
+
+          final Response response = request.get();
+          if (response.getStatus() == Response.Status.NOT_MODIFIED.getStatusCode()) {
+            LOGGER.debug("Remote enclave keys unchanged");
+            return current;
+          }
+
+          if (isMissingEndpoint(response)) {
+            LOGGER.info("Remote enclave does not serve its keys together, will fetch separately");
+            separateKeyRequests = true;
+            final KeySet keySet = fetchKeysSeparately();
+            cachedKeys.set(keySet);
+            return keySet;
+          }
+
+          validateResponseIsOk(response);
+
+          final EnclaveKeysPayload payload = response.readEntity(EnclaveKeysPayload.class);
+
+          final KeySet keySet =
+              new KeySet(
+                  response.getEntityTag(),
+                  PublicKey.from(payload.getDefaultKey()),
+                  toPublicKeys(payload.getPublicKeys()),
+                  toPublicKeys(payload.getForwardingKeys()));
+
+          cachedKeys.set(keySet);
+          LOGGER.debug("Refreshed remote enclave keys, version {}", keySet.version);
+          return keySet;
+        });
+  }
+
+  private KeySet fetchKeysSeparately() {
+    return new KeySet(null, fetchDefaultPublicKey(), fetchPublicKeys(), fetchForwardingKeys());
+  }
+
+  private KeySet keySet() {
+    final KeySet current = cachedKeys.get();
+    if (current != null) {
+      return current;
+    }
+    refreshKeys();
+    return cachedKeys.get();
+  }
+
+  private static Set<PublicKey> toPublicKeys(List<byte[]> keys) {
+    return Optional.ofNullable(keys).orElse(List.of()).stream()
+        .map(PublicKey::from)
+        .collect(Collectors.toUnmodifiableSet());
   }
 
   @Override
   public PublicKey defaultPublicKey() {
+    if (cacheKeys) {
+      return keySet().defaultKey;
+    }
+    return fetchDefaultPublicKey();
+  }
 
+  @Override
+  public Set<PublicKey> getForwardingKeys() {
+    if (cacheKeys) {
+      return keySet().forwardingKeys;
+    }
+    return fetchForwardingKeys();
+  }
+
+  @Override
+  public Set<PublicKey> getPublicKeys() {
+    if (cacheKeys) {
+      return keySet().publicKeys;
+    }
+    return fetchPublicKeys();
+  }
+
+  private PublicKey fetchDefaultPublicKey() {
     return ClientCallback.execute(
         () -> {
           Response response = client.target(uri).path("default").request().get();
@@ -57,8 +177,7 @@ public class RestfulEnclaveClient implements EnclaveClient {
         });
   }
 
-  @Override
-  public Set<PublicKey> getForwardingKeys() {
+  private Set<PublicKey> fetchForwardingKeys() {
     return ClientCallback.execute(
         () -> {
           Response response = client.target(uri).path("forwarding").request().get();
@@ -75,8 +194,7 @@ public class RestfulEnclaveClient implements EnclaveClient {
         });
   }
 
-  @Override
-  public Set<PublicKey> getPublicKeys() {
+  private Set<PublicKey> fetchPublicKeys() {
     return ClientCallback.execute(
         () -> {
           Response response = client.target(uri).path("public").request().get();
@@ -279,6 +397,53 @@ public class RestfulEnclaveClient implements EnclaveClient {
         });
   }
 
+  /**
+   * Asks the remote enclave which of its keys the payload was sent to. An older remote enclave
+   * that cannot look the key up has the payload decrypted with each of its keys in turn instead.
+   */
+  @Override
+  public Optional<PublicKey> findRecipientKey(final EncodedPayload payload) {
+
+    if (decryptToFindRecipientKey) {
+      return decryptWithEachKey(payload);
+    }
+
+    return ClientCallback.execute(
+        () -> {
+          final EnclaveUnencryptPayload dto = new EnclaveUnencryptPayload();
+          dto.setData(payloadEncoder.encode(payload));
+
+          final Response response =
+              client.target(uri).path("findrecipientkey").request().post(Entity.json(dto));
+
+          if (isMissingEndpoint(response)) {
+            LOGGER.info("Remote enclave cannot find recipient keys, will decrypt with each key");
+            decryptToFindRecipientKey = true;
+            return decryptWithEachKey(payload);
+          }
+
+          if (response.getStatus() == Response.Status.NO_CONTENT.getStatusCode()) {
+            return Optional.empty();
+          }
+
+          validateResponseIsOk(response);
+
+          return Optional.of(PublicKey.from(response.readEntity(byte[].class)));
+        });
+  }
+
+  private Optional<PublicKey> decryptWithEachKey(final EncodedPayload payload) {
+    for (final PublicKey key : getPublicKeys()) {
+      try {
+        unencryptTransaction(payload, key);
+        return Optional.of(key);
+      } catch (EnclaveException ex) {
+        LOGGER.debug("Attempted payload decryption using wrong key, discarding.");
+      }
+    }
+    return Optional.empty();
+  }
+
   @Override
   public Set<TxHash> findInvalidSecurityHashes(
       EncodedPayload encodedPayload, List<AffectedTransaction> affectedContractTransactions) {
@@ -331,6 +496,17 @@ public class RestfulEnclaveClient implements EnclaveClient {
     }
   }
 
+  /**
+   * An older remote enclave does not have the endpoint at all. Its exception mapper turns the not
+   * found error into an internal server error, with the not found message as the body.
+   */
+  private static boolean isMissingEndpoint(Response response) {
+    if (response.getStatus() != Response.Status.INTERNAL_SERVER_ERROR.getStatusCode()) {
+      return response.getStatus() == Response.Status.NOT_FOUND.getStatusCode();
+    }
+    return NOT_FOUND_MESSAGE.equals(response.readEntity(String.class));
+  }
+
   private static void validateResponseIsOk(Response response) {
     if (response.getStatus() != 200) {
       Response.StatusType statusInfo = response.getStatusInfo();
@@ -343,6 +519,28 @@ public class RestfulEnclaveClient implements EnclaveClient {
     }
   }
 
+  private static final class KeySet {
+
+    private final EntityTag version;
+
+    private final PublicKey defaultKey;
+
+    private final Set<PublicKey> publicKeys;
+
+    private final Set<PublicKey> forwardingKeys;
+
+    KeySet(
+        EntityTag version,
+        PublicKey defaultKey,
+        Set<PublicKey> publicKeys,
+        Set<PublicKey> forwardingKeys) {
+      this.version = version;
+      this.defaultKey = defaultKey;
+      this.publicKeys = publicKeys;
+      this.forwardingKeys = forwardingKeys;
+    }
+  }
+
   private List<KeyValuePair> convertAffectedContractTransactions(
       List<AffectedTransaction> affectedContractTransactions) {
     return affectedContractTransactions.stream()
@@ -130,6 +130,113 @@ public class RestfulEnclaveClientTest {
     verify(enclave).getForwardingKeys();
   }
 
+  @Test
+  public void cachedKeysAreFetchedOnce() {
+
+    RestfulEnclaveClient cachingClient =
+        new RestfulEnclaveClient(
+            jersey.client(), jersey.target().getUri(), mock(ExecutorService.class), true);
+
+    PublicKey key = PublicKey.from("HELLOW".getBytes());
+    PublicKey forwardingKey = PublicKey.from("FORWARD".getBytes());
+
+    when(enclave.defaultPublicKey()).thenReturn(key);
+    when(enclave.getPublicKeys()).thenReturn(Collections.singleton(key));
+    when(enclave.getForwardingKeys()).thenReturn(Collections.singleton(forwardingKey));
+
+    assertThat(cachingClient.defaultPublicKey()).isEqualTo(key);
+    assertThat(cachingClient.getPublicKeys()).containsExactly(key);
+    assertThat(cachingClient.getForwardingKeys()).containsExactly(forwardingKey);
+
+    verify(enclave).defaultPublicKey();
+    verify(enclave).getPublicKeys();
+    verify(enclave).getForwardingKeys();
+  }
+
+  @Test
+  public void refreshKeysPicksUpChangedKeys() {
+
+    RestfulEnclaveClient cachingClient =
+        new RestfulEnclaveClient(
+            jersey.client(), jersey.target().getUri(), mock(ExecutorService.class), true);
+
+    PublicKey key = PublicKey.from("HELLOW".getBytes());
+    PublicKey otherKey = PublicKey.from("OTHER".getBytes());
+
+    when(enclave.defaultPublicKey()).thenReturn(key);
+    when(enclave.getPublicKeys())
+        .thenReturn(Collections.singleton(key))
+        .thenReturn(Collections.singleton(key))
+        .thenReturn(Set.of(key, otherKey));
+    when(enclave.getForwardingKeys()).thenReturn(Collections.emptySet());
+
+    assertThat(cachingClient.getPublicKeys()).containsExactly(key);
+
+    cachingClient.refreshKeys();
+    assertThat(cachingClient.getPublicKeys()).containsExactly(key);
+
+    cachingClient.refreshKeys();
+    assertThat(cachingClient.getPublicKeys()).containsExactlyInAnyOrder(key, otherKey);
+
+    verify(enclave, times(3)).defaultPublicKey();
+    verify(enclave, times(3)).getPublicKeys();
+    verify(enclave, times(3)).getForwardingKeys();
+  }
+
+  @Test
+  public void olderEnclaveHasItsKeysFetchedSeparately() throws Exception {
+
+    JerseyTest olderEnclave = Util.create(enclave, Set.of("keys"));
+    olderEnclave.setUp();
+
+    try {
+      RestfulEnclaveClient cachingClient =
+          new RestfulEnclaveClient(
+              olderEnclave.client(),
+              olderEnclave.target().getUri(),
+              mock(ExecutorService.class),
+              true);
+
+      PublicKey key = PublicKey.from("HELLOW".getBytes());
+      PublicKey forwardingKey = PublicKey.from("FORWARD".getBytes());
+
+      when(enclave.defaultPublicKey()).thenReturn(key);
+      when(enclave.getPublicKeys()).thenReturn(Collections.singleton(key));
+      when(enclave.getForwardingKeys()).thenReturn(Collections.singleton(forwardingKey));
+
+      assertThat(cachingClient.defaultPublicKey()).isEqualTo(key);
+      assertThat(cachingClient.getPublicKeys()).containsExactly(key);
+
+      cachingClient.refreshKeys();
+      assertThat(cachingClient.getForwardingKeys()).containsExactly(forwardingKey);
+
+      verify(enclave, times(2)).defaultPublicKey();
+      verify(enclave, times(2)).getPublicKeys();
+      verify(enclave, times(2)).getForwardingKeys();
+    } finally {
+      olderEnclave.tearDown();
+    }
+  }
+
+  @Test
+  public void refreshKeysFailsWhenRemoteEnclaveReturnsError() {
+
+    RestfulEnclaveClient cachingClient =
+        new RestfulEnclaveClient(
+            jersey.client(), jersey.target().getUri(), mock(ExecutorService.class), true);
+
+    when(enclave.getPublicKeys()).thenThrow(new RuntimeException("Cannot read keys"));
+
+    assertThatThrownBy(cachingClient::refreshKeys).isInstanceOf(EnclaveException.class);
+
+    verify(enclave).getPublicKeys();
+  }
+
+  @Test
+  public void refreshKeysDoesNothingWhenNotCaching() {
+    enclaveClient.refreshKeys();
+  }
+
   @Test
   public void encryptPayload() {
 
@@ -458,6 +565,89 @@ public class RestfulEnclaveClientTest {
     verify(enclave).createNewRecipientBox(any(EncodedPayload.class), any(PublicKey.class));
   }
 
+  @Test
+  public void findRecipientKey() {
+
+    EncodedPayload payload = Fixtures.createSample();
+
+    PublicKey recipientKey = PublicKey.from("RecipientKey".getBytes());
+
+    when(enclave.findRecipientKey(any(EncodedPayload.class))).thenReturn(Optional.of(recipientKey));
+
+    Optional<PublicKey> result = enclaveClient.findRecipientKey(payload);
+
+    assertThat(result).contains(recipientKey);
+
+    verify(enclave).findRecipientKey(any(EncodedPayload.class));
+  }
+
+  @Test
+  public void findRecipientKeyWhenNoneFound() {
+
+    EncodedPayload payload = Fixtures.createSample();
+
+    when(enclave.findRecipientKey(any(EncodedPayload.class))).thenReturn(Optional.empty());
+
+    Optional<PublicKey> result = enclaveClient.findRecipientKey(payload);
+
+    assertThat(result).isEmpty();
+
+    verify(enclave).findRecipientKey(any(EncodedPayload.class));
+  }
+
+  @Test
+  public void olderEnclaveFindsRecipientKeyByDecrypting() throws Exception {
+
+    JerseyTest olderEnclave = Util.create(enclave, Set.of("findrecipientkey"));
+    olderEnclave.setUp();
+
+    try {
+      RestfulEnclaveClient olderEnclaveClient =
+          new RestfulEnclaveClient(olderEnclave.client(), olderEnclave.target().getUri());
+
+      EncodedPayload payload = Fixtures.createSample();
+      PublicKey recipientKey = PublicKey.from("RecipientKey".getBytes());
+
+      when(enclave.getPublicKeys()).thenReturn(Set.of(recipientKey));
+      when(enclave.unencryptTransaction(any(EncodedPayload.class), eq(recipientKey)))
+          .thenReturn("Message".getBytes());
+
+      assertThat(olderEnclaveClient.findRecipientKey(payload)).contains(recipientKey);
+      assertThat(olderEnclaveClient.findRecipientKey(payload)).contains(recipientKey);
+
+      verify(enclave, times(2)).getPublicKeys();
+      verify(enclave, times(2)).unencryptTransaction(any(EncodedPayload.class), eq(recipientKey));
+    } finally {
+      olderEnclave.tearDown();
+    }
+  }
+
+  @Test
+  public void olderEnclaveWithoutRecipientKey() throws Exception {
+
+    JerseyTest olderEnclave = Util.create(enclave, Set.of("findrecipientkey"));
+    olderEnclave.setUp();
+
+    try {
+      RestfulEnclaveClient olderEnclaveClient =
+          new RestfulEnclaveClient(olderEnclave.client(), olderEnclave.target().getUri());
+
+      EncodedPayload payload = Fixtures.createSample();
+      PublicKey otherKey = PublicKey.from("OtherKey".getBytes());
+
+      when(enclave.getPublicKeys()).thenReturn(Set.of(otherKey));
+      when(enclave.unencryptTransaction(any(EncodedPayload.class), eq(otherKey)))
+          .thenThrow(new EnclaveException("Cannot decrypt"));
+
+      assertThat(olderEnclaveClient.findRecipientKey(payload)).isEmpty();
+
+      verify(enclave).getPublicKeys();
+      verify(enclave).unencryptTransaction(any(EncodedPayload.class), eq(otherKey));
+    } finally {
+      olderEnclave.tearDown();
+    }
+  }
+
   @Test
   public void statusStarted() {
     when(enclave.status()).thenReturn(Status.STARTED);
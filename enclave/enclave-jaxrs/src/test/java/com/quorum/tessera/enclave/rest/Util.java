@@ -2,7 +2,12 @@ package com.quorum.tessera.enclave.rest;
 
 import com.quorum.tessera.enclave.Enclave;
 import jakarta.ws.rs.core.Application;
+import jakarta.ws.rs.core.Configuration;
+import java.util.Set;
 import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.model.ModelProcessor;
+import org.glassfish.jersey.server.model.Resource;
+import org.glassfish.jersey.server.model.ResourceModel;
 import org.glassfish.jersey.test.JerseyTest;
 import org.glassfish.jersey.test.TestProperties;
 import org.slf4j.bridge.SLF4JBridgeHandler;
@@ -10,6 +15,14 @@ import org.slf4j.bridge.SLF4JBridgeHandler;
 public class Util {
 
   public static JerseyTest create(Enclave enclave) {
+    return create(enclave, Set.of());
+  }
+
+  /**
+   * Creates an enclave server that does not serve the given paths, as an older enclave that
+   * predates them would.
+   */
+  public static JerseyTest create(Enclave enclave, Set<String> missingPaths) {
 
     SLF4JBridgeHandler.removeHandlersForRootLogger();
     SLF4JBridgeHandler.install();
@@ -22,8 +35,43 @@ public class Util {
         enable(TestProperties.DUMP_ENTITY);
         set(TestProperties.CONTAINER_PORT, "0");
 
-        return ResourceConfig.forApplication(new EnclaveApplication(enclave));
+        final ResourceConfig resourceConfig =
+            ResourceConfig.forApplication(new EnclaveApplication(enclave));
+        if (!missingPaths.isEmpty()) {
+          resourceConfig.register(new WithoutPaths(missingPaths));
+        }
+        return resourceConfig;
       }
     };
   }
+
+  private static class WithoutPaths implements ModelProcessor {
+
+    private final Set<String> missingPaths;
+
+    WithoutPaths(Set<String> missingPaths) {
+      this.missingPaths = missingPaths;
+    }
+
+    @Override
+    public ResourceModel processResourceModel(
+        ResourceModel resourceModel, Configuration configuration) {
+      final ResourceModel.Builder builder = new ResourceModel.Builder(false);
+      for (Resource resource : resourceModel.getResources()) {
+        final Resource.Builder resourceBuilder = Resource.builder(resource.getPath());
+        resource.getResourceMethods().forEach(resourceBuilder::addMethod);
+        resource.getChildResources().stream()
+            .filter(child -> !missingPaths.contains(child.getPath().replaceFirst("^/", "")))
+            .forEach(resourceBuilder::addChildResource);
+        builder.addResource(resourceBuilder.build());
+      }
+      return builder.build();
+    }
+
+    @Override
+    public ResourceModel processSubResource(
+        ResourceModel subResourceModel, Configuration configuration) {
+      return subResourceModel;
+    }
+  }
 }
@@ -1,5 +1,7 @@
 package com.quorum.tessera.encryption;
 
+import java.util.Optional;
+
 /**
  * The API provided to the application that all implementation of this API module should extend
  *
@@ -69,6 +71,24 @@ public interface Encryptor {
    */
   byte[] openAfterPrecomputation(byte[] cipherText, Nonce nonce, SharedKey sharedKey);
 
+  /**
+   * Decrypts a payload using a shared key that may not be the one it was encrypted with, such as
+   * when searching for the key a payload was sent to. A key that does not fit is not an error.
+   *
+   * @param cipherText The encrypted payload
+   * @param nonce The nonce that was used to encrypt this payload
+   * @param sharedKey The shared key to try
+   * @return The decrypted payload, or empty if the payload could not be opened with the shared key
+   */
+  default Optional<byte[]> tryOpenAfterPrecomputation(
+      byte[] cipherText, Nonce nonce, SharedKey sharedKey) {
+    try {
+      return Optional.of(openAfterPrecomputation(cipherText, nonce, sharedKey));
+    } catch (EncryptorException ex) {
+      return Optional.empty();
+    }
+  }
+
   /**
    * Generates a new random nonce of the correct size
    *
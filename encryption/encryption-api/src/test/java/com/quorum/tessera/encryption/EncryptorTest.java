@@ -3,6 +3,7 @@ package com.quorum.tessera.encryption;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 
+import java.util.Optional;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -41,6 +42,37 @@ public class EncryptorTest {
     assertThat(result).isEqualTo(outcome);
   }
 
+  @Test
+  public void tryOpenAfterPrecomputation() {
+    byte[] cipherText = "CIPHER_TEXT".getBytes();
+    Nonce nonce = mock(Nonce.class);
+    SharedKey sharedKey = SharedKey.from("".getBytes());
+
+    Optional<byte[]> result = encryptor.tryOpenAfterPrecomputation(cipherText, nonce, sharedKey);
+
+    assertThat(result)
+        .hasValueSatisfying(
+            r -> assertThat(r).isEqualTo("openAfterPrecomputationWithSharedKey".getBytes()));
+  }
+
+  @Test
+  public void tryOpenAfterPrecomputationWithWrongKey() {
+    Encryptor failingEncryptor =
+        new MockNaclFacade() {
+          @Override
+          public byte[] openAfterPrecomputation(
+              byte[] cipherText, Nonce nonce, SharedKey sharedKey) {
+            throw new EncryptorException("wrong key");
+          }
+        };
+
+    Optional<byte[]> result =
+        failingEncryptor.tryOpenAfterPrecomputation(
+            "CIPHER_TEXT".getBytes(), mock(Nonce.class), SharedKey.from("".getBytes()));
+
+    assertThat(result).isEmpty();
+  }
+
   @Test
   public void createMasterKey() {
 
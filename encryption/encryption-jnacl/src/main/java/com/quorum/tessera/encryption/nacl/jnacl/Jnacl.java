@@ -6,6 +6,7 @@ import com.neilalexander.jnacl.NaCl;
 import com.quorum.tessera.encryption.*;
 import java.security.SecureRandom;
 import java.util.Objects;
+import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -142,6 +143,27 @@ public class Jnacl implements Encryptor {
       final byte[] cipherText, final Nonce nonce, final SharedKey sharedKey) {
     LOGGER.debug("Opening message using nonce {} and shared key {}", nonce, sharedKey);
 
+    final byte[] opened = openSecretBox(cipherText, nonce, sharedKey);
+
+    if (opened == null) {
+      LOGGER.error("Could not open sealed payload using shared key {}", sharedKey);
+      throw new EncryptorException("jnacl could not open the payload using the shared key");
+    }
+
+    LOGGER.debug("Opened sealed payload for shared key {}", sharedKey);
+    LOGGER.debug("Opened payload using nonce {} and shared key {}", nonce, sharedKey);
+
+    return opened;
+  }
+
+  @Override
+  public Optional<byte[]> tryOpenAfterPrecomputation(
+      final byte[] cipherText, final Nonce nonce, final SharedKey sharedKey) {
+    return Optional.ofNullable(openSecretBox(cipherText, nonce, sharedKey));
+  }
+
+  private byte[] openSecretBox(
+      final byte[] cipherText, final Nonce nonce, final SharedKey sharedKey) {
     final byte[] paddedInput = pad(cipherText, crypto_secretbox_BOXZEROBYTES);
     final byte[] paddedOutput = new byte[paddedInput.length];
 
@@ -154,13 +176,9 @@ public class Jnacl implements Encryptor {
             sharedKey.getKeyBytes());
 
     if (jnaclResult == -1) {
-      LOGGER.error("Could not open sealed payload using shared key {}", sharedKey);
-      throw new EncryptorException("jnacl could not open the payload using the shared key");
+      return null;
     }
 
-    LOGGER.debug("Opened sealed payload for shared key {}", sharedKey);
-    LOGGER.debug("Opened payload using nonce {} and shared key {}", nonce, sharedKey);
-
     return extract(paddedOutput, crypto_secretbox_ZEROBYTES);
   }
 
@@ -136,6 +136,41 @@ public class JnaclTest {
             any(byte[].class), any(byte[].class), anyInt(), any(byte[].class), any(byte[].class));
   }
 
+  @Test
+  public void tryOpenUsingSharedKeyReturnsEmptyOnFailure() {
+    doReturn(-1)
+        .when(this.secretBox)
+        .cryptoBoxOpenAfternm(
+            any(byte[].class),
+            any(byte[].class),
+            anyInt(),
+            any(byte[].class),
+            eq(sharedKey.getKeyBytes()));
+
+    assertThat(this.jnacl.tryOpenAfterPrecomputation(message, nonce, sharedKey)).isEmpty();
+
+    verify(this.secretBox)
+        .cryptoBoxOpenAfternm(
+            any(byte[].class), any(byte[].class), anyInt(), any(byte[].class), any(byte[].class));
+  }
+
+  @Test
+  public void tryOpenUsingSharedKeyReturnsOpenedPayload() {
+    final byte[] data = new byte[100];
+
+    doReturn(1)
+        .when(this.secretBox)
+        .cryptoBoxOpenAfternm(
+            any(byte[].class), eq(data), anyInt(), any(byte[].class), eq(sharedKey.getKeyBytes()));
+
+    assertThat(this.jnacl.tryOpenAfterPrecomputation(data, nonce, sharedKey))
+        .hasValueSatisfying(result -> assertThat(result).isNotEmpty());
+
+    verify(this.secretBox)
+        .cryptoBoxOpenAfternm(
+            any(byte[].class), any(byte[].class), anyInt(), any(byte[].class), any(byte[].class));
+  }
+
   @Test
   public void nonceContainsRandomData() {
     final Nonce nonce = this.jnacl.randomNonce();
@@ -4,6 +4,7 @@ import static org.abstractj.kalium.NaCl.Sodium.*;
 
 import com.quorum.tessera.encryption.*;
 import java.util.Objects;
+import java.util.Optional;
 import org.abstractj.kalium.NaCl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -188,6 +189,27 @@ public class Kalium implements Encryptor {
     LOGGER.info("Opening message using shared key {}", sharedKey);
     LOGGER.debug("Opening message using nonce {} and shared key {}", nonce, sharedKey);
 
+    final byte[] opened = openSecretBox(encryptedPayload, nonce, sharedKey);
+
+    if (opened == null) {
+      LOGGER.error("Could not open sealed payload using shared key {}", sharedKey);
+      throw new EncryptorException("Kalium could not open the payload using the shared key");
+    }
+
+    LOGGER.info("Opened sealed payload for shared key {}", sharedKey);
+    LOGGER.debug("Opened payload using nonce {} and sharedKey {}", nonce, sharedKey);
+
+    return opened;
+  }
+
+  @Override
+  public Optional<byte[]> tryOpenAfterPrecomputation(
+      final byte[] encryptedPayload, final Nonce nonce, final SharedKey sharedKey) {
+    return Optional.ofNullable(openSecretBox(encryptedPayload, nonce, sharedKey));
+  }
+
+  private byte[] openSecretBox(
+      final byte[] encryptedPayload, final Nonce nonce, final SharedKey sharedKey) {
     /*
      * NaCL C API states that first crypto_secretbox_BOXZEROBYTES must be zero
      * but these are not part of the ciphertext, and must be added in
@@ -205,13 +227,9 @@ public class Kalium implements Encryptor {
             sharedKey.getKeyBytes());
 
     if (sodiumResult == -1) {
-      LOGGER.error("Could not open sealed payload using shared key {}", sharedKey);
-      throw new EncryptorException("Kalium could not open the payload using the shared key");
+      return null;
     }
 
-    LOGGER.info("Opened sealed payload for shared key {}", sharedKey);
-    LOGGER.debug("Opened payload using nonce {} and sharedKey {}", nonce, sharedKey);
-
     return extract(paddedOutput, CRYPTO_BOX_CURVE25519XSALSA20POLY1305_ZEROBYTES);
   }
 
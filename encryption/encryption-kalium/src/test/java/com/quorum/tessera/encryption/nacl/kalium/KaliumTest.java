@@ -182,6 +182,41 @@ public class KaliumTest {
             any(byte[].class), any(byte[].class), anyInt(), any(byte[].class), any(byte[].class));
   }
 
+  @Test
+  public void tryOpenUsingSharedKeyReturnsEmptyOnFailure() {
+    doReturn(-1)
+        .when(this.sodium)
+        .crypto_box_curve25519xsalsa20poly1305_open_afternm(
+            any(byte[].class),
+            any(byte[].class),
+            anyInt(),
+            any(byte[].class),
+            eq(sharedKey.getKeyBytes()));
+
+    assertThat(this.kalium.tryOpenAfterPrecomputation(message, nonce, sharedKey)).isEmpty();
+
+    verify(this.sodium)
+        .crypto_box_curve25519xsalsa20poly1305_open_afternm(
+            any(byte[].class), any(byte[].class), anyInt(), any(byte[].class), any(byte[].class));
+  }
+
+  @Test
+  public void tryOpenUsingSharedKeyReturnsOpenedPayload() {
+    final byte[] data = new byte[100];
+
+    doReturn(1)
+        .when(this.sodium)
+        .crypto_box_curve25519xsalsa20poly1305_open_afternm(
+            any(byte[].class), eq(data), anyInt(), any(byte[].class), eq(sharedKey.getKeyBytes()));
+
+    assertThat(this.kalium.tryOpenAfterPrecomputation(data, nonce, sharedKey))
+        .hasValueSatisfying(result -> assertThat(result).isNotEmpty());
+
+    verify(this.sodium)
+        .crypto_box_curve25519xsalsa20poly1305_open_afternm(
+            any(byte[].class), any(byte[].class), anyInt(), any(byte[].class), any(byte[].class));
+  }
+
   @Test
   public void nonceContainsRandomData() {
     this.kalium.randomNonce();
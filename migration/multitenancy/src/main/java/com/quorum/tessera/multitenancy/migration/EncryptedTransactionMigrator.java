@@ -1,6 +1,7 @@
 package com.quorum.tessera.multitenancy.migration;
 
 import com.quorum.tessera.data.EncryptedTransaction;
+import com.quorum.tessera.data.EncryptedTransactionQueries;
 import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.enclave.PrivacyMode;
 import com.quorum.tessera.enclave.RecipientBox;
@@ -8,10 +9,9 @@ import com.quorum.tessera.enclave.SecurityHash;
 import com.quorum.tessera.enclave.TxHash;
 import com.quorum.tessera.encryption.PublicKey;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.TypedQuery;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 public class EncryptedTransactionMigrator {
 
@@ -28,52 +28,41 @@ public class EncryptedTransactionMigrator {
   }
 
   public void migrate() {
+    try (Stream<EncryptedTransaction> transactions =
+        EncryptedTransactionQueries.stream(
+            secondaryEntityManager,
+            EncryptedTransactionQueries.findAllAfter(secondaryEntityManager, 0L, null),
+            maxBatchSize)) {
+      transactions.forEach(this::migrateSingle);
+    }
+  }
+
+  private void migrateSingle(final EncryptedTransaction et) {
+    final Optional<EncryptedTransaction> existing =
+        primaryEntityManager
+            .createNamedQuery("EncryptedTransaction.FindByHash", EncryptedTransaction.class)
+            .setParameter("hash", et.getHash().getHashBytes())
+            .getResultStream()
+            .findAny();
+
+    if (existing.isEmpty()) {
+      primaryEntityManager.getTransaction().begin();
+      primaryEntityManager.persist(et);
+      primaryEntityManager.getTransaction().commit();
+      return;
+    }
+
+    final EncryptedTransaction outerTx = existing.get();
 
-    final long secondaryTxCount =
-        secondaryEntityManager
-            .createQuery("select count(e) from EncryptedTransaction e", Long.class)
-            .getSingleResult();
-    final int batchCount = calculateBatchCount(maxBatchSize, secondaryTxCount);
-
-    IntStream.range(0, batchCount)
-        .map(i -> i * maxBatchSize)
-        .mapToObj(
-            offset ->
-                secondaryEntityManager
-                    .createNamedQuery("EncryptedTransaction.FindAll", EncryptedTransaction.class)
-                    .setFirstResult(offset)
-                    .setMaxResults(maxBatchSize))
-        .flatMap(TypedQuery::getResultStream)
-        .forEach(
-            et -> {
-              final Optional<EncryptedTransaction> existing =
-                  primaryEntityManager
-                      .createNamedQuery(
-                          "EncryptedTransaction.FindByHash", EncryptedTransaction.class)
-                      .setParameter("hash", et.getHash().getHashBytes())
-                      .getResultStream()
-                      .findAny();
-
-              if (existing.isEmpty()) {
-                primaryEntityManager.getTransaction().begin();
-                primaryEntityManager.persist(et);
-                primaryEntityManager.getTransaction().commit();
-                return;
-              }
-
-              final EncryptedTransaction outerTx = existing.get();
-
-              final EncodedPayload primaryTx = outerTx.getPayload();
-              final EncodedPayload secondaryTx = et.getPayload();
-
-              final EncodedPayload updatedPayload =
-                  this.handleSingleTransaction(primaryTx, secondaryTx);
-
-              outerTx.setPayload(updatedPayload);
-              primaryEntityManager.getTransaction().begin();
-              primaryEntityManager.merge(outerTx);
-              primaryEntityManager.getTransaction().commit();
-            });
+    final EncodedPayload primaryTx = outerTx.getPayload();
+    final EncodedPayload secondaryTx = et.getPayload();
+
+    final EncodedPayload updatedPayload = this.handleSingleTransaction(primaryTx, secondaryTx);
+
+    outerTx.setPayload(updatedPayload);
+    primaryEntityManager.getTransaction().begin();
+    primaryEntityManager.merge(outerTx);
+    primaryEntityManager.getTransaction().commit();
   }
 
   public EncodedPayload handleSingleTransaction(
@@ -193,8 +182,4 @@ public class EncryptedTransactionMigrator {
     return combinedAffectedTxs.entrySet().stream()
         .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, e -> e.getValue().getData()));
   }
-
-  static int calculateBatchCount(long maxResults, long total) {
-    return (int) Math.ceil((double) total / maxResults);
-  }
 }
@@ -14,7 +14,10 @@ import picocli.CommandLine;
     descriptionHeading = "%nDescription:%n%n",
     parameterListHeading = "%nParameters:%n",
     optionListHeading = "%nOptions:%n",
-    header = "Migrate one database into another")
+    header = "Migrate one database into another",
+    description =
+        "Merges the secondary database into the primary and rebuilds the primary's recipient"
+            + " index. If no secondary is given then only the recipient index is rebuilt.")
 public class MigrationCliAdapter implements CliAdapter, Callable<CliResult> {
 
   @CommandLine.Option(
@@ -25,8 +28,7 @@ public class MigrationCliAdapter implements CliAdapter, Callable<CliResult> {
 
   @CommandLine.Option(
       names = "--secondary",
-      description = "path to secondary node configuration file",
-      required = true)
+      description = "path to secondary node configuration file")
   private Config configSecondary;
 
   @Override
@@ -39,6 +41,12 @@ public class MigrationCliAdapter implements CliAdapter, Callable<CliResult> {
 
     EntityManagerFactory primaryEntityManagerFactory =
         JdbcConfigUtil.entityManagerFactory(configPrimary.getJdbcConfig());
+
+    if (configSecondary == null) {
+      new RecipientIndexMigrator(primaryEntityManagerFactory.createEntityManager()).migrate();
+      return new CliResult(0, true, null);
+    }
+
     EntityManagerFactory secondaryEntityManagerFactory =
         JdbcConfigUtil.entityManagerFactory(configSecondary.getJdbcConfig());
     // migrate raw
@@ -28,5 +28,8 @@ public class MigrationRunner {
     final EncryptedTransactionMigrator etMigrator =
         new EncryptedTransactionMigrator(primaryEntityManager, secondaryEntityManager);
     etMigrator.migrate();
+
+    // transactions copied above bypass the DAO, so rebuild the recipient index
+    new RecipientIndexMigrator(primaryEntityManager).migrate();
   }
 }
@@ -0,0 +1,64 @@
+package com.quorum.tessera.multitenancy.migration;
+
+import com.quorum.tessera.data.EncryptedTransaction;
+import com.quorum.tessera.data.EncryptedTransactionQueries;
+import com.quorum.tessera.data.EncryptedTransactionRecipient;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Builds the recipient index for every transaction in a database. Transactions written before the
+ * index existed, or copied in without going through the DAO, are otherwise invisible to resend
+ * requests.
+ */
+public class RecipientIndexMigrator {
+
+  private final EntityManager entityManager;
+
+  private final int maxBatchSize = 100;
+
+  public RecipientIndexMigrator(final EntityManager entityManager) {
+    this.entityManager = Objects.requireNonNull(entityManager);
+  }
+
+  public void migrate() {
+
+    List<EncryptedTransaction> batch =
+        EncryptedTransactionQueries.findAllAfter(entityManager, 0L, null)
+            .setMaxResults(maxBatchSize)
+            .getResultList();
+
+    while (!batch.isEmpty()) {
+      final EncryptedTransaction last = batch.get(batch.size() - 1);
+      final boolean more = batch.size() == maxBatchSize;
+
+      indexBatch(batch);
+
+      if (!more) {
+        break;
+      }
+
+      batch =
+          EncryptedTransactionQueries.findAllAfter(
+                  entityManager, last.getTimestamp(), last.getHash())
+              .setMaxResults(maxBatchSize)
+              .getResultList();
+    }
+  }
+
+  private void indexBatch(final List<EncryptedTransaction> transactions) {
+    entityManager.getTransaction().begin();
+    transactions.forEach(
+        et -> {
+          entityManager
+              .createNamedQuery("EncryptedTransactionRecipient.DeleteByHash")
+              .setParameter("hash", et.getHash().getHashBytes())
+              .executeUpdate();
+          EncryptedTransactionRecipient.from(et.getHash(), et.getPayloadHeader())
+              .forEach(entityManager::persist);
+        });
+    entityManager.getTransaction().commit();
+    entityManager.clear();
+  }
+}
@@ -179,6 +179,13 @@ public class MigrationTest {
         .findFirst()
         .ifPresent(count -> assertThat(count).isEqualTo(encryptedTransactionCount));
 
+    // each generated transaction has a sender and one other recipient
+    primaryEntityManager
+        .createQuery("select count(e) from EncryptedTransactionRecipient e", Long.class)
+        .getResultStream()
+        .findFirst()
+        .ifPresent(count -> assertThat(count).isEqualTo(encryptedTransactionCount * 2L));
+
     secondaryEntityManager
         .createQuery("select count(e) from EncryptedRawTransaction e", Long.class)
         .getResultStream()
@@ -239,6 +246,41 @@ public class MigrationTest {
         .ifPresent(count -> assertThat(count).isEqualTo(encryptedRawTransactionCount));
   }
 
+  @Test
+  public void rebuildRecipientIndexOnlyWhenNoSecondary() {
+
+    EntityManager primaryEntityManager = primaryEntityManagerFactory.createEntityManager();
+    primaryEntityManager.getTransaction().begin();
+    IntStream.range(0, encryptedTransactionCount)
+        .forEach(i -> primaryEntityManager.persist(generateEncryptedTransaction()));
+    primaryEntityManager.getTransaction().commit();
+
+    final CommandLine commandLine = new CommandLine(new MigrationCliAdapter());
+    commandLine
+        .registerConverter(Config.class, new ConfigConverter())
+        .setSeparator(" ")
+        .setCaseInsensitiveEnumValuesAllowed(true);
+
+    int exitCode = commandLine.execute("--primary", primaryConfigPath.toString());
+    assertThat(exitCode).isZero();
+
+    long indexCount =
+        primaryEntityManager
+            .createQuery("select count(e) from EncryptedTransactionRecipient e", Long.class)
+            .getSingleResult();
+    assertThat(indexCount).isEqualTo(encryptedTransactionCount * 2L);
+
+    assertThat(commandLine.execute("--primary", primaryConfigPath.toString()))
+        .describedAs("Rebuilding the index again should not create duplicate rows")
+        .isZero();
+
+    long rerunIndexCount =
+        primaryEntityManager
+            .createQuery("select count(e) from EncryptedTransactionRecipient e", Long.class)
+            .getSingleResult();
+    assertThat(rerunIndexCount).isEqualTo(encryptedTransactionCount * 2L);
+  }
+
   static EncryptedTransaction generateEncryptedTransaction() {
     EncryptedTransaction encryptedTransaction = new EncryptedTransaction();
     encryptedTransaction.setHash(new MessageHash(UUID.randomUUID().toString().getBytes()));
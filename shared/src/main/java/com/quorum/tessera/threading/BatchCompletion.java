@@ -0,0 +1,96 @@
+package com.quorum.tessera.threading;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Tracks a batch of tasks, completing as soon as any one of them fails or once they have all
+ * succeeded.
+ */
+public class BatchCompletion {
+
+  private final List<CompletableFuture<?>> tasks;
+
+  private final CompletableFuture<Void> result;
+
+  private BatchCompletion(final List<CompletableFuture<?>> tasks) {
+    this.tasks = tasks;
+    this.result = CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new));
+    tasks.forEach(
+        task ->
+            task.whenComplete(
+                (r, ex) -> {
+                  if (Objects.nonNull(ex)) {
+                    result.completeExceptionally(unwrap(ex));
+                  }
+                }));
+  }
+
+  public static BatchCompletion of(final Collection<? extends CompletableFuture<?>> tasks) {
+    return new BatchCompletion(List.copyOf(tasks));
+  }
+
+  /**
+   * Waits until every task has succeeded or one has failed.
+   *
+   * @throws RuntimeException the failure of the first task to fail
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public void await() throws InterruptedException {
+    try {
+      result.get();
+    } catch (ExecutionException ex) {
+      throw asRuntimeException(ex.getCause());
+    }
+  }
+
+  /**
+   * Waits until every task has succeeded, one has failed or the timeout passes.
+   *
+   * @return true if every task succeeded, false if some were still running after the timeout
+   * @throws RuntimeException the failure of the first task to fail
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public boolean await(final long timeout, final TimeUnit unit) throws InterruptedException {
+    try {
+      result.get(timeout, unit);
+      return true;
+    } catch (ExecutionException ex) {
+      throw asRuntimeException(ex.getCause());
+    } catch (TimeoutException ex) {
+      return false;
+    }
+  }
+
+  public long getOutstanding() {
+    return tasks.stream().filter(task -> !task.isDone()).count();
+  }
+
+  /**
+   * @return a future that completes when every task has succeeded, or exceptionally with the
+   *     failure of the first task to fail
+   */
+  public CompletableFuture<Void> toFuture() {
+    return result.thenApply(r -> r);
+  }
+
+  private static Throwable unwrap(final Throwable ex) {
+    if (ex instanceof CompletionException && Objects.nonNull(ex.getCause())) {
+      return ex.getCause();
+    }
+    return ex;
+  }
+
+  private static RuntimeException asRuntimeException(final Throwable ex) {
+    if (ex instanceof RuntimeException) {
+      return (RuntimeException) ex;
+    }
+    return new CompletionException(ex);
+  }
+}
@@ -1,8 +0,0 @@
-package com.quorum.tessera.threading;
-
-public class CancellableCountDownLatchFactory {
-
-  public CancellableCountDownLatch create(int count) {
-    return new CancellableCountDownLatch(count);
-  }
-}
@@ -1,8 +0,0 @@
-package com.quorum.tessera.threading;
-
-public class CountDownLatchCancelledException extends RuntimeException {
-
-  public CountDownLatchCancelledException() {
-    super();
-  }
-}
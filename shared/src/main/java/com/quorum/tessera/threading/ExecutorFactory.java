@@ -1,11 +1,45 @@
 package com.quorum.tessera.threading;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class ExecutorFactory {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(ExecutorFactory.class);
+
   public Executor createCachedThreadPool() {
     return Executors.newCachedThreadPool();
   }
+
+  /**
+   * Creates an executor that runs at most the given number of tasks at once, queueing the rest.
+   *
+   * @param threads the number of tasks that may run at once
+   * @return an executor with a fixed number of threads
+   */
+  public ExecutorService createFixedThreadPool(final int threads) {
+    return Executors.newFixedThreadPool(threads);
+  }
+
+  /**
+   * Creates an executor that starts a new virtual thread for each task. Virtual threads are only
+   * available from Java 21, so on older runtimes a cached thread pool is returned instead.
+   *
+   * @return an executor running each task on its own virtual thread where supported
+   */
+  public Executor createVirtualThreadPerTaskExecutor() {
+    return createFromExecutors("newVirtualThreadPerTaskExecutor");
+  }
+
+  Executor createFromExecutors(final String factoryMethod) {
+    try {
+      return (Executor) Executors.class.getMethod(factoryMethod).invoke(null);
+    } catch (ReflectiveOperationException ex) {
+      LOGGER.warn("Virtual threads are not supported by this runtime, using a cached thread pool");
+      return createCachedThreadPool();
+    }
+  }
 }
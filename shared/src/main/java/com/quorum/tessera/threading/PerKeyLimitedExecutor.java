@@ -0,0 +1,122 @@
+package com.quorum.tessera.threading;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Runs tasks on an underlying executor while limiting how many tasks for the same key run at once.
+ *
+ * <p>Tasks over the limit are queued rather than blocking a thread, and are started in submission
+ * order as earlier tasks for the same key finish. Tasks for different keys do not affect each
+ * other. Nothing is kept for a key once none of its tasks are running or queued.
+ */
+public class PerKeyLimitedExecutor {
+
+  private final Executor executor;
+
+  private final int maxConcurrencyPerKey;
+
+  private final Map<Object, Lane> lanes = new HashMap<>();
+
+  /**
+   * @param executor the executor to run tasks on
+   * @param maxConcurrencyPerKey the number of tasks that may run at once for a key, or zero or less
+   *     for no limit
+   */
+  public PerKeyLimitedExecutor(final Executor executor, final int maxConcurrencyPerKey) {
+    this.executor = Objects.requireNonNull(executor);
+    this.maxConcurrencyPerKey = maxConcurrencyPerKey > 0 ? maxConcurrencyPerKey : Integer.MAX_VALUE;
+  }
+
+  public <T> CompletableFuture<T> submit(final Object key, final Supplier<T> task) {
+    final Pending<T> pending = new Pending<>(key, task);
+
+    synchronized (lanes) {
+      final Lane lane = lanes.computeIfAbsent(key, k -> new Lane());
+      if (lane.running >= maxConcurrencyPerKey) {
+        lane.waiting.add(pending);
+        return pending.result;
+      }
+      lane.running++;
+    }
+
+    dispatch(pending);
+    return pending.result;
+  }
+
+  int getMaxConcurrencyPerKey() {
+    return maxConcurrencyPerKey;
+  }
+
+  int getLaneCount() {
+    synchronized (lanes) {
+      return lanes.size();
+    }
+  }
+
+  private void dispatch(final Pending<?> pending) {
+    try {
+      executor.execute(
+          () -> {
+            pending.run();
+            finished(pending.key);
+          });
+    } catch (RuntimeException ex) {
+      // the task will never run, so fail it and free its slot for the next one
+      pending.result.completeExceptionally(ex);
+      finished(pending.key);
+    }
+  }
+
+  private void finished(final Object key) {
+    final Pending<?> next;
+    synchronized (lanes) {
+      final Lane lane = lanes.get(key);
+      next = lane.waiting.poll();
+      if (Objects.isNull(next)) {
+        lane.running--;
+        if (lane.running == 0) {
+          lanes.remove(key);
+        }
+        return;
+      }
+    }
+    dispatch(next);
+  }
+
+  private static class Pending<T> {
+
+    private final Object key;
+
+    private final Supplier<T> task;
+
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+
+    Pending(final Object key, final Supplier<T> task) {
+      this.key = key;
+      this.task = task;
+    }
+
+    void run() {
+      try {
+        result.complete(task.get());
+      } catch (Throwable ex) {
+        // errors too, as callers may be waiting on the result
+        result.completeExceptionally(ex);
+      }
+    }
+  }
+
+  private static class Lane {
+
+    private final Queue<Pending<?>> waiting = new ArrayDeque<>();
+
+    private int running;
+  }
+}
@@ -0,0 +1,54 @@
+package com.quorum.tessera.threading;
+
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A fixed set of reentrant locks that keys are spread across by their hash code.
+ *
+ * <p>Work for keys that are equal is serialised, while work for different keys runs in parallel
+ * unless the keys happen to share a stripe.
+ */
+public class StripedLock {
+
+  public static final int DEFAULT_STRIPES = 256;
+
+  private final Lock[] locks;
+
+  public StripedLock() {
+    this(DEFAULT_STRIPES);
+  }
+
+  public StripedLock(int stripes) {
+    if (stripes < 1) {
+      throw new IllegalArgumentException("At least one stripe is required");
+    }
+    this.locks = new Lock[stripes];
+    for (int i = 0; i < stripes; i++) {
+      locks[i] = new ReentrantLock();
+    }
+  }
+
+  public Lock getLock(Object key) {
+    final int hash = Objects.hashCode(key);
+    // spread the high bits so keys with similar hash codes do not share a stripe
+    final int spread = hash ^ (hash >>> 16);
+    return locks[Math.floorMod(spread, locks.length)];
+  }
+
+  public <T> T execute(Object key, Supplier<T> action) {
+    final Lock lock = getLock(key);
+    lock.lock();
+    try {
+      return action.get();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int getStripes() {
+    return locks.length;
+  }
+}
@@ -26,5 +26,7 @@ module tessera.shared {
       com.quorum.tessera.version.MultiTenancyVersion,
       com.quorum.tessera.version.PrivacyGroupVersion,
       com.quorum.tessera.version.MandatoryRecipientsVersion,
-      com.quorum.tessera.version.CBORSupportVersion;
+      com.quorum.tessera.version.CBORSupportVersion,
+      com.quorum.tessera.version.PartyInfoDeltaVersion,
+      com.quorum.tessera.version.MultiplePushVersion;
 }
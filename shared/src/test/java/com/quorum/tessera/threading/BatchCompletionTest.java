@@ -0,0 +1,80 @@
+package com.quorum.tessera.threading;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class BatchCompletionTest {
+
+  @Test
+  public void awaitReturnsOnceAllTasksSucceed() throws InterruptedException {
+    CompletableFuture<String> first = CompletableFuture.completedFuture("first");
+    CompletableFuture<String> second = new CompletableFuture<>();
+
+    BatchCompletion completion = BatchCompletion.of(List.of(first, second));
+    assertThat(completion.getOutstanding()).isEqualTo(1);
+    assertThat(completion.toFuture()).isNotDone();
+
+    second.complete("second");
+
+    completion.await();
+    assertThat(completion.getOutstanding()).isZero();
+    assertThat(completion.toFuture()).isCompleted();
+  }
+
+  @Test
+  public void awaitThrowsFirstFailureWithoutWaitingForOtherTasks() {
+    IllegalStateException cause = new IllegalStateException("push failed");
+    CompletableFuture<String> failed = new CompletableFuture<>();
+    CompletableFuture<String> running = new CompletableFuture<>();
+
+    BatchCompletion completion = BatchCompletion.of(List.of(failed, running));
+    failed.completeExceptionally(cause);
+
+    assertThat(catchThrowable(completion::await)).isSameAs(cause);
+    assertThat(catchThrowable(() -> completion.await(1, TimeUnit.SECONDS))).isSameAs(cause);
+    assertThat(completion.getOutstanding()).isEqualTo(1);
+  }
+
+  @Test
+  public void failureWrappedByDependentStageIsUnwrapped() {
+    IllegalStateException cause = new IllegalStateException("push failed");
+    CompletableFuture<String> source = new CompletableFuture<>();
+
+    BatchCompletion completion = BatchCompletion.of(List.of(source.thenApply(s -> s)));
+    source.completeExceptionally(cause);
+
+    assertThat(catchThrowable(completion::await)).isSameAs(cause);
+  }
+
+  @Test
+  public void checkedFailureIsWrapped() {
+    IOException cause = new IOException("push failed");
+
+    BatchCompletion completion =
+        BatchCompletion.of(List.of(CompletableFuture.failedFuture(cause)));
+
+    assertThat(catchThrowable(completion::await))
+        .isExactlyInstanceOf(CompletionException.class)
+        .hasCause(cause);
+  }
+
+  @Test
+  public void awaitWithTimeout() throws InterruptedException {
+    CompletableFuture<String> running = new CompletableFuture<>();
+
+    BatchCompletion completion = BatchCompletion.of(List.of(running));
+
+    assertThat(completion.await(10, TimeUnit.MILLISECONDS)).isFalse();
+
+    running.complete("done");
+
+    assertThat(completion.await(10, TimeUnit.MILLISECONDS)).isTrue();
+  }
+}
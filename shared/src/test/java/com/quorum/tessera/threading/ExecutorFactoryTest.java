@@ -3,6 +3,8 @@ package com.quorum.tessera.threading;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import org.junit.Test;
 
 public class ExecutorFactoryTest {
@@ -12,4 +14,30 @@ public class ExecutorFactoryTest {
     Executor executor = new ExecutorFactory().createCachedThreadPool();
     assertThat(executor).isNotNull();
   }
+
+  @Test
+  public void createFixedThreadPool() {
+    ExecutorService executor = new ExecutorFactory().createFixedThreadPool(2);
+    assertThat(executor).isInstanceOf(ThreadPoolExecutor.class);
+    assertThat(((ThreadPoolExecutor) executor).getMaximumPoolSize()).isEqualTo(2);
+    executor.shutdown();
+  }
+
+  @Test
+  public void createVirtualThreadPerTaskExecutor() {
+    Executor executor = new ExecutorFactory().createVirtualThreadPerTaskExecutor();
+    assertThat(executor).isNotNull();
+  }
+
+  @Test
+  public void createFromExecutorsUsesNamedFactoryMethod() {
+    Executor executor = new ExecutorFactory().createFromExecutors("newCachedThreadPool");
+    assertThat(executor).isInstanceOf(ThreadPoolExecutor.class);
+  }
+
+  @Test
+  public void createFromExecutorsFallsBackToCachedThreadPool() {
+    Executor executor = new ExecutorFactory().createFromExecutors("noSuchFactoryMethod");
+    assertThat(executor).isInstanceOf(ThreadPoolExecutor.class);
+  }
 }
@@ -0,0 +1,130 @@
+package com.quorum.tessera.threading;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.Test;
+
+public class PerKeyLimitedExecutorTest {
+
+  private final List<Runnable> started = new ArrayList<>();
+
+  private final Executor executor = started::add;
+
+  @Test
+  public void tasksOverTheLimitWaitForEarlierTasksWithTheSameKey() {
+    PerKeyLimitedExecutor limitedExecutor = new PerKeyLimitedExecutor(executor, 1);
+
+    CompletableFuture<String> first = limitedExecutor.submit("peer", () -> "first");
+    CompletableFuture<String> second = limitedExecutor.submit("peer", () -> "second");
+    assertThat(started).hasSize(1);
+
+    started.remove(0).run();
+    assertThat(first).isCompletedWithValue("first");
+    assertThat(started).hasSize(1);
+
+    started.remove(0).run();
+    assertThat(second).isCompletedWithValue("second");
+    assertThat(started).isEmpty();
+  }
+
+  @Test
+  public void tasksForDifferentKeysRunTogether() {
+    PerKeyLimitedExecutor limitedExecutor = new PerKeyLimitedExecutor(executor, 1);
+
+    limitedExecutor.submit("peer", () -> "first");
+    limitedExecutor.submit("otherPeer", () -> "second");
+
+    assertThat(started).hasSize(2);
+  }
+
+  @Test
+  public void noLimitIfNotPositive() {
+    PerKeyLimitedExecutor limitedExecutor = new PerKeyLimitedExecutor(executor, 0);
+
+    limitedExecutor.submit("peer", () -> "first");
+    limitedExecutor.submit("peer", () -> "second");
+
+    assertThat(started).hasSize(2);
+    assertThat(limitedExecutor.getMaxConcurrencyPerKey()).isEqualTo(Integer.MAX_VALUE);
+  }
+
+  @Test
+  public void failedTaskCompletesExceptionallyAndFreesItsSlot() {
+    PerKeyLimitedExecutor limitedExecutor = new PerKeyLimitedExecutor(executor, 1);
+    RuntimeException cause = new RuntimeException("push failed");
+
+    CompletableFuture<String> failed =
+        limitedExecutor.submit(
+            "peer",
+            () -> {
+              throw cause;
+            });
+    limitedExecutor.submit("peer", () -> "next");
+
+    started.remove(0).run();
+
+    assertThat(failed).isCompletedExceptionally();
+    assertThat(failed.handle((r, ex) -> ex)).isCompletedWithValue(cause);
+    assertThat(started).hasSize(1);
+  }
+
+  @Test
+  public void rejectedTaskCompletesExceptionally() {
+    RejectedExecutionException cause = new RejectedExecutionException();
+    PerKeyLimitedExecutor limitedExecutor =
+        new PerKeyLimitedExecutor(
+            runnable -> {
+              throw cause;
+            },
+            1);
+
+    CompletableFuture<String> rejected = limitedExecutor.submit("peer", () -> "never");
+    CompletableFuture<String> next = limitedExecutor.submit("peer", () -> "next");
+
+    assertThat(rejected.handle((r, ex) -> ex)).isCompletedWithValue(cause);
+    assertThat(next.handle((r, ex) -> ex)).isCompletedWithValue(cause);
+  }
+
+  @Test
+  public void errorCompletesTaskExceptionally() {
+    PerKeyLimitedExecutor limitedExecutor = new PerKeyLimitedExecutor(executor, 1);
+    AssertionError cause = new AssertionError("push failed");
+
+    CompletableFuture<String> failed =
+        limitedExecutor.submit(
+            "peer",
+            () -> {
+              throw cause;
+            });
+
+    started.remove(0).run();
+
+    assertThat(failed.handle((r, ex) -> ex)).isCompletedWithValue(cause);
+    assertThat(limitedExecutor.getLaneCount()).isZero();
+  }
+
+  @Test
+  public void laneIsRemovedOnceNothingIsRunningOrWaiting() {
+    PerKeyLimitedExecutor limitedExecutor = new PerKeyLimitedExecutor(executor, 1);
+
+    limitedExecutor.submit("peer", () -> "first");
+    limitedExecutor.submit("peer", () -> "second");
+    limitedExecutor.submit("otherPeer", () -> "third");
+    assertThat(limitedExecutor.getLaneCount()).isEqualTo(2);
+
+    started.remove(0).run();
+    assertThat(limitedExecutor.getLaneCount()).isEqualTo(2);
+
+    started.remove(0).run();
+    assertThat(limitedExecutor.getLaneCount()).isEqualTo(1);
+
+    started.remove(0).run();
+    assertThat(limitedExecutor.getLaneCount()).isZero();
+    assertThat(started).isEmpty();
+  }
+}
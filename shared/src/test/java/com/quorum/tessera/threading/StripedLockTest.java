@@ -0,0 +1,74 @@
+package com.quorum.tessera.threading;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class StripedLockTest {
+
+  @Test
+  public void sameKeyUsesSameLock() {
+    StripedLock stripedLock = new StripedLock(16);
+    assertThat(stripedLock.getLock("key")).isSameAs(stripedLock.getLock(new String("key")));
+    assertThat(stripedLock.getStripes()).isEqualTo(16);
+  }
+
+  @Test
+  public void nullKeyIsAllowed() {
+    StripedLock stripedLock = new StripedLock();
+    assertThat(stripedLock.getLock(null)).isNotNull();
+    assertThat(stripedLock.getStripes()).isEqualTo(StripedLock.DEFAULT_STRIPES);
+  }
+
+  @Test
+  public void executeIsReentrant() {
+    StripedLock stripedLock = new StripedLock(1);
+    String result = stripedLock.execute("a", () -> stripedLock.execute("b", () -> "done"));
+    assertThat(result).isEqualTo("done");
+  }
+
+  @Test
+  public void differentStripesDoNotBlockEachOther() throws Exception {
+    StripedLock stripedLock = new StripedLock(2);
+    CountDownLatch held = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    ExecutorService executorService = Executors.newSingleThreadExecutor();
+    try {
+      Future<Boolean> holder =
+          executorService.submit(
+              () ->
+                  stripedLock.execute(
+                      0,
+                      () -> {
+                        held.countDown();
+                        try {
+                          return release.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                          throw new RuntimeException(e);
+                        }
+                      }));
+
+      held.await();
+      assertThat(stripedLock.getLock(1).tryLock()).isTrue();
+      stripedLock.getLock(1).unlock();
+
+      release.countDown();
+      assertThat(holder.get()).isTrue();
+    } finally {
+      executorService.shutdown();
+    }
+  }
+
+  @Test
+  public void stripesMustBePositive() {
+    Throwable ex = catchThrowable(() -> new StripedLock(0));
+    assertThat(ex).isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,26 @@
+package com.quorum.tessera.transaction;
+
+/** Statistics of the cache of decrypted transactions returned by receive calls. */
+public interface ReceiveResponseCacheMXBean {
+
+  /** @return how many lookups were answered from the cache */
+  long getHitCount();
+
+  /** @return how many lookups had to decrypt the transaction */
+  long getMissCount();
+
+  /** @return the fraction of lookups answered from the cache, or 0 if there were none */
+  double getHitRatio();
+
+  /** @return how many cached responses were dropped to stay within the size bound */
+  long getEvictionCount();
+
+  /** @return how many transactions currently have cached responses */
+  int getEntryCount();
+
+  /** @return the estimated size of the cached responses, in bytes */
+  long getSizeInBytes();
+
+  /** @return the configured bound on {@link #getSizeInBytes()} */
+  long getMaxSizeInBytes();
+}
@@ -0,0 +1,60 @@
+package com.quorum.tessera.transaction;
+
+import com.quorum.tessera.data.MessageHash;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The outcome of receiving one transaction of a batch, which holds either the decrypted transaction
+ * or the reason it could not be received.
+ */
+public interface ReceiveResult {
+
+  MessageHash getTransactionHash();
+
+  Optional<ReceiveResponse> getResponse();
+
+  Optional<RuntimeException> getFailure();
+
+  static ReceiveResult success(MessageHash transactionHash, ReceiveResponse response) {
+    Objects.requireNonNull(transactionHash, "Transaction hash is required");
+    Objects.requireNonNull(response, "Response is required");
+    return new ReceiveResult() {
+      @Override
+      public MessageHash getTransactionHash() {
+        return transactionHash;
+      }
+
+      @Override
+      public Optional<ReceiveResponse> getResponse() {
+        return Optional.of(response);
+      }
+
+      @Override
+      public Optional<RuntimeException> getFailure() {
+        return Optional.empty();
+      }
+    };
+  }
+
+  static ReceiveResult failure(MessageHash transactionHash, RuntimeException failure) {
+    Objects.requireNonNull(transactionHash, "Transaction hash is required");
+    Objects.requireNonNull(failure, "Failure is required");
+    return new ReceiveResult() {
+      @Override
+      public MessageHash getTransactionHash() {
+        return transactionHash;
+      }
+
+      @Override
+      public Optional<ReceiveResponse> getResponse() {
+        return Optional.empty();
+      }
+
+      @Override
+      public Optional<RuntimeException> getFailure() {
+        return Optional.of(failure);
+      }
+    };
+  }
+}
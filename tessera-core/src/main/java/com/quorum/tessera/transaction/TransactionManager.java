@@ -12,6 +12,16 @@ public interface TransactionManager {
 
   SendResponse send(SendRequest sendRequest);
 
+  /**
+   * Sends several transactions at once. The transactions are stored in a single database
+   * transaction, and the pushes to remote recipients are grouped so that each recipient is sent all
+   * of its payloads together. If storing or pushing fails, none of the transactions are stored.
+   *
+   * @param sendRequests the transactions to send
+   * @return a response for each of the requests, in the same order
+   */
+  List<SendResponse> sendAll(List<SendRequest> sendRequests);
+
   SendResponse sendSignedTransaction(SendSignedRequest sendRequest);
 
   void delete(MessageHash messageHash);
@@ -20,6 +30,16 @@ public interface TransactionManager {
 
   ReceiveResponse receive(ReceiveRequest request);
 
+  /**
+   * Receives several transactions at once, loading them with a single lookup and decrypting them
+   * concurrently. A transaction that cannot be received does not fail the others.
+   *
+   * @param transactionHashes the hashes of the transactions to receive
+   * @param recipient the key to decrypt the transactions with, or null to search for one
+   * @return a result for each of the hashes, in the same order
+   */
+  List<ReceiveResult> receiveAll(List<MessageHash> transactionHashes, PublicKey recipient);
+
   StoreRawResponse store(StoreRawRequest storeRequest);
 
   boolean upcheck();
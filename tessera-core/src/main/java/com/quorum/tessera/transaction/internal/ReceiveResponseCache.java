@@ -0,0 +1,339 @@
+package com.quorum.tessera.transaction.internal;
+
+import com.quorum.tessera.data.MessageHash;
+import com.quorum.tessera.encryption.PublicKey;
+import com.quorum.tessera.transaction.ReceiveResponse;
+import com.quorum.tessera.transaction.ReceiveResponseCacheMXBean;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A cache of decrypted transactions, keyed by transaction hash and the recipient key they were
+ * requested for, so that repeated receive calls for the same transaction skip the database lookup
+ * and decryption.
+ *
+ * <p>The cache is bounded by the estimated size of its responses in bytes, and responses expire a
+ * short time after they were cached. Transactions are dropped oldest first, and the plaintext of a
+ * dropped response is overwritten with zeros. Callers only ever get copies of the cached plaintext.
+ *
+ * <p>Every invalidation moves the cache to a new generation. A response is only cached if no
+ * invalidation happened since the caller started reading the transaction, so a response read
+ * before an update cannot be cached after it.
+ */
+public class ReceiveResponseCache implements ReceiveResponseCacheMXBean {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReceiveResponseCache.class);
+
+  static final String MAX_BYTES_PROPERTY = "receiveCacheMaxBytes";
+
+  static final String TTL_PROPERTY = "receiveCacheTtlMillis";
+
+  static final long DEFAULT_MAX_BYTES = 0L; // disabled
+
+  static final long DEFAULT_TTL_MILLIS = 2000L;
+
+  // allowance for the map entries, response object and fields held alongside the plaintext
+  static final int ENTRY_OVERHEAD_BYTES = 256;
+
+  // allowance for each public key or transaction hash held by a response
+  static final int KEY_OVERHEAD_BYTES = 96;
+
+  private final long maxBytes;
+
+  private final long ttlNanos;
+
+  private final LongSupplier clock;
+
+  // insertion ordered, so the oldest transactions (which expire first) are at the head
+  private final LinkedHashMap<MessageHash, TransactionEntry> entries = new LinkedHashMap<>();
+
+  private long sizeInBytes;
+
+  private long generation;
+
+  private final LongAdder hits = new LongAdder();
+
+  private final LongAdder misses = new LongAdder();
+
+  private final LongAdder evictions = new LongAdder();
+
+  public ReceiveResponseCache(final long maxBytes, final Duration ttl) {
+    this(maxBytes, ttl, System::nanoTime);
+  }
+
+  ReceiveResponseCache(final long maxBytes, final Duration ttl, final LongSupplier clock) {
+    this.maxBytes = Math.max(0, maxBytes);
+    this.ttlNanos = Objects.requireNonNull(ttl).toNanos();
+    this.clock = Objects.requireNonNull(clock);
+  }
+
+  public static ReceiveResponseCache disabled() {
+    return new ReceiveResponseCache(0, Duration.ZERO);
+  }
+
+  public static ReceiveResponseCache from(final Map<String, String> properties) {
+    final Map<String, String> props =
+        Optional.ofNullable(properties).orElse(Collections.emptyMap());
+    try {
+      final long maxBytes =
+          Long.parseLong(props.getOrDefault(MAX_BYTES_PROPERTY, String.valueOf(DEFAULT_MAX_BYTES)));
+      final long ttl =
+          Long.parseLong(props.getOrDefault(TTL_PROPERTY, String.valueOf(DEFAULT_TTL_MILLIS)));
+      return new ReceiveResponseCache(maxBytes, Duration.ofMillis(ttl));
+    } catch (NumberFormatException ex) {
+      LOGGER.warn("Not able to parse configured property. Will use default value instead");
+      return new ReceiveResponseCache(DEFAULT_MAX_BYTES, Duration.ofMillis(DEFAULT_TTL_MILLIS));
+    }
+  }
+
+  public boolean isEnabled() {
+    return maxBytes > 0 && ttlNanos > 0;
+  }
+
+  /**
+   * Returns a copy of the cached response for the transaction and recipient, if there is one that
+   * has not expired.
+   *
+   * @param hash the hash of the transaction
+   * @param recipient the recipient the response was requested for, or null if none was given
+   * @return a copy of the cached response
+   */
+  public Optional<ReceiveResponse> get(final MessageHash hash, final PublicKey recipient) {
+    if (!isEnabled()) {
+      return Optional.empty();
+    }
+
+    final Optional<ReceiveResponse> cached;
+    synchronized (entries) {
+      removeExpired(clock.getAsLong());
+      cached =
+          Optional.ofNullable(entries.get(hash))
+              .map(entry -> entry.responses.get(recipient))
+              .map(c -> copyOf(c.response, c.response.getUnencryptedTransactionData()));
+    }
+
+    if (cached.isPresent()) {
+      hits.increment();
+    } else {
+      misses.increment();
+    }
+    return cached;
+  }
+
+  /**
+   * @return the generation to pass to {@link #put} for a transaction that is about to be read
+   */
+  public long getGeneration() {
+    synchronized (entries) {
+      return generation;
+    }
+  }
+
+  /**
+   * Caches a copy of the response for the transaction and recipient, unless the cache has been
+   * invalidated since the given generation or the response alone would exceed the size bound.
+   *
+   * @param hash the hash of the transaction
+   * @param recipient the recipient the response was requested for, or null if none was given
+   * @param response the decrypted transaction
+   * @param readGeneration the generation returned before the transaction was read
+   */
+  public void put(
+      final MessageHash hash,
+      final PublicKey recipient,
+      final ReceiveResponse response,
+      final long readGeneration) {
+    if (!isEnabled()) {
+      return;
+    }
+
+    final byte[] plaintext = response.getUnencryptedTransactionData();
+    final CachedResponse cached = new CachedResponse(copyOf(response, plaintext), plaintext);
+    if (cached.sizeInBytes > maxBytes) {
+      LOGGER.debug("Response for transaction {} is too large to cache", hash);
+      cached.zero();
+      return;
+    }
+
+    synchronized (entries) {
+      if (readGeneration != generation) {
+        LOGGER.debug("Transaction {} changed while it was read, not caching", hash);
+        cached.zero();
+        return;
+      }
+
+      final long now = clock.getAsLong();
+      removeExpired(now);
+
+      final TransactionEntry entry = entries.computeIfAbsent(hash, h -> new TransactionEntry(now));
+      Optional.ofNullable(entry.responses.put(recipient, cached))
+          .ifPresent(
+              replaced -> {
+                replaced.zero();
+                entry.sizeInBytes -= replaced.sizeInBytes;
+                sizeInBytes -= replaced.sizeInBytes;
+              });
+      entry.sizeInBytes += cached.sizeInBytes;
+      sizeInBytes += cached.sizeInBytes;
+
+      final Iterator<TransactionEntry> oldestFirst = entries.values().iterator();
+      while (sizeInBytes > maxBytes) {
+        evictions.increment();
+        drop(oldestFirst);
+      }
+    }
+  }
+
+  /**
+   * Drops the cached responses of the transaction, and stops responses read before now from being
+   * cached.
+   *
+   * @param hash the hash of the transaction that changed
+   */
+  public void invalidate(final MessageHash hash) {
+    if (!isEnabled()) {
+      return;
+    }
+    synchronized (entries) {
+      generation++;
+      Optional.ofNullable(entries.remove(hash)).ifPresent(this::release);
+    }
+  }
+
+  public void invalidateAll() {
+    synchronized (entries) {
+      generation++;
+      final Iterator<TransactionEntry> iterator = entries.values().iterator();
+      while (iterator.hasNext()) {
+        drop(iterator);
+      }
+    }
+  }
+
+  @Override
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  @Override
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  @Override
+  public double getHitRatio() {
+    final long hitCount = hits.sum();
+    final long lookups = hitCount + misses.sum();
+    return lookups == 0 ? 0 : (double) hitCount / lookups;
+  }
+
+  @Override
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  @Override
+  public int getEntryCount() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  @Override
+  public long getSizeInBytes() {
+    synchronized (entries) {
+      return sizeInBytes;
+    }
+  }
+
+  @Override
+  public long getMaxSizeInBytes() {
+    return maxBytes;
+  }
+
+  private void removeExpired(final long now) {
+    final Iterator<TransactionEntry> oldestFirst = entries.values().iterator();
+    while (oldestFirst.hasNext()) {
+      final TransactionEntry entry = oldestFirst.next();
+      if (now - entry.createdAt < ttlNanos) {
+        return;
+      }
+      oldestFirst.remove();
+      release(entry);
+    }
+  }
+
+  private void drop(final Iterator<TransactionEntry> iterator) {
+    final TransactionEntry entry = iterator.next();
+    iterator.remove();
+    release(entry);
+  }
+
+  private void release(final TransactionEntry entry) {
+    entry.responses.values().forEach(CachedResponse::zero);
+    sizeInBytes -= entry.sizeInBytes;
+  }
+
+  private static ReceiveResponse copyOf(final ReceiveResponse response, final byte[] plaintext) {
+    final ReceiveResponse.Builder builder =
+        ReceiveResponse.Builder.create()
+            .withUnencryptedTransactionData(plaintext)
+            .withPrivacyMode(response.getPrivacyMode())
+            .withExecHash(response.getExecHash())
+            .withAffectedTransactions(response.getAffectedTransactions())
+            .withManagedParties(response.getManagedParties())
+            .withSender(response.sender());
+    response.getPrivacyGroupId().ifPresent(builder::withPrivacyGroupId);
+    return builder.build();
+  }
+
+  private static final class TransactionEntry {
+
+    private final long createdAt;
+
+    private final Map<PublicKey, CachedResponse> responses = new HashMap<>();
+
+    private long sizeInBytes;
+
+    TransactionEntry(long createdAt) {
+      this.createdAt = createdAt;
+    }
+  }
+
+  private static final class CachedResponse {
+
+    // built around the plaintext array, which is never handed out
+    private final ReceiveResponse response;
+
+    private final byte[] plaintext;
+
+    private final long sizeInBytes;
+
+    CachedResponse(ReceiveResponse response, byte[] plaintext) {
+      this.response = response;
+      this.plaintext = plaintext;
+      final int keys =
+          response.getManagedParties().size() + response.getAffectedTransactions().size() + 1;
+      this.sizeInBytes =
+          ENTRY_OVERHEAD_BYTES
+              + (long) KEY_OVERHEAD_BYTES * keys
+              + plaintext.length
+              + response.getExecHash().length;
+    }
+
+    void zero() {
+      Arrays.fill(plaintext, (byte) 0);
+    }
+  }
+}
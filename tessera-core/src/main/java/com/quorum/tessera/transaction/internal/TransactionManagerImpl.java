@@ -5,7 +5,6 @@ import static java.util.function.Predicate.not;
 import com.quorum.tessera.data.*;
 import com.quorum.tessera.enclave.*;
 import com.quorum.tessera.enclave.PayloadDigest;
-import com.quorum.tessera.encryption.EncryptorException;
 import com.quorum.tessera.encryption.Nonce;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.transaction.*;
@@ -14,7 +13,11 @@ import com.quorum.tessera.transaction.exception.RecipientKeyNotFoundException;
 import com.quorum.tessera.transaction.exception.TransactionNotFoundException;
 import com.quorum.tessera.transaction.publish.BatchPayloadPublisher;
 import com.quorum.tessera.transaction.resend.ResendManager;
+import com.quorum.tessera.threading.StripedLock;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.slf4j.Logger;
@@ -38,6 +41,12 @@ public class TransactionManagerImpl implements TransactionManager {
 
   private final PayloadDigest payloadDigest;
 
+  private final StripedLock storeLock;
+
+  private final ReceiveResponseCache receiveResponseCache;
+
+  private final Executor receiveExecutor;
+
   public TransactionManagerImpl(
       Enclave enclave,
       EncryptedTransactionDAO encryptedTransactionDAO,
@@ -46,6 +55,72 @@ public class TransactionManagerImpl implements TransactionManager {
       BatchPayloadPublisher batchPayloadPublisher,
       PrivacyHelper privacyHelper,
       PayloadDigest payloadDigest) {
+    this(
+        enclave,
+        encryptedTransactionDAO,
+        encryptedRawTransactionDAO,
+        resendManager,
+        batchPayloadPublisher,
+        privacyHelper,
+        payloadDigest,
+        new StripedLock());
+  }
+
+  public TransactionManagerImpl(
+      Enclave enclave,
+      EncryptedTransactionDAO encryptedTransactionDAO,
+      EncryptedRawTransactionDAO encryptedRawTransactionDAO,
+      ResendManager resendManager,
+      BatchPayloadPublisher batchPayloadPublisher,
+      PrivacyHelper privacyHelper,
+      PayloadDigest payloadDigest,
+      StripedLock storeLock) {
+    this(
+        enclave,
+        encryptedTransactionDAO,
+        encryptedRawTransactionDAO,
+        resendManager,
+        batchPayloadPublisher,
+        privacyHelper,
+        payloadDigest,
+        storeLock,
+        ReceiveResponseCache.disabled());
+  }
+
+  public TransactionManagerImpl(
+      Enclave enclave,
+      EncryptedTransactionDAO encryptedTransactionDAO,
+      EncryptedRawTransactionDAO encryptedRawTransactionDAO,
+      ResendManager resendManager,
+      BatchPayloadPublisher batchPayloadPublisher,
+      PrivacyHelper privacyHelper,
+      PayloadDigest payloadDigest,
+      StripedLock storeLock,
+      ReceiveResponseCache receiveResponseCache) {
+    this(
+        enclave,
+        encryptedTransactionDAO,
+        encryptedRawTransactionDAO,
+        resendManager,
+        batchPayloadPublisher,
+        privacyHelper,
+        payloadDigest,
+        storeLock,
+        receiveResponseCache,
+        ForkJoinPool.commonPool());
+  }
+
+  public TransactionManagerImpl(
+      Enclave enclave,
+      EncryptedTransactionDAO encryptedTransactionDAO,
+      EncryptedRawTransactionDAO encryptedRawTransactionDAO,
+      ResendManager resendManager,
+      BatchPayloadPublisher batchPayloadPublisher,
+      PrivacyHelper privacyHelper,
+      PayloadDigest payloadDigest,
+      StripedLock storeLock,
+      ReceiveResponseCache receiveResponseCache,
+      Executor receiveExecutor) {
     this.encryptedTransactionDAO =
         Objects.requireNonNull(encryptedTransactionDAO, "encryptedTransactionDAO is required");
     this.batchPayloadPublisher =
@@ -57,11 +132,62 @@ public class TransactionManagerImpl implements TransactionManager {
     this.resendManager = Objects.requireNonNull(resendManager, "resendManager is required");
     this.privacyHelper = Objects.requireNonNull(privacyHelper, "privacyHelper is required");
     this.payloadDigest = Objects.requireNonNull(payloadDigest, "payloadDigest is required");
+    this.storeLock = Objects.requireNonNull(storeLock, "storeLock is required");
+    this.receiveResponseCache =
+        Objects.requireNonNull(receiveResponseCache, "receiveResponseCache is required");
+    this.receiveExecutor = Objects.requireNonNull(receiveExecutor, "receiveExecutor is required");
   }
 
   @Override
   public SendResponse send(SendRequest sendRequest) {
 
+    final PreparedTransaction prepared = prepare(sendRequest);
+
+    this.encryptedTransactionDAO.save(
+        prepared.transaction,
+        () -> {
+          batchPayloadPublisher.publishPayload(prepared.payload, prepared.remoteRecipients);
+          return null;
+        });
+
+    return prepared.response;
+  }
+
+  @Override
+  public List<SendResponse> sendAll(List<SendRequest> sendRequests) {
+    if (sendRequests.isEmpty()) {
+      return List.of();
+    }
+
+    final List<PreparedTransaction> preparedTransactions =
+        sendRequests.stream().map(this::prepare).collect(Collectors.toList());
+
+    // each remote recipient is sent all of its payloads together
+    final Map<PublicKey, List<EncodedPayload>> payloadsByRecipient = new LinkedHashMap<>();
+    for (PreparedTransaction prepared : preparedTransactions) {
+      for (PublicKey recipient : prepared.remoteRecipients) {
+        payloadsByRecipient
+            .computeIfAbsent(recipient, k -> new ArrayList<>())
+            .add(prepared.payload);
+      }
+    }
+
+    this.encryptedTransactionDAO.saveAll(
+        preparedTransactions.stream().map(p -> p.transaction).collect(Collectors.toList()),
+        () -> {
+          batchPayloadPublisher.publishPayloads(payloadsByRecipient);
+          return null;
+        });
+
+    LOGGER.debug(
+        "Stored {} transactions for {} remote recipients",
+        preparedTransactions.size(),
+        payloadsByRecipient.size());
+
+    return preparedTransactions.stream().map(p -> p.response).collect(Collectors.toList());
+  }
+
+  private PreparedTransaction prepare(SendRequest sendRequest) {
     final PublicKey senderPublicKey = sendRequest.getSender();
     final List<PublicKey> recipientList = new ArrayList<>(sendRequest.getRecipients());
     recipientList.add(senderPublicKey);
@@ -118,18 +244,14 @@ public class TransactionManagerImpl implements TransactionManager {
             .filter(not(managedPublicKeys::contains))
             .collect(Collectors.toList());
 
-    this.encryptedTransactionDAO.save(
-        newTransaction,
-        () -> {
-          batchPayloadPublisher.publishPayload(payload, recipientListRemotesOnly);
-          return null;
-        });
+    final SendResponse response =
+        SendResponse.Builder.create()
+            .withMessageHash(transactionHash)
+            .withManagedParties(managedParties)
+            .withSender(payload.getSenderKey())
+            .build();
 
-    return SendResponse.Builder.create()
-        .withMessageHash(transactionHash)
-        .withManagedParties(managedParties)
-        .withSender(payload.getSenderKey())
-        .build();
+    return new PreparedTransaction(newTransaction, payload, recipientListRemotesOnly, response);
   }
 
   @Override
@@ -209,7 +331,7 @@ public class TransactionManagerImpl implements TransactionManager {
   }
 
   @Override
-  public synchronized MessageHash storePayload(final EncodedPayload payload) {
+  public MessageHash storePayload(final EncodedPayload payload) {
 
     final byte[] digest = payloadDigest.digest(payload.getCipherText());
     final MessageHash transactionHash = new MessageHash(digest);
@@ -240,18 +362,43 @@ public class TransactionManagerImpl implements TransactionManager {
     if (enclave.getPublicKeys().contains(encodedPayload.getSenderKey())) {
       // This is our own message that we are rebuilding, handle separately
       this.resendManager.acceptOwnMessage(encodedPayload);
+      receiveResponseCache.invalidate(transactionHash);
       LOGGER.debug("Stored payload for which we were the sender. Hash = {}", transactionHash);
       return transactionHash;
     }
 
-    // This is a transaction with a different node as the sender
-    final Optional<EncryptedTransaction> tx =
+    // This is a transaction with a different node as the sender. Only pushes for the same hash
+    // conflict, so the read-merge-update is serialised per hash rather than globally.
+    final MessageHash storedHash =
+        storeLock.execute(
+            transactionHash, () -> storeRemotePayload(transactionHash, encodedPayload, payload));
+    receiveResponseCache.invalidate(transactionHash);
+    return storedHash;
+  }
+
+  private MessageHash storeRemotePayload(
+      final MessageHash transactionHash,
+      final EncodedPayload encodedPayload,
+      final EncodedPayload payload) {
+
+    Optional<EncryptedTransaction> tx =
         this.encryptedTransactionDAO.retrieveByHash(transactionHash);
     if (tx.isEmpty()) {
       // This is the first time we have seen the payload, so just save it to the database as is
-      this.encryptedTransactionDAO.save(new EncryptedTransaction(transactionHash, encodedPayload));
-      LOGGER.debug("Stored new payload with hash {}", transactionHash);
-      return transactionHash;
+      try {
+        this.encryptedTransactionDAO.save(
+            new EncryptedTransaction(transactionHash, encodedPayload));
+        LOGGER.debug("Stored new payload with hash {}", transactionHash);
+        return transactionHash;
+      } catch (RuntimeException ex) {
+        // another writer sharing the database may have stored the same hash first, in which case
+        // merge into that row rather than failing the push
+        tx = this.encryptedTransactionDAO.retrieveByHash(transactionHash);
+        if (tx.isEmpty()) {
+          throw ex;
+        }
+        LOGGER.debug("Payload with hash {} stored concurrently, merging", transactionHash);
+      }
     }
 
     final EncryptedTransaction encryptedTransaction = tx.get();
@@ -337,6 +484,7 @@ public class TransactionManagerImpl implements TransactionManager {
   public void delete(MessageHash messageHash) {
     LOGGER.info("Received request to delete message with hash {}", messageHash);
     this.encryptedTransactionDAO.delete(messageHash);
+    receiveResponseCache.invalidate(messageHash);
   }
 
   @Override
@@ -372,6 +520,15 @@ public class TransactionManagerImpl implements TransactionManager {
           .build();
     }
 
+    final PublicKey requestedRecipient = request.getRecipient().orElse(null);
+    final Optional<ReceiveResponse> cachedResponse =
+        receiveResponseCache.get(hash, requestedRecipient);
+    if (cachedResponse.isPresent()) {
+      LOGGER.debug("Found transaction {} in receive cache", hash);
+      return cachedResponse.get();
+    }
+    final long cacheGeneration = receiveResponseCache.getGeneration();
+
     final EncryptedTransaction encryptedTransaction =
         encryptedTransactionDAO
             .retrieveByHash(hash)
@@ -386,16 +543,85 @@ public class TransactionManagerImpl implements TransactionManager {
             .orElseThrow(
                 () -> new IllegalStateException("Unable to decode previously encoded payload"));
 
-    PublicKey recipientKey =
-        request
-            .getRecipient()
-            .orElse(
-                searchForRecipientKey(payload)
-                    .orElseThrow(
-                        () ->
-                            new RecipientKeyNotFoundException(
-                                "No suitable recipient keys found to decrypt payload for : "
-                                    + hash)));
+    final ReceiveResponse response = decrypt(hash, payload, requestedRecipient);
+
+    receiveResponseCache.put(hash, requestedRecipient, response, cacheGeneration);
+    return response;
+  }
+
+  @Override
+  public List<ReceiveResult> receiveAll(
+      final List<MessageHash> transactionHashes, final PublicKey recipient) {
+    LOGGER.info("Lookup {} transactions", transactionHashes.size());
+
+    final Map<MessageHash, ReceiveResult> results = new HashMap<>();
+    final Set<MessageHash> uncached = new HashSet<>();
+    for (MessageHash hash : new LinkedHashSet<>(transactionHashes)) {
+      final Optional<ReceiveResponse> cachedResponse = receiveResponseCache.get(hash, recipient);
+      if (cachedResponse.isPresent()) {
+        results.put(hash, ReceiveResult.success(hash, cachedResponse.get()));
+      } else {
+        uncached.add(hash);
+      }
+    }
+    LOGGER.debug("Found {} transactions in receive cache", results.size());
+    final long cacheGeneration = receiveResponseCache.getGeneration();
+
+    // one query for all the transactions, then each one is decoded and decrypted on its own thread
+    final List<CompletableFuture<ReceiveResult>> decryptions =
+        encryptedTransactionDAO.findByHashes(uncached).stream()
+            .map(
+                transaction ->
+                    CompletableFuture.supplyAsync(
+                        () -> receive(transaction, recipient, cacheGeneration), receiveExecutor))
+            .collect(Collectors.toList());
+
+    decryptions.stream()
+        .map(CompletableFuture::join)
+        .forEach(result -> results.put(result.getTransactionHash(), result));
+
+    return transactionHashes.stream()
+        .map(
+            hash ->
+                results.computeIfAbsent(
+                    hash,
+                    h ->
+                        ReceiveResult.failure(
+                            h,
+                            new TransactionNotFoundException(
+                                "Message with hash " + h + " was not found"))))
+        .collect(Collectors.toList());
+  }
+
+  private ReceiveResult receive(
+      final EncryptedTransaction encryptedTransaction,
+      final PublicKey recipient,
+      final long cacheGeneration) {
+    final MessageHash hash = encryptedTransaction.getHash();
+    try {
+      final ReceiveResponse response = decrypt(hash, encryptedTransaction.getPayload(), recipient);
+      receiveResponseCache.put(hash, recipient, response, cacheGeneration);
+      return ReceiveResult.success(hash, response);
+    } catch (RuntimeException ex) {
+      LOGGER.debug("Unable to receive transaction {}", hash, ex);
+      return ReceiveResult.failure(hash, ex);
+    }
+  }
+
+  private ReceiveResponse decrypt(
+      final MessageHash hash, final EncodedPayload payload, final PublicKey requestedRecipient) {
+
+    final PublicKey recipientKey =
+        Optional.ofNullable(requestedRecipient)
+            .orElseGet(
+                () ->
+                    enclave
+                        .findRecipientKey(payload)
+                        .orElseThrow(
+                            () ->
+                                new RecipientKeyNotFoundException(
+                                    "No suitable recipient keys found to decrypt payload for : "
+                                        + hash)));
 
     byte[] unencryptedTransactionData = enclave.unencryptTransaction(payload, recipientKey);
 
@@ -411,7 +637,7 @@ public class TransactionManagerImpl implements TransactionManager {
       for (RecipientBox box : payload.getRecipientBoxes()) {
         EncodedPayload singleBoxPayload =
             EncodedPayload.Builder.from(payload).withRecipientBoxes(List.of(box.getData())).build();
-        Optional<PublicKey> possibleRecipient = searchForRecipientKey(singleBoxPayload);
+        Optional<PublicKey> possibleRecipient = enclave.findRecipientKey(singleBoxPayload);
         possibleRecipient.ifPresent(managedParties::add);
       }
     } else {
@@ -434,18 +660,6 @@ public class TransactionManagerImpl implements TransactionManager {
         .build();
   }
 
-  private Optional<PublicKey> searchForRecipientKey(final EncodedPayload payload) {
-    for (final PublicKey potentialMatchingKey : enclave.getPublicKeys()) {
-      try {
-        enclave.unencryptTransaction(payload, potentialMatchingKey);
-        return Optional.of(potentialMatchingKey);
-      } catch (EnclaveException | IndexOutOfBoundsException | EncryptorException ex) {
-        LOGGER.debug("Attempted payload decryption using wrong key, discarding.");
-      }
-    }
-    return Optional.empty();
-  }
-
   @Override
   public StoreRawResponse store(StoreRawRequest storeRequest) {
 
@@ -472,21 +686,21 @@ public class TransactionManagerImpl implements TransactionManager {
 
   @Override
   public boolean isSender(final MessageHash hash) {
-    final EncodedPayload payload = this.fetchPayload(hash);
-    return enclave.getPublicKeys().contains(payload.getSenderKey());
+    final EncodedPayloadHeader header = this.fetchTransaction(hash).getPayloadHeader();
+    return enclave.getPublicKeys().contains(header.getSenderKey());
   }
 
   @Override
   public List<PublicKey> getParticipants(final MessageHash transactionHash) {
-    final EncodedPayload payload = this.fetchPayload(transactionHash);
+    final EncodedPayloadHeader header = this.fetchTransaction(transactionHash).getPayloadHeader();
 
     // this includes the sender
-    return payload.getRecipientKeys();
+    return header.getRecipientKeys();
   }
 
   @Override
   public Set<PublicKey> getMandatoryRecipients(MessageHash transactionHash) {
-    final EncodedPayload payload = this.fetchPayload(transactionHash);
+    final EncodedPayload payload = this.fetchTransaction(transactionHash).getPayload();
     if (payload.getPrivacyMode() != PrivacyMode.MANDATORY_RECIPIENTS) {
       throw new MandatoryRecipientsNotAvailableException(
           "Operation invalid. Transaction found is not a mandatory recipients privacy type");
@@ -499,10 +713,9 @@ public class TransactionManagerImpl implements TransactionManager {
     return enclave.defaultPublicKey();
   }
 
-  private EncodedPayload fetchPayload(final MessageHash hash) {
+  private EncryptedTransaction fetchTransaction(final MessageHash hash) {
     return encryptedTransactionDAO
         .retrieveByHash(hash)
-        .map(EncryptedTransaction::getPayload)
         .orElseThrow(
             () ->
                 new TransactionNotFoundException(
@@ -510,4 +723,27 @@ public class TransactionManagerImpl implements TransactionManager {
                         + Base64.getEncoder().encodeToString(hash.getHashBytes())
                         + " was not found"));
   }
+
+  /** An encrypted transaction that is ready to be stored and pushed to its remote recipients */
+  private static final class PreparedTransaction {
+
+    private final EncryptedTransaction transaction;
+
+    private final EncodedPayload payload;
+
+    private final List<PublicKey> remoteRecipients;
+
+    private final SendResponse response;
+
+    PreparedTransaction(
+        EncryptedTransaction transaction,
+        EncodedPayload payload,
+        List<PublicKey> remoteRecipients,
+        SendResponse response) {
+      this.transaction = transaction;
+      this.payload = payload;
+      this.remoteRecipients = remoteRecipients;
+      this.response = response;
+    }
+  }
 }
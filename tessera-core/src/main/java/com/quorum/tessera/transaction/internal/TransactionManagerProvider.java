@@ -1,5 +1,7 @@
 package com.quorum.tessera.transaction.internal;
 
+import com.quorum.tessera.config.ConfigFactory;
+import com.quorum.tessera.config.ServerConfig;
 import com.quorum.tessera.data.EncryptedRawTransactionDAO;
 import com.quorum.tessera.data.EncryptedTransactionDAO;
 import com.quorum.tessera.enclave.Enclave;
@@ -9,6 +11,13 @@ import com.quorum.tessera.transaction.TransactionManager;
 import com.quorum.tessera.transaction.publish.BatchPayloadPublisher;
 import com.quorum.tessera.transaction.publish.PayloadPublisher;
 import com.quorum.tessera.transaction.resend.ResendManager;
+import com.quorum.tessera.threading.StripedLock;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import javax.management.JMException;
+import javax.management.ObjectName;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -16,6 +25,8 @@ public class TransactionManagerProvider {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(TransactionManagerProvider.class);
 
+  static final String RECEIVE_PARALLELISM_PROPERTY = "receiveBatchParallelism";
+
   public static TransactionManager provider() {
     final TransactionManagerHolder transactionManagerHolder = TransactionManagerHolder.INSTANCE;
     if (transactionManagerHolder.getTransactionManager().isPresent()) {
@@ -48,6 +59,25 @@ public class TransactionManagerProvider {
     final PayloadDigest messageHashFactory = PayloadDigest.create();
     LOGGER.debug("Created PayloadDigest {}", messageHashFactory);
 
+    final Map<String, String> properties =
+        Optional.ofNullable(ConfigFactory.create().getConfig().getP2PServerConfig())
+            .map(ServerConfig::getProperties)
+            .orElse(null);
+    final ReceiveResponseCache receiveResponseCache = ReceiveResponseCache.from(properties);
+    if (receiveResponseCache.isEnabled()) {
+      LOGGER.info(
+          "Caching received transactions, up to {} bytes",
+          receiveResponseCache.getMaxSizeInBytes());
+      try {
+        ManagementFactory.getPlatformMBeanServer()
+            .registerMBean(
+                receiveResponseCache,
+                new ObjectName("com.quorum.tessera:type=ReceiveResponseCache"));
+      } catch (JMException ex) {
+        LOGGER.warn("Unable to register ReceiveResponseCache metrics", ex);
+      }
+    }
+
     return transactionManagerHolder.store(
         new TransactionManagerImpl(
             enclave,
@@ -56,6 +86,24 @@ public class TransactionManagerProvider {
             resendManager,
             batchPayloadPublisher,
             privacyHelper,
-            messageHashFactory));
+            messageHashFactory,
+            new StripedLock(),
+            receiveResponseCache,
+            new ForkJoinPool(receiveParallelism(properties))));
+  }
+
+  static int receiveParallelism(final Map<String, String> properties) {
+    final int defaultParallelism = Runtime.getRuntime().availableProcessors();
+    try {
+      final int parallelism =
+          Optional.ofNullable(properties)
+              .map(p -> p.get(RECEIVE_PARALLELISM_PROPERTY))
+              .map(Integer::parseInt)
+              .orElse(defaultParallelism);
+      return parallelism > 0 ? parallelism : defaultParallelism;
+    } catch (NumberFormatException ex) {
+      LOGGER.warn("Not able to parse configured property. Will use default value instead");
+      return defaultParallelism;
+    }
   }
 }
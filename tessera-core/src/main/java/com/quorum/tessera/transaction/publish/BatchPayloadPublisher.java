@@ -4,6 +4,7 @@ import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.serviceloader.ServiceLoaderUtil;
 import java.util.List;
+import java.util.Map;
 import java.util.ServiceLoader;
 
 public interface BatchPayloadPublisher {
@@ -17,6 +18,14 @@ public interface BatchPayloadPublisher {
    */
   void publishPayload(EncodedPayload payload, List<PublicKey> recipientKeys);
 
+  /**
+   * Strips and publishes several payloads, grouped by the recipient they are for, so that each
+   * recipient is sent all of its payloads together.
+   *
+   * @param payloadsByRecipient the payload objects to be stripped and pushed to each target node
+   */
+  void publishPayloads(Map<PublicKey, List<EncodedPayload>> payloadsByRecipient);
+
   static BatchPayloadPublisher create() {
     return ServiceLoaderUtil.loadSingle(ServiceLoader.load(BatchPayloadPublisher.class));
   }
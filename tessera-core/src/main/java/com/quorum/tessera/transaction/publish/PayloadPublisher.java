@@ -3,6 +3,7 @@ package com.quorum.tessera.transaction.publish;
 import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.serviceloader.ServiceLoaderUtil;
+import java.util.List;
 import java.util.ServiceLoader;
 
 /** Publishes messages from one node to another */
@@ -16,6 +17,17 @@ public interface PayloadPublisher {
    */
   void publishPayload(EncodedPayload payload, PublicKey recipientKey);
 
+  /**
+   * Publishes several EncodedPayloads to the recipient identified by the provided key. By default
+   * they are pushed one at a time, in order.
+   *
+   * @param payloads the payload objects to be pushed
+   * @param recipientKey the public key identifying the target node
+   */
+  default void publishPayloads(List<EncodedPayload> payloads, PublicKey recipientKey) {
+    payloads.forEach(payload -> publishPayload(payload, recipientKey));
+  }
+
   static PayloadPublisher create() {
     return ServiceLoaderUtil.loadSingle(ServiceLoader.load(PayloadPublisher.class));
   }
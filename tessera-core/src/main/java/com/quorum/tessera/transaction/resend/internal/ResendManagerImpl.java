@@ -5,6 +5,7 @@ import com.quorum.tessera.data.EncryptedTransactionDAO;
 import com.quorum.tessera.data.MessageHash;
 import com.quorum.tessera.enclave.*;
 import com.quorum.tessera.encryption.PublicKey;
+import com.quorum.tessera.threading.StripedLock;
 import com.quorum.tessera.transaction.resend.ResendManager;
 import java.util.*;
 
@@ -16,14 +17,25 @@ public class ResendManagerImpl implements ResendManager {
 
   private final PayloadDigest payloadDigest;
 
+  private final StripedLock storeLock;
+
   public ResendManagerImpl(
       final EncryptedTransactionDAO dao, final Enclave enclave, final PayloadDigest payloadDigest) {
+    this(dao, enclave, payloadDigest, new StripedLock());
+  }
+
+  public ResendManagerImpl(
+      final EncryptedTransactionDAO dao,
+      final Enclave enclave,
+      final PayloadDigest payloadDigest,
+      final StripedLock storeLock) {
     this.encryptedTransactionDAO = dao;
     this.enclave = enclave;
     this.payloadDigest = payloadDigest;
+    this.storeLock = Objects.requireNonNull(storeLock);
   }
 
-  public synchronized void acceptOwnMessage(final EncodedPayload payload) {
+  public void acceptOwnMessage(final EncodedPayload payload) {
     // check the payload can be decrypted to ensure it isn't rubbish being sent to us
     final byte[] newDecrypted;
     if (payload.getPrivacyMode() == PrivacyMode.PRIVATE_STATE_VALIDATION) {
@@ -58,7 +70,19 @@ public class ResendManagerImpl implements ResendManager {
               + " does not have one the nodes own keys as a sender");
     }
 
-    // this is a tx which we created
+    // this is a tx which we created, only updates to the same hash need to be serialised
+    storeLock.execute(
+        transactionHash,
+        () -> {
+          storeOwnMessage(transactionHash, payload, newDecrypted);
+          return null;
+        });
+  }
+
+  private void storeOwnMessage(
+      final MessageHash transactionHash, final EncodedPayload payload, final byte[] newDecrypted) {
+    final PublicKey sender = payload.getSenderKey();
+
     final Optional<EncryptedTransaction> tx =
         this.encryptedTransactionDAO.retrieveByHash(transactionHash);
 
@@ -0,0 +1,278 @@
+package com.quorum.tessera.transaction.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import com.quorum.tessera.data.MessageHash;
+import com.quorum.tessera.enclave.PrivacyGroup;
+import com.quorum.tessera.enclave.PrivacyMode;
+import com.quorum.tessera.encryption.PublicKey;
+import com.quorum.tessera.transaction.ReceiveResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReceiveResponseCacheTest {
+
+  // the estimated size of a response with four bytes of data and no other keys
+  private static final long RESPONSE_SIZE =
+      ReceiveResponseCache.ENTRY_OVERHEAD_BYTES + ReceiveResponseCache.KEY_OVERHEAD_BYTES + 4;
+
+  private AtomicLong clock;
+
+  private ReceiveResponseCache cache;
+
+  private PublicKey sender;
+
+  private PublicKey recipient;
+
+  @Before
+  public void onSetUp() {
+    clock = new AtomicLong();
+    cache = new ReceiveResponseCache(2 * RESPONSE_SIZE, Duration.ofNanos(100), clock::get);
+    sender = PublicKey.from("sender".getBytes());
+    recipient = PublicKey.from("recipient".getBytes());
+  }
+
+  @Test
+  public void repeatedLookupIsServedFromCache() {
+    MessageHash hash = new MessageHash("hash".getBytes());
+    ReceiveResponse response =
+        ReceiveResponse.Builder.create()
+            .withUnencryptedTransactionData("data".getBytes())
+            .withPrivacyMode(PrivacyMode.PRIVATE_STATE_VALIDATION)
+            .withExecHash("exec".getBytes())
+            .withAffectedTransactions(Set.of(new MessageHash("affected".getBytes())))
+            .withManagedParties(Set.of(recipient))
+            .withSender(sender)
+            .withPrivacyGroupId(PrivacyGroup.Id.fromBytes("group".getBytes()))
+            .build();
+
+    assertThat(cache.get(hash, recipient)).isEmpty();
+    cache.put(hash, recipient, response, cache.getGeneration());
+
+    Optional<ReceiveResponse> cached = cache.get(hash, recipient);
+
+    assertThat(cached).isPresent();
+    assertThat(cached.get()).isNotSameAs(response);
+    assertThat(cached.get().getUnencryptedTransactionData()).isEqualTo("data".getBytes());
+    assertThat(cached.get().getPrivacyMode()).isEqualTo(PrivacyMode.PRIVATE_STATE_VALIDATION);
+    assertThat(cached.get().getExecHash()).isEqualTo("exec".getBytes());
+    assertThat(cached.get().getAffectedTransactions())
+        .containsExactly(new MessageHash("affected".getBytes()));
+    assertThat(cached.get().getManagedParties()).containsExactly(recipient);
+    assertThat(cached.get().sender()).isEqualTo(sender);
+    assertThat(cached.get().getPrivacyGroupId())
+        .contains(PrivacyGroup.Id.fromBytes("group".getBytes()));
+
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(cache.getMissCount()).isEqualTo(1);
+    assertThat(cache.getHitRatio()).isEqualTo(0.5);
+    assertThat(cache.getEntryCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void responsesAreKeyedByRecipient() {
+    MessageHash hash = new MessageHash("hash".getBytes());
+    PublicKey otherRecipient = PublicKey.from("other".getBytes());
+
+    cache.put(hash, recipient, response("data"), cache.getGeneration());
+
+    assertThat(cache.get(hash, otherRecipient)).isEmpty();
+    assertThat(cache.get(hash, null)).isEmpty();
+
+    cache.put(hash, null, response("null"), cache.getGeneration());
+
+    assertThat(cache.get(hash, null).get().getUnencryptedTransactionData())
+        .isEqualTo("null".getBytes());
+    assertThat(cache.get(hash, recipient).get().getUnencryptedTransactionData())
+        .isEqualTo("data".getBytes());
+    assertThat(cache.getEntryCount()).isEqualTo(1);
+    assertThat(cache.getSizeInBytes()).isEqualTo(2 * RESPONSE_SIZE);
+  }
+
+  @Test
+  public void replacedResponseIsZeroed() {
+    MessageHash hash = new MessageHash("hash".getBytes());
+    byte[] data = "data".getBytes();
+
+    cache.put(hash, recipient, mockResponse(data), cache.getGeneration());
+    cache.put(hash, recipient, response("next"), cache.getGeneration());
+
+    assertThat(data).containsOnly(0);
+    assertThat(cache.get(hash, recipient).get().getUnencryptedTransactionData())
+        .isEqualTo("next".getBytes());
+    assertThat(cache.getSizeInBytes()).isEqualTo(RESPONSE_SIZE);
+  }
+
+  @Test
+  public void expiredResponseIsDroppedAndZeroed() {
+    MessageHash hash = new MessageHash("hash".getBytes());
+    byte[] data = "data".getBytes();
+
+    cache.put(hash, recipient, mockResponse(data), cache.getGeneration());
+    clock.addAndGet(100);
+
+    assertThat(cache.get(hash, recipient)).isEmpty();
+    assertThat(data).containsOnly(0);
+    assertThat(cache.getEntryCount()).isZero();
+    assertThat(cache.getSizeInBytes()).isZero();
+  }
+
+  @Test
+  public void oldestTransactionIsEvictedToStayWithinSizeBound() {
+    MessageHash first = new MessageHash("first".getBytes());
+    MessageHash second = new MessageHash("second".getBytes());
+    MessageHash third = new MessageHash("third".getBytes());
+    byte[] data = "data".getBytes();
+
+    cache.put(first, recipient, mockResponse(data), cache.getGeneration());
+    cache.put(second, recipient, response("data"), cache.getGeneration());
+    cache.put(third, recipient, response("data"), cache.getGeneration());
+
+    assertThat(cache.get(first, recipient)).isEmpty();
+    assertThat(cache.get(second, recipient)).isPresent();
+    assertThat(cache.get(third, recipient)).isPresent();
+    assertThat(data).containsOnly(0);
+    assertThat(cache.getEvictionCount()).isEqualTo(1);
+    assertThat(cache.getSizeInBytes()).isEqualTo(2 * RESPONSE_SIZE);
+    assertThat(cache.getMaxSizeInBytes()).isEqualTo(2 * RESPONSE_SIZE);
+  }
+
+  @Test
+  public void responseLargerThanBoundIsNotCached() {
+    MessageHash hash = new MessageHash("hash".getBytes());
+    byte[] data = new byte[(int) (2 * RESPONSE_SIZE)];
+    data[0] = 1;
+
+    cache.put(hash, recipient, mockResponse(data), cache.getGeneration());
+
+    assertThat(cache.get(hash, recipient)).isEmpty();
+    assertThat(data).containsOnly(0);
+    assertThat(cache.getEntryCount()).isZero();
+  }
+
+  @Test
+  public void invalidateDropsAndZeroesTransaction() {
+    MessageHash hash = new MessageHash("hash".getBytes());
+    MessageHash other = new MessageHash("other".getBytes());
+    byte[] data = "data".getBytes();
+
+    cache.put(hash, recipient, mockResponse(data), cache.getGeneration());
+    cache.put(other, recipient, response("data"), cache.getGeneration());
+
+    cache.invalidate(hash);
+    cache.invalidate(new MessageHash("unknown".getBytes()));
+
+    assertThat(data).containsOnly(0);
+    assertThat(cache.get(hash, recipient)).isEmpty();
+    assertThat(cache.get(other, recipient)).isPresent();
+    assertThat(cache.getSizeInBytes()).isEqualTo(RESPONSE_SIZE);
+  }
+
+  @Test
+  public void responseReadBeforeInvalidationIsNotCached() {
+    MessageHash hash = new MessageHash("hash".getBytes());
+    byte[] data = "data".getBytes();
+
+    long generation = cache.getGeneration();
+    cache.invalidate(hash);
+    cache.put(hash, recipient, mockResponse(data), generation);
+
+    assertThat(cache.get(hash, recipient)).isEmpty();
+    assertThat(data).containsOnly(0);
+  }
+
+  @Test
+  public void invalidateAllDropsEveryTransaction() {
+    byte[] data = "data".getBytes();
+    cache.put(new MessageHash("first".getBytes()), recipient, mockResponse(data), 0);
+    cache.put(new MessageHash("second".getBytes()), recipient, response("data"), 0);
+
+    cache.invalidateAll();
+
+    assertThat(data).containsOnly(0);
+    assertThat(cache.getEntryCount()).isZero();
+    assertThat(cache.getSizeInBytes()).isZero();
+    assertThat(cache.getGeneration()).isEqualTo(1);
+  }
+
+  @Test
+  public void disabledCacheHoldsNothing() {
+    ReceiveResponseCache disabled = ReceiveResponseCache.disabled();
+    MessageHash hash = new MessageHash("hash".getBytes());
+
+    disabled.put(hash, recipient, response("data"), disabled.getGeneration());
+    disabled.invalidate(hash);
+
+    assertThat(disabled.isEnabled()).isFalse();
+    assertThat(disabled.get(hash, recipient)).isEmpty();
+    assertThat(disabled.getGeneration()).isZero();
+    assertThat(disabled.getEntryCount()).isZero();
+    assertThat(disabled.getMissCount()).isZero();
+    assertThat(disabled.getHitRatio()).isZero();
+  }
+
+  @Test
+  public void defaultsAreDisabled() {
+    assertThat(ReceiveResponseCache.from(null).isEnabled()).isFalse();
+    assertThat(ReceiveResponseCache.from(Map.of()).isEnabled()).isFalse();
+  }
+
+  @Test
+  public void fromProperties() {
+    ReceiveResponseCache configured =
+        ReceiveResponseCache.from(
+            Map.of(
+                ReceiveResponseCache.MAX_BYTES_PROPERTY, "1048576",
+                ReceiveResponseCache.TTL_PROPERTY, "500"));
+
+    assertThat(configured.isEnabled()).isTrue();
+    assertThat(configured.getMaxSizeInBytes()).isEqualTo(1048576);
+  }
+
+  @Test
+  public void zeroTtlDisablesCache() {
+    ReceiveResponseCache configured =
+        ReceiveResponseCache.from(
+            Map.of(
+                ReceiveResponseCache.MAX_BYTES_PROPERTY, "1048576",
+                ReceiveResponseCache.TTL_PROPERTY, "0"));
+
+    assertThat(configured.isEnabled()).isFalse();
+  }
+
+  @Test
+  public void unparseablePropertyUsesDefaults() {
+    ReceiveResponseCache configured =
+        ReceiveResponseCache.from(Map.of(ReceiveResponseCache.MAX_BYTES_PROPERTY, "lots"));
+
+    assertThat(configured.isEnabled()).isFalse();
+    assertThat(configured.getMaxSizeInBytes()).isZero();
+  }
+
+  private ReceiveResponse response(String data) {
+    return ReceiveResponse.Builder.create()
+        .withUnencryptedTransactionData(data.getBytes())
+        .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
+        .withSender(sender)
+        .build();
+  }
+
+  // unlike a built response, a mock hands the cache the array it was given, so zeroing is visible
+  private ReceiveResponse mockResponse(byte[] data) {
+    ReceiveResponse response = mock(ReceiveResponse.class);
+    when(response.getUnencryptedTransactionData()).thenReturn(data);
+    when(response.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
+    when(response.getExecHash()).thenReturn(new byte[0]);
+    when(response.getAffectedTransactions()).thenReturn(Set.of());
+    when(response.getManagedParties()).thenReturn(Set.of());
+    when(response.sender()).thenReturn(sender);
+    when(response.getPrivacyGroupId()).thenReturn(Optional.empty());
+    return response;
+  }
+}
@@ -5,6 +5,7 @@ import static org.mockito.Mockito.*;
 
 import com.quorum.tessera.config.Config;
 import com.quorum.tessera.config.ConfigFactory;
+import com.quorum.tessera.config.ServerConfig;
 import com.quorum.tessera.data.EncryptedRawTransactionDAO;
 import com.quorum.tessera.data.EncryptedTransactionDAO;
 import com.quorum.tessera.enclave.Enclave;
@@ -14,6 +15,10 @@ import com.quorum.tessera.transaction.TransactionManager;
 import com.quorum.tessera.transaction.publish.BatchPayloadPublisher;
 import com.quorum.tessera.transaction.publish.PayloadPublisher;
 import com.quorum.tessera.transaction.resend.ResendManager;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -104,6 +109,70 @@ public class TransactionManagerProviderTest {
     }
   }
 
+  @Test
+  public void providerWithReceiveCacheRegistersMetrics() throws Exception {
+    final ObjectName name = new ObjectName("com.quorum.tessera:type=ReceiveResponseCache");
+    final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    try (var mockedStaticConfigFactory = mockStatic(ConfigFactory.class);
+        var mockedStaticEncryptedTransactionDAO = mockStatic(EncryptedTransactionDAO.class);
+        var mockedStaticEnclave = mockStatic(Enclave.class);
+        var mockedStaticEncryptedRawTransactionDAO = mockStatic(EncryptedRawTransactionDAO.class);
+        var mockedStaticPayloadPublisher = mockStatic(PayloadPublisher.class);
+        var mockedStaticBatchPayloadPublisher = mockStatic(BatchPayloadPublisher.class);
+        var mockedStaticPrivacyHelper = mockStatic(PrivacyHelper.class);
+        var mockedStaticResendManager = mockStatic(ResendManager.class);
+        var mockedStaticPayloadDigest = mockStatic(PayloadDigest.class)) {
+
+      ServerConfig p2pServerConfig = mock(ServerConfig.class);
+      when(p2pServerConfig.getProperties())
+          .thenReturn(Map.of(ReceiveResponseCache.MAX_BYTES_PROPERTY, "1048576"));
+      Config config = mock(Config.class);
+      when(config.getP2PServerConfig()).thenReturn(p2pServerConfig);
+      ConfigFactory configFactory = mock(ConfigFactory.class);
+      when(configFactory.getConfig()).thenReturn(config);
+      mockedStaticConfigFactory.when(ConfigFactory::create).thenReturn(configFactory);
+
+      mockedStaticEnclave.when(Enclave::create).thenReturn(mock(Enclave.class));
+      mockedStaticEncryptedTransactionDAO
+          .when(EncryptedTransactionDAO::create)
+          .thenReturn(mock(EncryptedTransactionDAO.class));
+      mockedStaticEncryptedRawTransactionDAO
+          .when(EncryptedRawTransactionDAO::create)
+          .thenReturn(mock(EncryptedRawTransactionDAO.class));
+      mockedStaticBatchPayloadPublisher
+          .when(BatchPayloadPublisher::create)
+          .thenReturn(mock(BatchPayloadPublisher.class));
+      mockedStaticPrivacyHelper.when(PrivacyHelper::create).thenReturn(mock(PrivacyHelper.class));
+      mockedStaticResendManager.when(ResendManager::create).thenReturn(mock(ResendManager.class));
+      mockedStaticPayloadDigest.when(PayloadDigest::create).thenReturn(mock(PayloadDigest.class));
+
+      assertThat(TransactionManagerProvider.provider()).isNotNull();
+      assertThat(mBeanServer.isRegistered(name)).isTrue();
+      assertThat(mBeanServer.getAttribute(name, "MaxSizeInBytes")).isEqualTo(1048576L);
+
+      // a second cache cannot take the name, which only loses its metrics
+      TransactionManagerHolder.INSTANCE.store(null);
+      assertThat(TransactionManagerProvider.provider()).isNotNull();
+    } finally {
+      mBeanServer.unregisterMBean(name);
+    }
+  }
+
+  @Test
+  public void receiveParallelism() {
+    final int processors = Runtime.getRuntime().availableProcessors();
+    final String property = TransactionManagerProvider.RECEIVE_PARALLELISM_PROPERTY;
+
+    assertThat(TransactionManagerProvider.receiveParallelism(null)).isEqualTo(processors);
+    assertThat(TransactionManagerProvider.receiveParallelism(Map.of())).isEqualTo(processors);
+    assertThat(TransactionManagerProvider.receiveParallelism(Map.of(property, "3"))).isEqualTo(3);
+    assertThat(TransactionManagerProvider.receiveParallelism(Map.of(property, "0")))
+        .isEqualTo(processors);
+    assertThat(TransactionManagerProvider.receiveParallelism(Map.of(property, "many")))
+        .isEqualTo(processors);
+  }
+
   @Test
   public void defaultConstructorForCoverage() {
     assertThat(new TransactionManagerProvider()).isNotNull();
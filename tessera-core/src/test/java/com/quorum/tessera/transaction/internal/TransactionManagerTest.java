@@ -16,6 +16,8 @@ import com.quorum.tessera.transaction.exception.RecipientKeyNotFoundException;
 import com.quorum.tessera.transaction.exception.TransactionNotFoundException;
 import com.quorum.tessera.transaction.publish.BatchPayloadPublisher;
 import com.quorum.tessera.transaction.resend.ResendManager;
+import com.quorum.tessera.threading.StripedLock;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.Callable;
 import org.junit.After;
@@ -189,6 +191,75 @@ public class TransactionManagerTest {
     verify(batchPayloadPublisher).publishPayload(any(), anyList());
   }
 
+  @Test
+  public void sendAllStoresTogetherAndGroupsPushesByRecipient() throws Exception {
+    PublicKey sender = PublicKey.from("SENDER".getBytes());
+    PublicKey local = PublicKey.from("LOCAL".getBytes());
+    PublicKey remote = PublicKey.from("REMOTE".getBytes());
+    PublicKey otherRemote = PublicKey.from("OTHER".getBytes());
+
+    EncodedPayload firstPayload = mock(EncodedPayload.class);
+    when(firstPayload.getCipherText()).thenReturn("FIRST".getBytes());
+    when(firstPayload.getSenderKey()).thenReturn(sender);
+    EncodedPayload secondPayload = mock(EncodedPayload.class);
+    when(secondPayload.getCipherText()).thenReturn("SECOND".getBytes());
+    when(secondPayload.getSenderKey()).thenReturn(sender);
+
+    SendRequest first = mock(SendRequest.class);
+    when(first.getPayload()).thenReturn("first".getBytes());
+    when(first.getSender()).thenReturn(sender);
+    when(first.getRecipients()).thenReturn(List.of(local, remote));
+    when(first.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
+    SendRequest second = mock(SendRequest.class);
+    when(second.getPayload()).thenReturn("second".getBytes());
+    when(second.getSender()).thenReturn(sender);
+    when(second.getRecipients()).thenReturn(List.of(remote, otherRemote));
+    when(second.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
+
+    when(enclave.encryptPayload(eq("first".getBytes()), any(), any(), any()))
+        .thenReturn(firstPayload);
+    when(enclave.encryptPayload(eq("second".getBytes()), any(), any(), any()))
+        .thenReturn(secondPayload);
+    when(enclave.getPublicKeys()).thenReturn(Set.of(sender, local));
+
+    when(encryptedTransactionDAO.saveAll(anyList(), any(Callable.class)))
+        .thenAnswer(
+            invocation -> {
+              Callable callable = invocation.getArgument(1);
+              callable.call();
+              return invocation.getArgument(0);
+            });
+
+    List<SendResponse> responses = transactionManager.sendAll(List.of(first, second));
+
+    assertThat(responses)
+        .extracting(SendResponse::getTransactionHash)
+        .containsExactly(
+            new MessageHash("FIRST".getBytes()), new MessageHash("SECOND".getBytes()));
+    assertThat(responses.get(0).getManagedParties()).containsExactlyInAnyOrder(sender, local);
+    assertThat(responses.get(1).getManagedParties()).containsExactly(sender);
+
+    ArgumentCaptor<List<EncryptedTransaction>> storedCaptor = ArgumentCaptor.forClass(List.class);
+    verify(encryptedTransactionDAO).saveAll(storedCaptor.capture(), any(Callable.class));
+    assertThat(storedCaptor.getValue())
+        .extracting(EncryptedTransaction::getPayload)
+        .containsExactly(firstPayload, secondPayload);
+
+    Map<PublicKey, List<EncodedPayload>> expectedPushes = new LinkedHashMap<>();
+    expectedPushes.put(remote, List.of(firstPayload, secondPayload));
+    expectedPushes.put(otherRemote, List.of(secondPayload));
+    verify(batchPayloadPublisher).publishPayloads(expectedPushes);
+
+    verify(enclave, times(2)).encryptPayload(any(), any(), any(), any());
+    verify(enclave, times(2)).getForwardingKeys();
+    verify(enclave, times(2)).getPublicKeys();
+  }
+
+  @Test
+  public void sendAllWithNoRequestsDoesNothing() {
+    assertThat(transactionManager.sendAll(List.of())).isEmpty();
+  }
+
   @Test
   public void sendWithDuplicateRecipients() {
     EncodedPayload encodedPayload = mock(EncodedPayload.class);
@@ -442,6 +513,233 @@ public class TransactionManagerTest {
     verify(encryptedTransactionDAO).delete(messageHash);
   }
 
+  @Test
+  public void receiveIsServedFromCacheUntilDeleted() {
+    final ReceiveResponseCache cache = new ReceiveResponseCache(1 << 20, Duration.ofMinutes(1));
+    transactionManager = transactionManagerWith(cache);
+
+    final PublicKey sender = PublicKey.from("sender".getBytes());
+    final PublicKey recipient = PublicKey.from("recipient".getBytes());
+    final MessageHash messageHash = new MessageHash("hash".getBytes());
+
+    final ReceiveRequest receiveRequest = mock(ReceiveRequest.class);
+    when(receiveRequest.getRecipient()).thenReturn(Optional.of(recipient));
+    when(receiveRequest.getTransactionHash()).thenReturn(messageHash);
+
+    final EncodedPayload payload = mock(EncodedPayload.class);
+    when(payload.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
+    when(payload.getRecipientKeys()).thenReturn(List.of(recipient));
+    when(payload.getSenderKey()).thenReturn(sender);
+    when(payload.getExecHash()).thenReturn(new byte[0]);
+
+    final EncryptedTransaction encryptedTransaction = mock(EncryptedTransaction.class);
+    when(encryptedTransaction.getPayload()).thenReturn(payload);
+    when(encryptedTransactionDAO.retrieveByHash(messageHash))
+        .thenReturn(Optional.of(encryptedTransaction));
+    when(enclave.unencryptTransaction(payload, recipient)).thenReturn("data".getBytes());
+    when(enclave.getPublicKeys()).thenReturn(Set.of(recipient));
+
+    final ReceiveResponse first = transactionManager.receive(receiveRequest);
+    final ReceiveResponse second = transactionManager.receive(receiveRequest);
+
+    assertThat(second).isNotSameAs(first);
+    assertThat(second.getUnencryptedTransactionData()).isEqualTo("data".getBytes());
+    assertThat(second.getManagedParties()).containsExactly(recipient);
+    assertThat(cache.getHitCount()).isEqualTo(1);
+
+    transactionManager.delete(messageHash);
+    transactionManager.receive(receiveRequest);
+
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    verify(encryptedTransactionDAO).delete(messageHash);
+    verify(encryptedTransactionDAO, times(2)).retrieveByHash(messageHash);
+    verify(enclave, times(2)).unencryptTransaction(payload, recipient);
+    verify(enclave, times(2)).getPublicKeys();
+  }
+
+  @Test
+  public void storePayloadInvalidatesCachedResponse() {
+    final ReceiveResponseCache cache = new ReceiveResponseCache(1 << 20, Duration.ofMinutes(1));
+    transactionManager = transactionManagerWith(cache);
+
+    final MessageHash messageHash = new MessageHash("CIPHERTEXT".getBytes());
+    final PublicKey recipient = PublicKey.from("recipient".getBytes());
+    final ReceiveResponse response =
+        ReceiveResponse.Builder.create()
+            .withUnencryptedTransactionData("data".getBytes())
+            .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
+            .withSender(PublicKey.from("sender".getBytes()))
+            .build();
+    cache.put(messageHash, recipient, response, cache.getGeneration());
+
+    final EncodedPayload payload = mock(EncodedPayload.class);
+    when(payload.getCipherText()).thenReturn("CIPHERTEXT".getBytes());
+    when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
+        .thenReturn(Optional.empty());
+
+    transactionManager.storePayload(payload);
+
+    assertThat(cache.get(messageHash, recipient)).isEmpty();
+
+    verify(encryptedTransactionDAO).save(any(EncryptedTransaction.class));
+    verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
+    verify(enclave).getPublicKeys();
+    verify(enclave).findInvalidSecurityHashes(any(EncodedPayload.class), anyList());
+  }
+
+  @Test
+  public void storeOwnPayloadInvalidatesCachedResponse() {
+    final ReceiveResponseCache cache = new ReceiveResponseCache(1 << 20, Duration.ofMinutes(1));
+    transactionManager = transactionManagerWith(cache);
+
+    final PublicKey senderKey = PublicKey.from("SENDER".getBytes());
+    final MessageHash messageHash = new MessageHash("CIPHERTEXT".getBytes());
+    final ReceiveResponse response =
+        ReceiveResponse.Builder.create()
+            .withUnencryptedTransactionData("data".getBytes())
+            .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
+            .withSender(senderKey)
+            .build();
+    cache.put(messageHash, null, response, cache.getGeneration());
+
+    final EncodedPayload encodedPayload = mock(EncodedPayload.class);
+    when(encodedPayload.getSenderKey()).thenReturn(senderKey);
+    when(encodedPayload.getCipherText()).thenReturn("CIPHERTEXT".getBytes());
+    when(enclave.getPublicKeys()).thenReturn(singleton(senderKey));
+
+    transactionManager.storePayload(encodedPayload);
+
+    assertThat(cache.get(messageHash, null)).isEmpty();
+
+    verify(resendManager).acceptOwnMessage(encodedPayload);
+    verify(enclave).getPublicKeys();
+    verify(enclave).findInvalidSecurityHashes(any(EncodedPayload.class), anyList());
+  }
+
+  @Test
+  public void receiveAllReturnsResultForEachHashInRequestOrder() {
+    final PublicKey sender = PublicKey.from("sender".getBytes());
+    final PublicKey recipient = PublicKey.from("recipient".getBytes());
+    final MessageHash found = new MessageHash("found".getBytes());
+    final MessageHash missing = new MessageHash("missing".getBytes());
+    final MessageHash undecryptable = new MessageHash("undecryptable".getBytes());
+
+    final EncodedPayload payload = mock(EncodedPayload.class);
+    when(payload.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
+    when(payload.getRecipientKeys()).thenReturn(List.of(recipient));
+    when(payload.getSenderKey()).thenReturn(sender);
+    when(payload.getExecHash()).thenReturn(new byte[0]);
+    final EncryptedTransaction foundTransaction = mock(EncryptedTransaction.class);
+    when(foundTransaction.getHash()).thenReturn(found);
+    when(foundTransaction.getPayload()).thenReturn(payload);
+
+    final EncodedPayload otherPayload = mock(EncodedPayload.class);
+    final EncryptedTransaction undecryptableTransaction = mock(EncryptedTransaction.class);
+    when(undecryptableTransaction.getHash()).thenReturn(undecryptable);
+    when(undecryptableTransaction.getPayload()).thenReturn(otherPayload);
+
+    when(encryptedTransactionDAO.findByHashes(anyCollection()))
+        .thenReturn(List.of(undecryptableTransaction, foundTransaction));
+    when(enclave.findRecipientKey(payload)).thenReturn(Optional.of(recipient));
+    when(enclave.findRecipientKey(otherPayload)).thenReturn(Optional.empty());
+    when(enclave.unencryptTransaction(payload, recipient)).thenReturn("data".getBytes());
+    when(enclave.getPublicKeys()).thenReturn(Set.of(recipient));
+
+    final List<ReceiveResult> results =
+        transactionManager.receiveAll(List.of(found, missing, undecryptable, found), null);
+
+    assertThat(results)
+        .extracting(ReceiveResult::getTransactionHash)
+        .containsExactly(found, missing, undecryptable, found);
+
+    assertThat(results.get(0).getFailure()).isEmpty();
+    assertThat(results.get(0).getResponse().get().getUnencryptedTransactionData())
+        .isEqualTo("data".getBytes());
+    assertThat(results.get(0).getResponse().get().getManagedParties()).containsExactly(recipient);
+    assertThat(results.get(3)).isSameAs(results.get(0));
+
+    assertThat(results.get(1).getResponse()).isEmpty();
+    assertThat(results.get(1).getFailure().get())
+        .isExactlyInstanceOf(TransactionNotFoundException.class);
+
+    assertThat(results.get(2).getResponse()).isEmpty();
+    assertThat(results.get(2).getFailure().get())
+        .isExactlyInstanceOf(RecipientKeyNotFoundException.class);
+
+    verify(encryptedTransactionDAO).findByHashes(Set.of(found, missing, undecryptable));
+    verify(enclave).findRecipientKey(payload);
+    verify(enclave).findRecipientKey(otherPayload);
+    verify(enclave).unencryptTransaction(payload, recipient);
+    verify(enclave).getPublicKeys();
+  }
+
+  @Test
+  public void receiveAllOnlyLoadsTransactionsMissingFromCache() {
+    final ReceiveResponseCache cache = new ReceiveResponseCache(1 << 20, Duration.ofMinutes(1));
+    transactionManager =
+        new TransactionManagerImpl(
+            enclave,
+            encryptedTransactionDAO,
+            encryptedRawTransactionDAO,
+            resendManager,
+            batchPayloadPublisher,
+            privacyHelper,
+            mockDigest,
+            new StripedLock(),
+            cache,
+            Runnable::run);
+
+    final PublicKey sender = PublicKey.from("sender".getBytes());
+    final PublicKey recipient = PublicKey.from("recipient".getBytes());
+    final MessageHash cached = new MessageHash("cached".getBytes());
+    final MessageHash stored = new MessageHash("stored".getBytes());
+    cache.put(
+        cached,
+        recipient,
+        ReceiveResponse.Builder.create()
+            .withUnencryptedTransactionData("cached".getBytes())
+            .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
+            .withSender(sender)
+            .build(),
+        cache.getGeneration());
+
+    final EncodedPayload payload = mock(EncodedPayload.class);
+    when(payload.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
+    when(payload.getSenderKey()).thenReturn(sender);
+    when(payload.getExecHash()).thenReturn(new byte[0]);
+    final EncryptedTransaction storedTransaction = mock(EncryptedTransaction.class);
+    when(storedTransaction.getHash()).thenReturn(stored);
+    when(storedTransaction.getPayload()).thenReturn(payload);
+
+    when(encryptedTransactionDAO.findByHashes(anyCollection()))
+        .thenReturn(List.of(storedTransaction));
+    when(enclave.unencryptTransaction(payload, recipient)).thenReturn("stored".getBytes());
+
+    final List<ReceiveResult> results =
+        transactionManager.receiveAll(List.of(cached, stored), recipient);
+
+    assertThat(results)
+        .extracting(r -> r.getResponse().get().getUnencryptedTransactionData())
+        .containsExactly("cached".getBytes(), "stored".getBytes());
+    assertThat(cache.get(stored, recipient)).isPresent();
+
+    verify(encryptedTransactionDAO).findByHashes(Set.of(stored));
+    verify(enclave).unencryptTransaction(payload, recipient);
+  }
+
+  private TransactionManager transactionManagerWith(final ReceiveResponseCache cache) {
+    return new TransactionManagerImpl(
+        enclave,
+        encryptedTransactionDAO,
+        encryptedRawTransactionDAO,
+        resendManager,
+        batchPayloadPublisher,
+        privacyHelper,
+        mockDigest,
+        new StripedLock(),
+        cache);
+  }
+
   @Test
   public void storePayloadAsRecipient() {
     EncodedPayload payload = mock(EncodedPayload.class);
@@ -458,6 +756,70 @@ public class TransactionManagerTest {
     verify(enclave).findInvalidSecurityHashes(any(EncodedPayload.class), anyList());
   }
 
+  @Test
+  public void storePayloadAsRecipientMergesWhenStoredConcurrently() {
+    PublicKey recipient1 = PublicKey.from("recipient1".getBytes());
+    PublicKey recipient2 = PublicKey.from("recipient2".getBytes());
+
+    EncodedPayload existingPayload = mock(EncodedPayload.class);
+    when(existingPayload.getCipherText()).thenReturn("ct1".getBytes());
+    when(existingPayload.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
+    when(existingPayload.getRecipientKeys()).thenReturn(List.of(recipient1));
+    when(existingPayload.getRecipientBoxes())
+        .thenReturn(List.of(RecipientBox.from("recipient_box1".getBytes())));
+
+    EncryptedTransaction existingDatabaseEntry =
+        new EncryptedTransaction(mock(MessageHash.class), existingPayload);
+
+    when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
+        .thenReturn(Optional.empty())
+        .thenReturn(Optional.of(existingDatabaseEntry));
+    when(encryptedTransactionDAO.save(any(EncryptedTransaction.class)))
+        .thenThrow(new RuntimeException("duplicate key"));
+
+    EncodedPayload payloadToStore = mock(EncodedPayload.class);
+    when(payloadToStore.getCipherText()).thenReturn("ct1".getBytes());
+    when(payloadToStore.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
+    when(payloadToStore.getRecipientKeys()).thenReturn(List.of(recipient2));
+    when(payloadToStore.getRecipientBoxes())
+        .thenReturn(List.of(RecipientBox.from("recipient_box2".getBytes())));
+
+    MessageHash response = transactionManager.storePayload(payloadToStore);
+
+    assertThat(response.toString()).isEqualTo("Y3Qx");
+
+    ArgumentCaptor<EncryptedTransaction> txCaptor =
+        ArgumentCaptor.forClass(EncryptedTransaction.class);
+    verify(encryptedTransactionDAO).update(txCaptor.capture());
+    assertThat(txCaptor.getValue().getPayload().getRecipientKeys())
+        .containsExactly(recipient2, recipient1);
+
+    verify(encryptedTransactionDAO).save(any(EncryptedTransaction.class));
+    verify(encryptedTransactionDAO, times(2)).retrieveByHash(any(MessageHash.class));
+    verify(enclave).getPublicKeys();
+    verify(enclave).findInvalidSecurityHashes(any(EncodedPayload.class), anyList());
+  }
+
+  @Test
+  public void storePayloadAsRecipientRethrowsWhenSaveFails() {
+    EncodedPayload payload = mock(EncodedPayload.class);
+
+    when(payload.getCipherText()).thenReturn("CIPHERTEXT".getBytes());
+    when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
+        .thenReturn(Optional.empty());
+    RuntimeException failure = new RuntimeException("database down");
+    when(encryptedTransactionDAO.save(any(EncryptedTransaction.class))).thenThrow(failure);
+
+    Throwable ex = catchThrowable(() -> transactionManager.storePayload(payload));
+
+    assertThat(ex).isSameAs(failure);
+
+    verify(encryptedTransactionDAO).save(any(EncryptedTransaction.class));
+    verify(encryptedTransactionDAO, times(2)).retrieveByHash(any(MessageHash.class));
+    verify(enclave).getPublicKeys();
+    verify(enclave).findInvalidSecurityHashes(any(EncodedPayload.class), anyList());
+  }
+
   @Test
   public void storePayloadWhenWeAreSender() {
     final PublicKey senderKey = PublicKey.from("SENDER".getBytes());
@@ -967,9 +1329,6 @@ public class TransactionManagerTest {
     when(enclave.unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class)))
         .thenReturn(expectedOutcome);
 
-    PublicKey publicKey = mock(PublicKey.class);
-    when(enclave.getPublicKeys()).thenReturn(Set.of(publicKey));
-
     ReceiveResponse receiveResponse = transactionManager.receive(receiveRequest);
 
     assertThat(receiveResponse).isNotNull();
@@ -978,8 +1337,7 @@ public class TransactionManagerTest {
     assertThat(receiveResponse.getPrivacyGroupId()).isNotPresent();
 
     verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
-    verify(enclave, times(2)).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
-    verify(enclave).getPublicKeys();
+    verify(enclave).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
   }
 
   @Test
@@ -1010,9 +1368,6 @@ public class TransactionManagerTest {
     when(enclave.unencryptTransaction(eq(payload), any(PublicKey.class)))
         .thenReturn(expectedOutcome);
 
-    PublicKey publicKey = mock(PublicKey.class);
-    when(enclave.getPublicKeys()).thenReturn(Set.of(publicKey));
-
     ReceiveResponse receiveResponse = transactionManager.receive(receiveRequest);
 
     assertThat(receiveResponse).isNotNull();
@@ -1023,8 +1378,7 @@ public class TransactionManagerTest {
         .isEqualTo(PrivacyGroup.Id.fromBytes("group".getBytes()));
 
     verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
-    verify(enclave, times(2)).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
-    verify(enclave).getPublicKeys();
+    verify(enclave).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
   }
 
   @Test
@@ -1058,9 +1412,6 @@ public class TransactionManagerTest {
     when(enclave.unencryptTransaction(eq(payload), any(PublicKey.class)))
         .thenReturn(expectedOutcome);
 
-    PublicKey publicKey = mock(PublicKey.class);
-    when(enclave.getPublicKeys()).thenReturn(Set.of(publicKey));
-
     ReceiveResponse receiveResponse = transactionManager.receive(receiveRequest);
 
     assertThat(receiveResponse).isNotNull();
@@ -1071,8 +1422,7 @@ public class TransactionManagerTest {
         .isEqualTo(PrivacyGroup.Id.fromBytes("group".getBytes()));
 
     verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
-    verify(enclave, times(2)).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
-    verify(enclave).getPublicKeys();
+    verify(enclave).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
   }
 
   @Test
@@ -1115,8 +1465,8 @@ public class TransactionManagerTest {
     assertThat(receiveResponse.sender()).isEqualTo(sender);
 
     verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
-    verify(enclave, times(2)).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
-    verify(enclave, times(2)).getPublicKeys();
+    verify(enclave).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
+    verify(enclave).getPublicKeys();
   }
 
   @Test
@@ -1146,7 +1496,7 @@ public class TransactionManagerTest {
 
     when(enclave.unencryptTransaction(eq(payload), any(PublicKey.class)))
         .thenReturn(expectedOutcome);
-    when(enclave.getPublicKeys()).thenReturn(Set.of(recipient1));
+    when(enclave.findRecipientKey(any(EncodedPayload.class))).thenReturn(Optional.of(recipient1));
 
     ReceiveResponse receiveResponse = transactionManager.receive(receiveRequest);
 
@@ -1156,8 +1506,8 @@ public class TransactionManagerTest {
     assertThat(receiveResponse.sender()).isEqualTo(sender);
 
     verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
-    verify(enclave, times(3)).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
-    verify(enclave, times(2)).getPublicKeys();
+    verify(enclave).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
+    verify(enclave).findRecipientKey(any(EncodedPayload.class));
   }
 
   @Test
@@ -1238,9 +1588,6 @@ public class TransactionManagerTest {
     when(enclave.unencryptTransaction(eq(payload), any(PublicKey.class)))
         .thenReturn(expectedOutcome);
 
-    PublicKey publicKey = mock(PublicKey.class);
-    when(enclave.getPublicKeys()).thenReturn(Collections.singleton(publicKey));
-
     ReceiveResponse receiveResponse = transactionManager.receive(receiveRequest);
 
     assertThat(receiveResponse).isNotNull();
@@ -1251,8 +1598,7 @@ public class TransactionManagerTest {
     assertThat(receiveResponse.sender()).isEqualTo(sender);
 
     verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
-    verify(enclave, times(2)).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
-    verify(enclave).getPublicKeys();
+    verify(enclave).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
   }
 
   @Test
@@ -1281,12 +1627,11 @@ public class TransactionManagerTest {
   }
 
   @Test
-  public void receiveNoRecipientKeyFound() {
+  public void receiveWithRecipientUnableToDecryptPayload() {
 
     PublicKey recipient = PublicKey.from("recipient".getBytes());
 
     MessageHash messageHash = mock(MessageHash.class);
-    when(messageHash.getHashBytes()).thenReturn("KEY".getBytes());
 
     ReceiveRequest receiveRequest = mock(ReceiveRequest.class);
     when(receiveRequest.getTransactionHash()).thenReturn(messageHash);
@@ -1301,20 +1646,14 @@ public class TransactionManagerTest {
     when(encryptedTransactionDAO.retrieveByHash(eq(messageHash)))
         .thenReturn(Optional.of(encryptedTransaction));
 
-    PublicKey publicKey = mock(PublicKey.class);
-    when(enclave.getPublicKeys()).thenReturn(Collections.singleton(publicKey));
+    when(enclave.unencryptTransaction(payload, recipient)).thenThrow(EncryptorException.class);
 
-    when(enclave.unencryptTransaction(eq(payload), any(PublicKey.class)))
-        .thenThrow(EncryptorException.class);
+    final Throwable throwable = catchThrowable(() -> transactionManager.receive(receiveRequest));
 
-    try {
-      transactionManager.receive(receiveRequest);
-      failBecauseExceptionWasNotThrown(RecipientKeyNotFoundException.class);
-    } catch (RecipientKeyNotFoundException ex) {
-      verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
-      verify(enclave).getPublicKeys();
-      verify(enclave).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
-    }
+    assertThat(throwable).isInstanceOf(EncryptorException.class);
+
+    verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
+    verify(enclave).unencryptTransaction(payload, recipient);
   }
 
   @Test
@@ -1333,8 +1672,6 @@ public class TransactionManagerTest {
     when(encryptedTransactionDAO.retrieveByHash(eq(messageHash)))
         .thenReturn(Optional.of(encryptedTransaction));
 
-    when(enclave.getPublicKeys()).thenReturn(Set.of(mock(PublicKey.class)));
-
     final Throwable throwable = catchThrowable(() -> transactionManager.receive(receiveRequest));
 
     assertThat(throwable).isInstanceOf(IllegalStateException.class);
@@ -1360,18 +1697,14 @@ public class TransactionManagerTest {
     when(encryptedTransactionDAO.retrieveByHash(eq(transactionHash)))
         .thenReturn(Optional.of(encryptedTransaction));
 
-    when(enclave.getPublicKeys()).thenReturn(Set.of(mock(PublicKey.class)));
-
-    when(enclave.unencryptTransaction(eq(payload), any(PublicKey.class)))
-        .thenThrow(EncryptorException.class);
+    when(enclave.findRecipientKey(payload)).thenReturn(Optional.empty());
 
     try {
       transactionManager.receive(receiveRequest);
       failBecauseExceptionWasNotThrown(RecipientKeyNotFoundException.class);
     } catch (RecipientKeyNotFoundException ex) {
       verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
-      verify(enclave).getPublicKeys();
-      verify(enclave).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
+      verify(enclave).findRecipientKey(payload);
     }
   }
 
@@ -1392,18 +1725,14 @@ public class TransactionManagerTest {
     when(encryptedTransactionDAO.retrieveByHash(eq(transactionHash)))
         .thenReturn(Optional.of(encryptedTransaction));
 
-    when(enclave.getPublicKeys()).thenReturn(Set.of(mock(PublicKey.class)));
-
-    when(enclave.unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class)))
-        .thenThrow(EncryptorException.class);
+    when(enclave.findRecipientKey(payload)).thenReturn(Optional.empty());
 
     try {
       transactionManager.receive(receiveRequest);
       failBecauseExceptionWasNotThrown(RecipientKeyNotFoundException.class);
     } catch (RecipientKeyNotFoundException ex) {
       verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
-      verify(enclave).getPublicKeys();
-      verify(enclave).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
+      verify(enclave).findRecipientKey(payload);
     }
   }
 
@@ -1484,11 +1813,11 @@ public class TransactionManagerTest {
 
     final EncryptedTransaction encryptedTransaction = mock(EncryptedTransaction.class);
 
-    final EncodedPayload encodedPayload = mock(EncodedPayload.class);
     PublicKey sender = mock(PublicKey.class);
-    when(encodedPayload.getSenderKey()).thenReturn(sender);
+    final EncodedPayloadHeader header =
+        new EncodedPayloadHeader(sender, PrivacyMode.STANDARD_PRIVATE, List.of());
 
-    when(encryptedTransaction.getPayload()).thenReturn(encodedPayload);
+    when(encryptedTransaction.getPayloadHeader()).thenReturn(header);
 
     when(encryptedTransactionDAO.retrieveByHash(transactionHash))
         .thenReturn(Optional.of(encryptedTransaction));
@@ -1514,9 +1843,9 @@ public class TransactionManagerTest {
 
     final PublicKey senderKey = mock(PublicKey.class);
 
-    final EncodedPayload encodedPayload = mock(EncodedPayload.class);
-    when(encodedPayload.getSenderKey()).thenReturn(senderKey);
-    when(encryptedTransaction.getPayload()).thenReturn(encodedPayload);
+    final EncodedPayloadHeader header =
+        new EncodedPayloadHeader(senderKey, PrivacyMode.STANDARD_PRIVATE, List.of());
+    when(encryptedTransaction.getPayloadHeader()).thenReturn(header);
     when(encryptedTransactionDAO.retrieveByHash(transactionHash))
         .thenReturn(Optional.of(encryptedTransaction));
 
@@ -1559,9 +1888,10 @@ public class TransactionManagerTest {
     final PublicKey recipientKey = mock(PublicKey.class);
 
     final EncryptedTransaction encryptedTransaction = mock(EncryptedTransaction.class);
-    final EncodedPayload encodedPayload = mock(EncodedPayload.class);
-    when(encodedPayload.getRecipientKeys()).thenReturn(List.of(senderKey, recipientKey));
-    when(encryptedTransaction.getPayload()).thenReturn(encodedPayload);
+    final EncodedPayloadHeader header =
+        new EncodedPayloadHeader(
+            senderKey, PrivacyMode.STANDARD_PRIVATE, List.of(senderKey, recipientKey));
+    when(encryptedTransaction.getPayloadHeader()).thenReturn(header);
 
     when(encryptedTransactionDAO.retrieveByHash(transactionHash))
         .thenReturn(Optional.of(encryptedTransaction));
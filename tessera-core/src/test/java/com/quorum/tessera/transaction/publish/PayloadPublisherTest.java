@@ -2,7 +2,10 @@ package com.quorum.tessera.transaction.publish;
 
 import static org.mockito.Mockito.*;
 
+import com.quorum.tessera.enclave.EncodedPayload;
+import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.serviceloader.ServiceLoaderUtil;
+import java.util.List;
 import java.util.ServiceLoader;
 import org.junit.Test;
 
@@ -28,4 +31,22 @@ public class PayloadPublisherTest {
       verifyNoInteractions(serviceLoader);
     }
   }
+
+  @Test
+  public void publishPayloadsPushesEachPayloadInOrder() {
+    PayloadPublisher payloadPublisher = mock(PayloadPublisher.class);
+    doCallRealMethod().when(payloadPublisher).publishPayloads(anyList(), any());
+
+    EncodedPayload first = mock(EncodedPayload.class);
+    EncodedPayload second = mock(EncodedPayload.class);
+    PublicKey recipient = PublicKey.from("recipient".getBytes());
+
+    payloadPublisher.publishPayloads(List.of(first, second), recipient);
+
+    var inOrder = inOrder(payloadPublisher);
+    inOrder.verify(payloadPublisher).publishPayloads(List.of(first, second), recipient);
+    inOrder.verify(payloadPublisher).publishPayload(first, recipient);
+    inOrder.verify(payloadPublisher).publishPayload(second, recipient);
+    verifyNoMoreInteractions(payloadPublisher);
+  }
 }
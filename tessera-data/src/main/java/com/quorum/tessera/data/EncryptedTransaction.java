@@ -2,9 +2,12 @@ package com.quorum.tessera.data;
 
 import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.enclave.EncodedPayloadCodec;
+import com.quorum.tessera.enclave.EncodedPayloadHeader;
+import com.quorum.tessera.enclave.PayloadEncoder;
 import jakarta.persistence.*;
 import java.io.Serializable;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * The JPA entity that contains the transaction information A simple key/value pair
@@ -25,7 +28,9 @@ import java.util.Objects;
 })
 @Entity
 @EntityListeners(EncryptedTransactionListener.class)
-@Table(name = "ENCRYPTED_TRANSACTION")
+@Table(
+    name = "ENCRYPTED_TRANSACTION",
+    indexes = {@Index(name = "ENCRYPTED_TRANSACTION_TSHASH", columnList = "TIMESTAMP,HASH")})
 public class EncryptedTransaction implements Serializable {
 
   @EmbeddedId
@@ -83,7 +88,16 @@ public class EncryptedTransaction implements Serializable {
     this.encodedPayloadCodec = encodedPayloadCodec;
   }
 
+  /**
+   * Get the decoded payload. Payloads loaded from the database are only decoded the first time this
+   * is called.
+   *
+   * @return the decoded payload
+   */
   public EncodedPayload getPayload() {
+    if (Objects.isNull(payload) && Objects.nonNull(encodedPayload)) {
+      payload = payloadEncoder().decode(encodedPayload);
+    }
     return payload;
   }
 
@@ -91,6 +105,24 @@ public class EncryptedTransaction implements Serializable {
     this.payload = payload;
   }
 
+  /**
+   * Get the sender, recipients and privacy mode of the payload, without decoding the rest of it if
+   * it has not already been decoded.
+   *
+   * @return the header of the payload
+   */
+  public EncodedPayloadHeader getPayloadHeader() {
+    if (Objects.isNull(payload) && Objects.nonNull(encodedPayload)) {
+      return payloadEncoder().decodeHeader(encodedPayload);
+    }
+    return Optional.ofNullable(payload).map(EncodedPayloadHeader::from).orElse(null);
+  }
+
+  private PayloadEncoder payloadEncoder() {
+    return PayloadEncoder.create(
+        Objects.requireNonNullElse(encodedPayloadCodec, EncodedPayloadCodec.LEGACY));
+  }
+
   public long getTimestamp() {
     return this.timestamp;
   }
@@ -1,10 +1,12 @@
 package com.quorum.tessera.data;
 
+import com.quorum.tessera.encryption.PublicKey;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.ServiceLoader;
 import java.util.concurrent.Callable;
+import java.util.stream.Stream;
 
 /** A data store for transactions that need to be retrieved later */
 public interface EncryptedTransactionDAO {
@@ -50,6 +52,32 @@ public interface EncryptedTransactionDAO {
    */
   List<EncryptedTransaction> retrieveTransactions(int offset, int maxResult);
 
+  /**
+   * Stream every transaction stored in the database, ordered by timestamp and hash. Rows are read
+   * through a forward-only cursor a fetch at a time and each entity is detached once read, so
+   * memory use does not grow with the size of the store.
+   *
+   * <p>The rows are read inside a read-only transaction, as PostgreSQL only streams outside of
+   * autocommit mode. MySQL also needs {@code useCursorFetch=true} on the JDBC URL, without which
+   * the whole result is read into memory.
+   *
+   * <p>The stream holds a database connection and transaction open until it is closed, so callers
+   * must close it, e.g. with a try-with-resources block.
+   *
+   * @return a stream over all stored transactions
+   */
+  Stream<EncryptedTransaction> streamAll();
+
+  /**
+   * Stream the transactions that the given key is party to, either as sender or as a recipient,
+   * ordered by timestamp and hash. Rows are read in the same way as {@link #streamAll()}, with the
+   * same driver requirements, and the stream must likewise be closed.
+   *
+   * @param recipientKey the key to find transactions for
+   * @return a stream over the transactions of the key
+   */
+  Stream<EncryptedTransaction> streamTransactionsForRecipient(PublicKey recipientKey);
+
   /**
    * Retrieve the total transaction count.
    *
@@ -57,6 +85,42 @@ public interface EncryptedTransactionDAO {
    */
   long transactionCount();
 
+  /**
+   * Retrieves a list of transactions stored in the database, ordered by timestamp and hash,
+   * starting after the given position rather than at an offset
+   *
+   * @param lastTimestamp the timestamp of the last transaction already retrieved
+   * @param lastHash the hash of the last transaction already retrieved, or null to start from the
+   *     first transaction
+   * @param maxResult the maximum number of records to return
+   * @return The list of requested rows from the database
+   */
+  List<EncryptedTransaction> retrieveTransactionsAfter(
+      long lastTimestamp, MessageHash lastHash, int maxResult);
+
+  /**
+   * Retrieves a list of the transactions that the given key is party to, either as sender or as a
+   * recipient, using the recipient index rather than decoding every stored transaction. Results
+   * are ordered by timestamp and hash, starting after the given position.
+   *
+   * @param recipientKey the key to find transactions for
+   * @param lastTimestamp the timestamp of the last transaction already retrieved
+   * @param lastHash the hash of the last transaction already retrieved, or null to start from the
+   *     first transaction
+   * @param maxResult the maximum number of records to return
+   * @return The list of requested rows from the database
+   */
+  List<EncryptedTransaction> retrieveTransactionsForRecipientAfter(
+      PublicKey recipientKey, long lastTimestamp, MessageHash lastHash, int maxResult);
+
+  /**
+   * Retrieve the number of transactions that the given key is party to.
+   *
+   * @param recipientKey the key to count transactions for
+   * @return the transaction count
+   */
+  long transactionCountForRecipient(PublicKey recipientKey);
+
   /**
    * Deletes a transaction that has the given hash as its digest
    *
@@ -75,6 +139,19 @@ public interface EncryptedTransactionDAO {
    */
   <T> EncryptedTransaction save(EncryptedTransaction transaction, Callable<T> consumer);
 
+  /**
+   * Perform a save of several encrypted transactions in a single database transaction, with a
+   * callback that is executed once they have all been flushed. The inserts are sent to the
+   * database in JDBC batches where the persistence provider is configured to do so.
+   *
+   * @param transactions the entities to be persisted
+   * @param consumer action that needs to be executed together
+   * @return the entities that were persisted
+   * @throws RuntimeException if the callback fails, in which case none of the entities are stored
+   */
+  <T> List<EncryptedTransaction> saveAll(
+      List<EncryptedTransaction> transactions, Callable<T> consumer);
+
   /**
    * Check whether data store is available
    *
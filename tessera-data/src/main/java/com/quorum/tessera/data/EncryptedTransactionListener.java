@@ -41,13 +41,10 @@ public class EncryptedTransactionListener {
   public void onLoad(EncryptedTransaction encryptedTransaction) {
     LOGGER.debug("onLoad[{}]", encryptedTransaction);
 
+    // the payload itself is decoded on first use, see EncryptedTransaction#getPayload
     final EncodedPayloadCodec encodedPayloadCodec =
         Optional.ofNullable(encryptedTransaction.getEncodedPayloadCodec())
             .orElse(EncodedPayloadCodec.LEGACY);
-    final byte[] encodedPayloadData = encryptedTransaction.getEncodedPayload();
-    final PayloadEncoder payloadEncoder = PayloadEncoder.create(encodedPayloadCodec);
-    final EncodedPayload encodedPayload = payloadEncoder.decode(encodedPayloadData);
-    encryptedTransaction.setPayload(encodedPayload);
     encryptedTransaction.setEncodedPayloadCodec(encodedPayloadCodec);
   }
 }
@@ -0,0 +1,157 @@
+package com.quorum.tessera.data;
+
+import com.quorum.tessera.encryption.PublicKey;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Keyset (seek) queries over {@link EncryptedTransaction} rows, ordered by timestamp and then hash.
+ *
+ * <p>Each page starts strictly after the last row of the previous page rather than at an offset,
+ * so the database can seek straight to it using the (TIMESTAMP, HASH) index instead of reading
+ * and discarding every earlier row.
+ *
+ * <p>Rows stored before the TIMESTAMP column was added may still hold NULL there. They load with a
+ * timestamp of 0, so both the ordering and the seek treat NULL as 0 to avoid skipping them.
+ */
+public interface EncryptedTransactionQueries {
+
+  /**
+   * Find the transactions that come after the given position.
+   *
+   * @param entityManager the entity manager to create the query with
+   * @param lastTimestamp the timestamp of the last transaction already read
+   * @param lastHash the hash of the last transaction already read, or null to start from the first
+   *     transaction
+   * @return the query, to which the caller should apply a maximum result count
+   */
+  static TypedQuery<EncryptedTransaction> findAllAfter(
+      final EntityManager entityManager, final long lastTimestamp, final MessageHash lastHash) {
+    return findAfter(entityManager, null, lastTimestamp, lastHash);
+  }
+
+  /**
+   * Find the transactions that the given key is party to that come after the given position.
+   *
+   * @param entityManager the entity manager to create the query with
+   * @param recipientKey the key to find transactions for
+   * @param lastTimestamp the timestamp of the last transaction already read
+   * @param lastHash the hash of the last transaction already read, or null to start from the first
+   *     transaction
+   * @return the query, to which the caller should apply a maximum result count
+   */
+  static TypedQuery<EncryptedTransaction> findForRecipientAfter(
+      final EntityManager entityManager,
+      final PublicKey recipientKey,
+      final long lastTimestamp,
+      final MessageHash lastHash) {
+    return findAfter(entityManager, Objects.requireNonNull(recipientKey), lastTimestamp, lastHash);
+  }
+
+  /**
+   * Stream the results of a query through a forward-only cursor, a fetch at a time, detaching each
+   * entity once read so that memory use does not grow with the number of rows.
+   *
+   * <p>The query is read inside a transaction that is rolled back once the stream is closed, as
+   * nothing is written. Drivers only stream when the connection is not in autocommit mode:
+   *
+   * <ul>
+   *   <li>PostgreSQL ignores the fetch size in autocommit mode and reads every row up front
+   *   <li>MySQL (Connector/J) also needs {@code useCursorFetch=true} on the JDBC URL, otherwise it
+   *       reads every row up front whatever the fetch size
+   * </ul>
+   *
+   * The connection and transaction are held until the stream is closed. The caller still owns the
+   * entity manager and must close it after the stream.
+   *
+   * @param entityManager the entity manager the query was created with
+   * @param query the query to stream the results of
+   * @param fetchSize the number of rows to fetch from the database at a time
+   * @return a stream over the query results, which must be closed
+   */
+  static Stream<EncryptedTransaction> stream(
+      final EntityManager entityManager,
+      final TypedQuery<EncryptedTransaction> query,
+      final int fetchSize) {
+    // read through the connection the transaction holds, rather than a separate autocommit one
+    entityManager.setProperty("eclipselink.transaction.join-existing", "true");
+    final EntityTransaction transaction = entityManager.getTransaction();
+    transaction.begin();
+    try {
+      return query
+          .setHint("eclipselink.cursor.scrollable", true)
+          .setHint("eclipselink.cursor.scrollable.result-set-type", "ForwardOnly")
+          .setHint("eclipselink.jdbc.fetch-size", fetchSize)
+          .getResultStream()
+          .peek(entityManager::detach)
+          .onClose(() -> rollback(transaction));
+    } catch (RuntimeException ex) {
+      rollback(transaction);
+      throw ex;
+    }
+  }
+
+  private static void rollback(final EntityTransaction transaction) {
+    if (transaction.isActive()) {
+      transaction.rollback();
+    }
+  }
+
+  private static TypedQuery<EncryptedTransaction> findAfter(
+      final EntityManager entityManager,
+      final PublicKey recipientKey,
+      final long lastTimestamp,
+      final MessageHash lastHash) {
+
+    final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+    final CriteriaQuery<EncryptedTransaction> query =
+        criteriaBuilder.createQuery(EncryptedTransaction.class);
+    final Root<EncryptedTransaction> root = query.from(EncryptedTransaction.class);
+
+    // the raw column, so that the seek and the order can use ENCRYPTED_TRANSACTION_TSHASH
+    final Path<Long> timestamp = root.get("timestamp");
+    final Path<byte[]> hash = root.get("hash").get("hashBytes");
+
+    final List<Predicate> predicates = new ArrayList<>();
+
+    if (Objects.nonNull(recipientKey)) {
+      final Root<EncryptedTransactionRecipient> recipient =
+          query.from(EncryptedTransactionRecipient.class);
+      predicates.add(criteriaBuilder.equal(recipient.get("id").get("hash"), hash));
+      predicates.add(
+          criteriaBuilder.equal(
+              recipient.get("id").get("recipientKey"), recipientKey.getKeyBytes()));
+    }
+
+    if (Objects.nonNull(lastHash)) {
+      predicates.add(
+          criteriaBuilder.or(
+              criteriaBuilder.greaterThan(timestamp, lastTimestamp),
+              criteriaBuilder.and(
+                  criteriaBuilder.equal(timestamp, lastTimestamp),
+                  greaterThan(criteriaBuilder, hash, lastHash.getHashBytes()))));
+    }
+
+    query
+        .select(root)
+        .where(predicates.toArray(Predicate[]::new))
+        .orderBy(criteriaBuilder.asc(timestamp), criteriaBuilder.asc(hash));
+
+    return entityManager.createQuery(query);
+  }
+
+  // byte[] isn't Comparable so the typed overloads can't be used, but all the supported databases
+  // order binary columns bytewise
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Predicate greaterThan(
+      final CriteriaBuilder criteriaBuilder, final Expression<byte[]> path, final byte[] value) {
+    return criteriaBuilder.greaterThan(
+        (Expression) path, (Expression) criteriaBuilder.literal(value));
+  }
+}
@@ -0,0 +1,82 @@
+package com.quorum.tessera.data;
+
+import com.quorum.tessera.enclave.EncodedPayloadHeader;
+import com.quorum.tessera.encryption.PublicKey;
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * An index row linking a public key to a transaction that key is party to, so that the
+ * transactions relevant to a single key can be found without decoding every stored payload.
+ *
+ * <p>Every key that is a recipient of the transaction is indexed, along with the sender key.
+ */
+@NamedQueries({
+  @NamedQuery(
+      name = "EncryptedTransactionRecipient.CountByRecipient",
+      query =
+          "select count(r) from EncryptedTransactionRecipient r where r.id.recipientKey = :recipientKey"),
+  @NamedQuery(
+      name = "EncryptedTransactionRecipient.DeleteByHash",
+      query = "delete from EncryptedTransactionRecipient r where r.id.hash = :hash")
+})
+@Entity
+@Table(name = "ENCRYPTED_TRANSACTION_RECIPIENT")
+public class EncryptedTransactionRecipient implements Serializable {
+
+  @EmbeddedId private EncryptedTransactionRecipientId id;
+
+  public EncryptedTransactionRecipient(final EncryptedTransactionRecipientId id) {
+    this.id = id;
+  }
+
+  public EncryptedTransactionRecipient() {}
+
+  /**
+   * Create the index rows for a transaction, one for each distinct key that is party to it.
+   *
+   * @param hash the hash of the transaction
+   * @param payload the parties to the transaction
+   * @return the index rows, or an empty list if there is nothing to index
+   */
+  public static List<EncryptedTransactionRecipient> from(
+      final MessageHash hash, final EncodedPayloadHeader payload) {
+    if (Objects.isNull(hash) || Objects.isNull(payload)) {
+      return Collections.emptyList();
+    }
+
+    final byte[] hashBytes = hash.getHashBytes();
+
+    return Stream.concat(
+            Stream.ofNullable(payload.getSenderKey()),
+            Optional.ofNullable(payload.getRecipientKeys()).stream().flatMap(List::stream))
+        .filter(Objects::nonNull)
+        .distinct()
+        .map(PublicKey::getKeyBytes)
+        .map(key -> new EncryptedTransactionRecipientId(key, hashBytes))
+        .map(EncryptedTransactionRecipient::new)
+        .collect(Collectors.toList());
+  }
+
+  public EncryptedTransactionRecipientId getId() {
+    return id;
+  }
+
+  public void setId(final EncryptedTransactionRecipientId id) {
+    this.id = id;
+  }
+
+  @Override
+  public int hashCode() {
+    return 47 * 3 + Objects.hashCode(this.id);
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    return (obj instanceof EncryptedTransactionRecipient)
+        && Objects.equals(this.id, ((EncryptedTransactionRecipient) obj).id);
+  }
+}
@@ -0,0 +1,57 @@
+package com.quorum.tessera.data;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.Lob;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/** The composite key of an {@link EncryptedTransactionRecipient} row */
+@Embeddable
+public class EncryptedTransactionRecipientId implements Serializable {
+
+  @Lob
+  @Column(name = "RECIPIENT_KEY", nullable = false, updatable = false)
+  private byte[] recipientKey;
+
+  @Lob
+  @Column(name = "HASH", nullable = false, updatable = false)
+  private byte[] hash;
+
+  public EncryptedTransactionRecipientId() {}
+
+  public EncryptedTransactionRecipientId(final byte[] recipientKey, final byte[] hash) {
+    this.recipientKey = Arrays.copyOf(recipientKey, recipientKey.length);
+    this.hash = Arrays.copyOf(hash, hash.length);
+  }
+
+  public byte[] getRecipientKey() {
+    return Arrays.copyOf(recipientKey, recipientKey.length);
+  }
+
+  public void setRecipientKey(final byte[] recipientKey) {
+    this.recipientKey = Arrays.copyOf(recipientKey, recipientKey.length);
+  }
+
+  public byte[] getHash() {
+    return Arrays.copyOf(hash, hash.length);
+  }
+
+  public void setHash(final byte[] hash) {
+    this.hash = Arrays.copyOf(hash, hash.length);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (!(o instanceof EncryptedTransactionRecipientId)) {
+      return false;
+    }
+    final EncryptedTransactionRecipientId other = (EncryptedTransactionRecipientId) o;
+    return Arrays.equals(recipientKey, other.recipientKey) && Arrays.equals(hash, other.hash);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(recipientKey) + Arrays.hashCode(hash);
+  }
+}
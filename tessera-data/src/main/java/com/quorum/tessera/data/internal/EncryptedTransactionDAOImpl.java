@@ -2,16 +2,23 @@ package com.quorum.tessera.data.internal;
 
 import com.quorum.tessera.data.EncryptedTransaction;
 import com.quorum.tessera.data.EncryptedTransactionDAO;
+import com.quorum.tessera.data.EncryptedTransactionQueries;
+import com.quorum.tessera.data.EncryptedTransactionRecipient;
 import com.quorum.tessera.data.EntityManagerTemplate;
 import com.quorum.tessera.data.MessageHash;
+import com.quorum.tessera.encryption.PublicKey;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.persistence.PersistenceException;
+import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Root;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,10 +27,23 @@ public class EncryptedTransactionDAOImpl implements EncryptedTransactionDAO {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(EncryptedTransactionDAOImpl.class);
 
+  static final int DEFAULT_STREAM_FETCH_SIZE = 100;
+
+  private final EntityManagerFactory entityManagerFactory;
+
   private EntityManagerTemplate entityManagerTemplate;
 
+  private final int streamFetchSize;
+
   public EncryptedTransactionDAOImpl(EntityManagerFactory entityManagerFactory) {
+    this(entityManagerFactory, DEFAULT_STREAM_FETCH_SIZE);
+  }
+
+  public EncryptedTransactionDAOImpl(
+      EntityManagerFactory entityManagerFactory, int streamFetchSize) {
+    this.entityManagerFactory = entityManagerFactory;
     this.entityManagerTemplate = new EntityManagerTemplate(entityManagerFactory);
+    this.streamFetchSize = streamFetchSize > 0 ? streamFetchSize : DEFAULT_STREAM_FETCH_SIZE;
   }
 
   @Override
@@ -31,6 +51,7 @@ public class EncryptedTransactionDAOImpl implements EncryptedTransactionDAO {
     return entityManagerTemplate.execute(
         entityManager -> {
           entityManager.persist(entity);
+          indexRecipients(entityManager, entity);
           LOGGER.debug("Stored transaction {}", entity.getHash());
           return entity;
         });
@@ -46,6 +67,8 @@ public class EncryptedTransactionDAOImpl implements EncryptedTransactionDAO {
           existing.setEncodedPayload(null);
           existing.setHash(entity.getHash());
           EncryptedTransaction merged = entityManager.merge(existing);
+          removeRecipients(entityManager, entity.getHash());
+          indexRecipients(entityManager, entity);
           LOGGER.debug("Updated transaction {}", entity.getHash());
           return merged;
         });
@@ -78,6 +101,82 @@ public class EncryptedTransactionDAOImpl implements EncryptedTransactionDAO {
                 .getResultList());
   }
 
+  @Override
+  public List<EncryptedTransaction> retrieveTransactionsAfter(
+      final long lastTimestamp, final MessageHash lastHash, int maxResult) {
+    LOGGER.debug(
+        "Fetching batch(after:{}/{},maxResult:{}) EncryptedTransaction database rows",
+        lastTimestamp,
+        lastHash,
+        maxResult);
+    return entityManagerTemplate.execute(
+        entityManager ->
+            EncryptedTransactionQueries.findAllAfter(entityManager, lastTimestamp, lastHash)
+                .setMaxResults(maxResult)
+                .getResultList());
+  }
+
+  @Override
+  public List<EncryptedTransaction> retrieveTransactionsForRecipientAfter(
+      final PublicKey recipientKey,
+      final long lastTimestamp,
+      final MessageHash lastHash,
+      int maxResult) {
+    LOGGER.debug(
+        "Fetching batch(after:{}/{},maxResult:{}) EncryptedTransaction database rows for recipient",
+        lastTimestamp,
+        lastHash,
+        maxResult);
+    return entityManagerTemplate.execute(
+        entityManager ->
+            EncryptedTransactionQueries.findForRecipientAfter(
+                    entityManager, recipientKey, lastTimestamp, lastHash)
+                .setMaxResults(maxResult)
+                .getResultList());
+  }
+
+  @Override
+  public Stream<EncryptedTransaction> streamAll() {
+    LOGGER.debug("Streaming EncryptedTransaction database rows (fetchSize:{})", streamFetchSize);
+    return stream(
+        entityManager -> EncryptedTransactionQueries.findAllAfter(entityManager, 0L, null));
+  }
+
+  @Override
+  public Stream<EncryptedTransaction> streamTransactionsForRecipient(final PublicKey recipientKey) {
+    LOGGER.debug(
+        "Streaming EncryptedTransaction database rows for recipient (fetchSize:{})",
+        streamFetchSize);
+    return stream(
+        entityManager ->
+            EncryptedTransactionQueries.findForRecipientAfter(
+                entityManager, recipientKey, 0L, null));
+  }
+
+  private Stream<EncryptedTransaction> stream(
+      final Function<EntityManager, TypedQuery<EncryptedTransaction>> query) {
+    // the entity manager has to outlive this call, so EntityManagerTemplate can't be used
+    final EntityManager entityManager = entityManagerFactory.createEntityManager();
+    try {
+      return EncryptedTransactionQueries.stream(
+              entityManager, query.apply(entityManager), streamFetchSize)
+          .onClose(entityManager::close);
+    } catch (RuntimeException ex) {
+      entityManager.close();
+      throw ex;
+    }
+  }
+
+  @Override
+  public long transactionCountForRecipient(final PublicKey recipientKey) {
+    return entityManagerTemplate.execute(
+        entityManager ->
+            entityManager
+                .createNamedQuery("EncryptedTransactionRecipient.CountByRecipient", Long.class)
+                .setParameter("recipientKey", recipientKey.getKeyBytes())
+                .getSingleResult());
+  }
+
   @Override
   public long transactionCount() {
     return entityManagerTemplate.execute(
@@ -107,6 +206,7 @@ public class EncryptedTransactionDAOImpl implements EncryptedTransactionDAO {
                   .orElseThrow(EntityNotFoundException::new);
 
           entityManager.remove(message);
+          removeRecipients(entityManager, hash);
           return message;
         });
   }
@@ -117,6 +217,7 @@ public class EncryptedTransactionDAOImpl implements EncryptedTransactionDAO {
     return entityManagerTemplate.execute(
         entityManager -> {
           entityManager.persist(transaction);
+          indexRecipients(entityManager, transaction);
           try {
             entityManager.flush();
             consumer.call();
@@ -129,6 +230,29 @@ public class EncryptedTransactionDAOImpl implements EncryptedTransactionDAO {
         });
   }
 
+  @Override
+  public <T> List<EncryptedTransaction> saveAll(
+      List<EncryptedTransaction> transactions, Callable<T> consumer) {
+
+    return entityManagerTemplate.execute(
+        entityManager -> {
+          for (EncryptedTransaction transaction : transactions) {
+            entityManager.persist(transaction);
+            indexRecipients(entityManager, transaction);
+          }
+          LOGGER.debug("Storing {} transactions", transactions.size());
+          try {
+            entityManager.flush();
+            consumer.call();
+            return transactions;
+          } catch (RuntimeException ex) {
+            throw ex;
+          } catch (Exception e) {
+            throw new PersistenceException(e);
+          }
+        });
+  }
+
   @Override
   public boolean upcheck() {
     // if query succeeds then DB is up and running (else get exception)
@@ -164,4 +288,17 @@ public class EncryptedTransactionDAOImpl implements EncryptedTransactionDAO {
               .getResultList();
         });
   }
+
+  private static void indexRecipients(
+      final EntityManager entityManager, final EncryptedTransaction transaction) {
+    EncryptedTransactionRecipient.from(transaction.getHash(), transaction.getPayloadHeader())
+        .forEach(entityManager::persist);
+  }
+
+  private static void removeRecipients(final EntityManager entityManager, final MessageHash hash) {
+    entityManager
+        .createNamedQuery("EncryptedTransactionRecipient.DeleteByHash")
+        .setParameter("hash", hash.getHashBytes())
+        .executeUpdate();
+  }
 }
@@ -33,6 +33,11 @@ public class EncryptedTransactionDAOProvider {
     properties.put("eclipselink.logging.parameters", "true");
     properties.put("eclipselink.logging.level.sql", "FINE");
 
+    // transactions and their recipient index rows have natural keys, so the inserts of a batched
+    // send can be sent in JDBC batches
+    properties.put("eclipselink.jdbc.batch-writing", "JDBC");
+    properties.put("eclipselink.jdbc.batch-writing.size", "100");
+
     properties.put(
         "jakarta.persistence.schema-generation.database.action",
         config.getJdbcConfig().isAutoCreateTables() ? "create" : "none");
@@ -42,6 +47,7 @@ public class EncryptedTransactionDAOProvider {
         Persistence.createEntityManagerFactory("tessera", properties);
     LOGGER.debug("Created EntityManagerFactory from {}", properties);
 
-    return new EncryptedTransactionDAOImpl(entityManagerFactory);
+    return new EncryptedTransactionDAOImpl(
+        entityManagerFactory, config.getJdbcConfig().getFetchSize());
   }
 }
@@ -5,9 +5,19 @@ import jakarta.validation.constraints.NotNull;
 import java.util.Objects;
 import java.util.Optional;
 
-@NamedQuery(
-    name = "StagingAffectedTransaction.countAll",
-    query = "select count(sat) from StagingAffectedTransaction sat")
+@NamedQueries({
+  @NamedQuery(
+      name = "StagingAffectedTransaction.countAll",
+      query = "select count(sat) from StagingAffectedTransaction sat"),
+  @NamedQuery(
+      name = "StagingAffectedTransaction.maxId",
+      query = "select max(sat.id) from StagingAffectedTransaction sat"),
+  @NamedQuery(
+      name = "StagingAffectedTransaction.findHashesAfter",
+      query =
+          "select sat.id, sat.sourceTransaction.hash, sat.hash from StagingAffectedTransaction sat "
+              + "where sat.id > :id order by sat.id")
+})
 @Entity
 @Table(name = "ST_AFFECTED_TRANSACTION")
 public class StagingAffectedTransaction {
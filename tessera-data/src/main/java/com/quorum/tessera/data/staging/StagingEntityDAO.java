@@ -1,8 +1,11 @@
 package com.quorum.tessera.data.staging;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ServiceLoader;
+import java.util.function.BiConsumer;
 
 /** A data store for transactions that need to be retrieved later */
 public interface StagingEntityDAO {
@@ -15,6 +18,15 @@ public interface StagingEntityDAO {
    */
   StagingTransaction save(StagingTransaction entity);
 
+  /**
+   * Save new staging transactions in a single database transaction. The inserts are sent to the
+   * database in JDBC batches where the persistence provider is configured to do so.
+   *
+   * @param entities The entities to be persisted
+   * @return The entities that were persisted
+   */
+  List<StagingTransaction> saveAll(List<StagingTransaction> entities);
+
   /**
    * Update an Encrypted Transaction All fields are required to be non-null on the entity
    *
@@ -38,6 +50,18 @@ public interface StagingEntityDAO {
    */
   List<StagingTransaction> retrieveTransactionBatchOrderByStageAndHash(int offset, int maxResult);
 
+  /**
+   * Retrieves a batch of transactions in the same order as {@link
+   * #retrieveTransactionBatchOrderByStageAndHash(int, int)}, starting after the given transaction
+   * rather than at an offset. Transactions that have not been staged come last.
+   *
+   * @param last the last transaction of the previous batch, or null to start from the beginning
+   * @param maxResult the maximum number of records to return
+   * @return The list of requested rows from the database
+   */
+  List<StagingTransaction> retrieveTransactionBatchOrderByStageAndHashAfter(
+      StagingTransaction last, int maxResult);
+
   /**
    * counts all staging transactions
    *
@@ -59,6 +83,32 @@ public interface StagingEntityDAO {
    */
   int updateStageForBatch(int batchSize, long validationStage);
 
+  /**
+   * Counts, for each transaction hash in the staging tables, the rows with that hash that have not
+   * been staged yet
+   *
+   * @return the number of unstaged rows for every hash, which is 0 once all rows are staged
+   */
+  Map<String, Long> countUnstagedByHash();
+
+  /**
+   * Reads the hashes of every transaction and the transactions it affects, one batch of records
+   * at a time, so that the dependencies between transactions can be worked out without loading
+   * the entities.
+   *
+   * @param batchSize the number of records read in each query
+   * @param consumer called with the hash of a transaction and the hash of a transaction it affects
+   */
+  void forEachAffectedHash(int batchSize, BiConsumer<String, String> consumer);
+
+  /**
+   * Sets the validation stage of all rows with one of the given hashes that have not been staged
+   * yet.
+   *
+   * @return number of records that have been updated
+   */
+  int updateStageForHashes(Collection<String> hashes, long validationStage);
+
   /**
    * counts all records in staging affected transactions
    *
@@ -66,6 +116,12 @@ public interface StagingEntityDAO {
    */
   long countAllAffected();
 
+  /**
+   * Makes sure the ids of new rows come after the ids of the rows already in the staging tables,
+   * so that a recovery can be resumed on the tables left by an earlier run.
+   */
+  void resumeIds();
+
   static StagingEntityDAO create() {
     return ServiceLoader.load(StagingEntityDAO.class).findFirst().get();
   }
@@ -14,7 +14,8 @@ import java.util.*;
     name = "ST_TRANSACTION",
     indexes = {
       @Index(name = "ST_TRANSACTION_VALSTG", columnList = "VALIDATION_STAGE"),
-      @Index(name = "ST_TRANSACTION_HASH", columnList = "HASH")
+      @Index(name = "ST_TRANSACTION_HASH", columnList = "HASH"),
+      @Index(name = "ST_TRANSACTION_VALSTG_HASH", columnList = "VALIDATION_STAGE,HASH,ID")
     })
 @NamedQueries({
   @NamedQuery(
@@ -24,16 +25,41 @@ import java.util.*;
               + "    (select act from StagingAffectedTransaction act  where act.sourceTransaction.hash = st.hash and  "
               + "        (select coalesce(sum(CASE WHEN ast.validationStage is Null THEN 1 else 0 END), 1) from StagingTransaction ast where ast.hash = act.hash) > 0"
               + "    )"),
+  @NamedQuery(
+      name = "StagingTransaction.countUnstagedByHash",
+      query =
+          "select st.hash, sum(CASE WHEN st.validationStage is null THEN 1 else 0 END) "
+              + "from StagingTransaction st group by st.hash"),
+  @NamedQuery(
+      name = "StagingTransaction.updateStageForHashes",
+      query =
+          "update StagingTransaction st set st.validationStage = :stage "
+              + "where st.validationStage is null and st.hash in :hashes"),
   @NamedQuery(
       name = "StagingTransaction.countAll",
       query = "select count(st) from StagingTransaction st"),
+  @NamedQuery(
+      name = "StagingTransaction.maxId",
+      query = "select max(st.id) from StagingTransaction st"),
   @NamedQuery(
       name = "StagingTransaction.countStaged",
       query = "select count(st) from StagingTransaction st where st.validationStage is not null"),
   @NamedQuery(
       name = "StagingTransaction.findAllOrderByStage",
       query =
-          "select st from StagingTransaction st order by coalesce(st.validationStage, select max(st.validationStage)+1 from StagingTransaction st), st.hash")
+          "select st from StagingTransaction st order by coalesce(st.validationStage, select max(st.validationStage)+1 from StagingTransaction st), st.hash"),
+  @NamedQuery(
+      name = "StagingTransaction.findStagedAfter",
+      query =
+          "select st from StagingTransaction st where st.validationStage > :stage "
+              + "or (st.validationStage = :stage and (st.hash > :hash or (st.hash = :hash and st.id > :id))) "
+              + "order by st.validationStage, st.hash, st.id"),
+  @NamedQuery(
+      name = "StagingTransaction.findUnstagedAfter",
+      query =
+          "select st from StagingTransaction st where st.validationStage is null "
+              + "and (st.hash > :hash or (st.hash = :hash and st.id > :id)) "
+              + "order by st.hash, st.id")
 })
 public class StagingTransaction implements Serializable {
 
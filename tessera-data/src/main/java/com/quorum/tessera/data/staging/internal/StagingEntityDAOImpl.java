@@ -3,12 +3,20 @@ package com.quorum.tessera.data.staging.internal;
 import com.quorum.tessera.data.EntityManagerTemplate;
 import com.quorum.tessera.data.staging.StagingEntityDAO;
 import com.quorum.tessera.data.staging.StagingTransaction;
+import com.quorum.tessera.eclipselink.AtomicLongSequence;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,6 +43,18 @@ public class StagingEntityDAOImpl implements StagingEntityDAO {
         });
   }
 
+  @Override
+  public List<StagingTransaction> saveAll(final List<StagingTransaction> entities) {
+    return entityManagerTemplate.execute(
+        entityManager -> {
+          entities.forEach(entityManager::persist);
+
+          LOGGER.debug("Persisting {} StagingTransaction entities", entities.size());
+
+          return entities;
+        });
+  }
+
   @Override
   public StagingTransaction update(StagingTransaction entity) {
 
@@ -79,6 +99,48 @@ public class StagingEntityDAOImpl implements StagingEntityDAO {
                 .getResultList());
   }
 
+  @Override
+  public List<StagingTransaction> retrieveTransactionBatchOrderByStageAndHashAfter(
+      final StagingTransaction last, final int maxResults) {
+    LOGGER.debug(
+        "Fetching batch (after:{},maxResults:{}) of StagingTransaction database rows order by stage and hash",
+        Optional.ofNullable(last).map(StagingTransaction::getHash).orElse(null),
+        maxResults);
+
+    // staged rows are walked first, then the unstaged ones, so that each query can seek on plain
+    // columns. Stages start at 1 and hashes are never empty, so 0 and "" sort before every row.
+    final boolean lastWasStaged =
+        Objects.isNull(last) || Objects.nonNull(last.getValidationStage());
+    final String lastHash = Optional.ofNullable(last).map(StagingTransaction::getHash).orElse("");
+    final long lastId = Optional.ofNullable(last).map(StagingTransaction::getId).orElse(0L);
+
+    return entityManagerTemplate.execute(
+        em -> {
+          final List<StagingTransaction> results = new ArrayList<>();
+          if (lastWasStaged) {
+            final long lastStage =
+                Optional.ofNullable(last).map(StagingTransaction::getValidationStage).orElse(0L);
+            results.addAll(
+                em.createNamedQuery("StagingTransaction.findStagedAfter", StagingTransaction.class)
+                    .setParameter("stage", lastStage)
+                    .setParameter("hash", lastHash)
+                    .setParameter("id", lastId)
+                    .setMaxResults(maxResults)
+                    .getResultList());
+          }
+          if (results.size() < maxResults) {
+            results.addAll(
+                em.createNamedQuery(
+                        "StagingTransaction.findUnstagedAfter", StagingTransaction.class)
+                    .setParameter("hash", lastWasStaged ? "" : lastHash)
+                    .setParameter("id", lastWasStaged ? 0L : lastId)
+                    .setMaxResults(maxResults - results.size())
+                    .getResultList());
+          }
+          return results;
+        });
+  }
+
   @Override
   public long countAll() {
     return entityManagerTemplate.execute(
@@ -108,6 +170,52 @@ public class StagingEntityDAOImpl implements StagingEntityDAO {
         });
   }
 
+  @Override
+  public Map<String, Long> countUnstagedByHash() {
+    return entityManagerTemplate.execute(
+        em ->
+            em.createNamedQuery("StagingTransaction.countUnstagedByHash", Object[].class)
+                .getResultList()
+                .stream()
+                .collect(
+                    Collectors.toMap(
+                        row -> (String) row[0], row -> ((Number) row[1]).longValue())));
+  }
+
+  @Override
+  public void forEachAffectedHash(final int batchSize, final BiConsumer<String, String> consumer) {
+    long lastId = 0L;
+    List<Object[]> rows;
+    do {
+      final long after = lastId;
+      rows =
+          entityManagerTemplate.execute(
+              em ->
+                  em.createNamedQuery("StagingAffectedTransaction.findHashesAfter", Object[].class)
+                      .setParameter("id", after)
+                      .setMaxResults(batchSize)
+                      .getResultList());
+
+      for (final Object[] row : rows) {
+        lastId = (Long) row[0];
+        consumer.accept((String) row[1], (String) row[2]);
+      }
+    } while (rows.size() == batchSize);
+  }
+
+  @Override
+  public int updateStageForHashes(final Collection<String> hashes, final long validationStage) {
+    if (hashes.isEmpty()) {
+      return 0;
+    }
+    return entityManagerTemplate.execute(
+        em ->
+            em.createNamedQuery("StagingTransaction.updateStageForHashes")
+                .setParameter("stage", validationStage)
+                .setParameter("hashes", hashes)
+                .executeUpdate());
+  }
+
   @Override
   public long countAllAffected() {
     return entityManagerTemplate.execute(
@@ -115,4 +223,17 @@ public class StagingEntityDAOImpl implements StagingEntityDAO {
             em.createNamedQuery("StagingAffectedTransaction.countAll", Long.class)
                 .getSingleResult());
   }
+
+  @Override
+  public void resumeIds() {
+    final long maxId =
+        entityManagerTemplate.execute(
+            em ->
+                Stream.of("StagingTransaction.maxId", "StagingAffectedTransaction.maxId")
+                    .map(query -> em.createNamedQuery(query, Long.class).getSingleResult())
+                    .filter(Objects::nonNull)
+                    .reduce(0L, Math::max));
+    LOGGER.debug("Staging ids continue after {}", maxId);
+    AtomicLongSequence.startAfter(maxId);
+  }
 }
@@ -39,6 +39,11 @@ public class StagingEntityDAOProvider {
     properties.put(
         "eclipselink.session.customizer", "com.quorum.tessera.eclipselink.AtomicLongSequence");
 
+    // ids come from AtomicLongSequence when an entity is persisted, so the inserts of a
+    // recovery push can be sent in JDBC batches
+    properties.put("eclipselink.jdbc.batch-writing", "JDBC");
+    properties.put("eclipselink.jdbc.batch-writing.size", "100");
+
     LOGGER.debug("Creating EntityManagerFactory from {}", properties);
     final EntityManagerFactory entityManagerFactory =
         Persistence.createEntityManagerFactory("tessera-recover", properties);
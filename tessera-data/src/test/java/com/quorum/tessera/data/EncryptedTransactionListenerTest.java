@@ -5,7 +5,11 @@ import static org.mockito.Mockito.*;
 
 import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.enclave.EncodedPayloadCodec;
+import com.quorum.tessera.enclave.EncodedPayloadHeader;
 import com.quorum.tessera.enclave.PayloadEncoder;
+import com.quorum.tessera.enclave.PrivacyMode;
+import com.quorum.tessera.encryption.PublicKey;
+import java.util.List;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -52,12 +56,36 @@ public class EncryptedTransactionListenerTest {
 
     encryptedTransactionListener.onLoad(encryptedTransaction);
 
+    verifyNoInteractions(payloadEncoder);
+
+    assertThat(encryptedTransaction.getPayload()).isEqualTo(payload);
+    assertThat(encryptedTransaction.getPayload()).isEqualTo(payload);
+
     verify(payloadEncoder).decode(payloadData);
 
-    payloadEncoderFactoryFunction.verify(
-        () -> PayloadEncoder.create(any(EncodedPayloadCodec.class)));
+    payloadEncoderFactoryFunction.verify(() -> PayloadEncoder.create(EncodedPayloadCodec.CBOR));
+  }
 
-    assertThat(encryptedTransaction.getPayload()).isEqualTo(payload);
+  @Test
+  public void onLoadThenHeaderOnlyDecodesHeader() {
+
+    byte[] payloadData = "PayloadData".getBytes();
+    EncodedPayloadHeader header =
+        new EncodedPayloadHeader(
+            PublicKey.from("sender".getBytes()), PrivacyMode.PARTY_PROTECTION, List.of());
+    when(payloadEncoder.decodeHeader(payloadData)).thenReturn(header);
+
+    EncryptedTransaction encryptedTransaction = new EncryptedTransaction();
+    encryptedTransaction.setEncodedPayloadCodec(EncodedPayloadCodec.CBOR);
+    encryptedTransaction.setEncodedPayload(payloadData);
+
+    encryptedTransactionListener.onLoad(encryptedTransaction);
+
+    assertThat(encryptedTransaction.getPayloadHeader()).isSameAs(header);
+
+    verify(payloadEncoder).decodeHeader(payloadData);
+
+    payloadEncoderFactoryFunction.verify(() -> PayloadEncoder.create(EncodedPayloadCodec.CBOR));
   }
 
   @Test
@@ -72,12 +100,13 @@ public class EncryptedTransactionListenerTest {
 
     encryptedTransactionListener.onLoad(encryptedTransaction);
 
+    assertThat(encryptedTransaction.getPayload()).isEqualTo(payload);
+
     verify(payloadEncoder).decode(payloadData);
 
     payloadEncoderFactoryFunction.verify(
         () -> PayloadEncoder.create(eq(EncodedPayloadCodec.LEGACY)));
 
-    assertThat(encryptedTransaction.getPayload()).isEqualTo(payload);
     assertThat(encryptedTransaction.getEncodedPayloadCodec()).isEqualTo(EncodedPayloadCodec.LEGACY);
   }
 
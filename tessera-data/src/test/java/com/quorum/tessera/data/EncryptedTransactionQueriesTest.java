@@ -0,0 +1,87 @@
+package com.quorum.tessera.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.TypedQuery;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EncryptedTransactionQueriesTest {
+
+  private EntityManager entityManager;
+
+  private EntityTransaction transaction;
+
+  private TypedQuery<EncryptedTransaction> query;
+
+  @Before
+  public void beforeTest() {
+    entityManager = mock(EntityManager.class);
+    transaction = mock(EntityTransaction.class);
+    query = mock(TypedQuery.class);
+    when(entityManager.getTransaction()).thenReturn(transaction);
+    when(query.setHint(anyString(), any())).thenReturn(query);
+  }
+
+  @After
+  public void afterTest() {
+    verify(entityManager).setProperty("eclipselink.transaction.join-existing", "true");
+    verify(entityManager).getTransaction();
+    verify(transaction).begin();
+    verify(transaction).isActive();
+    verifyNoMoreInteractions(entityManager, transaction, query);
+  }
+
+  @Test
+  public void streamIsReadInsideATransactionThatIsRolledBackOnClose() {
+    final EncryptedTransaction encryptedTransaction = mock(EncryptedTransaction.class);
+    when(query.getResultStream()).thenReturn(Stream.of(encryptedTransaction));
+    when(transaction.isActive()).thenReturn(true);
+
+    try (Stream<EncryptedTransaction> stream =
+        EncryptedTransactionQueries.stream(entityManager, query, 10)) {
+      assertThat(stream).containsExactly(encryptedTransaction);
+    }
+
+    verify(query).setHint("eclipselink.cursor.scrollable", true);
+    verify(query).setHint("eclipselink.cursor.scrollable.result-set-type", "ForwardOnly");
+    verify(query).setHint("eclipselink.jdbc.fetch-size", 10);
+    verify(query).getResultStream();
+    verify(entityManager).detach(encryptedTransaction);
+    verify(transaction).rollback();
+  }
+
+  @Test
+  public void transactionIsRolledBackWhenQueryFails() {
+    final PersistenceException exception = new PersistenceException("Query failed");
+    when(query.getResultStream()).thenThrow(exception);
+    when(transaction.isActive()).thenReturn(true);
+
+    final Throwable throwable =
+        catchThrowable(() -> EncryptedTransactionQueries.stream(entityManager, query, 10));
+
+    assertThat(throwable).isSameAs(exception);
+    verify(query, times(3)).setHint(anyString(), any());
+    verify(query).getResultStream();
+    verify(transaction).rollback();
+  }
+
+  @Test
+  public void transactionThatHasAlreadyEndedIsNotRolledBack() {
+    when(query.getResultStream()).thenReturn(Stream.empty());
+
+    EncryptedTransactionQueries.stream(entityManager, query, 10).close();
+
+    verify(query, times(3)).setHint(anyString(), any());
+    verify(query).getResultStream();
+  }
+}
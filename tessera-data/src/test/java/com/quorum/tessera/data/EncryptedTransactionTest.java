@@ -2,8 +2,13 @@ package com.quorum.tessera.data;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import com.quorum.tessera.enclave.EncodedPayload;
+import com.quorum.tessera.enclave.EncodedPayloadHeader;
+import com.quorum.tessera.enclave.PrivacyMode;
+import com.quorum.tessera.encryption.PublicKey;
+import java.util.List;
 import java.util.Objects;
 import org.junit.Test;
 
@@ -34,6 +39,25 @@ public class EncryptedTransactionTest {
     assertThat(encryptedTransaction.getPayload()).isSameAs(payload);
   }
 
+  @Test
+  public void headerIsTakenFromDecodedPayload() {
+
+    PublicKey sender = PublicKey.from("SENDER".getBytes());
+    PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
+    EncodedPayload payload = mock(EncodedPayload.class);
+    when(payload.getSenderKey()).thenReturn(sender);
+    when(payload.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
+    when(payload.getRecipientKeys()).thenReturn(List.of(sender, recipient));
+
+    EncryptedTransaction encryptedTransaction =
+        new EncryptedTransaction(mock(MessageHash.class), payload);
+
+    assertThat(encryptedTransaction.getPayloadHeader())
+        .isEqualTo(
+            new EncodedPayloadHeader(
+                sender, PrivacyMode.PRIVATE_STATE_VALIDATION, List.of(sender, recipient)));
+  }
+
   @Test
   public void subclassesEqual() {
 
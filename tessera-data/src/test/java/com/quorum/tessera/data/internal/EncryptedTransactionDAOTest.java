@@ -9,12 +9,14 @@ import com.quorum.tessera.data.*;
 import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.enclave.EncodedPayloadCodec;
 import com.quorum.tessera.enclave.PayloadEncoder;
+import com.quorum.tessera.encryption.PublicKey;
 import jakarta.persistence.*;
 import java.util.*;
 import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import org.junit.*;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -58,6 +60,7 @@ public class EncryptedTransactionDAOTest {
     EntityManager entityManager = entityManagerFactory.createEntityManager();
     entityManager.getTransaction().begin();
     entityManager.createQuery("delete from EncryptedTransaction").executeUpdate();
+    entityManager.createQuery("delete from EncryptedTransactionRecipient").executeUpdate();
     entityManager.getTransaction().commit();
   }
 
@@ -151,7 +154,9 @@ public class EncryptedTransactionDAOTest {
       final EncryptedTransaction retrieved =
           entityManager.find(EncryptedTransaction.class, encryptedTransaction.getHash());
 
-      assertThat(retrieved).isNotNull().usingRecursiveComparison().isEqualTo(encryptedTransaction);
+      assertThat(retrieved).isNotNull();
+      assertThat(retrieved.getPayload()).isEqualTo(encodedPayload);
+      assertThat(retrieved).usingRecursiveComparison().isEqualTo(encryptedTransaction);
 
       encryptedTransaction.setPayload(updatedPayload);
       encryptedTransaction.setEncodedPayload(new byte[] {0});
@@ -170,7 +175,7 @@ public class EncryptedTransactionDAOTest {
       entityManager.getTransaction().rollback();
     }
     verify(payloadEncoder, times(2)).encode(any());
-    verify(payloadEncoder, times(3)).decode(any());
+    verify(payloadEncoder, times(2)).decode(any());
     verifyNoMoreInteractions(payloadEncoder);
   }
 
@@ -236,6 +241,7 @@ public class EncryptedTransactionDAOTest {
       entityManager.getTransaction().begin();
       final EncryptedTransaction retrieved =
           entityManager.find(EncryptedTransaction.class, encryptedTransaction.getHash());
+      assertThat(retrieved.getPayload()).isEqualTo(encodedPayload);
       assertThat(retrieved).usingRecursiveComparison().isEqualTo(encryptedTransaction);
 
       entityManager.getTransaction().rollback();
@@ -281,12 +287,205 @@ public class EncryptedTransactionDAOTest {
       assertThat(encryptedTransactionDAO.transactionCount()).isEqualTo(payloads.size());
       assertThat(retrievedList).hasSameSizeAs(payloads);
       assertThat(retrievedList).hasSameElementsAs(payloads);
+
+      // payloads are only decoded when they are used
+      verify(payloadEncoder, never()).decode(any());
+      assertThat(retrievedList)
+          .extracting(EncryptedTransaction::getPayload)
+          .containsOnly(encodedPayload);
     }
     verify(payloadEncoder, times(50)).decode(payloadData);
     verify(payloadEncoder, times(50)).encode(encodedPayload);
     verifyNoMoreInteractions(payloadEncoder);
   }
 
+  @Test
+  public void pagingAfterLastTransactionReturnsEachTransactionOnce() {
+
+    PayloadEncoder payloadEncoder = mock(PayloadEncoder.class);
+    final byte[] payloadData = "I Love Sparrows".getBytes();
+    EncodedPayload encodedPayload = mock(EncodedPayload.class);
+    when(payloadEncoder.encode(encodedPayload)).thenReturn(payloadData);
+    when(payloadEncoder.decode(payloadData)).thenReturn(encodedPayload);
+
+    try (var createEncoderFunction = mockStatic(PayloadEncoder.class)) {
+      createEncoderFunction
+          .when(() -> PayloadEncoder.create(EncodedPayloadCodec.current()))
+          .thenReturn(payloadEncoder);
+
+      EntityManager entityManager = entityManagerFactory.createEntityManager();
+
+      // persisted together, so many rows share a timestamp and are ordered by hash alone
+      entityManager.getTransaction().begin();
+      final List<EncryptedTransaction> payloads =
+          IntStream.range(0, 50)
+              .mapToObj(i -> UUID.randomUUID().toString().getBytes())
+              .map(MessageHash::new)
+              .map(
+                  hash -> {
+                    EncryptedTransaction encryptedTransaction = new EncryptedTransaction();
+                    encryptedTransaction.setHash(hash);
+                    encryptedTransaction.setPayload(encodedPayload);
+                    return encryptedTransaction;
+                  })
+              .peek(entityManager::persist)
+              .collect(Collectors.toList());
+      entityManager.getTransaction().commit();
+
+      final List<EncryptedTransaction> retrieved = new ArrayList<>();
+      List<EncryptedTransaction> page =
+          encryptedTransactionDAO.retrieveTransactionsAfter(0L, null, 7);
+      while (!page.isEmpty()) {
+        assertThat(page).hasSizeLessThanOrEqualTo(7);
+        retrieved.addAll(page);
+        final EncryptedTransaction last = page.get(page.size() - 1);
+        page =
+            encryptedTransactionDAO.retrieveTransactionsAfter(
+                last.getTimestamp(), last.getHash(), 7);
+      }
+
+      assertThat(retrieved).hasSameSizeAs(payloads);
+      assertThat(retrieved).hasSameElementsAs(payloads);
+    }
+    verify(payloadEncoder, times(50)).encode(encodedPayload);
+    verifyNoMoreInteractions(payloadEncoder);
+  }
+
+  @Test
+  public void pagingAfterLastTransactionIncludesBackfilledTransactions() {
+
+    PayloadEncoder payloadEncoder = mock(PayloadEncoder.class);
+    final byte[] payloadData = "I Love Sparrows".getBytes();
+    EncodedPayload encodedPayload = mock(EncodedPayload.class);
+    when(payloadEncoder.encode(encodedPayload)).thenReturn(payloadData);
+
+    try (var createEncoderFunction = mockStatic(PayloadEncoder.class)) {
+      createEncoderFunction
+          .when(() -> PayloadEncoder.create(EncodedPayloadCodec.current()))
+          .thenReturn(payloadEncoder);
+
+      EntityManager entityManager = entityManagerFactory.createEntityManager();
+
+      entityManager.getTransaction().begin();
+      final List<MessageHash> hashes =
+          IntStream.range(0, 10)
+              .mapToObj(i -> UUID.randomUUID().toString().getBytes())
+              .map(MessageHash::new)
+              .collect(Collectors.toList());
+      hashes.forEach(
+          hash -> {
+            EncryptedTransaction encryptedTransaction = new EncryptedTransaction();
+            encryptedTransaction.setHash(hash);
+            encryptedTransaction.setPayload(encodedPayload);
+            entityManager.persist(encryptedTransaction);
+          });
+      entityManager.getTransaction().commit();
+
+      // rows stored before the timestamp column was added are given 0 by the add-keyset-index
+      // backfill
+      entityManager.getTransaction().begin();
+      hashes.subList(0, 5).stream()
+          .map(MessageHash::getHashBytes)
+          .forEach(
+              hash ->
+                  entityManager
+                      .createNativeQuery(
+                          "UPDATE ENCRYPTED_TRANSACTION SET TIMESTAMP = 0 WHERE HASH = ?")
+                      .setParameter(1, hash)
+                      .executeUpdate());
+      entityManager.getTransaction().commit();
+
+      final List<MessageHash> retrieved = new ArrayList<>();
+      List<EncryptedTransaction> page =
+          encryptedTransactionDAO.retrieveTransactionsAfter(0L, null, 3);
+      while (!page.isEmpty()) {
+        page.stream().map(EncryptedTransaction::getHash).forEach(retrieved::add);
+        final EncryptedTransaction last = page.get(page.size() - 1);
+        page =
+            encryptedTransactionDAO.retrieveTransactionsAfter(
+                last.getTimestamp(), last.getHash(), 3);
+      }
+
+      assertThat(retrieved).containsExactlyInAnyOrderElementsOf(hashes);
+    }
+    verify(payloadEncoder, times(10)).encode(encodedPayload);
+    verifyNoMoreInteractions(payloadEncoder);
+  }
+
+  @Test
+  public void streamAllReturnsAllTransactions() {
+
+    PayloadEncoder payloadEncoder = mock(PayloadEncoder.class);
+    final byte[] payloadData = "I Love Sparrows".getBytes();
+    EncodedPayload encodedPayload = mock(EncodedPayload.class);
+    when(payloadEncoder.encode(encodedPayload)).thenReturn(payloadData);
+    when(payloadEncoder.decode(payloadData)).thenReturn(encodedPayload);
+
+    try (var createEncoderFunction = mockStatic(PayloadEncoder.class)) {
+      createEncoderFunction
+          .when(() -> PayloadEncoder.create(EncodedPayloadCodec.current()))
+          .thenReturn(payloadEncoder);
+
+      EntityManager entityManager = entityManagerFactory.createEntityManager();
+
+      entityManager.getTransaction().begin();
+      final List<EncryptedTransaction> payloads =
+          IntStream.range(0, 50)
+              .mapToObj(i -> UUID.randomUUID().toString().getBytes())
+              .map(MessageHash::new)
+              .map(
+                  hash -> {
+                    EncryptedTransaction encryptedTransaction = new EncryptedTransaction();
+                    encryptedTransaction.setHash(hash);
+                    encryptedTransaction.setPayload(encodedPayload);
+                    return encryptedTransaction;
+                  })
+              .peek(entityManager::persist)
+              .collect(Collectors.toList());
+      entityManager.getTransaction().commit();
+
+      final EncryptedTransactionDAO streamingDAO =
+          new EncryptedTransactionDAOImpl(entityManagerFactory, 7);
+
+      final List<EncryptedTransaction> retrieved;
+      try (Stream<EncryptedTransaction> stream = streamingDAO.streamAll()) {
+        retrieved = stream.collect(Collectors.toList());
+      }
+
+      assertThat(retrieved).hasSameSizeAs(payloads);
+      assertThat(retrieved).hasSameElementsAs(payloads);
+      assertThat(retrieved)
+          .extracting(EncryptedTransaction::getPayload)
+          .containsOnly(encodedPayload);
+    }
+    verify(payloadEncoder, times(50)).encode(encodedPayload);
+    verify(payloadEncoder, times(50)).decode(payloadData);
+    verifyNoMoreInteractions(payloadEncoder);
+  }
+
+  @Test
+  public void streamAllOnEmptyStoreIsEmpty() {
+    try (Stream<EncryptedTransaction> stream = encryptedTransactionDAO.streamAll()) {
+      assertThat(stream).isEmpty();
+    }
+  }
+
+  @Test
+  public void streamClosesEntityManagerWhenQueryCannotBeCreated() {
+    final EntityManagerFactory mockEntityManagerFactory = mock(EntityManagerFactory.class);
+    final EntityManager mockEntityManager = mock(EntityManager.class);
+    final PersistenceException exception = new PersistenceException("No connection");
+    when(mockEntityManagerFactory.createEntityManager()).thenReturn(mockEntityManager);
+    when(mockEntityManager.getCriteriaBuilder()).thenThrow(exception);
+
+    final EncryptedTransactionDAO dao = new EncryptedTransactionDAOImpl(mockEntityManagerFactory);
+
+    final Throwable throwable = catchThrowable(dao::streamAll);
+
+    assertThat(throwable).isSameAs(exception);
+    verify(mockEntityManager).close();
+  }
+
   @Test
   public void deleteTransactionRemovesFromDatabaseAndReturnsTrue() {
 
@@ -324,7 +523,6 @@ public class EncryptedTransactionDAOTest {
       Long result2 = (Long) countQuery.setParameter("hash", messageHash).getSingleResult();
       assertThat(result2).isZero();
     }
-    verify(payloadEncoder).decode(payloadData);
     verify(payloadEncoder).encode(encodedPayload);
     verifyNoMoreInteractions(payloadEncoder);
   }
@@ -366,6 +564,7 @@ public class EncryptedTransactionDAOTest {
           encryptedTransactionDAO.retrieveByHash(messageHash);
 
       assertThat(retrieved.isPresent()).isTrue();
+      assertThat(retrieved.get().getPayload()).isEqualTo(encodedPayload);
       assertThat(retrieved.get()).usingRecursiveComparison().isEqualTo(encryptedTransaction);
     }
     verify(payloadEncoder).encode(encodedPayload);
@@ -412,7 +611,6 @@ public class EncryptedTransactionDAOTest {
       assertThat(retrieved).isNotNull();
       assertThat(retrieved.getTimestamp()).isNotZero().isGreaterThan(0L);
     }
-    verify(payloadEncoder).decode(payloadData);
     verify(payloadEncoder).encode(encodedPayload);
     verifyNoMoreInteractions(payloadEncoder);
   }
@@ -496,6 +694,7 @@ public class EncryptedTransactionDAOTest {
       assertThat(result).isNotNull();
       assertThat(result.getEncodedPayload()).containsExactly(payloadData);
       assertThat(result.getHash()).isEqualTo(transactionHash);
+      assertThat(result.getPayload()).isEqualTo(encodedPayload);
 
       verify(callback).call();
     }
@@ -504,6 +703,113 @@ public class EncryptedTransactionDAOTest {
     verify(payloadEncoder).decode(payloadData);
   }
 
+  @Test
+  public void saveAllTransactionsWithCallback() throws Exception {
+    PayloadEncoder payloadEncoder = mock(PayloadEncoder.class);
+    EncodedPayload encodedPayload = mock(EncodedPayload.class);
+    when(payloadEncoder.encode(encodedPayload)).thenReturn("payloadData".getBytes());
+
+    try (var createEncoderFunction = mockStatic(PayloadEncoder.class)) {
+      createEncoderFunction
+          .when(() -> PayloadEncoder.create(EncodedPayloadCodec.current()))
+          .thenReturn(payloadEncoder);
+
+      List<EncryptedTransaction> transactions =
+          Stream.generate(() -> new MessageHash(UUID.randomUUID().toString().getBytes()))
+              .limit(3)
+              .map(
+                  hash -> {
+                    EncryptedTransaction transaction = new EncryptedTransaction();
+                    transaction.setHash(hash);
+                    transaction.setPayload(encodedPayload);
+                    return transaction;
+                  })
+              .collect(Collectors.toList());
+
+      Callable<Void> callback = mock(Callable.class);
+
+      List<EncryptedTransaction> saved = encryptedTransactionDAO.saveAll(transactions, callback);
+
+      assertThat(saved).isSameAs(transactions);
+      EntityManager entityManager = entityManagerFactory.createEntityManager();
+      transactions.forEach(
+          transaction ->
+              assertThat(entityManager.find(EncryptedTransaction.class, transaction.getHash()))
+                  .isNotNull());
+
+      verify(callback).call();
+    }
+    verify(payloadEncoder, times(3)).encode(encodedPayload);
+    verifyNoMoreInteractions(payloadEncoder);
+  }
+
+  @Test
+  public void saveAllTransactionsRollsBackWhenCallbackFails() throws Exception {
+    PayloadEncoder payloadEncoder = mock(PayloadEncoder.class);
+    EncodedPayload encodedPayload = mock(EncodedPayload.class);
+    when(payloadEncoder.encode(encodedPayload)).thenReturn("payloadData".getBytes());
+
+    try (var createEncoderFunction = mockStatic(PayloadEncoder.class)) {
+      createEncoderFunction
+          .when(() -> PayloadEncoder.create(EncodedPayloadCodec.current()))
+          .thenReturn(payloadEncoder);
+
+      MessageHash first = new MessageHash(UUID.randomUUID().toString().getBytes());
+      MessageHash second = new MessageHash(UUID.randomUUID().toString().getBytes());
+      List<EncryptedTransaction> transactions =
+          List.of(
+              new EncryptedTransaction(first, encodedPayload),
+              new EncryptedTransaction(second, encodedPayload));
+
+      Callable<Void> callback = mock(Callable.class);
+      when(callback.call()).thenThrow(new Exception("OUCH"));
+
+      Throwable throwable =
+          catchThrowable(() -> encryptedTransactionDAO.saveAll(transactions, callback));
+      assertThat(throwable).isInstanceOf(PersistenceException.class).hasMessageContaining("OUCH");
+
+      EntityManager entityManager = entityManagerFactory.createEntityManager();
+      assertThat(entityManager.find(EncryptedTransaction.class, first)).isNull();
+      assertThat(entityManager.find(EncryptedTransaction.class, second)).isNull();
+
+      verify(callback).call();
+    }
+    verify(payloadEncoder, times(2)).encode(encodedPayload);
+    verifyNoMoreInteractions(payloadEncoder);
+  }
+
+  @Test
+  public void saveAllTransactionsRethrowsRuntimeExceptionFromCallback() throws Exception {
+    PayloadEncoder payloadEncoder = mock(PayloadEncoder.class);
+    EncodedPayload encodedPayload = mock(EncodedPayload.class);
+    when(payloadEncoder.encode(encodedPayload)).thenReturn("payloadData".getBytes());
+
+    try (var createEncoderFunction = mockStatic(PayloadEncoder.class)) {
+      createEncoderFunction
+          .when(() -> PayloadEncoder.create(EncodedPayloadCodec.current()))
+          .thenReturn(payloadEncoder);
+
+      MessageHash hash = new MessageHash(UUID.randomUUID().toString().getBytes());
+      RuntimeException exception = new RuntimeException("OUCH");
+      Callable<Void> callback = mock(Callable.class);
+      when(callback.call()).thenThrow(exception);
+
+      Throwable throwable =
+          catchThrowable(
+              () ->
+                  encryptedTransactionDAO.saveAll(
+                      List.of(new EncryptedTransaction(hash, encodedPayload)), callback));
+      assertThat(throwable).isSameAs(exception);
+
+      EntityManager entityManager = entityManagerFactory.createEntityManager();
+      assertThat(entityManager.find(EncryptedTransaction.class, hash)).isNull();
+
+      verify(callback).call();
+    }
+    verify(payloadEncoder).encode(encodedPayload);
+    verifyNoMoreInteractions(payloadEncoder);
+  }
+
   @Test
   public void saveTransactionWithCallbackException() throws Exception {
 
@@ -634,6 +940,120 @@ public class EncryptedTransactionDAOTest {
     verify(payloadEncoder, times(2)).encode(encodedPayload);
   }
 
+  @Test
+  public void retrieveTransactionsForRecipientUsesIndex() {
+
+    final PublicKey sender = PublicKey.from("SENDER".getBytes());
+    final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
+    final PublicKey otherRecipient = PublicKey.from("OTHER".getBytes());
+
+    PayloadEncoder payloadEncoder = mock(PayloadEncoder.class);
+    final byte[] payloadData = "PAYLOADATA".getBytes();
+    final byte[] otherPayloadData = "OTHERPAYLOADDATA".getBytes();
+    EncodedPayload encodedPayload = mock(EncodedPayload.class);
+    when(encodedPayload.getSenderKey()).thenReturn(sender);
+    when(encodedPayload.getRecipientKeys()).thenReturn(List.of(sender, recipient));
+    EncodedPayload otherPayload = mock(EncodedPayload.class);
+    when(otherPayload.getSenderKey()).thenReturn(sender);
+    when(otherPayload.getRecipientKeys()).thenReturn(List.of(otherRecipient));
+    when(payloadEncoder.encode(encodedPayload)).thenReturn(payloadData);
+    when(payloadEncoder.decode(payloadData)).thenReturn(encodedPayload);
+    when(payloadEncoder.encode(otherPayload)).thenReturn(otherPayloadData);
+    when(payloadEncoder.decode(otherPayloadData)).thenReturn(otherPayload);
+
+    try (var createEncoderFunction = mockStatic(PayloadEncoder.class)) {
+      createEncoderFunction
+          .when(() -> PayloadEncoder.create(EncodedPayloadCodec.current()))
+          .thenReturn(payloadEncoder);
+
+      final EncryptedTransaction transaction =
+          new EncryptedTransaction(new MessageHash("HASH1".getBytes()), encodedPayload);
+      final EncryptedTransaction otherTransaction =
+          new EncryptedTransaction(new MessageHash("HASH2".getBytes()), otherPayload);
+      encryptedTransactionDAO.save(transaction);
+      encryptedTransactionDAO.save(otherTransaction, () -> true);
+
+      assertThat(encryptedTransactionDAO.transactionCountForRecipient(sender)).isEqualTo(2);
+      assertThat(encryptedTransactionDAO.transactionCountForRecipient(recipient)).isEqualTo(1);
+      assertThat(
+              encryptedTransactionDAO.retrieveTransactionsForRecipientAfter(sender, 0L, null, 10))
+          .containsExactlyInAnyOrder(transaction, otherTransaction);
+      assertThat(
+              encryptedTransactionDAO.retrieveTransactionsForRecipientAfter(
+                  recipient, 0L, null, 10))
+          .containsExactly(transaction);
+
+      try (Stream<EncryptedTransaction> stream =
+          encryptedTransactionDAO.streamTransactionsForRecipient(sender)) {
+        assertThat(stream).containsExactlyInAnyOrder(transaction, otherTransaction);
+      }
+      try (Stream<EncryptedTransaction> stream =
+          encryptedTransactionDAO.streamTransactionsForRecipient(recipient)) {
+        assertThat(stream).containsExactly(transaction);
+      }
+
+      final List<EncryptedTransaction> firstPage =
+          encryptedTransactionDAO.retrieveTransactionsForRecipientAfter(sender, 0L, null, 1);
+      assertThat(firstPage).hasSize(1);
+      final EncryptedTransaction last = firstPage.get(0);
+      assertThat(
+              encryptedTransactionDAO.retrieveTransactionsForRecipientAfter(
+                  sender, last.getTimestamp(), last.getHash(), 10))
+          .hasSize(1)
+          .doesNotContain(last);
+
+      encryptedTransactionDAO.delete(transaction.getHash());
+
+      assertThat(encryptedTransactionDAO.transactionCountForRecipient(sender)).isEqualTo(1);
+      assertThat(encryptedTransactionDAO.transactionCountForRecipient(recipient)).isZero();
+      assertThat(
+              encryptedTransactionDAO.retrieveTransactionsForRecipientAfter(
+                  recipient, 0L, null, 10))
+          .isEmpty();
+    }
+  }
+
+  @Test
+  public void updateReindexesRecipients() {
+
+    final PublicKey sender = PublicKey.from("SENDER".getBytes());
+    final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
+    final PublicKey newRecipient = PublicKey.from("NEW_RECIPIENT".getBytes());
+
+    PayloadEncoder payloadEncoder = mock(PayloadEncoder.class);
+    final byte[] initialData = "DATA1".getBytes();
+    EncodedPayload encodedPayload = mock(EncodedPayload.class);
+    when(encodedPayload.getSenderKey()).thenReturn(sender);
+    when(encodedPayload.getRecipientKeys()).thenReturn(List.of(recipient));
+    when(payloadEncoder.encode(encodedPayload)).thenReturn(initialData);
+    when(payloadEncoder.decode(initialData)).thenReturn(encodedPayload);
+    final byte[] updatedData = "DATA2".getBytes();
+    EncodedPayload updatedPayload = mock(EncodedPayload.class);
+    when(updatedPayload.getSenderKey()).thenReturn(sender);
+    when(updatedPayload.getRecipientKeys()).thenReturn(List.of(recipient, newRecipient));
+    when(payloadEncoder.encode(updatedPayload)).thenReturn(updatedData);
+    when(payloadEncoder.decode(updatedData)).thenReturn(updatedPayload);
+
+    try (var createEncoderFunction = mockStatic(PayloadEncoder.class)) {
+      createEncoderFunction
+          .when(() -> PayloadEncoder.create(EncodedPayloadCodec.current()))
+          .thenReturn(payloadEncoder);
+
+      final EncryptedTransaction encryptedTransaction =
+          new EncryptedTransaction(new MessageHash(new byte[] {1}), encodedPayload);
+      encryptedTransactionDAO.save(encryptedTransaction);
+
+      assertThat(encryptedTransactionDAO.transactionCountForRecipient(newRecipient)).isZero();
+
+      encryptedTransaction.setPayload(updatedPayload);
+      encryptedTransactionDAO.update(encryptedTransaction);
+
+      assertThat(encryptedTransactionDAO.transactionCountForRecipient(sender)).isEqualTo(1);
+      assertThat(encryptedTransactionDAO.transactionCountForRecipient(recipient)).isEqualTo(1);
+      assertThat(encryptedTransactionDAO.transactionCountForRecipient(newRecipient)).isEqualTo(1);
+    }
+  }
+
   @Test
   public void upcheckReturnsTrue() {
     assertThat(encryptedTransactionDAO.upcheck());
@@ -230,6 +230,90 @@ public class StagingEntityDAOTest {
     assertThat(stagingEntityDAO.countAllAffected()).isEqualTo(7);
   }
 
+  @Test
+  public void pagingAfterLastTransactionFollowsStageOrder() {
+
+    final AtomicLong stage = new AtomicLong(0);
+    while (stagingEntityDAO.updateStageForBatch(10, stage.incrementAndGet()) != 0) {}
+
+    final List<StagingTransaction> expected =
+        stagingEntityDAO.retrieveTransactionBatchOrderByStageAndHash(0, Integer.MAX_VALUE);
+
+    final List<StagingTransaction> retrieved = new ArrayList<>();
+    List<StagingTransaction> page =
+        stagingEntityDAO.retrieveTransactionBatchOrderByStageAndHashAfter(null, 2);
+    while (!page.isEmpty()) {
+      assertThat(page).hasSizeLessThanOrEqualTo(2);
+      retrieved.addAll(page);
+      page =
+          stagingEntityDAO.retrieveTransactionBatchOrderByStageAndHashAfter(
+              page.get(page.size() - 1), 2);
+    }
+
+    assertThat(retrieved)
+        .extracting(StagingTransaction::getId)
+        .doesNotHaveDuplicates()
+        .containsExactlyInAnyOrderElementsOf(
+            expected.stream().map(StagingTransaction::getId).collect(Collectors.toList()));
+    assertThat(retrieved)
+        .extracting(StagingTransaction::getValidationStage)
+        .containsExactlyElementsOf(
+            expected.stream()
+                .map(StagingTransaction::getValidationStage)
+                .collect(Collectors.toList()));
+    assertThat(retrieved.get(retrieved.size() - 1).getValidationStage()).isNull();
+  }
+
+  @Test
+  public void countUnstagedByHash() {
+
+    final String txnHash1 = transactions.get("TXN1").getHash();
+    final String txnHash2 = transactions.get("TXN2A").getHash();
+
+    final Map<String, Long> unstaged = stagingEntityDAO.countUnstagedByHash();
+
+    assertThat(unstaged).hasSize(6).containsEntry(txnHash1, 1L).containsEntry(txnHash2, 2L);
+
+    assertThat(stagingEntityDAO.updateStageForHashes(List.of(txnHash1, txnHash2), 1L))
+        .isEqualTo(3);
+
+    assertThat(stagingEntityDAO.countUnstagedByHash())
+        .hasSize(6)
+        .containsEntry(txnHash1, 0L)
+        .containsEntry(txnHash2, 0L)
+        .containsEntry(transactions.get("TXN3").getHash(), 1L);
+  }
+
+  @Test
+  public void forEachAffectedHashReadsAllRecordsInBatches() {
+
+    final List<String> pairs = new ArrayList<>();
+    stagingEntityDAO.forEachAffectedHash(2, (hash, affected) -> pairs.add(hash + ":" + affected));
+
+    final String txnHash1 = transactions.get("TXN1").getHash();
+    final String txnHash4 = transactions.get("TXN4").getHash();
+    final String txnHash7 = transactions.get("TXN7").getHash();
+
+    assertThat(pairs)
+        .hasSize(7)
+        .contains(txnHash7 + ":" + txnHash1, txnHash7 + ":" + txnHash4);
+  }
+
+  @Test
+  public void updateStageForHashesOnlyUpdatesUnstagedRows() {
+
+    final String txnHash2 = transactions.get("TXN2A").getHash();
+
+    assertThat(stagingEntityDAO.updateStageForHashes(List.of(), 1L)).isZero();
+    assertThat(stagingEntityDAO.updateStageForHashes(List.of(txnHash2), 1L)).isEqualTo(2);
+    assertThat(stagingEntityDAO.updateStageForHashes(List.of(txnHash2), 2L)).isZero();
+
+    assertThat(stagingEntityDAO.countStaged()).isEqualTo(2);
+    assertThat(stagingEntityDAO.retrieveTransactionBatchOrderByStageAndHash(0, 2))
+        .extracting(StagingTransaction::getValidationStage)
+        .containsExactly(1L, 1L);
+  }
+
   @Test
   public void testRetrieveTransactionByHash() {
 
@@ -260,6 +344,80 @@ public class StagingEntityDAOTest {
     assertThat(stagingTransactionAfterUpdate.get().getValidationStage()).isEqualTo(123L);
   }
 
+  @Test
+  public void saveAllStoresEveryTransaction() {
+
+    final List<StagingTransaction> stagingTransactions =
+        Stream.generate(Utils::createHashStr)
+            .limit(3)
+            .map(
+                txHash -> {
+                  final StagingTransaction stagingTransaction = new StagingTransaction();
+                  stagingTransaction.setHash(txHash);
+                  stagingTransaction.setPrivacyMode(PrivacyMode.STANDARD_PRIVATE);
+                  stagingTransaction.setEncodedPayloadCodec(CODEC);
+                  stagingTransaction.setPayload(payloadData);
+
+                  final StagingAffectedTransaction affected = new StagingAffectedTransaction();
+                  affected.setSourceTransaction(stagingTransaction);
+                  affected.setHash("affected");
+                  stagingTransaction.getAffectedContractTransactions().add(affected);
+                  return stagingTransaction;
+                })
+            .collect(Collectors.toList());
+
+    final List<StagingTransaction> saved = stagingEntityDAO.saveAll(stagingTransactions);
+
+    assertThat(saved).isSameAs(stagingTransactions);
+    assertThat(saved).allMatch(st -> Objects.nonNull(st.getId()));
+
+    assertThat(stagingEntityDAO.countAll()).isEqualTo(10);
+    assertThat(stagingEntityDAO.countAllAffected()).isEqualTo(10);
+
+    stagingTransactions.forEach(
+        st -> assertThat(stagingEntityDAO.retrieveByHash(st.getHash())).contains(st));
+  }
+
+  @Test
+  public void resumeIdsContinuesAfterTheRowsAlreadyStaged() {
+
+    // rows left by an earlier run, whose ids are ahead of the sequence of this one
+    final StagingTransaction earlier = new StagingTransaction();
+    earlier.setId(1000000000L);
+    earlier.setHash(Utils.createHashStr());
+    earlier.setPrivacyMode(PrivacyMode.STANDARD_PRIVATE);
+    earlier.setEncodedPayloadCodec(CODEC);
+    earlier.setPayload(payloadData);
+
+    final StagingAffectedTransaction earlierAffected = new StagingAffectedTransaction();
+    earlierAffected.setId(2000000000L);
+    earlierAffected.setSourceTransaction(earlier);
+    earlierAffected.setHash("affected");
+    earlier.getAffectedContractTransactions().add(earlierAffected);
+
+    stagingEntityDAO.save(earlier);
+
+    stagingEntityDAO.resumeIds();
+
+    final StagingTransaction resumed = new StagingTransaction();
+    resumed.setHash(Utils.createHashStr());
+    resumed.setPrivacyMode(PrivacyMode.STANDARD_PRIVATE);
+    resumed.setEncodedPayloadCodec(CODEC);
+    resumed.setPayload(payloadData);
+
+    final StagingAffectedTransaction resumedAffected = new StagingAffectedTransaction();
+    resumedAffected.setSourceTransaction(resumed);
+    resumedAffected.setHash("affected");
+    resumed.getAffectedContractTransactions().add(resumedAffected);
+
+    stagingEntityDAO.save(resumed);
+
+    assertThat(resumed.getId()).isGreaterThan(2000000000L);
+    assertThat(resumedAffected.getId()).isGreaterThan(2000000000L);
+    assertThat(stagingEntityDAO.countAll()).isEqualTo(9);
+    assertThat(stagingEntityDAO.countAllAffected()).isEqualTo(9);
+  }
+
   @Test
   public void testSave() {
 
@@ -4,6 +4,7 @@ import com.quorum.tessera.config.Config;
 import com.quorum.tessera.config.util.IntervalPropertyHelper;
 import com.quorum.tessera.discovery.EnclaveKeySynchroniser;
 import com.quorum.tessera.enclave.Enclave;
+import com.quorum.tessera.p2p.partyinfo.PartyInfoBroadcastConfig;
 import com.quorum.tessera.p2p.partyinfo.PartyInfoBroadcaster;
 import com.quorum.tessera.p2p.resend.ResendPartyStore;
 import com.quorum.tessera.p2p.resend.SyncPoller;
@@ -11,10 +12,13 @@ import com.quorum.tessera.p2p.resend.TransactionRequester;
 import com.quorum.tessera.partyinfo.P2pClient;
 import com.quorum.tessera.service.ServiceContainer;
 import com.quorum.tessera.threading.TesseraScheduledExecutor;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ServiceLoader;
 import java.util.concurrent.ScheduledExecutorService;
+import javax.management.JMException;
+import javax.management.ObjectName;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -81,9 +85,20 @@ public class ScheduledServiceFactory {
 
     LOGGER.info("Creating PartyInfoBroadcaster");
 
-    PartyInfoBroadcaster partyInfoPoller = new PartyInfoBroadcaster(p2pClient);
+    PartyInfoBroadcaster partyInfoPoller =
+        new PartyInfoBroadcaster(
+            p2pClient,
+            PartyInfoBroadcastConfig.from(config.getP2PServerConfig().getProperties()));
     LOGGER.info("Created PartyInfoBroadcaster {}", partyInfoPoller);
 
+    try {
+      ManagementFactory.getPlatformMBeanServer()
+          .registerMBean(
+              partyInfoPoller, new ObjectName("com.quorum.tessera:type=PartyInfoBroadcaster"));
+    } catch (JMException ex) {
+      LOGGER.warn("Unable to register PartyInfoBroadcaster metrics", ex);
+    }
+
     tesseraScheduledExecutors.add(
         new TesseraScheduledExecutor(
             java.util.concurrent.Executors.newSingleThreadScheduledExecutor(),
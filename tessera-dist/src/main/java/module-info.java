@@ -2,6 +2,7 @@ module tessera.application {
   exports com.quorum.tessera.launcher;
 
   requires jakarta.validation;
+  requires java.management;
   requires org.apache.commons.lang3;
   requires org.slf4j;
   requires tessera.cli.api;
@@ -0,0 +1,36 @@
+package com.quorum.tessera.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Model representation of a JSON body on outgoing HTTP requests
+ *
+ * <p>Contains the outcome of storing a single pushed payload, which is either the hash it was
+ * stored under or the reason it was not stored
+ */
+public class PushAcknowledgement {
+
+  @Schema(description = "hash of the stored payload", format = "base64")
+  private String key;
+
+  @Schema(description = "the reason the payload was not stored")
+  private String error;
+
+  public PushAcknowledgement() {}
+
+  public String getKey() {
+    return key;
+  }
+
+  public void setKey(final String key) {
+    this.key = key;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  public void setError(final String error) {
+    this.error = error;
+  }
+}
@@ -0,0 +1,42 @@
+package com.quorum.tessera.api;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import jakarta.xml.bind.annotation.XmlMimeType;
+import java.util.List;
+
+/**
+ * Model representation of a JSON body on incoming HTTP requests
+ *
+ * <p>Contains several encoded payloads that a peer pushes to this node at once
+ */
+public class PushManyRequest {
+
+  /** The most payloads a peer may push in one request, so that a request stays small */
+  public static final int MAX_PAYLOADS = 100;
+
+  @ArraySchema(
+      arraySchema = @Schema(description = "the encoded payloads to be stored"),
+      schema = @Schema(type = "string", format = "byte"),
+      maxItems = MAX_PAYLOADS)
+  @Size(min = 1, max = MAX_PAYLOADS)
+  @NotNull
+  @XmlMimeType("base64Binary")
+  private List<byte[]> encodedPayloads;
+
+  public PushManyRequest() {}
+
+  public PushManyRequest(final List<byte[]> encodedPayloads) {
+    this.encodedPayloads = encodedPayloads;
+  }
+
+  public List<byte[]> getEncodedPayloads() {
+    return encodedPayloads;
+  }
+
+  public void setEncodedPayloads(final List<byte[]> encodedPayloads) {
+    this.encodedPayloads = encodedPayloads;
+  }
+}
@@ -0,0 +1,27 @@
+package com.quorum.tessera.api;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Model representation of a JSON body on outgoing HTTP requests
+ *
+ * <p>Contains the acknowledgement of each payload of a push, in the order they were pushed
+ */
+public class PushManyResponse {
+
+  @ArraySchema(
+      arraySchema =
+          @Schema(description = "the acknowledgement for each payload, in the order pushed"))
+  private PushAcknowledgement[] acknowledgements;
+
+  public PushManyResponse() {}
+
+  public PushAcknowledgement[] getAcknowledgements() {
+    return acknowledgements;
+  }
+
+  public void setAcknowledgements(final PushAcknowledgement[] acknowledgements) {
+    this.acknowledgements = acknowledgements;
+  }
+}
@@ -0,0 +1,61 @@
+package com.quorum.tessera.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Model representation of a JSON body on outgoing HTTP requests
+ *
+ * <p>Contains the outcome of receiving a single transaction of a batch, which is either the
+ * decrypted transaction or the reason it could not be received
+ */
+public class ReceiveBatchItem {
+
+  @Schema(description = "hash of the requested transaction", format = "base64")
+  private String key;
+
+  @Schema(
+      description =
+          "the HTTP status a single receive of the transaction would have had\n* 200 = decrypted\n* 404 = transaction not found\n* 500 = transaction could not be decrypted",
+      allowableValues = {"200", "404", "500"})
+  private int status;
+
+  @Schema(description = "the decrypted transaction, if it could be received")
+  private ReceiveResponse transaction;
+
+  @Schema(description = "the reason the transaction could not be received")
+  private String error;
+
+  public ReceiveBatchItem() {}
+
+  public String getKey() {
+    return key;
+  }
+
+  public void setKey(final String key) {
+    this.key = key;
+  }
+
+  public int getStatus() {
+    return status;
+  }
+
+  public void setStatus(final int status) {
+    this.status = status;
+  }
+
+  public ReceiveResponse getTransaction() {
+    return transaction;
+  }
+
+  public void setTransaction(final ReceiveResponse transaction) {
+    this.transaction = transaction;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  public void setError(final String error) {
+    this.error = error;
+  }
+}
@@ -0,0 +1,50 @@
+package com.quorum.tessera.api;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Model representation of a JSON body on incoming HTTP requests
+ *
+ * <p>Contains the message hashes of several transactions to retrieve and decrypt at once, and the
+ * public key to decrypt them with
+ */
+public class ReceiveBatchRequest {
+
+  /** The hashes are looked up in one query, and some databases allow no more in an IN list */
+  public static final int MAX_KEYS = 1000;
+
+  @ArraySchema(
+      arraySchema =
+          @Schema(description = "hashes indicating encrypted payloads to retrieve from database"),
+      schema = @Schema(format = "base64"),
+      maxItems = MAX_KEYS)
+  @Size(min = 1, max = MAX_KEYS)
+  @NotNull
+  private String[] keys;
+
+  @Schema(
+      description =
+          "(optional) public key of recipient of the encrypted payloads; used in decryption; if not provided, decryption is attempted with all known recipient keys in turn",
+      format = "base64")
+  @Size(min = 1)
+  private String to;
+
+  public String[] getKeys() {
+    return keys;
+  }
+
+  public void setKeys(final String[] keys) {
+    this.keys = keys;
+  }
+
+  public String getTo() {
+    return to;
+  }
+
+  public void setTo(final String to) {
+    this.to = to;
+  }
+}
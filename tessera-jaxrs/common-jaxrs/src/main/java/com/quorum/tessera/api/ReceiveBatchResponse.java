@@ -0,0 +1,28 @@
+package com.quorum.tessera.api;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Model representation of a JSON body on outgoing HTTP requests
+ *
+ * <p>Contains the outcome of receiving each transaction of a batch, in the order they were
+ * requested
+ */
+public class ReceiveBatchResponse {
+
+  @ArraySchema(
+      arraySchema =
+          @Schema(description = "the outcome for each requested hash, in the order requested"))
+  private ReceiveBatchItem[] transactions;
+
+  public ReceiveBatchResponse() {}
+
+  public ReceiveBatchItem[] getTransactions() {
+    return transactions;
+  }
+
+  public void setTransactions(final ReceiveBatchItem[] transactions) {
+    this.transactions = transactions;
+  }
+}
@@ -0,0 +1,36 @@
+package com.quorum.tessera.api;
+
+import com.quorum.tessera.api.constraint.PrivacyValid;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Model representation of a JSON body on incoming HTTP requests
+ *
+ * <p>Used when several new transactions are to be created at once where this node is the sender
+ */
+public class SendBatchRequest {
+
+  /** The transactions are stored in one database transaction, in JDBC batches of this size */
+  public static final int MAX_REQUESTS = 100;
+
+  @ArraySchema(
+      arraySchema = @Schema(description = "the transactions to be created"),
+      schema = @Schema(implementation = SendRequest.class),
+      maxItems = MAX_REQUESTS)
+  @Size(min = 1, max = MAX_REQUESTS)
+  @NotNull
+  private List<@NotNull @Valid @PrivacyValid SendRequest> requests;
+
+  public List<SendRequest> getRequests() {
+    return requests;
+  }
+
+  public void setRequests(final List<SendRequest> requests) {
+    this.requests = requests;
+  }
+}
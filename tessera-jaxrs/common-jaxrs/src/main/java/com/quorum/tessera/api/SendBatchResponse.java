@@ -0,0 +1,28 @@
+package com.quorum.tessera.api;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Model representation of a JSON body on outgoing HTTP requests
+ *
+ * <p>Contains the outcome of each transaction created by a batch send, in the order they were
+ * requested
+ */
+public class SendBatchResponse {
+
+  @ArraySchema(
+      arraySchema = @Schema(description = "the created transactions, in the order requested"),
+      schema = @Schema(implementation = SendResponse.class))
+  private SendResponse[] responses;
+
+  public SendBatchResponse() {}
+
+  public SendResponse[] getResponses() {
+    return responses;
+  }
+
+  public void setResponses(final SendResponse[] responses) {
+    this.responses = responses;
+  }
+}
@@ -1,11 +1,15 @@
 package com.quorum.tessera.api.constraint;
 
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.ElementType.TYPE_USE;
 import static java.lang.annotation.RetentionPolicy.RUNTIME;
 
 import jakarta.validation.Constraint;
 import jakarta.validation.Payload;
 import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
 
+@Target({PARAMETER, TYPE_USE})
 @Retention(RUNTIME)
 @Constraint(validatedBy = RequestPrivacyValidator.class)
 public @interface PrivacyValid {
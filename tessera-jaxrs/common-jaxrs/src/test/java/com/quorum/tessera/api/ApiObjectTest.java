@@ -6,6 +6,7 @@ import com.openpojo.validation.Validator;
 import com.openpojo.validation.ValidatorBuilder;
 import com.openpojo.validation.test.impl.GetterTester;
 import com.openpojo.validation.test.impl.SetterTester;
+import java.util.List;
 import org.junit.Test;
 
 public class ApiObjectTest {
@@ -39,5 +40,8 @@ public class ApiObjectTest {
 
     assertThat(new PrivacyGroupResponse("id", "name", "description", "type", new String[] {}))
         .isNotNull();
+
+    assertThat(new PushManyRequest(List.of("payload".getBytes())).getEncodedPayloads())
+        .hasSize(1);
   }
 }
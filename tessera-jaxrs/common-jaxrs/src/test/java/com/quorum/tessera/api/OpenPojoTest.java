@@ -19,8 +19,13 @@ public class OpenPojoTest {
             PayloadEncryptResponse.class,
             ReceiveRequest.class,
             ReceiveResponse.class,
+            ReceiveBatchRequest.class,
+            ReceiveBatchResponse.class,
+            ReceiveBatchItem.class,
             SendRequest.class,
             SendResponse.class,
+            SendBatchRequest.class,
+            SendBatchResponse.class,
             SendSignedRequest.class,
             StoreRawRequest.class,
             StoreRawResponse.class,
@@ -13,6 +13,7 @@ import com.quorum.tessera.discovery.NodeUri;
 import com.quorum.tessera.enclave.Enclave;
 import com.quorum.tessera.p2p.partyinfo.PartyInfoParser;
 import com.quorum.tessera.p2p.partyinfo.PartyStore;
+import com.quorum.tessera.p2p.partyinfo.ValidatedKeyCache;
 import com.quorum.tessera.privacygroup.PrivacyGroupManager;
 import com.quorum.tessera.recovery.workflow.BatchResendManager;
 import com.quorum.tessera.recovery.workflow.LegacyResendManager;
@@ -53,6 +54,8 @@ public class P2PRestApp extends TesseraRestApplication
 
   private final PrivacyGroupManager privacyGroupManager;
 
+  private final ValidatedKeyCache validatedKeyCache;
+
   public P2PRestApp() {
     this(
         Discovery.create(),
@@ -61,7 +64,8 @@ public class P2PRestApp extends TesseraRestApplication
         TransactionManager.create(),
         BatchResendManager.create(),
         LegacyResendManager.create(),
-        PrivacyGroupManager.create());
+        PrivacyGroupManager.create(),
+        ValidatedKeyCache.create());
   }
 
   public P2PRestApp(
@@ -71,7 +75,8 @@ public class P2PRestApp extends TesseraRestApplication
       TransactionManager transactionManager,
       BatchResendManager batchResendManager,
       LegacyResendManager legacyResendManager,
-      PrivacyGroupManager privacyGroupManager) {
+      PrivacyGroupManager privacyGroupManager,
+      ValidatedKeyCache validatedKeyCache) {
     this.discovery = Objects.requireNonNull(discovery);
     this.enclave = Objects.requireNonNull(enclave);
     this.partyStore = Objects.requireNonNull(partyStore);
@@ -79,6 +84,7 @@ public class P2PRestApp extends TesseraRestApplication
     this.batchResendManager = Objects.requireNonNull(batchResendManager);
     this.legacyResendManager = Objects.requireNonNull(legacyResendManager);
     this.privacyGroupManager = Objects.requireNonNull(privacyGroupManager);
+    this.validatedKeyCache = Objects.requireNonNull(validatedKeyCache);
   }
 
   @Override
@@ -100,7 +106,8 @@ public class P2PRestApp extends TesseraRestApplication
             partyInfoParser,
             runtimeContext.getP2pClient(),
             enclave,
-            runtimeContext.isRemoteKeyValidation());
+            runtimeContext.isRemoteKeyValidation(),
+            validatedKeyCache);
 
     final IPWhitelistFilter iPWhitelistFilter = new IPWhitelistFilter();
 
@@ -9,14 +9,19 @@ import com.quorum.tessera.discovery.NodeUri;
 import com.quorum.tessera.enclave.*;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.p2p.model.GetPartyInfoResponse;
+import com.quorum.tessera.p2p.partyinfo.PartyInfoDelta;
 import com.quorum.tessera.p2p.partyinfo.PartyInfoParser;
+import com.quorum.tessera.p2p.partyinfo.PartyInfoSnapshot;
 import com.quorum.tessera.p2p.partyinfo.PartyStore;
+import com.quorum.tessera.p2p.partyinfo.ValidatedKeyCache;
 import com.quorum.tessera.partyinfo.model.NodeInfoUtil;
 import com.quorum.tessera.partyinfo.model.Party;
 import com.quorum.tessera.partyinfo.model.PartyInfo;
 import com.quorum.tessera.partyinfo.model.Recipient;
 import com.quorum.tessera.partyinfo.node.NodeInfo;
 import com.quorum.tessera.shared.Constants;
+import com.quorum.tessera.threading.ExecutorFactory;
+import com.quorum.tessera.version.PartyInfoDeltaVersion;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -32,8 +37,14 @@ import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.Entity;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.*;
-import java.util.function.Predicate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,6 +56,15 @@ public class PartyInfoResource {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PartyInfoResource.class);
 
+  static final int KEY_VALIDATION_PARALLELISM = 10;
+
+  static final Duration KEY_VALIDATION_TIMEOUT = Duration.ofSeconds(30);
+
+  // the client's connect and read timeouts, which Jersey also takes per request
+  static final String CONNECT_TIMEOUT_PROPERTY = "jersey.config.client.connectTimeout";
+
+  static final String READ_TIMEOUT_PROPERTY = "jersey.config.client.readTimeout";
+
   private final PartyInfoParser partyInfoParser;
 
   private final Discovery discovery;
@@ -59,6 +79,14 @@ public class PartyInfoResource {
 
   private final PartyStore partyStore;
 
+  private final ValidatedKeyCache validatedKeyCache;
+
+  private final Executor validationExecutor;
+
+  private final Duration validationTimeout;
+
+  private final Map<NodeUri, ReceivedPartyInfo> receivedPartyInfos = new ConcurrentHashMap<>();
+
   public PartyInfoResource(
       final Discovery discovery,
       final PartyInfoParser partyInfoParser,
@@ -66,7 +94,10 @@ public class PartyInfoResource {
       final Enclave enclave,
       final PayloadEncoder payloadEncoder,
       final boolean enableKeyValidation,
-      final PartyStore partyStore) {
+      final PartyStore partyStore,
+      final ValidatedKeyCache validatedKeyCache,
+      final Executor validationExecutor,
+      final Duration validationTimeout) {
     this.discovery = requireNonNull(discovery, "discovery must not be null");
     this.partyInfoParser = requireNonNull(partyInfoParser, "partyInfoParser must not be null");
     this.restClient = requireNonNull(restClient);
@@ -74,6 +105,9 @@ public class PartyInfoResource {
     this.payloadEncoder = requireNonNull(payloadEncoder);
     this.enableKeyValidation = enableKeyValidation;
     this.partyStore = requireNonNull(partyStore);
+    this.validatedKeyCache = requireNonNull(validatedKeyCache);
+    this.validationExecutor = requireNonNull(validationExecutor);
+    this.validationTimeout = requireNonNull(validationTimeout);
   }
 
   public PartyInfoResource(
@@ -81,7 +115,8 @@ public class PartyInfoResource {
       final PartyInfoParser partyInfoParser,
       final Client restClient,
       final Enclave enclave,
-      final boolean enableKeyValidation) {
+      final boolean enableKeyValidation,
+      final ValidatedKeyCache validatedKeyCache) {
     this(
         discovery,
         partyInfoParser,
@@ -89,7 +124,10 @@ public class PartyInfoResource {
         enclave,
         PayloadEncoder.create(EncodedPayloadCodec.LEGACY),
         enableKeyValidation,
-        PartyStore.getInstance());
+        PartyStore.getInstance(),
+        validatedKeyCache,
+        SharedValidationExecutor.INSTANCE,
+        KEY_VALIDATION_TIMEOUT);
   }
 
   /**
@@ -124,7 +162,7 @@ public class PartyInfoResource {
   @Consumes(MediaType.APPLICATION_OCTET_STREAM)
   @Produces(MediaType.APPLICATION_OCTET_STREAM)
   public Response partyInfo(
-      @RequestBody(required = true, description = "partyinfo object") final byte[] payload,
+      @RequestBody(required = true, description = "partyinfo object") final InputStream payload,
       @HeaderParam(Constants.API_VERSION_HEADER)
           @Parameter(
               description = "client's supported API versions",
@@ -132,25 +170,85 @@ public class PartyInfoResource {
           final List<String> headers) {
 
     final PartyInfo partyInfo = partyInfoParser.from(payload);
-    final Set<String> versions =
-        Optional.ofNullable(headers).orElse(emptyList()).stream()
-            .filter(Objects::nonNull)
-            .flatMap(v -> Arrays.stream(v.split(",")))
-            .collect(Collectors.toSet());
-
-    final NodeInfo nodeInfo = NodeInfoUtil.from(partyInfo, versions);
 
     LOGGER.debug("Received PartyInfo from {}", partyInfo.getUrl());
 
+    return update(partyInfo, versions(headers), () -> PartyInfoSnapshot.of(partyInfo));
+  }
+
+  /**
+   * Update the local partyinfo store with the changes to the caller's partyinfo since the snapshot
+   * the caller last pushed in full.
+   *
+   * @param payload The encoded changes pushed by the caller
+   * @return a 200 OK Response as for a full push if the changes were applied; a 409 Conflict if
+   *     the changes do not apply to the snapshot held for the caller, which should then push its
+   *     partyinfo in full
+   */
+  @Operation(
+      summary = "/partyinfo/delta",
+      operationId = "broadcastPartyInfoDelta",
+      description = "broadcast changes to partyinfo information to server")
+  @ApiResponse(responseCode = "200", description = "server successfully updated its party info")
+  @ApiResponse(
+      responseCode = "409",
+      description = "server does not hold the partyinfo the changes apply to")
+  @ApiResponse(
+      responseCode = "500",
+      description = "Validation failed (if server is using remote key validation)")
+  @POST
+  @Path("delta")
+  @Consumes(MediaType.APPLICATION_OCTET_STREAM)
+  @Produces(MediaType.APPLICATION_OCTET_STREAM)
+  public Response partyInfoDelta(
+      @RequestBody(required = true, description = "partyinfo changes") final InputStream payload,
+      @HeaderParam(Constants.API_VERSION_HEADER)
+          @Parameter(
+              description = "client's supported API versions",
+              array = @ArraySchema(schema = @Schema(type = "string")))
+          final List<String> headers) {
+
+    final PartyInfoDelta delta = partyInfoParser.deltaFrom(payload);
+    final NodeUri senderUri = NodeUri.create(delta.getUrl());
+
+    LOGGER.debug("Received PartyInfo changes from {}", delta.getUrl());
+
+    final ReceivedPartyInfo received = receivedPartyInfos.get(senderUri);
+    if (Objects.isNull(received) || !received.snapshot.hasDigest(delta.getBaseDigest())) {
+      LOGGER.debug("No matching PartyInfo held for {}", delta.getUrl());
+      return Response.status(Response.Status.CONFLICT).build();
+    }
+
+    // nothing to parse or validate, but the sender is re-added in case it was dropped
+    if (delta.isUnchanged() && isStillValidated(received.nodeInfo)) {
+      LOGGER.debug("PartyInfo from {} is unchanged", delta.getUrl());
+      discovery.onUpdate(received.nodeInfo);
+      storeParties(received.snapshot.getPartyInfo());
+      return Response.ok().build();
+    }
+
+    final Optional<PartyInfoSnapshot> updated = delta.applyTo(received.snapshot);
+    if (updated.isEmpty()) {
+      LOGGER.debug("PartyInfo changes from {} did not produce the expected digest", delta.getUrl());
+      receivedPartyInfos.remove(senderUri, received);
+      return Response.status(Response.Status.CONFLICT).build();
+    }
+
+    return update(updated.get().getPartyInfo(), versions(headers), updated::get);
+  }
+
+  private Response update(
+      final PartyInfo partyInfo,
+      final Set<String> versions,
+      final Supplier<PartyInfoSnapshot> snapshot) {
+
     if (!enableKeyValidation) {
       LOGGER.debug("Key validation not enabled, passing PartyInfo through");
 
+      final NodeInfo nodeInfo = NodeInfoUtil.from(partyInfo, versions);
       discovery.onUpdate(nodeInfo);
-      partyInfo.getParties().stream()
-          .map(Party::getUrl)
-          .map(NodeUri::create)
-          .map(NodeUri::asURI)
-          .forEach(partyStore::store);
+      storeParties(partyInfo);
+      remember(nodeInfo, snapshot);
 
       // create an empty party info object with our URL to send back
       // this is used by older versions (before 0.10.0), but we don't want to give any info back
@@ -160,62 +258,65 @@ public class PartyInfoResource {
       return Response.ok(returnData).build();
     }
 
-    final PublicKey localPublicKey = enclave.defaultPublicKey();
-
-    final Predicate<Recipient> isValidRecipient =
-        r -> {
-          try {
-            LOGGER.debug("Validating key {} for peer {}", r.getKey(), r.getUrl());
-
-            final String dataToEncrypt = UUID.randomUUID().toString();
-            final EncodedPayload encodedPayload =
-                enclave.encryptPayload(
-                    dataToEncrypt.getBytes(),
-                    localPublicKey,
-                    List.of(r.getKey()),
-                    PrivacyMetadata.Builder.forStandardPrivate().build());
-
-            final byte[] encodedPayloadBytes = payloadEncoder.encode(encodedPayload);
-
-            try (Response response =
-                restClient
-                    .target(r.getUrl())
-                    .path("partyinfo")
-                    .path("validate")
-                    .request()
-                    .post(Entity.entity(encodedPayloadBytes, MediaType.APPLICATION_OCTET_STREAM))) {
-
-              LOGGER.debug("Response code {} from peer {}", response.getStatus(), r.getUrl());
-
-              final String responseData = response.readEntity(String.class);
-
-              final boolean isValid = Objects.equals(responseData, dataToEncrypt);
-              if (!isValid) {
-                LOGGER.warn(
-                    "Validation of key {} for peer {} failed.  Key and peer will not be added to local partyinfo.",
-                    r.getKey(),
-                    r.getUrl());
-                LOGGER.debug("Response from {} was {}", r.getUrl(), responseData);
-              }
-
-              return isValid;
-            }
-            // Assume any and all exceptions to mean invalid. enclave bubbles up nacl array out of
-            // bounds when calculating shared key from invalid data
-          } catch (Exception ex) {
-            LOGGER.debug(null, ex);
-            return false;
-          }
-        };
-
     final String partyInfoSender = partyInfo.getUrl();
-    final Predicate<Recipient> isSender =
-        r -> NodeUri.create(r.getUrl()).equals(NodeUri.create(partyInfoSender));
+    final NodeUri senderUri = NodeUri.create(partyInfoSender);
+
+    // Only the sender's own keys are taken from the partyinfo, and only once the sender has proved
+    // it owns them. Proofs are remembered, so only keys that are new or whose proof has expired
+    // are validated, and those are validated concurrently. A key whose validation does not finish
+    // in time is treated as invalid, and is validated again on the next push. The deadline also
+    // bounds the call to the peer, and validations still queued when it passes are not started,
+    // so an unresponsive peer holds the shared validation threads for no longer than the timeout.
+    final Set<Recipient> senderRecipients =
+        partyInfo.getRecipients().stream()
+            .filter(r -> NodeUri.create(r.getUrl()).equals(senderUri))
+            .collect(Collectors.toSet());
+
+    validatedKeyCache.retain(
+        partyInfoSender,
+        senderRecipients.stream().map(Recipient::getKey).collect(Collectors.toSet()));
+
+    final Map<Boolean, List<Recipient>> recipientsByCached =
+        senderRecipients.stream()
+            .collect(
+                Collectors.partitioningBy(
+                    r -> validatedKeyCache.isValidated(r.getUrl(), r.getKey())));
+
+    final List<Recipient> validatedRecipients = new ArrayList<>(recipientsByCached.get(true));
+
+    final List<Recipient> unvalidatedRecipients = recipientsByCached.get(false);
+    if (!unvalidatedRecipients.isEmpty()) {
+      final PublicKey localPublicKey = enclave.defaultPublicKey();
+      final long deadline = System.nanoTime() + validationTimeout.toNanos();
+
+      final List<CompletableFuture<Optional<Recipient>>> validations =
+          unvalidatedRecipients.stream()
+              .map(
+                  r ->
+                      CompletableFuture.supplyAsync(
+                              () ->
+                                  Optional.of(r)
+                                      .filter(v -> isValidRecipient(v, localPublicKey, deadline)),
+                              validationExecutor)
+                          .completeOnTimeout(
+                              Optional.empty(),
+                              validationTimeout.toMillis(),
+                              TimeUnit.MILLISECONDS))
+              .collect(Collectors.toList());
+
+      validations.stream()
+          .map(CompletableFuture::join)
+          .flatMap(Optional::stream)
+          .forEach(
+              r -> {
+                validatedKeyCache.validated(r.getUrl(), r.getKey());
+                validatedRecipients.add(r);
+              });
+    }
 
     // Validate caller and treat no valid certs as security issue.
     final Set<com.quorum.tessera.partyinfo.node.Recipient> validatedSendersKeys =
-        partyInfo.getRecipients().stream()
-            .filter(isSender.and(isValidRecipient))
+        validatedRecipients.stream()
             .map(r -> com.quorum.tessera.partyinfo.node.Recipient.of(r.getKey(), r.getUrl()))
             .collect(Collectors.toSet());
 
@@ -233,14 +334,44 @@ public class PartyInfoResource {
             .build();
 
     discovery.onUpdate(reducedNodeInfo);
+    storeParties(partyInfo);
+    remember(reducedNodeInfo, snapshot);
+
+    return Response.ok().build();
+  }
+
+  private static Set<String> versions(final List<String> headers) {
+    return Optional.ofNullable(headers).orElse(emptyList()).stream()
+        .filter(Objects::nonNull)
+        .flatMap(v -> Arrays.stream(v.split(",")))
+        .collect(Collectors.toSet());
+  }
 
+  private void storeParties(final PartyInfo partyInfo) {
     partyInfo.getParties().stream()
         .map(Party::getUrl)
         .map(NodeUri::create)
         .map(NodeUri::asURI)
         .forEach(partyStore::store);
+  }
 
-    return Response.ok().build();
+  /**
+   * Keeps the partyinfo the sender pushed, so that it can send only changes next time, if the
+   * sender supports doing so.
+   */
+  private void remember(
+      final NodeInfo appliedNodeInfo, final Supplier<PartyInfoSnapshot> snapshot) {
+    if (appliedNodeInfo.supportedApiVersions().contains(PartyInfoDeltaVersion.API_VERSION_6)) {
+      receivedPartyInfos.put(
+          NodeUri.create(appliedNodeInfo.getUrl()),
+          new ReceivedPartyInfo(snapshot.get(), appliedNodeInfo));
+    }
+  }
+
+  private boolean isStillValidated(final NodeInfo appliedNodeInfo) {
+    return !enableKeyValidation
+        || appliedNodeInfo.getRecipients().stream()
+            .allMatch(r -> validatedKeyCache.isValidated(r.getUrl(), r.getKey()));
   }
 
   @Operation(summary = "/partyinfo", description = "fetch network/peer information")
@@ -310,6 +441,65 @@ public class PartyInfoResource {
     return Response.ok(new String(result)).build();
   }
 
+  private boolean isValidRecipient(
+      final Recipient r, final PublicKey localPublicKey, final long deadline) {
+    if (remainingMillis(deadline) <= 0) {
+      LOGGER.debug("Validation of key {} for peer {} not started in time", r.getKey(), r.getUrl());
+      return false;
+    }
+
+    try {
+      LOGGER.debug("Validating key {} for peer {}", r.getKey(), r.getUrl());
+
+      final String dataToEncrypt = UUID.randomUUID().toString();
+      final EncodedPayload encodedPayload =
+          enclave.encryptPayload(
+              dataToEncrypt.getBytes(),
+              localPublicKey,
+              List.of(r.getKey()),
+              PrivacyMetadata.Builder.forStandardPrivate().build());
+
+      final byte[] encodedPayloadBytes = payloadEncoder.encode(encodedPayload);
+
+      // a timeout of zero would mean no timeout at all
+      final int timeout = (int) Math.max(1, Math.min(remainingMillis(deadline), Integer.MAX_VALUE));
+      try (Response response =
+          restClient
+              .target(r.getUrl())
+              .path("partyinfo")
+              .path("validate")
+              .request()
+              .property(CONNECT_TIMEOUT_PROPERTY, timeout)
+              .property(READ_TIMEOUT_PROPERTY, timeout)
+              .post(Entity.entity(encodedPayloadBytes, MediaType.APPLICATION_OCTET_STREAM))) {
+
+        LOGGER.debug("Response code {} from peer {}", response.getStatus(), r.getUrl());
+
+        final String responseData = response.readEntity(String.class);
+
+        final boolean isValid = Objects.equals(responseData, dataToEncrypt);
+        if (!isValid) {
+          LOGGER.warn(
+              "Validation of key {} for peer {} failed.  Key and peer will not be added to local partyinfo.",
+              r.getKey(),
+              r.getUrl());
+          LOGGER.debug("Response from {} was {}", r.getUrl(), responseData);
+        }
+
+        return isValid;
+      }
+      // Assume any and all exceptions to mean invalid. enclave bubbles up nacl array out of
+      // bounds when calculating shared key from invalid data
+    } catch (Exception ex) {
+      LOGGER.debug(null, ex);
+      return false;
+    }
+  }
+
+  private static long remainingMillis(final long deadline) {
+    return TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+  }
+
   private boolean isUUID(String s) {
     try {
       UUID.fromString(s);
@@ -318,4 +508,24 @@ public class PartyInfoResource {
     }
     return true;
   }
+
+  // shared by every resource, and bounded so that a peer advertising many keys can't start a
+  // thread for each of them
+  private static class SharedValidationExecutor {
+
+    private static final Executor INSTANCE =
+        new ExecutorFactory().createFixedThreadPool(KEY_VALIDATION_PARALLELISM);
+  }
+
+  private static class ReceivedPartyInfo {
+
+    private final PartyInfoSnapshot snapshot;
+
+    private final NodeInfo nodeInfo;
+
+    ReceivedPartyInfo(final PartyInfoSnapshot snapshot, final NodeInfo nodeInfo) {
+      this.snapshot = snapshot;
+      this.nodeInfo = nodeInfo;
+    }
+  }
 }
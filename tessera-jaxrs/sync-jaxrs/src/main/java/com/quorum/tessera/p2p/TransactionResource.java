@@ -3,6 +3,9 @@ package com.quorum.tessera.p2p;
 import static jakarta.ws.rs.core.MediaType.*;
 import static java.util.Collections.emptyList;
 
+import com.quorum.tessera.api.PushAcknowledgement;
+import com.quorum.tessera.api.PushManyRequest;
+import com.quorum.tessera.api.PushManyResponse;
 import com.quorum.tessera.base64.Base64Codec;
 import com.quorum.tessera.data.MessageHash;
 import com.quorum.tessera.enclave.EncodedPayloadCodec;
@@ -204,4 +207,66 @@ public class TransactionResource {
     LOGGER.debug("Push request generated hash {}", messageHash);
     return Response.status(Response.Status.CREATED).entity(Objects.toString(messageHash)).build();
   }
+
+  @Operation(
+      summary = "/pushMany",
+      operationId = "pushPayloads",
+      description =
+          "store several encoded payloads to the server's database, acknowledging each one separately")
+  @ApiResponse(
+      responseCode = "200",
+      description =
+          "for each payload in request order, either the hash of the stored payload as 'key' or the reason it was not stored as 'error'",
+      content =
+          @Content(
+              mediaType = APPLICATION_JSON,
+              schema = @Schema(implementation = PushManyResponse.class)))
+  @POST
+  @Path("pushMany")
+  @Consumes(APPLICATION_JSON)
+  @Produces(APPLICATION_JSON)
+  public Response pushMany(
+      @Valid @NotNull final PushManyRequest pushRequest,
+      @HeaderParam(Constants.API_VERSION_HEADER)
+          @Parameter(
+              description = "client's supported API versions",
+              array = @ArraySchema(schema = @Schema(type = "string")))
+          final List<String> headers) {
+
+    LOGGER.debug("Received push request for {} payloads", pushRequest.getEncodedPayloads().size());
+
+    final Set<String> versions =
+        Optional.ofNullable(headers).orElse(emptyList()).stream()
+            .filter(Objects::nonNull)
+            .flatMap(v -> Arrays.stream(v.split(",")))
+            .collect(Collectors.toSet());
+
+    final PayloadEncoder payloadEncoder =
+        PayloadEncoder.create(EncodedPayloadCodec.getPreferredCodec(versions));
+
+    final PushAcknowledgement[] acknowledgements =
+        pushRequest.getEncodedPayloads().stream()
+            .map(payload -> store(payload, payloadEncoder))
+            .toArray(PushAcknowledgement[]::new);
+
+    final PushManyResponse pushManyResponse = new PushManyResponse();
+    pushManyResponse.setAcknowledgements(acknowledgements);
+
+    return Response.ok(pushManyResponse).build();
+  }
+
+  private PushAcknowledgement store(final byte[] payload, final PayloadEncoder payloadEncoder) {
+    final PushAcknowledgement acknowledgement = new PushAcknowledgement();
+    try {
+      final MessageHash messageHash =
+          transactionManager.storePayload(payloadEncoder.decode(payload));
+      LOGGER.debug("Push request generated hash {}", messageHash);
+      acknowledgement.setKey(messageHash.toString());
+    } catch (RuntimeException ex) {
+      LOGGER.warn("Unable to store pushed payload: {}", ex.getMessage());
+      LOGGER.debug("", ex);
+      acknowledgement.setError(Objects.toString(ex.getMessage(), ex.getClass().getName()));
+    }
+    return acknowledgement;
+  }
 }
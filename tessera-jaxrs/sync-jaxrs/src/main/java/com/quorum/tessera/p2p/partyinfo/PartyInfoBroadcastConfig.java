@@ -0,0 +1,97 @@
+package com.quorum.tessera.p2p.partyinfo;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * How {@link PartyInfoBroadcaster} contacts peers in each round, read from the P2P server
+ * properties.
+ *
+ * <p>By default up to ten peers are contacted at once, a peer that has not answered within ten
+ * seconds counts as failed, no jitter is added, and a peer that keeps failing is skipped for up to
+ * 16 rounds.
+ */
+public class PartyInfoBroadcastConfig {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PartyInfoBroadcastConfig.class);
+
+  static final String PARALLELISM_PROPERTY = "partyInfoBroadcastParallelism";
+
+  static final String DEADLINE_PROPERTY = "partyInfoBroadcastDeadlineMillis";
+
+  static final String JITTER_PROPERTY = "partyInfoBroadcastJitterMillis";
+
+  static final String MAX_BACKOFF_ROUNDS_PROPERTY = "partyInfoBroadcastMaxBackoffRounds";
+
+  static final long DEFAULT_DEADLINE_MILLIS = 10000L;
+
+  private final int parallelism;
+
+  private final Duration deadline;
+
+  private final Duration jitter;
+
+  private final int maxBackoffRounds;
+
+  public PartyInfoBroadcastConfig(
+      final int parallelism,
+      final Duration deadline,
+      final Duration jitter,
+      final int maxBackoffRounds) {
+    this.parallelism = parallelism;
+    this.deadline = deadline;
+    this.jitter = jitter;
+    this.maxBackoffRounds = maxBackoffRounds;
+  }
+
+  public static PartyInfoBroadcastConfig defaults() {
+    return new PartyInfoBroadcastConfig(
+        10, Duration.ofMillis(DEFAULT_DEADLINE_MILLIS), Duration.ZERO, 16);
+  }
+
+  public static PartyInfoBroadcastConfig from(final Map<String, String> properties) {
+    final Map<String, String> props =
+        Optional.ofNullable(properties).orElse(Collections.emptyMap());
+    try {
+      final int parallelism = Integer.parseInt(props.getOrDefault(PARALLELISM_PROPERTY, "10"));
+      final long deadline =
+          Long.parseLong(
+              props.getOrDefault(DEADLINE_PROPERTY, String.valueOf(DEFAULT_DEADLINE_MILLIS)));
+      final long jitter = Long.parseLong(props.getOrDefault(JITTER_PROPERTY, "0"));
+      final int maxBackoffRounds =
+          Integer.parseInt(props.getOrDefault(MAX_BACKOFF_ROUNDS_PROPERTY, "16"));
+      return new PartyInfoBroadcastConfig(
+          parallelism, Duration.ofMillis(deadline), Duration.ofMillis(jitter), maxBackoffRounds);
+    } catch (NumberFormatException ex) {
+      LOGGER.warn("Not able to parse configured property. Will use default value instead");
+      return defaults();
+    }
+  }
+
+  /** @return the number of peers that may be contacted at once */
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * @return how long to wait for a single peer before counting the call as failed, or zero to wait
+   *     for the client timeout
+   */
+  public Duration getDeadline() {
+    return deadline;
+  }
+
+  /** @return the upper bound of the random delay before each peer is contacted */
+  public Duration getJitter() {
+    return jitter;
+  }
+
+  /** @return the most rounds a failing peer is skipped for, or 0 to never skip peers */
+  public int getMaxBackoffRounds() {
+    return maxBackoffRounds;
+  }
+}
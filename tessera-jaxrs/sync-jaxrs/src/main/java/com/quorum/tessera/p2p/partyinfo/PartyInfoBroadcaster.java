@@ -6,18 +6,42 @@ import com.quorum.tessera.partyinfo.P2pClient;
 import com.quorum.tessera.partyinfo.model.PartyInfo;
 import com.quorum.tessera.partyinfo.model.PartyInfoBuilder;
 import com.quorum.tessera.partyinfo.node.NodeInfo;
+import com.quorum.tessera.threading.ExecutorFactory;
+import com.quorum.tessera.version.PartyInfoDeltaVersion;
 import jakarta.ws.rs.ProcessingException;
 import java.net.URI;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Polls every so often to all known nodes for any new discoverable nodes. This keeps all nodes
  * up-to date and discoverable by other nodes
+ *
+ * <p>Peers are contacted concurrently, up to the configured parallelism, so that a slow peer only
+ * holds up its own call. A call that passes the deadline no longer holds up the round, but it keeps
+ * its share of the parallelism until it really finishes, so slow peers can't pile up calls across
+ * rounds. A peer that keeps failing is skipped for an exponentially growing number of rounds.
+ *
+ * <p>Peers that support {@link PartyInfoDeltaVersion#API_VERSION_6} and have acknowledged an
+ * earlier snapshot of this node's partyinfo are only sent the changes since that snapshot, which is
+ * just a pair of digests when nothing has changed. Other peers, and peers that ask for it, are sent
+ * the full partyinfo.
  */
-public class PartyInfoBroadcaster implements Runnable {
+public class PartyInfoBroadcaster implements Runnable, PartyInfoBroadcasterMXBean {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PartyInfoBroadcaster.class);
 
@@ -29,8 +53,24 @@ public class PartyInfoBroadcaster implements Runnable {
 
   private final PartyStore partyStore;
 
-  public PartyInfoBroadcaster(final P2pClient p2pClient) {
-    this(Discovery.create(), PartyInfoParser.create(), p2pClient, PartyStore.getInstance());
+  private final Executor executor;
+
+  private final PartyInfoBroadcastConfig config;
+
+  private final Semaphore permits;
+
+  private final Map<NodeUri, PeerState> peerStates = new ConcurrentHashMap<>();
+
+  private final Map<NodeUri, PartyInfoSnapshot> acknowledged = new ConcurrentHashMap<>();
+
+  public PartyInfoBroadcaster(final P2pClient p2pClient, final PartyInfoBroadcastConfig config) {
+    this(
+        Discovery.create(),
+        PartyInfoParser.create(),
+        p2pClient,
+        PartyStore.getInstance(),
+        new ExecutorFactory().createFixedThreadPool(parallelism(config)),
+        config);
   }
 
   public PartyInfoBroadcaster(
@@ -38,10 +78,34 @@ public class PartyInfoBroadcaster implements Runnable {
       final PartyInfoParser partyInfoParser,
       final P2pClient p2pClient,
       final PartyStore partyStore) {
+    this(
+        discovery,
+        partyInfoParser,
+        p2pClient,
+        partyStore,
+        new ExecutorFactory().createFixedThreadPool(
+            parallelism(PartyInfoBroadcastConfig.defaults())),
+        PartyInfoBroadcastConfig.defaults());
+  }
+
+  public PartyInfoBroadcaster(
+      final Discovery discovery,
+      final PartyInfoParser partyInfoParser,
+      final P2pClient p2pClient,
+      final PartyStore partyStore,
+      final Executor executor,
+      final PartyInfoBroadcastConfig config) {
     this.discovery = Objects.requireNonNull(discovery);
     this.partyInfoParser = Objects.requireNonNull(partyInfoParser);
     this.p2pClient = Objects.requireNonNull(p2pClient);
     this.partyStore = Objects.requireNonNull(partyStore);
+    this.executor = Objects.requireNonNull(executor);
+    this.config = Objects.requireNonNull(config);
+    this.permits = new Semaphore(parallelism(config));
+  }
+
+  private static int parallelism(final PartyInfoBroadcastConfig config) {
+    return Math.max(1, config.getParallelism());
   }
 
   /**
@@ -74,41 +138,267 @@ public class PartyInfoBroadcaster implements Runnable {
             .withRecipients(nodeInfo.getRecipientsAsMap())
             .build();
 
-    final byte[] encodedPartyInfo = partyInfoParser.to(partyInfo);
+    final Set<NodeUri> deltaPeers =
+        discovery.getRemoteNodeInfos().stream()
+            .filter(n -> n.supportedApiVersions().contains(PartyInfoDeltaVersion.API_VERSION_6))
+            .map(NodeInfo::getUrl)
+            .map(NodeUri::create)
+            .collect(Collectors.toSet());
+
+    final Round round = new Round(partyInfo, deltaPeers);
 
     LOGGER.debug("Contacting following peers with PartyInfo: {}", partyInfo.getParties());
 
     LOGGER.debug("Sending party info {}", nodeInfo);
-    partyStore.getParties().stream()
-        .map(NodeUri::create)
-        .filter(url -> !ourUrl.equals(url))
-        .forEach(url -> pollSingleParty(url.asString(), encodedPartyInfo));
+    final Set<NodeUri> peers =
+        partyStore.getParties().stream()
+            .map(NodeUri::create)
+            .filter(url -> !ourUrl.equals(url))
+            .collect(Collectors.toSet());
+
+    // forget peers that have been removed from the party store since the last round
+    peerStates.keySet().retainAll(peers);
+    acknowledged.keySet().retainAll(peers);
+
+    final List<CompletableFuture<Void>> calls =
+        peers.stream()
+            .filter(this::isDue)
+            .map(url -> dispatch(url, () -> push(url, round)))
+            .collect(Collectors.toList());
+
+    CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).join();
 
     LOGGER.info("Finished PartyInfo polling round");
   }
 
+  private boolean isDue(final NodeUri url) {
+    final boolean due = peerStates.computeIfAbsent(url, u -> new PeerState()).isDue();
+    if (!due) {
+      LOGGER.debug("Skipping node {} this round after repeated failures", url.asString());
+    }
+    return due;
+  }
+
+  private CompletableFuture<Void> dispatch(final NodeUri url, final BooleanSupplier push) {
+    final long deadlineMillis = config.getDeadline().toMillis();
+    try {
+      // a peer waits no longer than the deadline for calls to slow peers to give up their share
+      if (deadlineMillis > 0) {
+        if (!permits.tryAcquire(deadlineMillis, TimeUnit.MILLISECONDS)) {
+          LOGGER.warn("No capacity to send party info to {} before the deadline", url.asString());
+          peerStates.getOrDefault(url, new PeerState()).failed(config.getMaxBackoffRounds());
+          return CompletableFuture.completedFuture(null);
+        }
+      } else {
+        permits.acquire();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      LOGGER.warn("Interrupted before sending party info to {}", url.asString());
+      return CompletableFuture.completedFuture(null);
+    }
+
+    final long jitterMillis = config.getJitter().toMillis();
+    final long delayMillis =
+        jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis) : 0L;
+    final Executor callExecutor =
+        delayMillis > 0
+            ? CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS, executor)
+            : executor;
+
+    final AtomicBoolean abandoned = new AtomicBoolean();
+    CompletableFuture<Boolean> call =
+        CompletableFuture.supplyAsync(
+            () -> {
+              try {
+                if (abandoned.get()) {
+                  // the deadline passed before the call could start
+                  return false;
+                }
+                final long start = System.nanoTime();
+                final boolean sent = push.getAsBoolean();
+                if (sent) {
+                  peerStates
+                      .getOrDefault(url, new PeerState())
+                      .succeeded(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                }
+                return sent;
+              } finally {
+                permits.release();
+              }
+            },
+            callExecutor);
+
+    if (deadlineMillis > 0) {
+      call = call.orTimeout(delayMillis + deadlineMillis, TimeUnit.MILLISECONDS);
+    }
+
+    return call.handle(
+        (sent, ex) -> {
+          if (Objects.nonNull(ex)) {
+            abandoned.set(true);
+            LOGGER.warn("No response from node {} before the deadline", url.asString());
+          }
+          if (!Boolean.TRUE.equals(sent)) {
+            peerStates
+                .getOrDefault(url, new PeerState())
+                .failed(config.getMaxBackoffRounds());
+          }
+          return null;
+        });
+  }
+
+  private boolean push(final NodeUri url, final Round round) {
+    // a peer only holds the acknowledged snapshot again once it accepts this round's partyinfo
+    final PartyInfoSnapshot base = acknowledged.remove(url);
+
+    if (!round.supportsDelta(url)) {
+      return pollSingleParty(url.asString(), round.encodedPartyInfo());
+    }
+
+    if (Objects.nonNull(base)) {
+      try {
+        LOGGER.debug("Sending party info changes to {}", url.asString());
+        if (p2pClient.sendPartyInfoDelta(url.asString(), round.encodedDelta(base))) {
+          acknowledged.put(url, round.snapshot);
+          return true;
+        }
+      } catch (Exception ex) {
+        onFailure(url.asString(), ex);
+        return false;
+      }
+      LOGGER.debug("Node {} did not apply party info changes, sending it in full", url.asString());
+    }
+
+    final boolean sent = pollSingleParty(url.asString(), round.encodedPartyInfo());
+    if (sent) {
+      acknowledged.put(url, round.snapshot);
+    }
+    return sent;
+  }
+
+  @Override
+  public Map<String, Long> getRoundTripMillis() {
+    return peerStates.entrySet().stream()
+        .filter(e -> e.getValue().getRoundTripMillis() >= 0)
+        .collect(
+            Collectors.toMap(e -> e.getKey().asString(), e -> e.getValue().getRoundTripMillis()));
+  }
+
+  @Override
+  public Map<String, Integer> getConsecutiveFailures() {
+    return peerStates.entrySet().stream()
+        .collect(
+            Collectors.toMap(
+                e -> e.getKey().asString(), e -> e.getValue().getConsecutiveFailures()));
+  }
+
   /**
    * Sends a request for node information to a single target
    *
    * @param url the target URL to call
    * @param encodedPartyInfo the encoded current party information
+   * @return whether the target accepted the party information
    */
-  protected void pollSingleParty(final String url, final byte[] encodedPartyInfo) {
+  protected boolean pollSingleParty(final String url, final byte[] encodedPartyInfo) {
     final NodeUri nodeUri = NodeUri.create(url);
     try {
 
       LOGGER.debug("Sending party info to {}", nodeUri.asString());
-      p2pClient.sendPartyInfo(url, encodedPartyInfo);
+      final boolean sent = p2pClient.sendPartyInfo(url, encodedPartyInfo);
       LOGGER.debug("Sent party info to {}", nodeUri.asString());
+      return sent;
     } catch (Exception ex) {
-      Throwable cause = Optional.of(ex).map(Throwable::getCause).orElse(ex);
+      onFailure(url, ex);
+      return false;
+    }
+  }
+
+  private void onFailure(final String url, final Exception ex) {
+    Throwable cause = Optional.of(ex).map(Throwable::getCause).orElse(ex);
+
+    LOGGER.warn("Failed to connect to node {}, due to {}", url, cause.getMessage());
+    LOGGER.debug("Send failure exception", cause);
+    if (ProcessingException.class.isInstance(cause)) {
+      discovery.onDisconnect(URI.create(url));
+      partyStore.remove(URI.create(url));
+    }
+  }
+
+  /**
+   * The partyinfo sent in one round. The full encoding is only produced if some peer needs it, and
+   * the changes since each distinct acknowledged snapshot are only encoded once.
+   */
+  private class Round {
+
+    private final PartyInfo partyInfo;
+
+    private final PartyInfoSnapshot snapshot;
+
+    private final Set<NodeUri> deltaPeers;
+
+    private final Map<PartyInfoSnapshot, byte[]> encodedDeltas = new ConcurrentHashMap<>();
+
+    private byte[] encodedPartyInfo;
+
+    Round(final PartyInfo partyInfo, final Set<NodeUri> deltaPeers) {
+      this.partyInfo = partyInfo;
+      this.snapshot = PartyInfoSnapshot.of(partyInfo);
+      this.deltaPeers = deltaPeers;
+    }
 
-      LOGGER.warn("Failed to connect to node {}, due to {}", url, cause.getMessage());
-      LOGGER.debug("Send failure exception", cause);
-      if (ProcessingException.class.isInstance(cause)) {
-        discovery.onDisconnect(URI.create(url));
-        partyStore.remove(URI.create(url));
+    boolean supportsDelta(final NodeUri url) {
+      return deltaPeers.contains(url);
+    }
+
+    synchronized byte[] encodedPartyInfo() {
+      if (Objects.isNull(encodedPartyInfo)) {
+        encodedPartyInfo = partyInfoParser.to(partyInfo);
+      }
+      return encodedPartyInfo;
+    }
+
+    byte[] encodedDelta(final PartyInfoSnapshot base) {
+      return encodedDeltas.computeIfAbsent(
+          base, b -> partyInfoParser.toDelta(PartyInfoDelta.between(b, snapshot)));
+    }
+  }
+
+  private static class PeerState {
+
+    private int consecutiveFailures;
+
+    private int roundsToSkip;
+
+    private long roundTripMillis = -1;
+
+    synchronized boolean isDue() {
+      if (roundsToSkip > 0) {
+        roundsToSkip--;
+        return false;
       }
+      return true;
+    }
+
+    synchronized void succeeded(final long roundTripMillis) {
+      this.roundTripMillis = roundTripMillis;
+      this.consecutiveFailures = 0;
+      this.roundsToSkip = 0;
+    }
+
+    // skip 1, 3, 7, ... rounds after each failure in a row, up to the configured maximum
+    synchronized void failed(final int maxBackoffRounds) {
+      consecutiveFailures++;
+      final long backoff = (1L << Math.min(consecutiveFailures, 30)) - 1;
+      roundsToSkip = (int) Math.min(backoff, Math.max(0, maxBackoffRounds));
+    }
+
+    synchronized long getRoundTripMillis() {
+      return roundTripMillis;
+    }
+
+    synchronized int getConsecutiveFailures() {
+      return consecutiveFailures;
     }
   }
 }
@@ -0,0 +1,13 @@
+package com.quorum.tessera.p2p.partyinfo;
+
+import java.util.Map;
+
+/** Per-peer statistics of the partyinfo broadcast, keyed by peer URL. */
+public interface PartyInfoBroadcasterMXBean {
+
+  /** @return how long the last successful call to each peer took, in milliseconds */
+  Map<String, Long> getRoundTripMillis();
+
+  /** @return how many calls in a row to each peer have failed */
+  Map<String, Integer> getConsecutiveFailures();
+}
@@ -0,0 +1,153 @@
+package com.quorum.tessera.p2p.partyinfo;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.quorum.tessera.encryption.PublicKey;
+import com.quorum.tessera.partyinfo.model.Party;
+import com.quorum.tessera.partyinfo.model.PartyInfo;
+import com.quorum.tessera.partyinfo.model.Recipient;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Reads an encoded {@link PartyInfo} from a stream in a single pass.
+ *
+ * <p>The decoder keeps track of how many bytes the message may still contain. Every length and
+ * count is checked against that budget before anything is read or allocated for it, so a message
+ * that claims more data than it is allowed to hold is rejected as soon as the claim is read.
+ */
+class PartyInfoDecoder {
+
+  private static final int DELTA_FIELD_COUNT = 4;
+
+  private final DataInputStream input;
+
+  private final long maxLength;
+
+  private long remaining;
+
+  // urls are decoded from here rather than from a new array per field
+  private byte[] scratch = new byte[128];
+
+  PartyInfoDecoder(final InputStream input, final long maxLength) {
+    this.input = new DataInputStream(input);
+    this.maxLength = maxLength;
+    this.remaining = maxLength;
+  }
+
+  PartyInfo decode() {
+    return read(this::readPartyInfo);
+  }
+
+  /**
+   * Reads the four length-prefixed fields of an encoded {@link PartyInfoDelta}, counting them
+   * against the same budget as a partyinfo
+   */
+  byte[][] decodeDeltaFields() {
+    return read(this::readDeltaFields);
+  }
+
+  private PartyInfo readPartyInfo() throws IOException {
+    final String url = readString();
+
+    // a recipient is at least two length prefixes, a party at least one
+    final int recipientCount = readCount(2 * Long.BYTES);
+    final Set<Recipient> recipients = new HashSet<>(capacity(recipientCount));
+    for (int i = 0; i < recipientCount; i++) {
+      final PublicKey key = PublicKey.from(readBytes());
+      recipients.add(Recipient.of(key, readString()));
+    }
+
+    final int partyCount = readCount(Long.BYTES);
+    final Set<Party> parties = new HashSet<>(capacity(partyCount));
+    for (int i = 0; i < partyCount; i++) {
+      parties.add(new Party(readString()));
+    }
+
+    return new PartyInfo(url, recipients, parties);
+  }
+
+  private byte[][] readDeltaFields() throws IOException {
+    consume(Long.BYTES);
+    final long fieldCount = input.readLong();
+    if (fieldCount != DELTA_FIELD_COUNT) {
+      throw new PartyInfoParserException("Invalid delta field count " + fieldCount);
+    }
+
+    final byte[][] fields = new byte[DELTA_FIELD_COUNT][];
+    for (int i = 0; i < DELTA_FIELD_COUNT; i++) {
+      fields[i] = readBytes();
+    }
+    return fields;
+  }
+
+  private static <T> T read(final Read<T> read) {
+    try {
+      return read.read();
+    } catch (EOFException ex) {
+      throw new PartyInfoParserException("Unexpected end of PartyInfo");
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private interface Read<T> {
+    T read() throws IOException;
+  }
+
+  private int readCount(final int minElementLength) throws IOException {
+    final int count = readLength();
+    if ((long) count * minElementLength > remaining) {
+      throw tooLong();
+    }
+    return count;
+  }
+
+  private int readLength() throws IOException {
+    consume(Long.BYTES);
+    final long length = input.readLong();
+    PartyInfoParser.checkLength(length);
+    if (length > Math.min(remaining, Integer.MAX_VALUE - 2)) {
+      throw tooLong();
+    }
+    return (int) length;
+  }
+
+  private byte[] readBytes() throws IOException {
+    final int length = readLength();
+    consume(length);
+    final byte[] data = new byte[length];
+    input.readFully(data);
+    return data;
+  }
+
+  private String readString() throws IOException {
+    final int length = readLength();
+    consume(length);
+    if (scratch.length < length) {
+      scratch = new byte[Math.max(length, 2 * scratch.length)];
+    }
+    input.readFully(scratch, 0, length);
+    return new String(scratch, 0, length, UTF_8);
+  }
+
+  private void consume(final long length) {
+    if (length > remaining) {
+      throw tooLong();
+    }
+    remaining -= length;
+  }
+
+  private PartyInfoParserException tooLong() {
+    return new PartyInfoParserException("PartyInfo is longer than " + maxLength + " bytes");
+  }
+
+  private static int capacity(final int count) {
+    return (int) Math.min(Integer.MAX_VALUE, count * 4L / 3 + 1);
+  }
+}
@@ -0,0 +1,119 @@
+package com.quorum.tessera.p2p.partyinfo;
+
+import com.quorum.tessera.partyinfo.model.Party;
+import com.quorum.tessera.partyinfo.model.PartyInfo;
+import com.quorum.tessera.partyinfo.model.Recipient;
+import java.security.MessageDigest;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The changes between two {@link PartyInfoSnapshot}s of the same node: the recipients and parties
+ * that were added and removed, and the digests of the snapshot the changes apply to and of the
+ * snapshot they produce.
+ *
+ * <p>A delta between two identical snapshots carries only the digests.
+ */
+public class PartyInfoDelta {
+
+  private final byte[] baseDigest;
+
+  private final byte[] digest;
+
+  private final PartyInfo added;
+
+  private final PartyInfo removed;
+
+  public PartyInfoDelta(
+      final byte[] baseDigest,
+      final byte[] digest,
+      final PartyInfo added,
+      final PartyInfo removed) {
+    this.baseDigest = Objects.requireNonNull(baseDigest);
+    this.digest = Objects.requireNonNull(digest);
+    this.added = Objects.requireNonNull(added);
+    this.removed = Objects.requireNonNull(removed);
+  }
+
+  /**
+   * @param base the snapshot the receiving node already holds
+   * @param target the snapshot the receiving node should end up with
+   * @return the changes that turn the base snapshot into the target snapshot
+   */
+  public static PartyInfoDelta between(
+      final PartyInfoSnapshot base, final PartyInfoSnapshot target) {
+    final PartyInfo from = base.getPartyInfo();
+    final PartyInfo to = target.getPartyInfo();
+
+    final PartyInfo added =
+        new PartyInfo(
+            to.getUrl(),
+            difference(to.getRecipients(), from.getRecipients()),
+            difference(to.getParties(), from.getParties()));
+
+    final PartyInfo removed =
+        new PartyInfo(
+            to.getUrl(),
+            difference(from.getRecipients(), to.getRecipients()),
+            difference(from.getParties(), to.getParties()));
+
+    return new PartyInfoDelta(base.getDigest(), target.getDigest(), added, removed);
+  }
+
+  private static <T> Set<T> difference(final Set<T> left, final Set<T> right) {
+    return left.stream().filter(e -> !right.contains(e)).collect(Collectors.toSet());
+  }
+
+  /**
+   * Applies the changes to the snapshot the receiving node holds for the sender.
+   *
+   * @param base the snapshot held for the sender
+   * @return the resulting snapshot, or empty if the base is not the snapshot the sender expected
+   *     or the result does not match the sender's digest
+   */
+  public Optional<PartyInfoSnapshot> applyTo(final PartyInfoSnapshot base) {
+    if (!base.hasDigest(baseDigest) || !base.getPartyInfo().getUrl().equals(getUrl())) {
+      return Optional.empty();
+    }
+
+    final Set<Recipient> recipients = new HashSet<>(base.getPartyInfo().getRecipients());
+    recipients.removeAll(removed.getRecipients());
+    recipients.addAll(added.getRecipients());
+
+    final Set<Party> parties = new HashSet<>(base.getPartyInfo().getParties());
+    parties.removeAll(removed.getParties());
+    parties.addAll(added.getParties());
+
+    return Optional.of(PartyInfoSnapshot.of(new PartyInfo(getUrl(), recipients, parties)))
+        .filter(snapshot -> snapshot.hasDigest(digest));
+  }
+
+  /** @return whether the sender's partyinfo is the same as the one the receiver already holds */
+  public boolean isUnchanged() {
+    return MessageDigest.isEqual(baseDigest, digest);
+  }
+
+  /** @return the URL of the node the partyinfo belongs to */
+  public String getUrl() {
+    return added.getUrl();
+  }
+
+  public byte[] getBaseDigest() {
+    return baseDigest.clone();
+  }
+
+  public byte[] getDigest() {
+    return digest.clone();
+  }
+
+  public PartyInfo getAdded() {
+    return added;
+  }
+
+  public PartyInfo getRemoved() {
+    return removed;
+  }
+}
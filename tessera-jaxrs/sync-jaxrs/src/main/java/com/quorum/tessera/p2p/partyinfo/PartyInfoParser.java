@@ -4,21 +4,29 @@ import static java.lang.Math.toIntExact;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 import com.quorum.tessera.enclave.BinaryEncoder;
-import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.partyinfo.model.Party;
 import com.quorum.tessera.partyinfo.model.PartyInfo;
 import com.quorum.tessera.partyinfo.model.Recipient;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
-import org.apache.commons.lang3.ArrayUtils;
 
 /** A parser for PartyInfo node discovery information */
 public interface PartyInfoParser extends BinaryEncoder {
 
+  /** The longest encoded partyinfo a parser accepts unless created with a different limit */
+  long DEFAULT_MAX_LENGTH = 32L * 1024 * 1024;
+
+  /** @return the longest encoded partyinfo this parser accepts, in bytes */
+  default long getMaxLength() {
+    return DEFAULT_MAX_LENGTH;
+  }
+
   /**
    * Decodes a set of PartyInfo to the format that is shared between nodes
    *
@@ -26,94 +34,115 @@ public interface PartyInfoParser extends BinaryEncoder {
    * @return the decoded {@link PartyInfo} which contains the other nodes information
    */
   default PartyInfo from(final byte[] encoded) {
+    if (encoded.length > getMaxLength()) {
+      throw new PartyInfoParserException("PartyInfo is longer than " + getMaxLength() + " bytes");
+    }
+    return new PartyInfoDecoder(new ByteArrayInputStream(encoded), encoded.length).decode();
+  }
 
-    final ByteBuffer byteBuffer = ByteBuffer.wrap(encoded);
-
-    final int urlLength = toIntExact(byteBuffer.getLong());
-    checkLength(urlLength);
-
-    final byte[] urlBytes = new byte[urlLength];
-    byteBuffer.get(urlBytes);
-    final String url = new String(urlBytes, UTF_8);
-
-    final int numberOfRecipients = toIntExact(byteBuffer.getLong());
-    checkLength(numberOfRecipients);
-
-    final Set<Recipient> recipients = new HashSet<>();
-    for (int i = 0; i < numberOfRecipients; i++) {
-
-      final int recipientKeyLength = toIntExact(byteBuffer.getLong());
-      checkLength(recipientKeyLength);
-
-      final byte[] recipientKeyBytes = new byte[recipientKeyLength];
-      byteBuffer.get(recipientKeyBytes);
+  /**
+   * Decodes a PartyInfo as it is read from the stream. Every length in the message is checked
+   * against the bytes the message may still contain before anything is read or allocated for it,
+   * so a message longer than {@link #getMaxLength()} is rejected without being read in full.
+   *
+   * @param encoded the stream containing the encoded information
+   * @return the decoded {@link PartyInfo} which contains the other nodes information
+   */
+  default PartyInfo from(final InputStream encoded) {
+    return new PartyInfoDecoder(encoded, getMaxLength()).decode();
+  }
 
-      final int recipientUrlValueLength = toIntExact(byteBuffer.getLong());
-      checkLength(recipientUrlValueLength);
+  /**
+   * Encodes a {@link PartyInfo} object to the defined structure that is shared between nodes
+   *
+   * <p>The result can be feed into {@link PartyInfoParser#from(byte[])} to produce the input to
+   * this function.
+   *
+   * @param partyInfo the information to encode
+   * @return the encoded result that should be shared with other nodes
+   */
+  default byte[] to(final PartyInfo partyInfo) {
 
-      final byte[] urlValueData = new byte[recipientUrlValueLength];
+    final byte[] url = partyInfo.getUrl().getBytes(UTF_8);
 
-      byteBuffer.get(urlValueData);
-      final String recipientUrl = new String(urlValueData, UTF_8);
+    // most nodes host several keys, so each distinct URL is only converted to bytes once
+    final Map<String, byte[]> encodedUrls = new HashMap<>();
 
-      recipients.add(Recipient.of(PublicKey.from(recipientKeyBytes), recipientUrl));
+    final List<byte[]> recipientKeys = new ArrayList<>(partyInfo.getRecipients().size());
+    final List<byte[]> recipientUrls = new ArrayList<>(partyInfo.getRecipients().size());
+    for (final Recipient recipient : partyInfo.getRecipients()) {
+      recipientKeys.add(recipient.getKey().getKeyBytes());
+      recipientUrls.add(encodedUrls.computeIfAbsent(recipient.getUrl(), u -> u.getBytes(UTF_8)));
     }
 
-    final int partyCount = toIntExact(byteBuffer.getLong());
-    checkLength(partyCount);
+    final List<byte[]> partyUrls = new ArrayList<>(partyInfo.getParties().size());
+    for (final Party party : partyInfo.getParties()) {
+      partyUrls.add(encodedUrls.computeIfAbsent(party.getUrl(), u -> u.getBytes(UTF_8)));
+    }
 
-    final Set<Party> parties = new HashSet<>();
-    for (int i = 0; i < partyCount; i++) {
-      long partyElementLength = byteBuffer.getLong();
-      checkLength(partyElementLength);
+    // size the output once: a length prefix for the url, each count and each field
+    long length = Long.BYTES + url.length + Long.BYTES + Long.BYTES;
+    for (int i = 0; i < recipientKeys.size(); i++) {
+      length += Long.BYTES + recipientKeys.get(i).length + Long.BYTES + recipientUrls.get(i).length;
+    }
+    for (final byte[] partyUrl : partyUrls) {
+      length += Long.BYTES + partyUrl.length;
+    }
 
-      byte[] ptyData = new byte[toIntExact(partyElementLength)];
-      byteBuffer.get(ptyData);
-      parties.add(new Party(new String(ptyData, UTF_8)));
+    final ByteBuffer buffer = ByteBuffer.allocate(toIntExact(length));
+    putField(buffer, url);
+    buffer.putLong(recipientKeys.size());
+    for (int i = 0; i < recipientKeys.size(); i++) {
+      putField(buffer, recipientKeys.get(i));
+      putField(buffer, recipientUrls.get(i));
     }
+    buffer.putLong(partyUrls.size());
+    partyUrls.forEach(partyUrl -> putField(buffer, partyUrl));
 
-    return new PartyInfo(url, recipients, parties);
+    return buffer.array();
+  }
+
+  private static void putField(final ByteBuffer buffer, final byte[] data) {
+    buffer.putLong(data.length).put(data);
   }
 
   /**
-   * Encodes a {@link PartyInfo} object to the defined structure that is shared between nodes
+   * Encodes a {@link PartyInfoDelta} as four length-prefixed fields: the base digest, the new
+   * digest, the encoded added partyinfo and the encoded removed partyinfo
    *
-   * <p>The result can be feed into {@link PartyInfoParser#from(byte[])} to produce the input to
-   * this function.
-   *
-   * @param partyInfo the information to encode
+   * @param delta the changes to encode
    * @return the encoded result that should be shared with other nodes
    */
-  default byte[] to(final PartyInfo partyInfo) {
+  default byte[] toDelta(final PartyInfoDelta delta) {
+    return encodeArray(
+        List.of(
+            delta.getBaseDigest(),
+            delta.getDigest(),
+            to(delta.getAdded()),
+            to(delta.getRemoved())));
+  }
 
-    // prefix and url bytes
-    final byte[] url = encodeField(partyInfo.getUrl().getBytes(UTF_8));
-
-    // each element in the list is one encoded element from the map
-    // so the prefix is always 2 (2 elements) and
-    final byte[] recipients =
-        partyInfo.getRecipients().stream()
-            .map(
-                r -> {
-                  final byte[] encodedKey = encodeField(r.getKey().getKeyBytes());
-                  final byte[] encodedUrl = encodeField(r.getUrl().getBytes(UTF_8));
-                  return ArrayUtils.addAll(encodedKey, encodedUrl);
-                })
-            .reduce(new byte[0], ArrayUtils::addAll);
-
-    final List<byte[]> parties =
-        partyInfo.getParties().stream()
-            .map(p -> p.getUrl().getBytes(UTF_8))
-            .collect(Collectors.toList());
-
-    final byte[] partiesBytes = encodeArray(parties);
-
-    return ByteBuffer.allocate(url.length + Long.BYTES + recipients.length + partiesBytes.length)
-        .put(url)
-        .putLong(partyInfo.getRecipients().size())
-        .put(recipients)
-        .put(partiesBytes)
-        .array();
+  /**
+   * Decodes a {@link PartyInfoDelta} produced by {@link PartyInfoParser#toDelta(PartyInfoDelta)}
+   *
+   * @param encoded the encoded changes
+   * @return the decoded {@link PartyInfoDelta}
+   */
+  default PartyInfoDelta deltaFrom(final byte[] encoded) {
+    return deltaFrom(new ByteArrayInputStream(encoded));
+  }
+
+  /**
+   * Decodes a {@link PartyInfoDelta} as it is read from the stream. The field lengths are checked
+   * against {@link #getMaxLength()} as for a partyinfo, so an oversized or truncated message is
+   * rejected before its fields are read.
+   *
+   * @param encoded the stream containing the encoded changes
+   * @return the decoded {@link PartyInfoDelta}
+   */
+  default PartyInfoDelta deltaFrom(final InputStream encoded) {
+    final byte[][] fields = new PartyInfoDecoder(encoded, getMaxLength()).decodeDeltaFields();
+    return new PartyInfoDelta(fields[0], fields[1], from(fields[2]), from(fields[3]));
   }
 
   /**
@@ -125,6 +154,21 @@ public interface PartyInfoParser extends BinaryEncoder {
     return new PartyInfoParser() {};
   }
 
+  /**
+   * Creates a new parser that rejects longer partyinfo than the given limit
+   *
+   * @param maxLength the longest encoded partyinfo to accept, in bytes
+   * @return a parser with the given limit
+   */
+  static PartyInfoParser create(final long maxLength) {
+    return new PartyInfoParser() {
+      @Override
+      public long getMaxLength() {
+        return maxLength;
+      }
+    };
+  }
+
   static void checkLength(long value) {
     Optional.of(value)
         .filter(v -> v >= 0)
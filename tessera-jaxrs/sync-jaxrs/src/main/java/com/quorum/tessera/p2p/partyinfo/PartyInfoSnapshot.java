@@ -0,0 +1,74 @@
+package com.quorum.tessera.p2p.partyinfo;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.quorum.tessera.partyinfo.model.PartyInfo;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A {@link PartyInfo} together with a digest of its contents.
+ *
+ * <p>Two nodes holding snapshots with the same digest hold the same partyinfo, so a node only
+ * needs to send the differences between the snapshot a peer has acknowledged and its current one.
+ * The digest does not depend on the order of the recipients or parties.
+ */
+public class PartyInfoSnapshot {
+
+  static final String DIGEST_ALGORITHM = "SHA-256";
+
+  private final PartyInfo partyInfo;
+
+  private final byte[] digest;
+
+  private PartyInfoSnapshot(final PartyInfo partyInfo, final byte[] digest) {
+    this.partyInfo = partyInfo;
+    this.digest = digest;
+  }
+
+  public static PartyInfoSnapshot of(final PartyInfo partyInfo) {
+    Objects.requireNonNull(partyInfo);
+    return new PartyInfoSnapshot(partyInfo, digest(DIGEST_ALGORITHM, partyInfo));
+  }
+
+  static byte[] digest(final String algorithm, final PartyInfo partyInfo) {
+    final MessageDigest messageDigest;
+    try {
+      messageDigest = MessageDigest.getInstance(algorithm);
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("Unable to create partyinfo digest", ex);
+    }
+
+    final List<String> entries =
+        Stream.concat(
+                partyInfo.getRecipients().stream()
+                    .map(r -> "recipient " + r.getKey().encodeToBase64() + " " + r.getUrl()),
+                partyInfo.getParties().stream().map(p -> "party " + p.getUrl()))
+            .sorted()
+            .collect(Collectors.toList());
+
+    messageDigest.update(("url " + partyInfo.getUrl() + "\n").getBytes(UTF_8));
+    entries.forEach(entry -> messageDigest.update((entry + "\n").getBytes(UTF_8)));
+    return messageDigest.digest();
+  }
+
+  public PartyInfo getPartyInfo() {
+    return partyInfo;
+  }
+
+  public byte[] getDigest() {
+    return digest.clone();
+  }
+
+  /**
+   * @param other a digest received from another node
+   * @return whether this snapshot has the given digest
+   */
+  public boolean hasDigest(final byte[] other) {
+    return MessageDigest.isEqual(digest, other);
+  }
+}
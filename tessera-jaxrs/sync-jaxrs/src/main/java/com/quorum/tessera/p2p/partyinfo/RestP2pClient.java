@@ -42,4 +42,30 @@ class RestP2pClient implements P2pClient {
       return Objects.nonNull(response.readEntity(byte[].class));
     }
   }
+
+  @Override
+  public boolean sendPartyInfoDelta(final String targetUrl, final byte[] data) {
+    LOGGER.debug("Sending PartyInfo changes to peer {}", targetUrl);
+
+    try (Response response =
+        client
+            .target(targetUrl)
+            .path("/partyinfo")
+            .path("delta")
+            .request()
+            .post(Entity.entity(data, MediaType.APPLICATION_OCTET_STREAM_TYPE))) {
+
+      final int returnStatusCode = response.getStatus();
+      if (Response.Status.OK.getStatusCode() != returnStatusCode) {
+        LOGGER.debug(
+            "PartyInfo changes not applied by peer {}, status code was {}",
+            targetUrl,
+            returnStatusCode);
+        return false;
+      }
+
+      LOGGER.debug("Successful PartyInfo changes call to {}", targetUrl);
+      return true;
+    }
+  }
 }
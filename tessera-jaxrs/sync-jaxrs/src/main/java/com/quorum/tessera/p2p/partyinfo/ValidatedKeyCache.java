@@ -0,0 +1,93 @@
+package com.quorum.tessera.p2p.partyinfo;
+
+import com.quorum.tessera.config.ConfigFactory;
+import com.quorum.tessera.config.ServerConfig;
+import com.quorum.tessera.config.util.IntervalPropertyHelper;
+import com.quorum.tessera.discovery.NodeUri;
+import com.quorum.tessera.encryption.PublicKey;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers which keys a peer has proved it owns, so that the peer is not asked to prove it again
+ * every time it pushes its partyinfo.
+ *
+ * <p>A proof is remembered for the configured time to live, after which the key is validated
+ * again. A time to live of zero turns the cache off.
+ */
+public class ValidatedKeyCache {
+
+  private final long ttlNanos;
+
+  private final LongSupplier clock;
+
+  private final Map<NodeUri, Map<PublicKey, Long>> expiries = new ConcurrentHashMap<>();
+
+  public ValidatedKeyCache(final Duration ttl) {
+    this(ttl, System::nanoTime);
+  }
+
+  ValidatedKeyCache(final Duration ttl, final LongSupplier clock) {
+    this.ttlNanos = Objects.requireNonNull(ttl).toNanos();
+    this.clock = Objects.requireNonNull(clock);
+  }
+
+  public static ValidatedKeyCache create() {
+    final Map<String, String> properties =
+        Optional.ofNullable(ConfigFactory.create().getConfig().getP2PServerConfig())
+            .map(ServerConfig::getProperties)
+            .orElse(Map.of());
+
+    final long ttl = new IntervalPropertyHelper(properties).keyValidationCacheTtl();
+    return new ValidatedKeyCache(Duration.ofMillis(ttl));
+  }
+
+  /**
+   * @param url the peer that advertised the key
+   * @param key the advertised key
+   * @return whether the peer proved it owns the key within the time to live
+   */
+  public boolean isValidated(final String url, final PublicKey key) {
+    final Map<PublicKey, Long> peerExpiries = expiries.getOrDefault(NodeUri.create(url), Map.of());
+    final Long expiry = peerExpiries.get(key);
+    if (Objects.isNull(expiry)) {
+      return false;
+    }
+    if (clock.getAsLong() - expiry >= 0) {
+      peerExpiries.remove(key, expiry);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Record that the peer has just proved it owns the key.
+   *
+   * @param url the peer that advertised the key
+   * @param key the advertised key
+   */
+  public void validated(final String url, final PublicKey key) {
+    if (ttlNanos > 0) {
+      expiries
+          .computeIfAbsent(NodeUri.create(url), u -> new ConcurrentHashMap<>())
+          .put(key, clock.getAsLong() + ttlNanos);
+    }
+  }
+
+  /**
+   * Forget every key recorded for the peer that it no longer advertises, so that a key the peer
+   * drops and later advertises again is validated afresh.
+   *
+   * @param url the peer that advertised the keys
+   * @param advertisedKeys every key the peer currently advertises
+   */
+  public void retain(final String url, final Set<PublicKey> advertisedKeys) {
+    Optional.ofNullable(expiries.get(NodeUri.create(url)))
+        .ifPresent(peerExpiries -> peerExpiries.keySet().retainAll(advertisedKeys));
+  }
+}
@@ -1,6 +1,5 @@
 package com.quorum.tessera.p2p.recovery;
 
-import com.quorum.tessera.enclave.Enclave;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.p2p.resend.ResendRequest;
 import com.quorum.tessera.recovery.resend.BatchTransactionRequester;
@@ -13,37 +12,23 @@ public class RestBatchTransactionRequester implements BatchTransactionRequester
 
   private static final Logger LOGGER = LoggerFactory.getLogger(RestBatchTransactionRequester.class);
 
-  private final Enclave enclave;
-
   private final RecoveryClient client;
 
   private final int batchSize;
 
-  public RestBatchTransactionRequester(
-      final Enclave enclave, final RecoveryClient client, int batchSize) {
-    this.enclave = Objects.requireNonNull(enclave);
+  public RestBatchTransactionRequester(final RecoveryClient client, int batchSize) {
     this.client = Objects.requireNonNull(client);
     this.batchSize = batchSize;
   }
 
   @Override
-  public boolean requestAllTransactionsFromNode(final String uri) {
-
-    LOGGER.info("Requesting transactions get resent for {}", uri);
-
-    return this.enclave.getPublicKeys().stream()
-        .map(this::createRequestAllEntity)
-        .allMatch(req -> this.makeRequest(uri, req) >= 0);
+  public long requestTransactionsFromNode(final String uri, final PublicKey key) {
+    return this.makeRequest(uri, this.createRequestAllEntity(key));
   }
 
   @Override
-  public boolean requestAllTransactionsFromLegacyNode(String uri) {
-
-    LOGGER.info("Requesting transactions get resent for legacy node {}", uri);
-
-    return this.enclave.getPublicKeys().stream()
-        .map(this::createLegacyRequest)
-        .allMatch(req -> this.makeLegacyRequest(uri, req));
+  public boolean requestTransactionsFromLegacyNode(final String uri, final PublicKey key) {
+    return this.makeLegacyRequest(uri, this.createLegacyRequest(key));
   }
 
   /**
@@ -53,7 +38,7 @@ public class RestBatchTransactionRequester implements BatchTransactionRequester
    * @param request the request object to send
    */
   private long makeRequest(final String uri, final ResendBatchRequest request) {
-    LOGGER.debug("Requesting a batch resend for key {}", request.getPublicKey());
+    LOGGER.debug("Requesting a batch resend to {} for key {}", uri, request.getPublicKey());
 
     ResendBatchResponse response = null;
     int numberOfTries = 0;
@@ -11,6 +11,7 @@ import com.quorum.tessera.context.RuntimeContext;
 import com.quorum.tessera.discovery.Discovery;
 import com.quorum.tessera.enclave.Enclave;
 import com.quorum.tessera.p2p.partyinfo.PartyStore;
+import com.quorum.tessera.p2p.partyinfo.ValidatedKeyCache;
 import com.quorum.tessera.privacygroup.PrivacyGroupManager;
 import com.quorum.tessera.recovery.workflow.BatchResendManager;
 import com.quorum.tessera.recovery.workflow.LegacyResendManager;
@@ -43,6 +44,8 @@ public class P2PRestAppTest {
 
   private PrivacyGroupManager privacyGroupManager;
 
+  private ValidatedKeyCache validatedKeyCache;
+
   private URI peerUri = URI.create("junit");
 
   @Before
@@ -57,6 +60,7 @@ public class P2PRestAppTest {
     batchResendManager = mock(BatchResendManager.class);
     legacyResendManager = mock(LegacyResendManager.class);
     privacyGroupManager = mock(PrivacyGroupManager.class);
+    validatedKeyCache = mock(ValidatedKeyCache.class);
 
     p2PRestApp =
         new P2PRestApp(
@@ -66,7 +70,8 @@ public class P2PRestAppTest {
             transactionManager,
             batchResendManager,
             legacyResendManager,
-            privacyGroupManager);
+            privacyGroupManager,
+            validatedKeyCache);
 
     Client client = mock(Client.class);
     when(runtimeContext.getP2pClient()).thenReturn(client);
@@ -85,6 +90,7 @@ public class P2PRestAppTest {
     verifyNoMoreInteractions(batchResendManager);
     verifyNoMoreInteractions(legacyResendManager);
     verifyNoMoreInteractions(privacyGroupManager);
+    verifyNoMoreInteractions(validatedKeyCache);
   }
 
   @Test
@@ -166,7 +172,10 @@ public class P2PRestAppTest {
         var transactionManagerMockedStatic = mockStatic(TransactionManager.class);
         var batchResendManagerMockedStatic = mockStatic(BatchResendManager.class);
         var legacyResendManagerMockedStatic = mockStatic(LegacyResendManager.class);
-        var privacyGroupManagerMockedStatic = mockStatic(PrivacyGroupManager.class)) {
+        var privacyGroupManagerMockedStatic = mockStatic(PrivacyGroupManager.class);
+        var validatedKeyCacheMockedStatic = mockStatic(ValidatedKeyCache.class)) {
+
+      validatedKeyCacheMockedStatic.when(ValidatedKeyCache::create).thenReturn(validatedKeyCache);
 
       privacyGroupManagerMockedStatic
           .when(PrivacyGroupManager::create)
@@ -207,6 +216,9 @@ public class P2PRestAppTest {
 
       privacyGroupManagerMockedStatic.verify(PrivacyGroupManager::create);
       partyStoreMockedStatic.verifyNoMoreInteractions();
+
+      validatedKeyCacheMockedStatic.verify(ValidatedKeyCache::create);
+      validatedKeyCacheMockedStatic.verifyNoMoreInteractions();
     }
   }
 }
@@ -1,6 +1,7 @@
 package com.quorum.tessera.p2p;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
 import static org.mockito.Mockito.*;
 
@@ -10,13 +11,17 @@ import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.enclave.PayloadEncoder;
 import com.quorum.tessera.enclave.PrivacyMetadata;
 import com.quorum.tessera.encryption.PublicKey;
+import com.quorum.tessera.p2p.partyinfo.PartyInfoDelta;
 import com.quorum.tessera.p2p.partyinfo.PartyInfoParser;
+import com.quorum.tessera.p2p.partyinfo.PartyInfoSnapshot;
 import com.quorum.tessera.p2p.partyinfo.PartyStore;
+import com.quorum.tessera.p2p.partyinfo.ValidatedKeyCache;
 import com.quorum.tessera.partyinfo.model.NodeInfoUtil;
 import com.quorum.tessera.partyinfo.model.Party;
 import com.quorum.tessera.partyinfo.model.PartyInfo;
 import com.quorum.tessera.partyinfo.model.Recipient;
 import com.quorum.tessera.partyinfo.node.NodeInfo;
+import com.quorum.tessera.version.PartyInfoDeltaVersion;
 import jakarta.json.Json;
 import jakarta.json.JsonObject;
 import jakarta.json.JsonReader;
@@ -25,10 +30,13 @@ import jakarta.ws.rs.client.Entity;
 import jakarta.ws.rs.client.Invocation;
 import jakarta.ws.rs.client.WebTarget;
 import jakarta.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringReader;
 import java.io.UncheckedIOException;
 import java.net.URI;
+import java.time.Duration;
 import java.util.*;
 import org.junit.After;
 import org.junit.Before;
@@ -53,6 +61,8 @@ public class PartyInfoResourceTest {
 
   private PartyStore partyStore;
 
+  private ValidatedKeyCache validatedKeyCache;
+
   @Before
   public void beforeTest() {
     this.discovery = mock(Discovery.class);
@@ -61,9 +71,19 @@ public class PartyInfoResourceTest {
     this.restClient = mock(Client.class);
     this.payloadEncoder = mock(PayloadEncoder.class);
     this.partyStore = mock(PartyStore.class);
+    this.validatedKeyCache = new ValidatedKeyCache(Duration.ofMinutes(5));
     this.partyInfoResource =
         new PartyInfoResource(
-            discovery, partyInfoParser, restClient, enclave, payloadEncoder, true, partyStore);
+            discovery,
+            partyInfoParser,
+            restClient,
+            enclave,
+            payloadEncoder,
+            true,
+            partyStore,
+            validatedKeyCache,
+            Runnable::run,
+            Duration.ofSeconds(5));
   }
 
   @After
@@ -140,7 +160,7 @@ public class PartyInfoResourceTest {
 
     PartyInfo partyInfo = new PartyInfo(url, recipientList, Collections.emptySet());
 
-    when(partyInfoParser.from(payload)).thenReturn(partyInfo);
+    when(partyInfoParser.from(streamOf(payload))).thenReturn(partyInfo);
 
     when(enclave.defaultPublicKey()).thenReturn(myKey);
 
@@ -164,7 +184,7 @@ public class PartyInfoResourceTest {
     WebTarget webTarget = mock(WebTarget.class);
     when(restClient.target(url)).thenReturn(webTarget);
     when(webTarget.path(anyString())).thenReturn(webTarget);
-    Invocation.Builder invocationBuilder = mock(Invocation.Builder.class);
+    Invocation.Builder invocationBuilder = mock(Invocation.Builder.class, RETURNS_SELF);
     when(webTarget.request()).thenReturn(invocationBuilder);
 
     Response response = mock(Response.class);
@@ -174,17 +194,22 @@ public class PartyInfoResourceTest {
 
     when(invocationBuilder.post(any(Entity.class))).thenReturn(response);
 
-    Response result = partyInfoResource.partyInfo(payload, List.of("v1,v2"));
+    Response result =
+        partyInfoResource.partyInfo(new ByteArrayInputStream(payload), List.of("v1,v2"));
 
     assertThat(result.getStatus()).isEqualTo(200);
 
-    verify(partyInfoParser).from(payload);
+    verify(partyInfoParser).from(streamOf(payload));
     verify(enclave).defaultPublicKey();
     verify(enclave)
         .encryptPayload(
             any(byte[].class), any(PublicKey.class), anyList(), any(PrivacyMetadata.class));
     verify(payloadEncoder).encode(encodedPayload);
     verify(restClient).target(url);
+    verify(invocationBuilder)
+        .property(eq(PartyInfoResource.CONNECT_TIMEOUT_PROPERTY), intThat(t -> t > 0 && t <= 5000));
+    verify(invocationBuilder)
+        .property(eq(PartyInfoResource.READ_TIMEOUT_PROPERTY), intThat(t -> t > 0 && t <= 5000));
 
     ArgumentCaptor<NodeInfo> argCaptor = ArgumentCaptor.forClass(NodeInfo.class);
     verify(discovery).onUpdate(argCaptor.capture());
@@ -195,6 +220,93 @@ public class PartyInfoResourceTest {
     assertThat(nodeInfo.supportedApiVersions()).containsExactlyInAnyOrder("v1", "v2");
   }
 
+  @Test
+  public void keysAlreadyValidatedAreNotValidatedAgain() {
+
+    String url = "http://www.bogus.com";
+
+    PublicKey myKey = PublicKey.from("myKey".getBytes());
+    PublicKey recipientKey = PublicKey.from("recipientKey".getBytes());
+    PublicKey newRecipientKey = PublicKey.from("newRecipientKey".getBytes());
+
+    byte[] payload = "first".getBytes();
+    byte[] nextPayload = "second".getBytes();
+    byte[] lastPayload = "third".getBytes();
+
+    PartyInfo partyInfo =
+        new PartyInfo(url, Set.of(Recipient.of(recipientKey, url)), Collections.emptySet());
+    PartyInfo nextPartyInfo =
+        new PartyInfo(
+            url,
+            Set.of(Recipient.of(recipientKey, url), Recipient.of(newRecipientKey, url)),
+            Collections.emptySet());
+
+    when(partyInfoParser.from(streamOf(payload))).thenReturn(partyInfo);
+    when(partyInfoParser.from(streamOf(nextPayload))).thenReturn(nextPartyInfo);
+    when(partyInfoParser.from(streamOf(lastPayload))).thenReturn(nextPartyInfo);
+
+    when(enclave.defaultPublicKey()).thenReturn(myKey);
+
+    EncodedPayload encodedPayload = mock(EncodedPayload.class);
+
+    List<String> uuidList = new ArrayList<>();
+    doAnswer(
+            (invocation) -> {
+              byte[] d = invocation.getArgument(0);
+              uuidList.add(new String(d));
+              return encodedPayload;
+            })
+        .when(enclave)
+        .encryptPayload(
+            any(byte[].class), any(PublicKey.class), anyList(), any(PrivacyMetadata.class));
+
+    when(payloadEncoder.encode(encodedPayload)).thenReturn(payload);
+
+    WebTarget webTarget = mock(WebTarget.class);
+    when(restClient.target(url)).thenReturn(webTarget);
+    when(webTarget.path(anyString())).thenReturn(webTarget);
+    Invocation.Builder invocationBuilder = mock(Invocation.Builder.class, RETURNS_SELF);
+    when(webTarget.request()).thenReturn(invocationBuilder);
+
+    Response response = mock(Response.class);
+    doAnswer((invocation) -> uuidList.get(uuidList.size() - 1))
+        .when(response)
+        .readEntity(String.class);
+
+    when(invocationBuilder.post(any(Entity.class))).thenReturn(response);
+
+    partyInfoResource.partyInfo(new ByteArrayInputStream(payload), null);
+    partyInfoResource.partyInfo(new ByteArrayInputStream(nextPayload), null);
+    partyInfoResource.partyInfo(new ByteArrayInputStream(lastPayload), null);
+
+    // the first key is validated on the first push, the second key only on the second push
+    ArgumentCaptor<List<PublicKey>> keysCaptor = ArgumentCaptor.forClass(List.class);
+    verify(enclave, times(2))
+        .encryptPayload(
+            any(byte[].class),
+            any(PublicKey.class),
+            keysCaptor.capture(),
+            any(PrivacyMetadata.class));
+    assertThat(keysCaptor.getAllValues())
+        .containsExactly(List.of(recipientKey), List.of(newRecipientKey));
+    assertThat(validatedKeyCache.isValidated(url, recipientKey)).isTrue();
+    assertThat(validatedKeyCache.isValidated(url, newRecipientKey)).isTrue();
+
+    ArgumentCaptor<NodeInfo> nodeInfoCaptor = ArgumentCaptor.forClass(NodeInfo.class);
+    verify(discovery, times(3)).onUpdate(nodeInfoCaptor.capture());
+    assertThat(nodeInfoCaptor.getAllValues().get(2).getRecipients())
+        .containsExactlyInAnyOrder(
+            com.quorum.tessera.partyinfo.node.Recipient.of(recipientKey, url),
+            com.quorum.tessera.partyinfo.node.Recipient.of(newRecipientKey, url));
+
+    verify(partyInfoParser).from(streamOf(payload));
+    verify(partyInfoParser).from(streamOf(nextPayload));
+    verify(partyInfoParser).from(streamOf(lastPayload));
+    verify(enclave, times(2)).defaultPublicKey();
+    verify(payloadEncoder, times(2)).encode(encodedPayload);
+    verify(restClient, times(2)).target(url);
+  }
+
   @Test
   public void validate() {
 
@@ -248,10 +360,81 @@ public class PartyInfoResourceTest {
   @Test
   public void constructWithMinimalArgs() {
     PartyInfoResource instance =
-        new PartyInfoResource(discovery, partyInfoParser, restClient, enclave, true);
+        new PartyInfoResource(
+            discovery, partyInfoParser, restClient, enclave, true, validatedKeyCache);
     assertThat(instance).isNotNull();
   }
 
+  @Test
+  public void keyWhoseValidationTimesOutIsNotValidated() {
+    final PartyInfoResource resource =
+        new PartyInfoResource(
+            discovery,
+            partyInfoParser,
+            restClient,
+            enclave,
+            payloadEncoder,
+            true,
+            partyStore,
+            validatedKeyCache,
+            runnable -> {},
+            Duration.ofMillis(10));
+
+    final String url = "http://www.bogus.com";
+    final PublicKey recipientKey = PublicKey.from("recipientKey".getBytes());
+    final byte[] payload = "I love sparrows".getBytes();
+    final PartyInfo partyInfo =
+        new PartyInfo(url, Set.of(Recipient.of(recipientKey, url)), Collections.emptySet());
+    when(partyInfoParser.from(streamOf(payload))).thenReturn(partyInfo);
+    when(enclave.defaultPublicKey()).thenReturn(PublicKey.from("myKey".getBytes()));
+
+    final Throwable throwable =
+        catchThrowable(
+            () -> resource.partyInfo(new ByteArrayInputStream(payload), Collections.emptyList()));
+
+    assertThat(throwable)
+        .isInstanceOf(SecurityException.class)
+        .hasMessage("No validated keys found for peer " + url);
+    assertThat(validatedKeyCache.isValidated(url, recipientKey)).isFalse();
+    verify(partyInfoParser).from(streamOf(payload));
+    verify(enclave).defaultPublicKey();
+  }
+
+  @Test
+  public void keyWhoseValidationStartsAfterTheDeadlineIsNotValidated() {
+    final PartyInfoResource resource =
+        new PartyInfoResource(
+            discovery,
+            partyInfoParser,
+            restClient,
+            enclave,
+            payloadEncoder,
+            true,
+            partyStore,
+            validatedKeyCache,
+            Runnable::run,
+            Duration.ZERO);
+
+    final String url = "http://www.bogus.com";
+    final PublicKey recipientKey = PublicKey.from("recipientKey".getBytes());
+    final byte[] payload = "I love sparrows".getBytes();
+    final PartyInfo partyInfo =
+        new PartyInfo(url, Set.of(Recipient.of(recipientKey, url)), Collections.emptySet());
+    when(partyInfoParser.from(streamOf(payload))).thenReturn(partyInfo);
+    when(enclave.defaultPublicKey()).thenReturn(PublicKey.from("myKey".getBytes()));
+
+    final Throwable throwable =
+        catchThrowable(
+            () -> resource.partyInfo(new ByteArrayInputStream(payload), Collections.emptyList()));
+
+    assertThat(throwable)
+        .isInstanceOf(SecurityException.class)
+        .hasMessage("No validated keys found for peer " + url);
+    assertThat(validatedKeyCache.isValidated(url, recipientKey)).isFalse();
+    verify(partyInfoParser).from(streamOf(payload));
+    verify(enclave).defaultPublicKey();
+  }
+
   @Test
   public void partyInfoExceptionIfValidationFailsWith200() {
 
@@ -274,7 +457,7 @@ public class PartyInfoResourceTest {
 
     PartyInfo partyInfo = new PartyInfo(url, recipientList, Collections.emptySet());
 
-    when(partyInfoParser.from(payload)).thenReturn(partyInfo);
+    when(partyInfoParser.from(streamOf(payload))).thenReturn(partyInfo);
 
     when(enclave.defaultPublicKey()).thenReturn(myKey);
 
@@ -291,7 +474,7 @@ public class PartyInfoResourceTest {
     WebTarget webTarget = mock(WebTarget.class);
     when(restClient.target(url)).thenReturn(webTarget);
     when(webTarget.path(anyString())).thenReturn(webTarget);
-    Invocation.Builder invocationBuilder = mock(Invocation.Builder.class);
+    Invocation.Builder invocationBuilder = mock(Invocation.Builder.class, RETURNS_SELF);
     when(webTarget.request()).thenReturn(invocationBuilder);
 
     Response response = mock(Response.class);
@@ -302,10 +485,10 @@ public class PartyInfoResourceTest {
     when(invocationBuilder.post(any(Entity.class))).thenReturn(response);
 
     try {
-      partyInfoResource.partyInfo(payload, Collections.emptyList());
+      partyInfoResource.partyInfo(new ByteArrayInputStream(payload), Collections.emptyList());
       failBecauseExceptionWasNotThrown(SecurityException.class);
     } catch (SecurityException ex) {
-      verify(partyInfoParser).from(payload);
+      verify(partyInfoParser).from(streamOf(payload));
       verify(enclave).defaultPublicKey();
       verify(enclave)
           .encryptPayload(
@@ -337,7 +520,7 @@ public class PartyInfoResourceTest {
 
     PartyInfo partyInfo = new PartyInfo(url, recipientList, Collections.emptySet());
 
-    when(partyInfoParser.from(payload)).thenReturn(partyInfo);
+    when(partyInfoParser.from(streamOf(payload))).thenReturn(partyInfo);
 
     when(enclave.defaultPublicKey()).thenReturn(myKey);
 
@@ -354,7 +537,7 @@ public class PartyInfoResourceTest {
     WebTarget webTarget = mock(WebTarget.class);
     when(restClient.target(url)).thenReturn(webTarget);
     when(webTarget.path(anyString())).thenReturn(webTarget);
-    Invocation.Builder invocationBuilder = mock(Invocation.Builder.class);
+    Invocation.Builder invocationBuilder = mock(Invocation.Builder.class, RETURNS_SELF);
     when(webTarget.request()).thenReturn(invocationBuilder);
 
     Response response = mock(Response.class);
@@ -365,10 +548,10 @@ public class PartyInfoResourceTest {
     when(invocationBuilder.post(any(Entity.class))).thenReturn(response);
 
     try {
-      partyInfoResource.partyInfo(payload, List.of("v1", "v2"));
+      partyInfoResource.partyInfo(new ByteArrayInputStream(payload), List.of("v1", "v2"));
       failBecauseExceptionWasNotThrown(SecurityException.class);
     } catch (SecurityException ex) {
-      verify(partyInfoParser).from(payload);
+      verify(partyInfoParser).from(streamOf(payload));
       verify(enclave).defaultPublicKey();
       verify(enclave)
           .encryptPayload(
@@ -397,7 +580,7 @@ public class PartyInfoResourceTest {
 
     PartyInfo partyInfo = new PartyInfo(url, recipientList, Collections.emptySet());
 
-    when(partyInfoParser.from(payload)).thenReturn(partyInfo);
+    when(partyInfoParser.from(streamOf(payload))).thenReturn(partyInfo);
 
     when(enclave.defaultPublicKey()).thenReturn(myKey);
 
@@ -414,17 +597,17 @@ public class PartyInfoResourceTest {
     WebTarget webTarget = mock(WebTarget.class);
     when(restClient.target(url)).thenReturn(webTarget);
     when(webTarget.path(anyString())).thenReturn(webTarget);
-    Invocation.Builder invocationBuilder = mock(Invocation.Builder.class);
+    Invocation.Builder invocationBuilder = mock(Invocation.Builder.class, RETURNS_SELF);
     when(webTarget.request()).thenReturn(invocationBuilder);
 
     when(invocationBuilder.post(any(Entity.class)))
         .thenThrow(new UncheckedIOException(new IOException("GURU meditation")));
 
     try {
-      partyInfoResource.partyInfo(payload, null);
+      partyInfoResource.partyInfo(new ByteArrayInputStream(payload), null);
       failBecauseExceptionWasNotThrown(SecurityException.class);
     } catch (SecurityException ex) {
-      verify(partyInfoParser).from(payload);
+      verify(partyInfoParser).from(streamOf(payload));
       verify(enclave).defaultPublicKey();
       verify(enclave)
           .encryptPayload(
@@ -438,7 +621,16 @@ public class PartyInfoResourceTest {
   public void validationDisabledPassesAllKeysToStore() {
     this.partyInfoResource =
         new PartyInfoResource(
-            discovery, partyInfoParser, restClient, enclave, payloadEncoder, false, partyStore);
+            discovery,
+            partyInfoParser,
+            restClient,
+            enclave,
+            payloadEncoder,
+            false,
+            partyStore,
+            validatedKeyCache,
+            Runnable::run,
+            Duration.ofSeconds(5));
 
     final byte[] payload = "Test message".getBytes();
 
@@ -453,18 +645,19 @@ public class PartyInfoResourceTest {
     final ArgumentCaptor<PartyInfo> captor = ArgumentCaptor.forClass(PartyInfo.class);
     final byte[] serialisedData = "SERIALISED".getBytes();
 
-    when(partyInfoParser.from(payload)).thenReturn(partyInfo);
+    when(partyInfoParser.from(streamOf(payload))).thenReturn(partyInfo);
     when(discovery.getCurrent()).thenReturn(nodeInfo);
     when(partyInfoParser.to(captor.capture())).thenReturn(serialisedData);
 
-    final Response callResponse = partyInfoResource.partyInfo(payload, null);
+    final Response callResponse =
+        partyInfoResource.partyInfo(new ByteArrayInputStream(payload), null);
     final byte[] data = (byte[]) callResponse.getEntity();
 
     assertThat(captor.getValue().getUrl()).isEqualTo(url);
     assertThat(captor.getValue().getRecipients()).isEmpty();
     assertThat(captor.getValue().getParties()).isEmpty();
     assertThat(new String(data)).isEqualTo("SERIALISED");
-    verify(partyInfoParser).from(payload);
+    verify(partyInfoParser).from(streamOf(payload));
     verify(partyInfoParser).to(any(PartyInfo.class));
 
     final ArgumentCaptor<NodeInfo> modifiedPartyInfoCaptor =
@@ -484,6 +677,263 @@ public class PartyInfoResourceTest {
     verify(discovery).getCurrent();
   }
 
+  @Test
+  public void deltaWithoutHeldPartyInfoAsksForFullPartyInfo() {
+    final byte[] payload = "delta".getBytes();
+    final PartyInfoSnapshot snapshot =
+        PartyInfoSnapshot.of(new PartyInfo("http://www.bogus.com", Set.of(), Set.of()));
+
+    when(partyInfoParser.deltaFrom(streamOf(payload)))
+        .thenReturn(PartyInfoDelta.between(snapshot, snapshot));
+
+    final Response response =
+        partyInfoResource.partyInfoDelta(new ByteArrayInputStream(payload), List.of("6.0"));
+
+    assertThat(response.getStatus()).isEqualTo(409);
+
+    verify(partyInfoParser).deltaFrom(streamOf(payload));
+  }
+
+  @Test
+  public void deltasAreAppliedToPartyInfoPushedInFull() {
+    this.partyInfoResource = resourceWithoutKeyValidation();
+
+    final String url = "http://www.bogus.com";
+    final PublicKey key = PublicKey.from("key".getBytes());
+    final PublicKey newKey = PublicKey.from("newKey".getBytes());
+    final PartyInfo partyInfo =
+        new PartyInfo(url, Set.of(Recipient.of(key, url)), Set.of(new Party(url)));
+    final PartyInfo nextPartyInfo =
+        new PartyInfo(
+            url,
+            Set.of(Recipient.of(key, url), Recipient.of(newKey, url)),
+            Set.of(new Party(url)));
+    final PartyInfoSnapshot snapshot = PartyInfoSnapshot.of(partyInfo);
+    final PartyInfoSnapshot nextSnapshot = PartyInfoSnapshot.of(nextPartyInfo);
+
+    final byte[] payload = "full".getBytes();
+    final byte[] unchanged = "unchanged".getBytes();
+    final byte[] changed = "changed".getBytes();
+    final byte[] stale = "stale".getBytes();
+
+    when(partyInfoParser.from(streamOf(payload))).thenReturn(partyInfo);
+    when(partyInfoParser.deltaFrom(streamOf(unchanged)))
+        .thenReturn(PartyInfoDelta.between(snapshot, snapshot));
+    when(partyInfoParser.deltaFrom(streamOf(changed)))
+        .thenReturn(PartyInfoDelta.between(snapshot, nextSnapshot));
+    when(partyInfoParser.deltaFrom(streamOf(stale)))
+        .thenReturn(PartyInfoDelta.between(snapshot, snapshot));
+    when(discovery.getCurrent()).thenReturn(NodeInfo.Builder.create().withUrl(url).build());
+
+    final List<String> headers = List.of(PartyInfoDeltaVersion.API_VERSION_6);
+    assertThat(partyInfoResource.partyInfo(new ByteArrayInputStream(payload), headers).getStatus())
+        .isEqualTo(200);
+    assertThat(
+            partyInfoResource
+                .partyInfoDelta(new ByteArrayInputStream(unchanged), headers)
+                .getStatus())
+        .isEqualTo(200);
+    assertThat(
+            partyInfoResource
+                .partyInfoDelta(new ByteArrayInputStream(changed), headers)
+                .getStatus())
+        .isEqualTo(200);
+    assertThat(
+            partyInfoResource
+                .partyInfoDelta(new ByteArrayInputStream(stale), headers)
+                .getStatus())
+        .isEqualTo(409);
+
+    final ArgumentCaptor<NodeInfo> captor = ArgumentCaptor.forClass(NodeInfo.class);
+    verify(discovery, times(3)).onUpdate(captor.capture());
+    assertThat(captor.getAllValues().get(1)).isSameAs(captor.getAllValues().get(0));
+    assertThat(captor.getAllValues().get(2).getRecipients())
+        .containsExactlyInAnyOrder(
+            com.quorum.tessera.partyinfo.node.Recipient.of(key, url),
+            com.quorum.tessera.partyinfo.node.Recipient.of(newKey, url));
+    verify(partyStore, times(3)).store(URI.create(url + "/"));
+
+    verify(partyInfoParser).from(streamOf(payload));
+    verify(partyInfoParser).deltaFrom(streamOf(unchanged));
+    verify(partyInfoParser).deltaFrom(streamOf(changed));
+    verify(partyInfoParser).deltaFrom(streamOf(stale));
+    verify(partyInfoParser, times(2)).to(any(PartyInfo.class));
+    verify(discovery, times(2)).getCurrent();
+  }
+
+  @Test
+  public void deltaNotProducingExpectedDigestAsksForFullPartyInfo() {
+    this.partyInfoResource = resourceWithoutKeyValidation();
+
+    final String url = "http://www.bogus.com";
+    final PartyInfo partyInfo = new PartyInfo(url, Set.of(), Set.of());
+    final PartyInfoSnapshot snapshot = PartyInfoSnapshot.of(partyInfo);
+    final PartyInfoSnapshot other =
+        PartyInfoSnapshot.of(new PartyInfo(url, Set.of(), Set.of(new Party(url))));
+
+    final byte[] payload = "full".getBytes();
+    final byte[] corrupt = "corrupt".getBytes();
+    final byte[] unchanged = "unchanged".getBytes();
+
+    when(partyInfoParser.from(streamOf(payload))).thenReturn(partyInfo);
+    when(partyInfoParser.deltaFrom(streamOf(corrupt)))
+        .thenReturn(
+            new PartyInfoDelta(
+                snapshot.getDigest(),
+                other.getDigest(),
+                new PartyInfo(url, Set.of(), Set.of()),
+                new PartyInfo(url, Set.of(), Set.of())));
+    when(partyInfoParser.deltaFrom(streamOf(unchanged)))
+        .thenReturn(PartyInfoDelta.between(snapshot, snapshot));
+    when(discovery.getCurrent()).thenReturn(NodeInfo.Builder.create().withUrl(url).build());
+
+    final List<String> headers = List.of(PartyInfoDeltaVersion.API_VERSION_6);
+    assertThat(partyInfoResource.partyInfo(new ByteArrayInputStream(payload), headers).getStatus())
+        .isEqualTo(200);
+    assertThat(
+            partyInfoResource
+                .partyInfoDelta(new ByteArrayInputStream(corrupt), headers)
+                .getStatus())
+        .isEqualTo(409);
+    assertThat(
+            partyInfoResource
+                .partyInfoDelta(new ByteArrayInputStream(unchanged), headers)
+                .getStatus())
+        .isEqualTo(409);
+
+    verify(discovery).onUpdate(any(NodeInfo.class));
+    verify(discovery).getCurrent();
+    verify(partyInfoParser).from(streamOf(payload));
+    verify(partyInfoParser).to(any(PartyInfo.class));
+    verify(partyInfoParser).deltaFrom(streamOf(corrupt));
+    verify(partyInfoParser).deltaFrom(streamOf(unchanged));
+  }
+
+  @Test
+  public void partyInfoFromPeerWithoutDeltaSupportIsNotKept() {
+    this.partyInfoResource = resourceWithoutKeyValidation();
+
+    final String url = "http://www.bogus.com";
+    final PartyInfo partyInfo = new PartyInfo(url, Set.of(), Set.of());
+    final PartyInfoSnapshot snapshot = PartyInfoSnapshot.of(partyInfo);
+
+    final byte[] payload = "full".getBytes();
+    final byte[] unchanged = "unchanged".getBytes();
+
+    when(partyInfoParser.from(streamOf(payload))).thenReturn(partyInfo);
+    when(partyInfoParser.deltaFrom(streamOf(unchanged)))
+        .thenReturn(PartyInfoDelta.between(snapshot, snapshot));
+    when(discovery.getCurrent()).thenReturn(NodeInfo.Builder.create().withUrl(url).build());
+
+    assertThat(
+            partyInfoResource
+                .partyInfo(new ByteArrayInputStream(payload), List.of("5.0"))
+                .getStatus())
+        .isEqualTo(200);
+    assertThat(
+            partyInfoResource
+                .partyInfoDelta(new ByteArrayInputStream(unchanged), null)
+                .getStatus())
+        .isEqualTo(409);
+
+    verify(discovery).onUpdate(any(NodeInfo.class));
+    verify(discovery).getCurrent();
+    verify(partyInfoParser).from(streamOf(payload));
+    verify(partyInfoParser).to(any(PartyInfo.class));
+    verify(partyInfoParser).deltaFrom(streamOf(unchanged));
+  }
+
+  @Test
+  public void unchangedDeltaRevalidatesKeysWhoseValidationExpired() {
+    final ValidatedKeyCache keyCache = mock(ValidatedKeyCache.class);
+    this.partyInfoResource =
+        new PartyInfoResource(
+            discovery,
+            partyInfoParser,
+            restClient,
+            enclave,
+            payloadEncoder,
+            true,
+            partyStore,
+            keyCache,
+            Runnable::run,
+            Duration.ofSeconds(5));
+
+    final String url = "http://www.bogus.com";
+    final PublicKey key = PublicKey.from("key".getBytes());
+    final PartyInfo partyInfo = new PartyInfo(url, Set.of(Recipient.of(key, url)), Set.of());
+    final PartyInfoSnapshot snapshot = PartyInfoSnapshot.of(partyInfo);
+
+    final byte[] payload = "full".getBytes();
+    final byte[] unchanged = "unchanged".getBytes();
+
+    when(partyInfoParser.from(streamOf(payload))).thenReturn(partyInfo);
+    when(partyInfoParser.deltaFrom(streamOf(unchanged)))
+        .thenReturn(PartyInfoDelta.between(snapshot, snapshot));
+    when(keyCache.isValidated(url, key)).thenReturn(true, true, false);
+    when(enclave.defaultPublicKey()).thenReturn(PublicKey.from("myKey".getBytes()));
+    when(enclave.encryptPayload(
+            any(byte[].class), any(PublicKey.class), anyList(), any(PrivacyMetadata.class)))
+        .thenThrow(new IllegalArgumentException("invalid key"));
+
+    final List<String> headers = List.of(PartyInfoDeltaVersion.API_VERSION_6);
+    assertThat(partyInfoResource.partyInfo(new ByteArrayInputStream(payload), headers).getStatus())
+        .isEqualTo(200);
+    assertThat(
+            partyInfoResource
+                .partyInfoDelta(new ByteArrayInputStream(unchanged), headers)
+                .getStatus())
+        .isEqualTo(200);
+
+    try {
+      partyInfoResource.partyInfoDelta(new ByteArrayInputStream(unchanged), headers);
+      failBecauseExceptionWasNotThrown(SecurityException.class);
+    } catch (SecurityException ex) {
+      assertThat(ex).hasMessage("No validated keys found for peer " + url);
+    }
+
+    final ArgumentCaptor<NodeInfo> captor = ArgumentCaptor.forClass(NodeInfo.class);
+    verify(discovery, times(2)).onUpdate(captor.capture());
+    assertThat(captor.getAllValues().get(1)).isSameAs(captor.getAllValues().get(0));
+
+    verify(partyInfoParser).from(streamOf(payload));
+    verify(partyInfoParser, times(2)).deltaFrom(streamOf(unchanged));
+    verify(enclave).defaultPublicKey();
+    verify(enclave)
+        .encryptPayload(
+            any(byte[].class), any(PublicKey.class), anyList(), any(PrivacyMetadata.class));
+  }
+
+  private static InputStream streamOf(final byte[] data) {
+    return argThat(
+        stream -> {
+          if (Objects.isNull(stream)) {
+            return false;
+          }
+          try {
+            final byte[] read = stream.readAllBytes();
+            stream.reset();
+            return Arrays.equals(read, data);
+          } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+          }
+        });
+  }
+
+  private PartyInfoResource resourceWithoutKeyValidation() {
+    return new PartyInfoResource(
+        discovery,
+        partyInfoParser,
+        restClient,
+        enclave,
+        payloadEncoder,
+        false,
+        partyStore,
+        validatedKeyCache,
+        Runnable::run,
+        Duration.ofSeconds(5));
+  }
+
   @Test
   public void partyInfoValidationEncryptsUniqueDataForEachKey() {
     String url = "http://bogus";
@@ -495,7 +945,7 @@ public class PartyInfoResourceTest {
     PartyInfo partyInfo = new PartyInfo(url, recipients, parties);
 
     byte[] payload = new byte[] {};
-    when(partyInfoParser.from(payload)).thenReturn(partyInfo);
+    when(partyInfoParser.from(streamOf(payload))).thenReturn(partyInfo);
 
     when(enclave.defaultPublicKey()).thenReturn(PublicKey.from("defaultKey".getBytes()));
     EncodedPayload encodedPayload = mock(EncodedPayload.class);
@@ -515,7 +965,7 @@ public class PartyInfoResourceTest {
     WebTarget webTarget = mock(WebTarget.class);
     when(restClient.target(url)).thenReturn(webTarget);
     when(webTarget.path(anyString())).thenReturn(webTarget);
-    Invocation.Builder invocationBuilder = mock(Invocation.Builder.class);
+    Invocation.Builder invocationBuilder = mock(Invocation.Builder.class, RETURNS_SELF);
     when(webTarget.request()).thenReturn(invocationBuilder);
     Response response = mock(Response.class);
     when(invocationBuilder.post(any(Entity.class))).thenReturn(response);
@@ -537,7 +987,7 @@ public class PartyInfoResourceTest {
         .readEntity(String.class);
 
     // the test
-    partyInfoResource.partyInfo(payload, null);
+    partyInfoResource.partyInfo(new ByteArrayInputStream(payload), null);
 
     ArgumentCaptor<byte[]> uuidCaptor = ArgumentCaptor.forClass(byte[].class);
     verify(enclave, times(2))
@@ -549,7 +999,7 @@ public class PartyInfoResourceTest {
 
     // other verifications
     verify(discovery).onUpdate(any(NodeInfo.class));
-    verify(partyInfoParser).from(payload);
+    verify(partyInfoParser).from(streamOf(payload));
     verify(enclave).defaultPublicKey();
     verify(payloadEncoder, times(2)).encode(encodedPayload);
     verify(restClient, times(2)).target(url);
@@ -3,6 +3,10 @@ package com.quorum.tessera.p2p;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
+import com.quorum.tessera.api.PushAcknowledgement;
+import com.quorum.tessera.api.PushManyRequest;
+import com.quorum.tessera.api.PushManyResponse;
+import com.quorum.tessera.data.MessageHash;
 import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.enclave.EncodedPayloadCodec;
 import com.quorum.tessera.enclave.PayloadEncoder;
@@ -80,6 +84,64 @@ public class TransactionResourceTest {
         () -> PayloadEncoder.create(any(EncodedPayloadCodec.class)));
   }
 
+  @Test
+  public void pushMany() {
+    final byte[] stored = "Stored".getBytes();
+    final byte[] rejected = "Rejected".getBytes();
+    final EncodedPayload storedPayload = mock(EncodedPayload.class);
+    final EncodedPayload rejectedPayload = mock(EncodedPayload.class);
+    when(payloadEncoder.decode(stored)).thenReturn(storedPayload);
+    when(payloadEncoder.decode(rejected)).thenReturn(rejectedPayload);
+
+    final MessageHash messageHash = new MessageHash("HASH".getBytes());
+    when(transactionManager.storePayload(storedPayload)).thenReturn(messageHash);
+    when(transactionManager.storePayload(rejectedPayload))
+        .thenThrow(new RuntimeException("Not stored"));
+
+    final Response result =
+        transactionResource.pushMany(
+            new PushManyRequest(List.of(stored, rejected, stored)), List.of("4.0,5.0"));
+
+    assertThat(result.getStatus()).isEqualTo(200);
+
+    final PushAcknowledgement[] acknowledgements =
+        ((PushManyResponse) result.getEntity()).getAcknowledgements();
+    assertThat(acknowledgements).hasSize(3);
+    assertThat(acknowledgements[0].getKey()).isEqualTo(messageHash.toString());
+    assertThat(acknowledgements[0].getError()).isNull();
+    assertThat(acknowledgements[1].getKey()).isNull();
+    assertThat(acknowledgements[1].getError()).isEqualTo("Not stored");
+    assertThat(acknowledgements[2].getKey()).isEqualTo(messageHash.toString());
+
+    verify(payloadEncoder, times(2)).decode(stored);
+    verify(payloadEncoder).decode(rejected);
+    verify(transactionManager, times(2)).storePayload(storedPayload);
+    verify(transactionManager).storePayload(rejectedPayload);
+
+    payloadEncoderFactoryFunction.verify(
+        () -> PayloadEncoder.create(any(EncodedPayloadCodec.class)));
+  }
+
+  @Test
+  public void pushManyReportsFailureWithoutMessage() {
+    final byte[] someData = "SomeData".getBytes();
+    when(payloadEncoder.decode(someData)).thenThrow(new IllegalStateException());
+
+    final Response result =
+        transactionResource.pushMany(new PushManyRequest(List.of(someData)), null);
+
+    assertThat(result.getStatus()).isEqualTo(200);
+
+    final PushAcknowledgement[] acknowledgements =
+        ((PushManyResponse) result.getEntity()).getAcknowledgements();
+    assertThat(acknowledgements[0].getError()).isEqualTo(IllegalStateException.class.getName());
+
+    verify(payloadEncoder).decode(someData);
+
+    payloadEncoderFactoryFunction.verify(
+        () -> PayloadEncoder.create(any(EncodedPayloadCodec.class)));
+  }
+
   @Test
   public void resend() {
     ResendRequest resendRequest = new ResendRequest();
@@ -0,0 +1,56 @@
+package com.quorum.tessera.p2p.partyinfo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Map;
+import org.junit.Test;
+
+public class PartyInfoBroadcastConfigTest {
+
+  @Test
+  public void defaults() {
+    PartyInfoBroadcastConfig config = PartyInfoBroadcastConfig.defaults();
+
+    assertThat(config.getParallelism()).isEqualTo(10);
+    assertThat(config.getDeadline()).isEqualTo(Duration.ofSeconds(10));
+    assertThat(config.getJitter()).isEqualTo(Duration.ZERO);
+    assertThat(config.getMaxBackoffRounds()).isEqualTo(16);
+  }
+
+  @Test
+  public void fromProperties() {
+    PartyInfoBroadcastConfig config =
+        PartyInfoBroadcastConfig.from(
+            Map.of(
+                PartyInfoBroadcastConfig.PARALLELISM_PROPERTY, "32",
+                PartyInfoBroadcastConfig.DEADLINE_PROPERTY, "2000",
+                PartyInfoBroadcastConfig.JITTER_PROPERTY, "500",
+                PartyInfoBroadcastConfig.MAX_BACKOFF_ROUNDS_PROPERTY, "4"));
+
+    assertThat(config.getParallelism()).isEqualTo(32);
+    assertThat(config.getDeadline()).isEqualTo(Duration.ofMillis(2000));
+    assertThat(config.getJitter()).isEqualTo(Duration.ofMillis(500));
+    assertThat(config.getMaxBackoffRounds()).isEqualTo(4);
+  }
+
+  @Test
+  public void fromNullPropertiesUsesDefaults() {
+    PartyInfoBroadcastConfig config = PartyInfoBroadcastConfig.from(null);
+
+    assertThat(config.getParallelism()).isEqualTo(10);
+    assertThat(config.getMaxBackoffRounds()).isEqualTo(16);
+  }
+
+  @Test
+  public void unparseablePropertyUsesDefaults() {
+    PartyInfoBroadcastConfig config =
+        PartyInfoBroadcastConfig.from(
+            Map.of(
+                PartyInfoBroadcastConfig.PARALLELISM_PROPERTY, "4",
+                PartyInfoBroadcastConfig.JITTER_PROPERTY, "a bit"));
+
+    assertThat(config.getParallelism()).isEqualTo(10);
+    assertThat(config.getJitter()).isEqualTo(Duration.ZERO);
+  }
+}
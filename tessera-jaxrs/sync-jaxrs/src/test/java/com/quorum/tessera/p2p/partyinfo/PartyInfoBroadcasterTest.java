@@ -8,13 +8,24 @@ import com.quorum.tessera.discovery.Discovery;
 import com.quorum.tessera.partyinfo.P2pClient;
 import com.quorum.tessera.partyinfo.model.PartyInfo;
 import com.quorum.tessera.partyinfo.node.NodeInfo;
+import com.quorum.tessera.version.PartyInfoDeltaVersion;
 import jakarta.ws.rs.ProcessingException;
 import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 public class PartyInfoBroadcasterTest {
 
@@ -26,6 +37,8 @@ public class PartyInfoBroadcasterTest {
 
   private static final byte[] DATA = "BOGUS".getBytes();
 
+  private static final byte[] DELTA = "DELTA".getBytes();
+
   private Discovery discovery;
 
   private PartyInfoParser partyInfoParser;
@@ -66,6 +79,7 @@ public class PartyInfoBroadcasterTest {
     verify(partyStore).loadFromConfigIfEmpty();
     verify(partyStore).getParties();
     verify(discovery).getCurrent();
+    verify(discovery).getRemoteNodeInfos();
     verify(partyInfoParser).to(any(PartyInfo.class));
     verify(p2pClient).sendPartyInfo(TARGET_URL, DATA);
   }
@@ -84,8 +98,8 @@ public class PartyInfoBroadcasterTest {
 
     verify(partyStore).loadFromConfigIfEmpty();
     verify(partyStore).getParties();
-    verify(partyInfoParser).to(any(PartyInfo.class));
     verify(discovery).getCurrent();
+    verify(discovery).getRemoteNodeInfos();
   }
 
   @Test
@@ -108,6 +122,7 @@ public class PartyInfoBroadcasterTest {
     verify(p2pClient).sendPartyInfo(TARGET_URL, DATA);
     verify(p2pClient).sendPartyInfo(TARGET_URL_2, DATA);
     verify(discovery).getCurrent();
+    verify(discovery).getRemoteNodeInfos();
     verify(partyInfoParser).to(any(PartyInfo.class));
   }
 
@@ -121,7 +136,8 @@ public class PartyInfoBroadcasterTest {
       partyInfoParserMockedStatic.when(PartyInfoParser::create).thenReturn(partyInfoParser);
       partyStoreMockedStatic.when(PartyStore::getInstance).thenReturn(partyStore);
 
-      PartyInfoBroadcaster partyInfoBroadcaster = new PartyInfoBroadcaster(mock(P2pClient.class));
+      PartyInfoBroadcaster partyInfoBroadcaster =
+          new PartyInfoBroadcaster(mock(P2pClient.class), PartyInfoBroadcastConfig.defaults());
       assertThat(partyInfoBroadcaster).isNotNull();
 
       discoveryMockedStatic.verify(Discovery::create);
@@ -147,4 +163,378 @@ public class PartyInfoBroadcasterTest {
     verify(partyStore).remove(URI.create(uriData));
     verify(p2pClient).sendPartyInfo(anyString(), any(byte[].class));
   }
+
+  @Test
+  public void failingPeerIsSkippedForGrowingNumberOfRounds() {
+    final PartyInfoBroadcaster broadcaster = broadcaster(Duration.ZERO, Duration.ZERO, 16);
+
+    when(partyStore.getParties()).thenReturn(Set.of(URI.create(TARGET_URL)));
+    when(discovery.getCurrent()).thenReturn(NodeInfo.Builder.create().withUrl(OWN_URL).build());
+    when(p2pClient.sendPartyInfo(TARGET_URL, DATA)).thenReturn(false);
+
+    // fails in round 1, is skipped in round 2, fails in round 3, is skipped in rounds 4 to 6 and
+    // fails again in round 7
+    for (int i = 0; i < 7; i++) {
+      broadcaster.run();
+    }
+
+    assertThat(broadcaster.getConsecutiveFailures()).containsEntry(TARGET_URL, 3);
+    assertThat(broadcaster.getRoundTripMillis()).isEmpty();
+
+    verify(p2pClient, times(3)).sendPartyInfo(TARGET_URL, DATA);
+    verify(partyStore, times(7)).loadFromConfigIfEmpty();
+    verify(partyStore, times(7)).getParties();
+    verify(discovery, times(7)).getCurrent();
+    verify(discovery, times(7)).getRemoteNodeInfos();
+    verify(partyInfoParser, times(3)).to(any(PartyInfo.class));
+  }
+
+  @Test
+  public void successResetsBackoffAndRecordsRoundTrip() {
+    final PartyInfoBroadcaster broadcaster = broadcaster(Duration.ZERO, Duration.ZERO, 16);
+
+    when(partyStore.getParties()).thenReturn(Set.of(URI.create(TARGET_URL)));
+    when(discovery.getCurrent()).thenReturn(NodeInfo.Builder.create().withUrl(OWN_URL).build());
+    when(p2pClient.sendPartyInfo(TARGET_URL, DATA)).thenReturn(false, true, true);
+
+    // fails, is skipped, succeeds, succeeds
+    for (int i = 0; i < 4; i++) {
+      broadcaster.run();
+    }
+
+    assertThat(broadcaster.getConsecutiveFailures()).containsEntry(TARGET_URL, 0);
+    assertThat(broadcaster.getRoundTripMillis()).containsOnlyKeys(TARGET_URL);
+
+    verify(p2pClient, times(3)).sendPartyInfo(TARGET_URL, DATA);
+    verify(partyStore, times(4)).loadFromConfigIfEmpty();
+    verify(partyStore, times(4)).getParties();
+    verify(discovery, times(4)).getCurrent();
+    verify(discovery, times(4)).getRemoteNodeInfos();
+    verify(partyInfoParser, times(3)).to(any(PartyInfo.class));
+  }
+
+  @Test
+  public void noBackoffWhenMaxBackoffRoundsIsZero() {
+    final PartyInfoBroadcaster broadcaster = broadcaster(Duration.ZERO, Duration.ZERO, 0);
+
+    when(partyStore.getParties()).thenReturn(Set.of(URI.create(TARGET_URL)));
+    when(discovery.getCurrent()).thenReturn(NodeInfo.Builder.create().withUrl(OWN_URL).build());
+    when(p2pClient.sendPartyInfo(TARGET_URL, DATA)).thenReturn(false);
+
+    for (int i = 0; i < 3; i++) {
+      broadcaster.run();
+    }
+
+    verify(p2pClient, times(3)).sendPartyInfo(TARGET_URL, DATA);
+    verify(partyStore, times(3)).loadFromConfigIfEmpty();
+    verify(partyStore, times(3)).getParties();
+    verify(discovery, times(3)).getCurrent();
+    verify(discovery, times(3)).getRemoteNodeInfos();
+    verify(partyInfoParser, times(3)).to(any(PartyInfo.class));
+  }
+
+  @Test
+  public void peersRemovedFromStoreAreForgotten() {
+    final PartyInfoBroadcaster broadcaster = broadcaster(Duration.ZERO, Duration.ZERO, 16);
+
+    when(partyStore.getParties())
+        .thenReturn(Set.of(URI.create(TARGET_URL)), Set.of(URI.create(TARGET_URL_2)));
+    when(discovery.getCurrent()).thenReturn(NodeInfo.Builder.create().withUrl(OWN_URL).build());
+    when(p2pClient.sendPartyInfo(anyString(), any(byte[].class))).thenReturn(false);
+
+    broadcaster.run();
+    assertThat(broadcaster.getConsecutiveFailures()).containsOnlyKeys(TARGET_URL);
+
+    broadcaster.run();
+    assertThat(broadcaster.getConsecutiveFailures()).containsOnlyKeys(TARGET_URL_2);
+
+    verify(p2pClient).sendPartyInfo(TARGET_URL, DATA);
+    verify(p2pClient).sendPartyInfo(TARGET_URL_2, DATA);
+    verify(partyStore, times(2)).loadFromConfigIfEmpty();
+    verify(partyStore, times(2)).getParties();
+    verify(discovery, times(2)).getCurrent();
+    verify(discovery, times(2)).getRemoteNodeInfos();
+    verify(partyInfoParser, times(2)).to(any(PartyInfo.class));
+  }
+
+  @Test
+  public void slowPeerDoesNotHoldUpRoundPastDeadline() {
+    final CountDownLatch release = new CountDownLatch(1);
+    final ExecutorService executorService = Executors.newCachedThreadPool();
+    final PartyInfoBroadcaster broadcaster =
+        new PartyInfoBroadcaster(
+            discovery,
+            partyInfoParser,
+            p2pClient,
+            partyStore,
+            executorService,
+            new PartyInfoBroadcastConfig(2, Duration.ofMillis(50), Duration.ZERO, 16));
+
+    when(partyStore.getParties())
+        .thenReturn(Set.of(URI.create(TARGET_URL), URI.create(TARGET_URL_2)));
+    when(discovery.getCurrent()).thenReturn(NodeInfo.Builder.create().withUrl(OWN_URL).build());
+    when(p2pClient.sendPartyInfo(TARGET_URL, DATA))
+        .thenAnswer(
+            invocation -> {
+              release.await();
+              return true;
+            });
+    when(p2pClient.sendPartyInfo(TARGET_URL_2, DATA)).thenReturn(true);
+
+    try {
+      broadcaster.run();
+
+      assertThat(broadcaster.getConsecutiveFailures())
+          .containsEntry(TARGET_URL, 1)
+          .containsEntry(TARGET_URL_2, 0);
+    } finally {
+      release.countDown();
+      executorService.shutdown();
+    }
+
+    verify(p2pClient, timeout(1000)).sendPartyInfo(TARGET_URL, DATA);
+    verify(p2pClient, timeout(1000)).sendPartyInfo(TARGET_URL_2, DATA);
+    verify(partyStore).loadFromConfigIfEmpty();
+    verify(partyStore).getParties();
+    verify(discovery).getCurrent();
+    verify(discovery).getRemoteNodeInfos();
+    verify(partyInfoParser).to(any(PartyInfo.class));
+  }
+
+  @Test(timeout = 5000)
+  public void callStillQueuedAtTheDeadlineIsNotSentAndFreesItsPermit() {
+    final AtomicBoolean hold = new AtomicBoolean(true);
+    final List<Runnable> queued = new ArrayList<>();
+    final PartyInfoBroadcaster broadcaster =
+        new PartyInfoBroadcaster(
+            discovery,
+            partyInfoParser,
+            p2pClient,
+            partyStore,
+            runnable -> {
+              if (hold.get()) {
+                queued.add(runnable);
+              } else {
+                runnable.run();
+              }
+            },
+            new PartyInfoBroadcastConfig(1, Duration.ofMillis(20), Duration.ZERO, 0));
+
+    when(partyStore.getParties()).thenReturn(Set.of(URI.create(TARGET_URL)));
+    when(discovery.getCurrent()).thenReturn(NodeInfo.Builder.create().withUrl(OWN_URL).build());
+    when(p2pClient.sendPartyInfo(TARGET_URL, DATA)).thenReturn(true);
+
+    broadcaster.run();
+    assertThat(broadcaster.getConsecutiveFailures()).containsEntry(TARGET_URL, 1);
+
+    // the call starts after the deadline, so it is skipped and gives back its permit
+    hold.set(false);
+    queued.remove(0).run();
+    verifyNoInteractions(p2pClient);
+
+    // without the permit back this round would never start its call
+    broadcaster.run();
+    assertThat(broadcaster.getConsecutiveFailures()).containsEntry(TARGET_URL, 0);
+
+    verify(p2pClient).sendPartyInfo(TARGET_URL, DATA);
+    verify(partyStore, times(2)).loadFromConfigIfEmpty();
+    verify(partyStore, times(2)).getParties();
+    verify(discovery, times(2)).getCurrent();
+    verify(discovery, times(2)).getRemoteNodeInfos();
+    verify(partyInfoParser).to(any(PartyInfo.class));
+  }
+
+  @Test(timeout = 5000)
+  public void peerWaitingPastTheDeadlineForAPermitCountsAsFailed() {
+    final List<Runnable> queued = new ArrayList<>();
+    final PartyInfoBroadcaster broadcaster =
+        new PartyInfoBroadcaster(
+            discovery,
+            partyInfoParser,
+            p2pClient,
+            partyStore,
+            queued::add,
+            new PartyInfoBroadcastConfig(1, Duration.ofMillis(20), Duration.ZERO, 16));
+
+    when(partyStore.getParties())
+        .thenReturn(Set.of(URI.create(TARGET_URL), URI.create(TARGET_URL_2)));
+    when(discovery.getCurrent()).thenReturn(NodeInfo.Builder.create().withUrl(OWN_URL).build());
+
+    // the first peer's call holds the only permit, so the second peer never gets one
+    broadcaster.run();
+
+    assertThat(queued).hasSize(1);
+    assertThat(broadcaster.getConsecutiveFailures())
+        .containsEntry(TARGET_URL, 1)
+        .containsEntry(TARGET_URL_2, 1);
+
+    verify(partyStore).loadFromConfigIfEmpty();
+    verify(partyStore).getParties();
+    verify(discovery).getCurrent();
+    verify(discovery).getRemoteNodeInfos();
+  }
+
+  @Test
+  public void jitterDelaysCalls() {
+    final PartyInfoBroadcaster broadcaster = broadcaster(Duration.ZERO, Duration.ofMillis(20), 16);
+
+    when(partyStore.getParties())
+        .thenReturn(
+            IntStream.range(0, 10)
+                .mapToObj(i -> URI.create("http://peer" + i + ".com/"))
+                .collect(Collectors.toSet()));
+    when(discovery.getCurrent()).thenReturn(NodeInfo.Builder.create().withUrl(OWN_URL).build());
+    when(p2pClient.sendPartyInfo(anyString(), any(byte[].class))).thenReturn(true);
+
+    broadcaster.run();
+
+    verify(p2pClient, times(10)).sendPartyInfo(anyString(), any(byte[].class));
+    verify(partyStore).loadFromConfigIfEmpty();
+    verify(partyStore).getParties();
+    verify(discovery).getCurrent();
+    verify(discovery).getRemoteNodeInfos();
+    verify(partyInfoParser).to(any(PartyInfo.class));
+  }
+
+  @Test
+  public void interruptedRoundSendsNothing() {
+    final PartyInfoBroadcaster broadcaster = broadcaster(Duration.ZERO, Duration.ZERO, 16);
+
+    when(partyStore.getParties()).thenReturn(Set.of(URI.create(TARGET_URL)));
+    when(discovery.getCurrent()).thenReturn(NodeInfo.Builder.create().withUrl(OWN_URL).build());
+
+    Thread.currentThread().interrupt();
+    broadcaster.run();
+
+    assertThat(Thread.interrupted()).isTrue();
+
+    verify(partyStore).loadFromConfigIfEmpty();
+    verify(partyStore).getParties();
+    verify(discovery).getCurrent();
+    verify(discovery).getRemoteNodeInfos();
+  }
+
+  @Test
+  public void peerSupportingDeltasIsSentChangesAfterFullPartyInfo() {
+    final PartyInfoBroadcaster broadcaster = broadcaster(Duration.ZERO, Duration.ZERO, 16);
+
+    when(partyStore.getParties()).thenReturn(Set.of(URI.create(TARGET_URL)));
+    when(discovery.getCurrent()).thenReturn(NodeInfo.Builder.create().withUrl(OWN_URL).build());
+    when(discovery.getRemoteNodeInfos()).thenReturn(Set.of(deltaPeer(TARGET_URL)));
+    when(partyInfoParser.toDelta(any(PartyInfoDelta.class))).thenReturn(DELTA);
+    when(p2pClient.sendPartyInfo(TARGET_URL, DATA)).thenReturn(true);
+    when(p2pClient.sendPartyInfoDelta(TARGET_URL, DELTA)).thenReturn(true);
+
+    for (int i = 0; i < 3; i++) {
+      broadcaster.run();
+    }
+
+    final ArgumentCaptor<PartyInfoDelta> captor = ArgumentCaptor.forClass(PartyInfoDelta.class);
+    verify(partyInfoParser, times(2)).toDelta(captor.capture());
+    assertThat(captor.getAllValues()).allMatch(PartyInfoDelta::isUnchanged);
+    assertThat(broadcaster.getConsecutiveFailures()).containsEntry(TARGET_URL, 0);
+
+    verify(p2pClient).sendPartyInfo(TARGET_URL, DATA);
+    verify(p2pClient, times(2)).sendPartyInfoDelta(TARGET_URL, DELTA);
+    verify(partyStore, times(3)).loadFromConfigIfEmpty();
+    verify(partyStore, times(3)).getParties();
+    verify(discovery, times(3)).getCurrent();
+    verify(discovery, times(3)).getRemoteNodeInfos();
+    verify(partyInfoParser).to(any(PartyInfo.class));
+  }
+
+  @Test
+  public void rejectedChangesFallBackToFullPartyInfo() {
+    final PartyInfoBroadcaster broadcaster = broadcaster(Duration.ZERO, Duration.ZERO, 16);
+
+    when(partyStore.getParties()).thenReturn(Set.of(URI.create(TARGET_URL)));
+    when(discovery.getCurrent()).thenReturn(NodeInfo.Builder.create().withUrl(OWN_URL).build());
+    when(discovery.getRemoteNodeInfos()).thenReturn(Set.of(deltaPeer(TARGET_URL)));
+    when(partyInfoParser.toDelta(any(PartyInfoDelta.class))).thenReturn(DELTA);
+    when(p2pClient.sendPartyInfo(TARGET_URL, DATA)).thenReturn(true);
+    when(p2pClient.sendPartyInfoDelta(TARGET_URL, DELTA)).thenReturn(false);
+
+    broadcaster.run();
+    broadcaster.run();
+
+    assertThat(broadcaster.getConsecutiveFailures()).containsEntry(TARGET_URL, 0);
+
+    verify(p2pClient, times(2)).sendPartyInfo(TARGET_URL, DATA);
+    verify(p2pClient).sendPartyInfoDelta(TARGET_URL, DELTA);
+    verify(partyStore, times(2)).loadFromConfigIfEmpty();
+    verify(partyStore, times(2)).getParties();
+    verify(discovery, times(2)).getCurrent();
+    verify(discovery, times(2)).getRemoteNodeInfos();
+    verify(partyInfoParser, times(2)).to(any(PartyInfo.class));
+    verify(partyInfoParser).toDelta(any(PartyInfoDelta.class));
+  }
+
+  @Test
+  public void failedChangesAreFollowedByFullPartyInfo() {
+    final PartyInfoBroadcaster broadcaster = broadcaster(Duration.ZERO, Duration.ZERO, 0);
+
+    when(partyStore.getParties()).thenReturn(Set.of(URI.create(TARGET_URL)));
+    when(discovery.getCurrent()).thenReturn(NodeInfo.Builder.create().withUrl(OWN_URL).build());
+    when(discovery.getRemoteNodeInfos()).thenReturn(Set.of(deltaPeer(TARGET_URL)));
+    when(partyInfoParser.toDelta(any(PartyInfoDelta.class))).thenReturn(DELTA);
+    when(p2pClient.sendPartyInfo(TARGET_URL, DATA)).thenReturn(true);
+    when(p2pClient.sendPartyInfoDelta(TARGET_URL, DELTA))
+        .thenThrow(new CompletionException(new ProcessingException("OUCH")));
+
+    // no backoff, so the round after the failed changes is not skipped
+    for (int i = 0; i < 3; i++) {
+      broadcaster.run();
+    }
+
+    assertThat(broadcaster.getConsecutiveFailures()).containsEntry(TARGET_URL, 0);
+
+    verify(p2pClient, times(2)).sendPartyInfo(TARGET_URL, DATA);
+    verify(p2pClient).sendPartyInfoDelta(TARGET_URL, DELTA);
+    verify(discovery).onDisconnect(URI.create(TARGET_URL));
+    verify(partyStore).remove(URI.create(TARGET_URL));
+    verify(partyStore, times(3)).loadFromConfigIfEmpty();
+    verify(partyStore, times(3)).getParties();
+    verify(discovery, times(3)).getCurrent();
+    verify(discovery, times(3)).getRemoteNodeInfos();
+    verify(partyInfoParser, times(2)).to(any(PartyInfo.class));
+    verify(partyInfoParser).toDelta(any(PartyInfoDelta.class));
+  }
+
+  @Test
+  public void peerNoLongerSupportingDeltasIsSentFullPartyInfo() {
+    final PartyInfoBroadcaster broadcaster = broadcaster(Duration.ZERO, Duration.ZERO, 16);
+
+    when(partyStore.getParties()).thenReturn(Set.of(URI.create(TARGET_URL)));
+    when(discovery.getCurrent()).thenReturn(NodeInfo.Builder.create().withUrl(OWN_URL).build());
+    when(discovery.getRemoteNodeInfos()).thenReturn(Set.of(deltaPeer(TARGET_URL)), Set.of());
+    when(p2pClient.sendPartyInfo(TARGET_URL, DATA)).thenReturn(true);
+
+    broadcaster.run();
+    broadcaster.run();
+
+    verify(p2pClient, times(2)).sendPartyInfo(TARGET_URL, DATA);
+    verify(partyStore, times(2)).loadFromConfigIfEmpty();
+    verify(partyStore, times(2)).getParties();
+    verify(discovery, times(2)).getCurrent();
+    verify(discovery, times(2)).getRemoteNodeInfos();
+    verify(partyInfoParser, times(2)).to(any(PartyInfo.class));
+  }
+
+  private static NodeInfo deltaPeer(final String url) {
+    return NodeInfo.Builder.create()
+        .withUrl(url)
+        .withSupportedApiVersions(Set.of(PartyInfoDeltaVersion.API_VERSION_6))
+        .build();
+  }
+
+  private PartyInfoBroadcaster broadcaster(
+      final Duration deadline, final Duration jitter, final int maxBackoffRounds) {
+    return new PartyInfoBroadcaster(
+        discovery,
+        partyInfoParser,
+        p2pClient,
+        partyStore,
+        Runnable::run,
+        new PartyInfoBroadcastConfig(1, deadline, jitter, maxBackoffRounds));
+  }
 }
@@ -0,0 +1,100 @@
+package com.quorum.tessera.p2p.partyinfo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.quorum.tessera.encryption.PublicKey;
+import com.quorum.tessera.partyinfo.model.Party;
+import com.quorum.tessera.partyinfo.model.PartyInfo;
+import com.quorum.tessera.partyinfo.model.Recipient;
+import java.util.Set;
+import org.junit.Test;
+
+public class PartyInfoDeltaTest {
+
+  private static final String URL = "http://own.com/";
+
+  private final Recipient kept = Recipient.of(PublicKey.from("kept".getBytes()), URL);
+
+  private final Recipient dropped = Recipient.of(PublicKey.from("dropped".getBytes()), URL);
+
+  private final Recipient added = Recipient.of(PublicKey.from("added".getBytes()), URL);
+
+  private final PartyInfoSnapshot base =
+      PartyInfoSnapshot.of(
+          new PartyInfo(
+              URL, Set.of(kept, dropped), Set.of(new Party(URL), new Party("http://old.com/"))));
+
+  private final PartyInfoSnapshot target =
+      PartyInfoSnapshot.of(
+          new PartyInfo(
+              URL, Set.of(kept, added), Set.of(new Party(URL), new Party("http://new.com/"))));
+
+  @Test
+  public void betweenHoldsOnlyChanges() {
+    final PartyInfoDelta delta = PartyInfoDelta.between(base, target);
+
+    assertThat(delta.getUrl()).isEqualTo(URL);
+    assertThat(delta.isUnchanged()).isFalse();
+    assertThat(delta.getBaseDigest()).isEqualTo(base.getDigest());
+    assertThat(delta.getDigest()).isEqualTo(target.getDigest());
+    assertThat(delta.getAdded().getRecipients()).containsExactly(added);
+    assertThat(delta.getAdded().getParties()).containsExactly(new Party("http://new.com/"));
+    assertThat(delta.getRemoved().getRecipients()).containsExactly(dropped);
+    assertThat(delta.getRemoved().getParties()).containsExactly(new Party("http://old.com/"));
+  }
+
+  @Test
+  public void applyToBaseProducesTarget() {
+    final PartyInfoSnapshot result = PartyInfoDelta.between(base, target).applyTo(base).get();
+
+    assertThat(result.hasDigest(target.getDigest())).isTrue();
+    assertThat(result.getPartyInfo().getRecipients()).containsExactlyInAnyOrder(kept, added);
+    assertThat(result.getPartyInfo().getParties())
+        .containsExactlyInAnyOrder(new Party(URL), new Party("http://new.com/"));
+  }
+
+  @Test
+  public void unchangedDeltaIsEmpty() {
+    final PartyInfoDelta delta = PartyInfoDelta.between(base, base);
+
+    assertThat(delta.isUnchanged()).isTrue();
+    assertThat(delta.getAdded().getRecipients()).isEmpty();
+    assertThat(delta.getAdded().getParties()).isEmpty();
+    assertThat(delta.getRemoved().getRecipients()).isEmpty();
+    assertThat(delta.getRemoved().getParties()).isEmpty();
+    assertThat(delta.applyTo(base).get().hasDigest(base.getDigest())).isTrue();
+  }
+
+  @Test
+  public void doesNotApplyToOtherBase() {
+    final PartyInfoDelta delta = PartyInfoDelta.between(base, target);
+
+    assertThat(delta.applyTo(target)).isEmpty();
+  }
+
+  @Test
+  public void doesNotApplyToOtherNode() {
+    final PartyInfoSnapshot otherNode =
+        PartyInfoSnapshot.of(new PartyInfo("http://other.com/", Set.of(), Set.of()));
+    final PartyInfoDelta delta =
+        new PartyInfoDelta(
+            otherNode.getDigest(),
+            target.getDigest(),
+            target.getPartyInfo(),
+            new PartyInfo(URL, Set.of(), Set.of()));
+
+    assertThat(delta.applyTo(otherNode)).isEmpty();
+  }
+
+  @Test
+  public void doesNotApplyIfResultDoesNotMatchDigest() {
+    final PartyInfoDelta delta =
+        new PartyInfoDelta(
+            base.getDigest(),
+            target.getDigest(),
+            new PartyInfo(URL, Set.of(added), Set.of()),
+            new PartyInfo(URL, Set.of(), Set.of()));
+
+    assertThat(delta.applyTo(base)).isEmpty();
+  }
+}
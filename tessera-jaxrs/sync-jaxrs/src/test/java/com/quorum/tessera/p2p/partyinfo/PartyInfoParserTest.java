@@ -1,13 +1,21 @@
 package com.quorum.tessera.p2p.partyinfo;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.partyinfo.model.Party;
 import com.quorum.tessera.partyinfo.model.PartyInfo;
 import com.quorum.tessera.partyinfo.model.Recipient;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.List;
+import java.util.Set;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -83,6 +91,8 @@ public class PartyInfoParserTest {
 
   private byte[] dataOne;
 
+  private static final String KEY = "ROAZBWtSacxXQrOe3FGAqJDyJjFePR5ce4TSIzmJ0Bc=";
+
   private PartyInfoParser partyInfoParser = PartyInfoParser.create();
 
   @Before
@@ -205,6 +215,201 @@ public class PartyInfoParserTest {
     assertThat(partyUrl).isEqualTo(partyInfo.getParties().iterator().next().getUrl());
   }
 
+  @Test
+  public void roundTripMultipleParties() {
+    final PartyInfo partyInfo = partyInfoParser.from(dataTwo);
+
+    final byte[] encoded = partyInfoParser.to(partyInfo);
+    final PartyInfo result = partyInfoParser.from(encoded);
+
+    assertThat(result.getUrl()).isEqualTo(partyInfo.getUrl());
+    assertThat(result.getRecipients())
+        .containsExactlyInAnyOrderElementsOf(partyInfo.getRecipients());
+    assertThat(result.getParties()).containsExactlyInAnyOrderElementsOf(partyInfo.getParties());
+  }
+
+  @Test
+  public void fromStreamMatchesFromBytes() {
+    final PartyInfo fromBytes = partyInfoParser.from(dataTwo);
+    final PartyInfo fromStream = partyInfoParser.from(new ByteArrayInputStream(dataTwo));
+
+    assertThat(fromStream.getUrl()).isEqualTo(fromBytes.getUrl());
+    assertThat(fromStream.getRecipients())
+        .containsExactlyInAnyOrderElementsOf(fromBytes.getRecipients());
+    assertThat(fromStream.getParties()).containsExactlyInAnyOrderElementsOf(fromBytes.getParties());
+  }
+
+  @Test
+  public void longUrlsRoundTrip() {
+    final String url = "http://" + "a".repeat(300) + ".com/";
+    final PartyInfo partyInfo =
+        new PartyInfo(
+            url, Set.of(Recipient.of(toKey(KEY), url)), Set.of(new Party(url + "other")));
+
+    final PartyInfo result = partyInfoParser.from(partyInfoParser.to(partyInfo));
+
+    assertThat(result.getUrl()).isEqualTo(url);
+    assertThat(result.getRecipients()).containsExactly(Recipient.of(toKey(KEY), url));
+    assertThat(result.getParties()).containsExactly(new Party(url + "other"));
+  }
+
+  @Test
+  public void maxLength() {
+    assertThat(partyInfoParser.getMaxLength()).isEqualTo(PartyInfoParser.DEFAULT_MAX_LENGTH);
+    assertThat(PartyInfoParser.create(1024).getMaxLength()).isEqualTo(1024);
+  }
+
+  @Test
+  public void bytesLongerThanMaxLengthAreRejected() {
+    final Throwable throwable = catchThrowable(() -> PartyInfoParser.create(10).from(dataOne));
+
+    assertThat(throwable)
+        .isInstanceOf(PartyInfoParserException.class)
+        .hasMessage("PartyInfo is longer than 10 bytes");
+  }
+
+  @Test
+  public void countLargerThanRemainingBytesIsRejected() {
+    final byte[] encoded =
+        ByteBuffer.allocate(Long.BYTES + 3 + Long.BYTES)
+            .putLong(3)
+            .put("url".getBytes())
+            .putLong(1_000_000)
+            .array();
+
+    final Throwable throwable =
+        catchThrowable(() -> PartyInfoParser.create(1024).from(new ByteArrayInputStream(encoded)));
+
+    assertThat(throwable)
+        .isInstanceOf(PartyInfoParserException.class)
+        .hasMessage("PartyInfo is longer than 1024 bytes");
+  }
+
+  @Test
+  public void fieldLongerThanRemainingBytesIsRejected() {
+    final byte[] encoded = ByteBuffer.allocate(Long.BYTES).putLong(2000).array();
+
+    final Throwable throwable =
+        catchThrowable(() -> PartyInfoParser.create(1024).from(new ByteArrayInputStream(encoded)));
+
+    assertThat(throwable)
+        .isInstanceOf(PartyInfoParserException.class)
+        .hasMessage("PartyInfo is longer than 1024 bytes");
+  }
+
+  @Test
+  public void lengthPrefixPastMaxLengthIsRejected() {
+    final Throwable throwable =
+        catchThrowable(() -> PartyInfoParser.create(4).from(new ByteArrayInputStream(dataOne)));
+
+    assertThat(throwable)
+        .isInstanceOf(PartyInfoParserException.class)
+        .hasMessage("PartyInfo is longer than 4 bytes");
+  }
+
+  @Test
+  public void negativeLengthIsRejected() {
+    final byte[] encoded = ByteBuffer.allocate(Long.BYTES).putLong(-1).array();
+
+    final Throwable throwable = catchThrowable(() -> partyInfoParser.from(encoded));
+
+    assertThat(throwable)
+        .isInstanceOf(PartyInfoParserException.class)
+        .hasMessage("Invalid length -1");
+  }
+
+  @Test
+  public void truncatedStreamIsRejected() {
+    final byte[] truncated = Arrays.copyOf(dataOne, 20);
+
+    final Throwable throwable =
+        catchThrowable(() -> partyInfoParser.from(new ByteArrayInputStream(truncated)));
+
+    assertThat(throwable)
+        .isInstanceOf(PartyInfoParserException.class)
+        .hasMessage("Unexpected end of PartyInfo");
+  }
+
+  @Test
+  public void streamReadFailure() {
+    final IOException failure = new IOException("OUCH");
+    final InputStream input =
+        new InputStream() {
+          @Override
+          public int read() throws IOException {
+            throw failure;
+          }
+        };
+
+    final Throwable throwable = catchThrowable(() -> partyInfoParser.from(input));
+
+    assertThat(throwable).isInstanceOf(UncheckedIOException.class).hasCause(failure);
+  }
+
+  @Test
+  public void deltaRoundTrip() {
+    final PartyInfo base = partyInfoParser.from(dataOne);
+    final PartyInfo target = partyInfoParser.from(dataTwo);
+    final PartyInfoDelta delta =
+        PartyInfoDelta.between(
+            PartyInfoSnapshot.of(base),
+            PartyInfoSnapshot.of(new PartyInfo(base.getUrl(), target.getRecipients(), Set.of())));
+
+    final PartyInfoDelta result = partyInfoParser.deltaFrom(partyInfoParser.toDelta(delta));
+
+    assertThat(result.getUrl()).isEqualTo(base.getUrl());
+    assertThat(result.getBaseDigest()).isEqualTo(delta.getBaseDigest());
+    assertThat(result.getDigest()).isEqualTo(delta.getDigest());
+    assertThat(result.getAdded().getRecipients())
+        .containsExactlyInAnyOrderElementsOf(target.getRecipients());
+    assertThat(result.getAdded().getParties()).isEmpty();
+    assertThat(result.getRemoved().getRecipients())
+        .containsExactlyInAnyOrderElementsOf(base.getRecipients());
+    assertThat(result.getRemoved().getParties())
+        .containsExactlyInAnyOrderElementsOf(base.getParties());
+  }
+
+  @Test
+  public void deltaWithWrongNumberOfFields() {
+    final byte[] encoded = partyInfoParser.encodeArray(List.of(new byte[32], new byte[32]));
+
+    final Throwable throwable = catchThrowable(() -> partyInfoParser.deltaFrom(encoded));
+
+    assertThat(throwable)
+        .isInstanceOf(PartyInfoParserException.class)
+        .hasMessage("Invalid delta field count 2");
+  }
+
+  @Test
+  public void deltaFieldLongerThanRemainingBytesIsRejected() {
+    final byte[] encoded =
+        ByteBuffer.allocate(Long.BYTES + Long.BYTES).putLong(4).putLong(Integer.MAX_VALUE).array();
+
+    final Throwable throwable =
+        catchThrowable(
+            () -> PartyInfoParser.create(1024).deltaFrom(new ByteArrayInputStream(encoded)));
+
+    assertThat(throwable)
+        .isInstanceOf(PartyInfoParserException.class)
+        .hasMessage("PartyInfo is longer than 1024 bytes");
+  }
+
+  @Test
+  public void truncatedDeltaIsRejected() {
+    final byte[] encoded =
+        ByteBuffer.allocate(Long.BYTES + Long.BYTES + 3)
+            .putLong(4)
+            .putLong(32)
+            .put(new byte[3])
+            .array();
+
+    final Throwable throwable = catchThrowable(() -> partyInfoParser.deltaFrom(encoded));
+
+    assertThat(throwable)
+        .isInstanceOf(PartyInfoParserException.class)
+        .hasMessage("Unexpected end of PartyInfo");
+  }
+
   @Test
   public void checkLengthZero() {
     PartyInfoParser.checkLength(0);
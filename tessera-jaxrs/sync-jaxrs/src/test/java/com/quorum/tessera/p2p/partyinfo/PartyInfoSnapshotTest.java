@@ -0,0 +1,79 @@
+package com.quorum.tessera.p2p.partyinfo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import com.quorum.tessera.encryption.PublicKey;
+import com.quorum.tessera.partyinfo.model.Party;
+import com.quorum.tessera.partyinfo.model.PartyInfo;
+import com.quorum.tessera.partyinfo.model.Recipient;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+
+public class PartyInfoSnapshotTest {
+
+  private static final String URL = "http://own.com/";
+
+  private final Recipient recipient = Recipient.of(PublicKey.from("key".getBytes()), URL);
+
+  private final Recipient otherRecipient = Recipient.of(PublicKey.from("other".getBytes()), URL);
+
+  @Test
+  public void digestDoesNotDependOnOrder() {
+    final PartyInfo partyInfo =
+        new PartyInfo(
+            URL,
+            new LinkedHashSet<>(List.of(recipient, otherRecipient)),
+            new LinkedHashSet<>(List.of(new Party(URL), new Party("http://peer.com/"))));
+    final PartyInfo reordered =
+        new PartyInfo(
+            URL,
+            new LinkedHashSet<>(List.of(otherRecipient, recipient)),
+            new LinkedHashSet<>(List.of(new Party("http://peer.com/"), new Party(URL))));
+
+    final PartyInfoSnapshot snapshot = PartyInfoSnapshot.of(partyInfo);
+
+    assertThat(snapshot.getPartyInfo()).isSameAs(partyInfo);
+    assertThat(PartyInfoSnapshot.of(reordered).hasDigest(snapshot.getDigest())).isTrue();
+  }
+
+  @Test
+  public void digestDependsOnContents() {
+    final PartyInfoSnapshot snapshot =
+        PartyInfoSnapshot.of(new PartyInfo(URL, Set.of(recipient), Set.of(new Party(URL))));
+
+    final List<PartyInfo> others =
+        List.of(
+            new PartyInfo("http://other.com/", Set.of(recipient), Set.of(new Party(URL))),
+            new PartyInfo(URL, Set.of(otherRecipient), Set.of(new Party(URL))),
+            new PartyInfo(URL, Set.of(recipient), Set.of(new Party("http://peer.com/"))),
+            new PartyInfo(URL, Set.of(), Set.of(new Party(URL))));
+
+    assertThat(others.stream().map(PartyInfoSnapshot::of))
+        .noneMatch(other -> other.hasDigest(snapshot.getDigest()));
+  }
+
+  @Test
+  public void getDigestReturnsCopy() {
+    final PartyInfoSnapshot snapshot = PartyInfoSnapshot.of(new PartyInfo(URL, Set.of(), Set.of()));
+
+    snapshot.getDigest()[0]++;
+
+    assertThat(snapshot.hasDigest(snapshot.getDigest())).isTrue();
+    assertThat(snapshot.getDigest()).hasSize(32);
+  }
+
+  @Test
+  public void unknownDigestAlgorithm() {
+    final Throwable throwable =
+        catchThrowable(
+            () -> PartyInfoSnapshot.digest("UNKNOWN", new PartyInfo(URL, Set.of(), Set.of())));
+
+    assertThat(throwable)
+        .isInstanceOf(IllegalStateException.class)
+        .hasCauseInstanceOf(NoSuchAlgorithmException.class);
+  }
+}
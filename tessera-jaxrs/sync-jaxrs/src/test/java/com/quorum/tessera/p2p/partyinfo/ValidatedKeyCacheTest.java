@@ -0,0 +1,110 @@
+package com.quorum.tessera.p2p.partyinfo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import com.quorum.tessera.config.Config;
+import com.quorum.tessera.config.ConfigFactory;
+import com.quorum.tessera.config.ServerConfig;
+import com.quorum.tessera.encryption.PublicKey;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+public class ValidatedKeyCacheTest {
+
+  private static final String URL = "http://someurl.com";
+
+  private final PublicKey key = PublicKey.from("key".getBytes());
+
+  private final PublicKey otherKey = PublicKey.from("otherKey".getBytes());
+
+  private final AtomicLong clock = new AtomicLong();
+
+  private final ValidatedKeyCache validatedKeyCache =
+      new ValidatedKeyCache(Duration.ofNanos(100), clock::get);
+
+  @Test
+  public void keyIsNotValidatedUntilRecorded() {
+    assertThat(validatedKeyCache.isValidated(URL, key)).isFalse();
+
+    validatedKeyCache.validated(URL, key);
+
+    assertThat(validatedKeyCache.isValidated(URL, key)).isTrue();
+    assertThat(validatedKeyCache.isValidated("http://someurl.com/", key)).isTrue();
+    assertThat(validatedKeyCache.isValidated(URL, otherKey)).isFalse();
+    assertThat(validatedKeyCache.isValidated("http://otherurl.com", key)).isFalse();
+  }
+
+  @Test
+  public void validationExpiresAfterTimeToLive() {
+    validatedKeyCache.validated(URL, key);
+
+    clock.set(99);
+    assertThat(validatedKeyCache.isValidated(URL, key)).isTrue();
+
+    clock.set(100);
+    assertThat(validatedKeyCache.isValidated(URL, key)).isFalse();
+
+    clock.set(0);
+    assertThat(validatedKeyCache.isValidated(URL, key)).isFalse();
+  }
+
+  @Test
+  public void retainForgetsKeysNoLongerAdvertised() {
+    validatedKeyCache.validated(URL, key);
+    validatedKeyCache.validated(URL, otherKey);
+
+    validatedKeyCache.retain(URL, Set.of(key));
+    validatedKeyCache.retain("http://unknownurl.com", Set.of());
+
+    assertThat(validatedKeyCache.isValidated(URL, key)).isTrue();
+    assertThat(validatedKeyCache.isValidated(URL, otherKey)).isFalse();
+  }
+
+  @Test
+  public void zeroTimeToLiveDisablesCache() {
+    final ValidatedKeyCache disabled = new ValidatedKeyCache(Duration.ZERO);
+
+    disabled.validated(URL, key);
+
+    assertThat(disabled.isValidated(URL, key)).isFalse();
+  }
+
+  @Test
+  public void createReadsTimeToLiveFromP2PServerProperties() {
+    try (var configFactoryMockedStatic = mockStatic(ConfigFactory.class)) {
+      final ConfigFactory configFactory = mock(ConfigFactory.class);
+      final Config config = mock(Config.class);
+      final ServerConfig serverConfig = mock(ServerConfig.class);
+      when(serverConfig.getProperties()).thenReturn(Map.of("keyValidationCacheTtl", "0"));
+      when(config.getP2PServerConfig()).thenReturn(serverConfig);
+      when(configFactory.getConfig()).thenReturn(config);
+      configFactoryMockedStatic.when(ConfigFactory::create).thenReturn(configFactory);
+
+      final ValidatedKeyCache created = ValidatedKeyCache.create();
+      created.validated(URL, key);
+
+      assertThat(created.isValidated(URL, key)).isFalse();
+
+      configFactoryMockedStatic.verify(ConfigFactory::create);
+      configFactoryMockedStatic.verifyNoMoreInteractions();
+    }
+  }
+
+  @Test
+  public void createWithoutP2PServerUsesDefaultTimeToLive() {
+    try (var configFactoryMockedStatic = mockStatic(ConfigFactory.class)) {
+      final ConfigFactory configFactory = mock(ConfigFactory.class);
+      when(configFactory.getConfig()).thenReturn(mock(Config.class));
+      configFactoryMockedStatic.when(ConfigFactory::create).thenReturn(configFactory);
+
+      final ValidatedKeyCache created = ValidatedKeyCache.create();
+      created.validated(URL, key);
+
+      assertThat(created.isValidated(URL, key)).isTrue();
+    }
+  }
+}
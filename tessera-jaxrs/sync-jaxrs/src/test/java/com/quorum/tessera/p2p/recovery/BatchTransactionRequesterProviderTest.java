@@ -4,7 +4,6 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 
-import com.quorum.tessera.enclave.Enclave;
 import com.quorum.tessera.recovery.resend.BatchTransactionRequester;
 import org.junit.Test;
 
@@ -13,9 +12,7 @@ public class BatchTransactionRequesterProviderTest {
   @Test
   public void provider() {
 
-    try (var enclaveMockedStatic = mockStatic(Enclave.class);
-        var recoveryClientMockedStatic = mockStatic(RecoveryClient.class)) {
-      enclaveMockedStatic.when(Enclave::create).thenReturn(mock(Enclave.class));
+    try (var recoveryClientMockedStatic = mockStatic(RecoveryClient.class)) {
       recoveryClientMockedStatic
           .when(RecoveryClient::create)
           .thenReturn(mock(RecoveryClient.class));
@@ -26,7 +23,6 @@ public class BatchTransactionRequesterProviderTest {
           .isNotNull()
           .isExactlyInstanceOf(RestBatchTransactionRequester.class);
 
-      enclaveMockedStatic.verify(Enclave::create);
       recoveryClientMockedStatic.verify(RecoveryClient::create);
     }
   }
@@ -4,7 +4,12 @@ import static com.quorum.tessera.version.MultiTenancyVersion.MIME_TYPE_JSON_2_1;
 import static com.quorum.tessera.version.PrivacyGroupVersion.MIME_TYPE_JSON_3;
 import static jakarta.ws.rs.core.MediaType.*;
 
+import com.quorum.tessera.api.ReceiveBatchItem;
+import com.quorum.tessera.api.ReceiveBatchRequest;
+import com.quorum.tessera.api.ReceiveBatchResponse;
 import com.quorum.tessera.api.ReceiveResponse;
+import com.quorum.tessera.api.SendBatchRequest;
+import com.quorum.tessera.api.SendBatchResponse;
 import com.quorum.tessera.api.SendRequest;
 import com.quorum.tessera.api.SendResponse;
 import com.quorum.tessera.api.SendSignedRequest;
@@ -15,7 +20,9 @@ import com.quorum.tessera.enclave.PrivacyGroup;
 import com.quorum.tessera.enclave.PrivacyMode;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.privacygroup.PrivacyGroupManager;
+import com.quorum.tessera.transaction.ReceiveResult;
 import com.quorum.tessera.transaction.TransactionManager;
+import com.quorum.tessera.transaction.exception.TransactionNotFoundException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -37,6 +44,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -109,6 +117,58 @@ public class TransactionResource3 {
   @Produces({MIME_TYPE_JSON_2_1, MIME_TYPE_JSON_3})
   public Response send(@NotNull @Valid @PrivacyValid final SendRequest sendRequest) {
 
+    final com.quorum.tessera.transaction.SendRequest request = toSendRequest(sendRequest);
+
+    final com.quorum.tessera.transaction.SendResponse response = transactionManager.send(request);
+
+    final SendResponse sendResponse = toSendResponse(request, response);
+
+    final URI location =
+        UriBuilder.fromPath("transaction")
+            .path(URLEncoder.encode(sendResponse.getKey(), StandardCharsets.UTF_8))
+            .build();
+
+    return Response.created(location).entity(sendResponse).build();
+  }
+
+  @Operation(
+      summary = "/sendbatch",
+      operationId = "encryptStoreAndSendBatchJson",
+      description =
+          "encrypts several payloads, stores results in database in a single transaction, and publishes results to recipients, sending each recipient all of its payloads together")
+  @ApiResponse(
+      responseCode = "200",
+      description = "encrypted payload hashes, in the order requested",
+      content =
+          @Content(
+              mediaType = APPLICATION_JSON,
+              schema = @Schema(implementation = SendBatchResponse.class)))
+  @POST
+  @Path("sendbatch")
+  @Consumes({APPLICATION_JSON, MIME_TYPE_JSON_2_1, MIME_TYPE_JSON_3})
+  @Produces({APPLICATION_JSON, MIME_TYPE_JSON_2_1, MIME_TYPE_JSON_3})
+  public Response sendBatch(@NotNull @Valid final SendBatchRequest sendBatchRequest) {
+
+    final List<com.quorum.tessera.transaction.SendRequest> requests =
+        sendBatchRequest.getRequests().stream()
+            .map(this::toSendRequest)
+            .collect(Collectors.toList());
+
+    final List<com.quorum.tessera.transaction.SendResponse> responses =
+        transactionManager.sendAll(requests);
+
+    final SendResponse[] sendResponses =
+        IntStream.range(0, requests.size())
+            .mapToObj(i -> toSendResponse(requests.get(i), responses.get(i)))
+            .toArray(SendResponse[]::new);
+
+    final SendBatchResponse sendBatchResponse = new SendBatchResponse();
+    sendBatchResponse.setResponses(sendResponses);
+
+    return Response.ok(sendBatchResponse).build();
+  }
+
+  private com.quorum.tessera.transaction.SendRequest toSendRequest(final SendRequest sendRequest) {
     final PublicKey sender =
         Optional.ofNullable(sendRequest.getFrom())
             .map(base64Decoder::decode)
@@ -152,15 +212,12 @@ public class TransactionResource3 {
             .withAffectedContractTransactions(affectedTransactions);
     privacyGroupId.ifPresent(requestBuilder::withPrivacyGroupId);
 
-    final com.quorum.tessera.transaction.SendResponse response =
-        transactionManager.send(requestBuilder.build());
+    return requestBuilder.build();
+  }
 
-    final String encodedKey =
-        Optional.of(response)
-            .map(com.quorum.tessera.transaction.SendResponse::getTransactionHash)
-            .map(MessageHash::getHashBytes)
-            .map(base64Encoder::encodeToString)
-            .get();
+  private SendResponse toSendResponse(
+      final com.quorum.tessera.transaction.SendRequest request,
+      final com.quorum.tessera.transaction.SendResponse response) {
 
     final String[] managedParties =
         Optional.of(response)
@@ -170,22 +227,10 @@ public class TransactionResource3 {
             .map(PublicKey::encodeToBase64)
             .toArray(String[]::new);
 
-    final SendResponse sendResponse =
-        Optional.of(response)
-            .map(com.quorum.tessera.transaction.SendResponse::getTransactionHash)
-            .map(MessageHash::getHashBytes)
-            .map(base64Encoder::encodeToString)
-            .map(
-                messageHash ->
-                    new SendResponse(messageHash, managedParties, sender.encodeToBase64()))
-            .get();
-
-    final URI location =
-        UriBuilder.fromPath("transaction")
-            .path(URLEncoder.encode(encodedKey, StandardCharsets.UTF_8))
-            .build();
+    final String encodedKey =
+        base64Encoder.encodeToString(response.getTransactionHash().getHashBytes());
 
-    return Response.created(location).entity(sendResponse).build();
+    return new SendResponse(encodedKey, managedParties, request.getSender().encodeToBase64());
   }
 
   // path /sendsignedtx is overloaded (application/octet-stream, application/json and
@@ -384,8 +429,79 @@ public class TransactionResource3 {
             .withRaw(Boolean.parseBoolean(isRaw))
             .build();
 
-    com.quorum.tessera.transaction.ReceiveResponse response = transactionManager.receive(request);
+    final com.quorum.tessera.transaction.ReceiveResponse response =
+        transactionManager.receive(request);
+
+    return Response.ok(toReceiveResponse(response)).build();
+  }
+
+  @Operation(
+      summary = "/receivebatch",
+      operationId = "getDecryptedPayloadsJson",
+      description =
+          "get several payloads from database, decrypt, and return them in the order requested; a payload that cannot be received does not fail the others")
+  @ApiResponse(
+      responseCode = "200",
+      description = "decrypted payloads, or the reason each could not be received",
+      content =
+          @Content(
+              mediaType = APPLICATION_JSON,
+              schema = @Schema(implementation = ReceiveBatchResponse.class)))
+  @POST
+  @Path("receivebatch")
+  @Consumes({APPLICATION_JSON, MIME_TYPE_JSON_2_1, MIME_TYPE_JSON_3})
+  @Produces({APPLICATION_JSON, MIME_TYPE_JSON_2_1, MIME_TYPE_JSON_3})
+  public Response receiveBatch(@NotNull @Valid final ReceiveBatchRequest receiveBatchRequest) {
+
+    final PublicKey recipient =
+        Optional.ofNullable(receiveBatchRequest.getTo())
+            .map(base64Decoder::decode)
+            .map(PublicKey::from)
+            .orElse(null);
+
+    final List<MessageHash> transactionHashes =
+        Stream.of(receiveBatchRequest.getKeys())
+            .map(base64Decoder::decode)
+            .map(MessageHash::new)
+            .collect(Collectors.toList());
+
+    final ReceiveBatchItem[] items =
+        transactionManager.receiveAll(transactionHashes, recipient).stream()
+            .map(this::toReceiveBatchItem)
+            .toArray(ReceiveBatchItem[]::new);
+
+    final ReceiveBatchResponse receiveBatchResponse = new ReceiveBatchResponse();
+    receiveBatchResponse.setTransactions(items);
+
+    return Response.ok(receiveBatchResponse).build();
+  }
+
+  private ReceiveBatchItem toReceiveBatchItem(final ReceiveResult result) {
+    final ReceiveBatchItem item = new ReceiveBatchItem();
+    item.setKey(base64Encoder.encodeToString(result.getTransactionHash().getHashBytes()));
+    result
+        .getResponse()
+        .ifPresent(
+            response -> {
+              item.setStatus(Response.Status.OK.getStatusCode());
+              item.setTransaction(toReceiveResponse(response));
+            });
+    result
+        .getFailure()
+        .ifPresent(
+            failure -> {
+              final Response.Status status =
+                  failure instanceof TransactionNotFoundException
+                      ? Response.Status.NOT_FOUND
+                      : Response.Status.INTERNAL_SERVER_ERROR;
+              item.setStatus(status.getStatusCode());
+              item.setError(failure.getMessage());
+            });
+    return item;
+  }
 
+  private ReceiveResponse toReceiveResponse(
+      final com.quorum.tessera.transaction.ReceiveResponse response) {
     final ReceiveResponse receiveResponse = new ReceiveResponse();
     receiveResponse.setPayload(response.getUnencryptedTransactionData());
     receiveResponse.setSenderKey(response.sender().encodeToBase64());
@@ -410,7 +526,7 @@ public class TransactionResource3 {
         .map(PrivacyGroup.Id::getBase64)
         .ifPresent(receiveResponse::setPrivacyGroupId);
 
-    return Response.ok(receiveResponse).build();
+    return receiveResponse;
   }
 
   @Operation(
@@ -1,15 +1,21 @@
 package com.quorum.tessera.q2t.internal;
 
+import com.quorum.tessera.discovery.Discovery;
 import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.encryption.PublicKey;
-import com.quorum.tessera.threading.CancellableCountDownLatch;
-import com.quorum.tessera.threading.CancellableCountDownLatchFactory;
+import com.quorum.tessera.threading.BatchCompletion;
 import com.quorum.tessera.threading.ExecutorFactory;
+import com.quorum.tessera.threading.PerKeyLimitedExecutor;
 import com.quorum.tessera.transaction.publish.BatchPayloadPublisher;
 import com.quorum.tessera.transaction.publish.BatchPublishPayloadException;
 import com.quorum.tessera.transaction.publish.PayloadPublisher;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,19 +23,32 @@ public class AsyncBatchPayloadPublisher implements BatchPayloadPublisher {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(AsyncBatchPayloadPublisher.class);
 
-  private final Executor executor;
-
-  private final CancellableCountDownLatchFactory countDownLatchFactory;
+  private final PerKeyLimitedExecutor executor;
 
   private final PayloadPublisher publisher;
 
+  private final Discovery discovery;
+
+  private final BatchPublishConfig config;
+
+  public AsyncBatchPayloadPublisher(
+      ExecutorFactory executorFactory, PayloadPublisher publisher, Discovery discovery) {
+    this(executorFactory, publisher, discovery, BatchPublishConfig.defaults());
+  }
+
   public AsyncBatchPayloadPublisher(
       ExecutorFactory executorFactory,
-      CancellableCountDownLatchFactory countDownLatchFactory,
-      PayloadPublisher publisher) {
-    this.executor = executorFactory.createCachedThreadPool();
-    this.countDownLatchFactory = countDownLatchFactory;
-    this.publisher = publisher;
+      PayloadPublisher publisher,
+      Discovery discovery,
+      BatchPublishConfig config) {
+    final Executor delegate =
+        config.isVirtualThreads()
+            ? executorFactory.createVirtualThreadPerTaskExecutor()
+            : executorFactory.createCachedThreadPool();
+    this.executor = new PerKeyLimitedExecutor(delegate, config.getMaxConcurrencyPerPeer());
+    this.publisher = Objects.requireNonNull(publisher);
+    this.discovery = Objects.requireNonNull(discovery);
+    this.config = config;
   }
 
   /**
@@ -37,7 +56,10 @@ public class AsyncBatchPayloadPublisher implements BatchPayloadPublisher {
    * the payload to each recipient identified by the provided keys.
    *
    * <p>This method blocks until all pushes return successfully; if a push fails with an exception,
-   * the method exits immediately and does not wait for the remaining responses.
+   * the method exits immediately and does not wait for the remaining responses. If a deadline is
+   * configured, the method returns once it passes and the remaining pushes finish in the
+   * background, as they all do if asynchronous publishing is configured. Failures of pushes that
+   * finish in the background are logged.
    *
    * @param payload the payload object to be stripped and pushed
    * @param recipientKeys list of public keys identifying the target nodes
@@ -48,27 +70,93 @@ public class AsyncBatchPayloadPublisher implements BatchPayloadPublisher {
       return;
     }
 
-    final CancellableCountDownLatch latch = countDownLatchFactory.create(recipientKeys.size());
-
-    recipientKeys.forEach(
-        recipient ->
-            executor.execute(
-                () -> {
-                  try {
-                    final EncodedPayload outgoing =
-                        EncodedPayload.Builder.forRecipient(payload, recipient).build();
-                    publisher.publishPayload(outgoing, recipient);
-                    latch.countDown();
-                  } catch (RuntimeException e) {
-                    LOGGER.info("unable to publish payload in batch: {}", e.getMessage());
-                    latch.cancelWithException(e);
-                  }
-                }));
+    final List<CompletableFuture<Void>> pushes =
+        recipientKeys.stream()
+            .map(
+                recipient ->
+                    executor.<Void>submit(
+                        Peers.peerOf(discovery, recipient),
+                        () -> {
+                          final EncodedPayload outgoing =
+                              EncodedPayload.Builder.forRecipient(payload, recipient).build();
+                          publisher.publishPayload(outgoing, recipient);
+                          return null;
+                        }))
+            .collect(Collectors.toList());
+
+    await(pushes);
+  }
+
+  /**
+   * Asynchronously strips and publishes several payloads, with all the payloads for one recipient
+   * handed to the publisher together, so each recipient gets a single push task however many
+   * payloads it is sent. Waits for the pushes in the same way as {@link #publishPayload}.
+   *
+   * @param payloadsByRecipient the payload objects to be stripped and pushed to each target node
+   */
+  @Override
+  public void publishPayloads(Map<PublicKey, List<EncodedPayload>> payloadsByRecipient) {
+    if (payloadsByRecipient.isEmpty()) {
+      return;
+    }
+
+    final List<CompletableFuture<Void>> pushes =
+        payloadsByRecipient.entrySet().stream()
+            .map(
+                entry ->
+                    executor.<Void>submit(
+                        Peers.peerOf(discovery, entry.getKey()),
+                        () -> {
+                          final List<EncodedPayload> outgoing =
+                              entry.getValue().stream()
+                                  .map(p -> EncodedPayload.Builder.forRecipient(p, entry.getKey()))
+                                  .map(EncodedPayload.Builder::build)
+                                  .collect(Collectors.toList());
+                          publisher.publishPayloads(outgoing, entry.getKey());
+                          return null;
+                        }))
+            .collect(Collectors.toList());
+
+    await(pushes);
+  }
+
+  private void await(final List<CompletableFuture<Void>> pushes) {
+    final BatchCompletion completion = BatchCompletion.of(pushes);
+
+    if (config.isAsync()) {
+      finishInBackground(completion);
+      return;
+    }
 
     try {
-      latch.await();
+      if (config.getDeadline().isZero() || config.getDeadline().isNegative()) {
+        completion.await();
+        return;
+      }
+      if (!completion.await(config.getDeadline().toMillis(), TimeUnit.MILLISECONDS)) {
+        LOGGER.warn(
+            "{} of {} pushes still running after {}ms, continuing without them",
+            completion.getOutstanding(),
+            pushes.size(),
+            config.getDeadline().toMillis());
+        finishInBackground(completion);
+      }
+    } catch (RuntimeException e) {
+      LOGGER.info("unable to publish payload in batch: {}", e.getMessage());
+      throw e;
     } catch (InterruptedException e) {
       throw new BatchPublishPayloadException(e);
     }
   }
+
+  private static void finishInBackground(final BatchCompletion completion) {
+    completion
+        .toFuture()
+        .whenComplete(
+            (result, ex) -> {
+              if (Objects.nonNull(ex)) {
+                LOGGER.warn("unable to publish payload in batch: {}", ex.getMessage());
+              }
+            });
+  }
 }
@@ -4,11 +4,12 @@ import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.privacygroup.exception.PrivacyGroupPublishException;
 import com.quorum.tessera.privacygroup.publish.BatchPrivacyGroupPublisher;
 import com.quorum.tessera.privacygroup.publish.PrivacyGroupPublisher;
-import com.quorum.tessera.threading.CancellableCountDownLatch;
-import com.quorum.tessera.threading.CancellableCountDownLatchFactory;
+import com.quorum.tessera.threading.BatchCompletion;
 import com.quorum.tessera.threading.ExecutorFactory;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -19,16 +20,11 @@ public class AsyncBatchPrivacyGroupPublisher implements BatchPrivacyGroupPublish
 
   private final Executor executor;
 
-  private final CancellableCountDownLatchFactory countDownLatchFactory;
-
   private final PrivacyGroupPublisher publisher;
 
   public AsyncBatchPrivacyGroupPublisher(
-      ExecutorFactory executorFactory,
-      CancellableCountDownLatchFactory countDownLatchFactory,
-      PrivacyGroupPublisher publisher) {
+      ExecutorFactory executorFactory, PrivacyGroupPublisher publisher) {
     this.executor = executorFactory.createCachedThreadPool();
-    this.countDownLatchFactory = countDownLatchFactory;
     this.publisher = publisher;
   }
 
@@ -39,23 +35,19 @@ public class AsyncBatchPrivacyGroupPublisher implements BatchPrivacyGroupPublish
       return;
     }
 
-    final CancellableCountDownLatch latch = countDownLatchFactory.create(recipientKeys.size());
-
-    recipientKeys.forEach(
-        key ->
-            executor.execute(
-                () -> {
-                  try {
-                    publisher.publishPrivacyGroup(data, key);
-                    latch.countDown();
-                  } catch (RuntimeException e) {
-                    LOGGER.info("Unable to publish privacy group: {}", e.getMessage());
-                    latch.cancelWithException(e);
-                  }
-                }));
+    final List<CompletableFuture<Void>> publishes =
+        recipientKeys.stream()
+            .map(
+                key ->
+                    CompletableFuture.runAsync(
+                        () -> publisher.publishPrivacyGroup(data, key), executor))
+            .collect(Collectors.toList());
 
     try {
-      latch.await();
+      BatchCompletion.of(publishes).await();
+    } catch (RuntimeException e) {
+      LOGGER.info("Unable to publish privacy group: {}", e.getMessage());
+      throw e;
     } catch (InterruptedException e) {
       throw new PrivacyGroupPublishException(e.getMessage());
     }
@@ -1,16 +1,28 @@
 package com.quorum.tessera.q2t.internal;
 
-import com.quorum.tessera.threading.CancellableCountDownLatchFactory;
+import com.quorum.tessera.config.Config;
+import com.quorum.tessera.config.ConfigFactory;
+import com.quorum.tessera.config.ServerConfig;
+import com.quorum.tessera.discovery.Discovery;
 import com.quorum.tessera.threading.ExecutorFactory;
 import com.quorum.tessera.transaction.publish.BatchPayloadPublisher;
 import com.quorum.tessera.transaction.publish.PayloadPublisher;
+import java.util.Optional;
 
 public class BatchPayloadPublisherProvider {
 
   public static BatchPayloadPublisher provider() {
+    Config config = ConfigFactory.create().getConfig();
+    BatchPublishConfig batchPublishConfig =
+        Optional.ofNullable(config.getP2PServerConfig())
+            .map(ServerConfig::getProperties)
+            .map(BatchPublishConfig::from)
+            .orElseGet(BatchPublishConfig::defaults);
+
     ExecutorFactory executorFactory = new ExecutorFactory();
-    CancellableCountDownLatchFactory countDownLatchFactory = new CancellableCountDownLatchFactory();
     PayloadPublisher payloadPublisher = PayloadPublisher.create();
-    return new AsyncBatchPayloadPublisher(executorFactory, countDownLatchFactory, payloadPublisher);
+    Discovery discovery = Discovery.create();
+    return new AsyncBatchPayloadPublisher(
+        executorFactory, payloadPublisher, discovery, batchPublishConfig);
   }
 }
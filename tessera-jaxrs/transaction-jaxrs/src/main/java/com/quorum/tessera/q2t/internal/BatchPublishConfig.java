@@ -0,0 +1,94 @@
+package com.quorum.tessera.q2t.internal;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * How {@link AsyncBatchPayloadPublisher} runs and waits for pushes, read from the P2P server
+ * properties.
+ *
+ * <p>The defaults push on a cached thread pool with no per-peer limit and wait for every push, as
+ * the publisher always used to.
+ */
+public class BatchPublishConfig {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(BatchPublishConfig.class);
+
+  static final String EXECUTOR_PROPERTY = "batchPublishExecutor";
+
+  static final String MAX_CONCURRENCY_PER_PEER_PROPERTY = "batchPublishMaxConcurrencyPerPeer";
+
+  static final String DEADLINE_PROPERTY = "batchPublishDeadlineMillis";
+
+  static final String ASYNC_PROPERTY = "batchPublishAsync";
+
+  static final String VIRTUAL_EXECUTOR = "virtual";
+
+  private final boolean virtualThreads;
+
+  private final int maxConcurrencyPerPeer;
+
+  private final Duration deadline;
+
+  private final boolean async;
+
+  public BatchPublishConfig(
+      final boolean virtualThreads,
+      final int maxConcurrencyPerPeer,
+      final Duration deadline,
+      final boolean async) {
+    this.virtualThreads = virtualThreads;
+    this.maxConcurrencyPerPeer = maxConcurrencyPerPeer;
+    this.deadline = deadline;
+    this.async = async;
+  }
+
+  public static BatchPublishConfig defaults() {
+    return new BatchPublishConfig(false, 0, Duration.ZERO, false);
+  }
+
+  public static BatchPublishConfig from(final Map<String, String> properties) {
+    final Map<String, String> props =
+        Optional.ofNullable(properties).orElse(Collections.emptyMap());
+    try {
+      final boolean virtualThreads =
+          VIRTUAL_EXECUTOR.equalsIgnoreCase(props.getOrDefault(EXECUTOR_PROPERTY, "cached"));
+      final int maxConcurrencyPerPeer =
+          Integer.parseInt(props.getOrDefault(MAX_CONCURRENCY_PER_PEER_PROPERTY, "0"));
+      final long deadline = Long.parseLong(props.getOrDefault(DEADLINE_PROPERTY, "0"));
+      final boolean async = Boolean.parseBoolean(props.getOrDefault(ASYNC_PROPERTY, "false"));
+      return new BatchPublishConfig(
+          virtualThreads, maxConcurrencyPerPeer, Duration.ofMillis(deadline), async);
+    } catch (NumberFormatException ex) {
+      LOGGER.warn("Not able to parse configured property. Will use default value instead");
+      return defaults();
+    }
+  }
+
+  /** @return whether pushes run on virtual threads rather than a cached thread pool */
+  public boolean isVirtualThreads() {
+    return virtualThreads;
+  }
+
+  /** @return the number of pushes that may be in flight to one peer at once, or 0 for no limit */
+  public int getMaxConcurrencyPerPeer() {
+    return maxConcurrencyPerPeer;
+  }
+
+  /**
+   * @return how long to wait for pushes before letting the transaction commit while the rest
+   *     finish in the background, or zero to wait for all of them
+   */
+  public Duration getDeadline() {
+    return deadline;
+  }
+
+  /** @return whether to return straight away and let pushes finish in the background */
+  public boolean isAsync() {
+    return async;
+  }
+}
@@ -0,0 +1,142 @@
+package com.quorum.tessera.q2t.internal;
+
+import com.quorum.tessera.discovery.Discovery;
+import com.quorum.tessera.enclave.EncodedPayload;
+import com.quorum.tessera.encryption.PublicKey;
+import com.quorum.tessera.transaction.publish.PayloadPublisher;
+import com.quorum.tessera.transaction.publish.PublishPayloadException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Gathers the payloads that are published to the same peer at about the same time so that they are
+ * pushed together.
+ *
+ * <p>The first payload for a peer waits for up to the linger, or until the batch is full, and then
+ * its caller pushes the whole batch. Payloads for different keys hosted by the same peer join the
+ * same batch. Every caller waits until its own payload is acknowledged and sees only the failure of
+ * its own payload, unless the push as a whole fails.
+ */
+public class CoalescingPayloadPublisher implements PayloadPublisher {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CoalescingPayloadPublisher.class);
+
+  private final RestPayloadPublisher publisher;
+
+  private final Discovery discovery;
+
+  private final Duration linger;
+
+  private final int maxBatchSize;
+
+  private final Map<Object, Batch> batches = new HashMap<>();
+
+  CoalescingPayloadPublisher(
+      final RestPayloadPublisher publisher,
+      final Discovery discovery,
+      final Duration linger,
+      final int maxBatchSize) {
+    this.publisher = Objects.requireNonNull(publisher);
+    this.discovery = Objects.requireNonNull(discovery);
+    this.linger = Objects.requireNonNull(linger);
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  @Override
+  public void publishPayload(EncodedPayload payload, PublicKey recipientKey) {
+    final CompletableFuture<Void> acknowledgement = new CompletableFuture<>();
+    final Object peer = Peers.peerOf(discovery, recipientKey);
+
+    final Batch batch;
+    final boolean leader;
+    synchronized (batches) {
+      leader = !batches.containsKey(peer);
+      batch = batches.computeIfAbsent(peer, k -> new Batch(recipientKey));
+      batch.payloads.add(payload);
+      batch.acknowledgements.add(acknowledgement);
+      if (batch.payloads.size() >= maxBatchSize) {
+        batches.remove(peer);
+        batch.full.countDown();
+      }
+    }
+
+    if (leader) {
+      push(batch, peer);
+    }
+
+    try {
+      acknowledgement.join();
+    } catch (CompletionException ex) {
+      throw (RuntimeException) ex.getCause();
+    }
+  }
+
+  /** The payloads are already a batch, so they are pushed straight away. */
+  @Override
+  public void publishPayloads(List<EncodedPayload> payloads, PublicKey recipientKey) {
+    publisher.publishPayloads(payloads, recipientKey);
+  }
+
+  private void push(final Batch batch, final Object peer) {
+    try {
+      batch.full.await(linger.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (InterruptedException ex) {
+      // still push, as the other callers in the batch are waiting on it
+      Thread.currentThread().interrupt();
+    }
+
+    synchronized (batches) {
+      batches.remove(peer, batch);
+    }
+
+    LOGGER.debug("Pushing {} coalesced payloads", batch.payloads.size());
+    try {
+      // any of the keys reaches the peer, so the push is addressed with that of the first payload
+      final List<Optional<RuntimeException>> results =
+          publisher.publishEach(batch.payloads, batch.recipientKey);
+      for (int i = 0; i < results.size(); i++) {
+        final CompletableFuture<Void> acknowledgement = batch.acknowledgements.get(i);
+        results
+            .get(i)
+            .ifPresentOrElse(
+                acknowledgement::completeExceptionally, () -> acknowledgement.complete(null));
+      }
+    } catch (RuntimeException ex) {
+      batch.acknowledgements.forEach(acknowledgement -> acknowledgement.completeExceptionally(ex));
+    } finally {
+      // an error, or a missing result, must not leave the other callers waiting forever
+      if (!batch.acknowledgements.stream().allMatch(CompletableFuture::isDone)) {
+        final PublishPayloadException failure =
+            new PublishPayloadException("Payload was not acknowledged by the push to " + peer);
+        batch.acknowledgements.forEach(
+            acknowledgement -> acknowledgement.completeExceptionally(failure));
+      }
+    }
+  }
+
+  private static final class Batch {
+
+    private final PublicKey recipientKey;
+
+    private final List<EncodedPayload> payloads = new ArrayList<>();
+
+    private final List<CompletableFuture<Void>> acknowledgements = new ArrayList<>();
+
+    private final CountDownLatch full = new CountDownLatch(1);
+
+    private Batch(final PublicKey recipientKey) {
+      this.recipientKey = recipientKey;
+    }
+  }
+}
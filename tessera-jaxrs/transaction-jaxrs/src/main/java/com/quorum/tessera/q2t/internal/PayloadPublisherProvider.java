@@ -2,10 +2,12 @@ package com.quorum.tessera.q2t.internal;
 
 import com.quorum.tessera.config.Config;
 import com.quorum.tessera.config.ConfigFactory;
+import com.quorum.tessera.config.ServerConfig;
 import com.quorum.tessera.discovery.Discovery;
 import com.quorum.tessera.jaxrs.client.ClientFactory;
 import com.quorum.tessera.transaction.publish.PayloadPublisher;
 import jakarta.ws.rs.client.Client;
+import java.util.Optional;
 
 public class PayloadPublisherProvider {
 
@@ -17,6 +19,21 @@ public class PayloadPublisherProvider {
     ClientFactory clientFactory = new ClientFactory();
     Client client = clientFactory.buildFrom(config.getP2PServerConfig());
 
-    return new RestPayloadPublisher(client, partyInfoService);
+    RestPayloadPublisher payloadPublisher = new RestPayloadPublisher(client, partyInfoService);
+
+    PushCoalescingConfig coalescingConfig =
+        Optional.ofNullable(config.getP2PServerConfig())
+            .map(ServerConfig::getProperties)
+            .map(PushCoalescingConfig::from)
+            .orElseGet(PushCoalescingConfig::defaults);
+    if (!coalescingConfig.isEnabled()) {
+      return payloadPublisher;
+    }
+
+    return new CoalescingPayloadPublisher(
+        payloadPublisher,
+        partyInfoService,
+        coalescingConfig.getLinger(),
+        coalescingConfig.getMaxBatchSize());
   }
 }
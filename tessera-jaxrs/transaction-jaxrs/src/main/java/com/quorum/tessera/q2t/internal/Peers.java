@@ -0,0 +1,28 @@
+package com.quorum.tessera.q2t.internal;
+
+import com.quorum.tessera.discovery.Discovery;
+import com.quorum.tessera.encryption.KeyNotFoundException;
+import com.quorum.tessera.encryption.PublicKey;
+
+/**
+ * Groups the pushes to recipients by the peer that hosts them. Publishers that limit or gather
+ * their pushes do so per peer rather than per key, as one peer may host many of the recipients.
+ */
+final class Peers {
+
+  private Peers() {}
+
+  /**
+   * @param discovery the known remote nodes
+   * @param recipientKey the key the push is addressed to
+   * @return the url of the peer hosting the key, or the key itself if no peer is known to host it
+   */
+  static Object peerOf(final Discovery discovery, final PublicKey recipientKey) {
+    try {
+      return discovery.getRemoteNodeInfo(recipientKey).getUrl();
+    } catch (KeyNotFoundException ex) {
+      // the push itself reports the unknown key
+      return recipientKey;
+    }
+  }
+}
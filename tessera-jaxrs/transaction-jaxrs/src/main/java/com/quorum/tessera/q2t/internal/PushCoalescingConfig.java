@@ -0,0 +1,69 @@
+package com.quorum.tessera.q2t.internal;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * How {@link CoalescingPayloadPublisher} gathers payloads for the same peer into one push, read
+ * from the P2P server properties.
+ *
+ * <p>The defaults have no linger, so every payload is pushed on its own as it always used to be.
+ */
+public class PushCoalescingConfig {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PushCoalescingConfig.class);
+
+  static final String LINGER_PROPERTY = "pushLingerMillis";
+
+  static final String MAX_BATCH_SIZE_PROPERTY = "pushMaxBatchSize";
+
+  static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+  private final Duration linger;
+
+  private final int maxBatchSize;
+
+  public PushCoalescingConfig(final Duration linger, final int maxBatchSize) {
+    this.linger = linger;
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  public static PushCoalescingConfig defaults() {
+    return new PushCoalescingConfig(Duration.ZERO, DEFAULT_MAX_BATCH_SIZE);
+  }
+
+  public static PushCoalescingConfig from(final Map<String, String> properties) {
+    final Map<String, String> props =
+        Optional.ofNullable(properties).orElse(Collections.emptyMap());
+    try {
+      final long linger = Long.parseLong(props.getOrDefault(LINGER_PROPERTY, "0"));
+      final int maxBatchSize =
+          Integer.parseInt(
+              props.getOrDefault(
+                  MAX_BATCH_SIZE_PROPERTY, String.valueOf(DEFAULT_MAX_BATCH_SIZE)));
+      return new PushCoalescingConfig(Duration.ofMillis(linger), maxBatchSize);
+    } catch (NumberFormatException ex) {
+      LOGGER.warn("Not able to parse configured property. Will use default value instead");
+      return defaults();
+    }
+  }
+
+  /** @return how long the first payload for a peer waits for others to join it */
+  public Duration getLinger() {
+    return linger;
+  }
+
+  /** @return the number of payloads that are pushed together without waiting any longer */
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  /** @return whether payloads wait for others at all, rather than being pushed straight away */
+  public boolean isEnabled() {
+    return linger.compareTo(Duration.ZERO) > 0 && maxBatchSize > 1;
+  }
+}
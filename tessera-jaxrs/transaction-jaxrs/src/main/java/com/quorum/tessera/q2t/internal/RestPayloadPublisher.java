@@ -1,5 +1,8 @@
 package com.quorum.tessera.q2t.internal;
 
+import com.quorum.tessera.api.PushAcknowledgement;
+import com.quorum.tessera.api.PushManyRequest;
+import com.quorum.tessera.api.PushManyResponse;
 import com.quorum.tessera.discovery.Discovery;
 import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.enclave.EncodedPayloadCodec;
@@ -14,14 +17,21 @@ import com.quorum.tessera.transaction.publish.PayloadPublisher;
 import com.quorum.tessera.transaction.publish.PublishPayloadException;
 import com.quorum.tessera.version.EnhancedPrivacyVersion;
 import com.quorum.tessera.version.MandatoryRecipientsVersion;
+import com.quorum.tessera.version.MultiplePushVersion;
 import jakarta.ws.rs.ProcessingException;
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.Entity;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,27 +50,162 @@ public class RestPayloadPublisher implements PayloadPublisher {
 
   @Override
   public void publishPayload(EncodedPayload payload, PublicKey recipientKey) {
+    push(payload, recipientKey, discovery.getRemoteNodeInfo(recipientKey));
+  }
+
+  /**
+   * Pushes all the payloads even if some of them fail, and then throws the first failure.
+   *
+   * @see #publishEach(List, PublicKey)
+   */
+  @Override
+  public void publishPayloads(List<EncodedPayload> payloads, PublicKey recipientKey) {
+    publishEach(payloads, recipientKey).stream()
+        .flatMap(Optional::stream)
+        .findFirst()
+        .ifPresent(
+            failure -> {
+              throw failure;
+            });
+  }
+
+  /**
+   * Pushes the payloads to the recipient, in {@code /pushMany} requests of up to {@link
+   * PushManyRequest#MAX_PAYLOADS} payloads if it supports {@link
+   * MultiplePushVersion#API_VERSION_7} or else with one {@code /push} per payload.
+   *
+   * @param payloads the payload objects to be pushed
+   * @param recipientKey the public key identifying the target node
+   * @return for each of the payloads in order, the reason it was not stored, if any
+   * @throws NodeOfflineException if the recipient could not be reached for a {@code /pushMany}
+   * @throws PublishPayloadException if the recipient did not accept the {@code /pushMany} request
+   */
+  List<Optional<RuntimeException>> publishEach(
+      List<EncodedPayload> payloads, PublicKey recipientKey) {
 
     final NodeInfo remoteNodeInfo = discovery.getRemoteNodeInfo(recipientKey);
     final Set<String> supportedApiVersions = remoteNodeInfo.supportedApiVersions();
+
+    if (payloads.size() < 2 || !supportedApiVersions.contains(MultiplePushVersion.API_VERSION_7)) {
+      return pushEach(payloads, recipientKey, remoteNodeInfo);
+    }
+
     final EncodedPayloadCodec preferredCodec =
         EncodedPayloadCodec.getPreferredCodec(supportedApiVersions);
     final PayloadEncoder payloadEncoder = PayloadEncoder.create(preferredCodec);
 
-    if (PrivacyMode.STANDARD_PRIVATE != payload.getPrivacyMode()
-        && !supportedApiVersions.contains(EnhancedPrivacyVersion.API_VERSION_2)) {
-      throw new EnhancedPrivacyNotSupportedException(
-          "Transactions with enhanced privacy is not currently supported on recipient "
-              + recipientKey.encodeToBase64());
+    final List<Optional<RuntimeException>> acknowledgements = new ArrayList<>(payloads.size());
+    final List<EncodedPayload> pushed = new ArrayList<>();
+    final List<byte[]> encodedPayloads = new ArrayList<>();
+    final List<Integer> positions = new ArrayList<>();
+    for (final EncodedPayload payload : payloads) {
+      try {
+        checkSupported(payload, recipientKey, supportedApiVersions);
+        encodedPayloads.add(payloadEncoder.encode(payload));
+        positions.add(acknowledgements.size());
+        pushed.add(payload);
+        acknowledgements.add(Optional.empty());
+      } catch (RuntimeException ex) {
+        acknowledgements.add(Optional.of(ex));
+      }
     }
 
-    if (PrivacyMode.MANDATORY_RECIPIENTS == payload.getPrivacyMode()
-        && !supportedApiVersions.contains(MandatoryRecipientsVersion.API_VERSION_4)) {
-      throw new MandatoryRecipientsNotSupportedException(
-          "Transactions with mandatory recipients are not currently supported on recipient "
-              + recipientKey.encodeToBase64());
+    // the peer accepts a limited number of payloads in each request
+    final List<Optional<RuntimeException>> results = new ArrayList<>(pushed.size());
+    for (int from = 0; from < pushed.size(); from += PushManyRequest.MAX_PAYLOADS) {
+      final int to = Math.min(pushed.size(), from + PushManyRequest.MAX_PAYLOADS);
+      results.addAll(
+          pushMany(
+              encodedPayloads.subList(from, to),
+              pushed.subList(from, to),
+              recipientKey,
+              remoteNodeInfo));
     }
 
+    IntStream.range(0, positions.size())
+        .forEach(i -> acknowledgements.set(positions.get(i), results.get(i)));
+    return acknowledgements;
+  }
+
+  private List<Optional<RuntimeException>> pushMany(
+      List<byte[]> encodedPayloads,
+      List<EncodedPayload> payloads,
+      PublicKey recipientKey,
+      NodeInfo remoteNodeInfo) {
+
+    final String targetUrl = remoteNodeInfo.getUrl();
+    LOGGER.info("Publishing {} messages to {}", payloads.size(), targetUrl);
+
+    try (Response response =
+        client
+            .target(targetUrl)
+            .path("/pushMany")
+            .request()
+            .post(
+                Entity.entity(
+                    new PushManyRequest(encodedPayloads), MediaType.APPLICATION_JSON_TYPE))) {
+
+      if (Response.Status.NOT_FOUND.getStatusCode() == response.getStatus()) {
+        // a node in recovery mode only accepts payloads one at a time
+        LOGGER.debug("{} did not accept /pushMany, pushing one at a time", targetUrl);
+        return pushEach(payloads, recipientKey, remoteNodeInfo);
+      }
+
+      if (Response.Status.OK.getStatusCode() != response.getStatus()) {
+        throw new PublishPayloadException("Unable to push payloads to recipient url " + targetUrl);
+      }
+
+      final PushAcknowledgement[] stored =
+          Optional.ofNullable(response.readEntity(PushManyResponse.class))
+              .map(PushManyResponse::getAcknowledgements)
+              .orElse(new PushAcknowledgement[0]);
+      if (stored.length != payloads.size()) {
+        throw new PublishPayloadException(
+            "Unexpected acknowledgements from recipient url " + targetUrl);
+      }
+      LOGGER.info("Published to {}", targetUrl);
+
+      return Stream.of(stored)
+          .map(
+              acknowledgement ->
+                  Optional.ofNullable(acknowledgement.getError())
+                      .<RuntimeException>map(
+                          error ->
+                              new PublishPayloadException(
+                                  "Unable to push payload to recipient url "
+                                      + targetUrl
+                                      + ": "
+                                      + error)))
+          .collect(Collectors.toList());
+    } catch (ProcessingException ex) {
+      LOGGER.debug("", ex);
+      throw new NodeOfflineException(URI.create(targetUrl));
+    }
+  }
+
+  private List<Optional<RuntimeException>> pushEach(
+      List<EncodedPayload> payloads, PublicKey recipientKey, NodeInfo remoteNodeInfo) {
+    final List<Optional<RuntimeException>> acknowledgements = new ArrayList<>(payloads.size());
+    for (final EncodedPayload payload : payloads) {
+      try {
+        push(payload, recipientKey, remoteNodeInfo);
+        acknowledgements.add(Optional.empty());
+      } catch (RuntimeException ex) {
+        acknowledgements.add(Optional.of(ex));
+      }
+    }
+    return acknowledgements;
+  }
+
+  private void push(EncodedPayload payload, PublicKey recipientKey, NodeInfo remoteNodeInfo) {
+
+    final Set<String> supportedApiVersions = remoteNodeInfo.supportedApiVersions();
+    final EncodedPayloadCodec preferredCodec =
+        EncodedPayloadCodec.getPreferredCodec(supportedApiVersions);
+    final PayloadEncoder payloadEncoder = PayloadEncoder.create(preferredCodec);
+
+    checkSupported(payload, recipientKey, supportedApiVersions);
+
     final String targetUrl = remoteNodeInfo.getUrl();
     LOGGER.info("Publishing message to {}", targetUrl);
 
@@ -84,4 +229,22 @@ public class RestPayloadPublisher implements PayloadPublisher {
       throw new NodeOfflineException(URI.create(targetUrl));
     }
   }
+
+  private static void checkSupported(
+      EncodedPayload payload, PublicKey recipientKey, Set<String> supportedApiVersions) {
+
+    if (PrivacyMode.STANDARD_PRIVATE != payload.getPrivacyMode()
+        && !supportedApiVersions.contains(EnhancedPrivacyVersion.API_VERSION_2)) {
+      throw new EnhancedPrivacyNotSupportedException(
+          "Transactions with enhanced privacy is not currently supported on recipient "
+              + recipientKey.encodeToBase64());
+    }
+
+    if (PrivacyMode.MANDATORY_RECIPIENTS == payload.getPrivacyMode()
+        && !supportedApiVersions.contains(MandatoryRecipientsVersion.API_VERSION_4)) {
+      throw new MandatoryRecipientsNotSupportedException(
+          "Transactions with mandatory recipients are not currently supported on recipient "
+              + recipientKey.encodeToBase64());
+    }
+  }
 }
@@ -1,27 +1,63 @@
 package com.quorum.tessera.q2t;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.*;
 
+import com.quorum.tessera.config.Config;
+import com.quorum.tessera.config.ConfigFactory;
+import com.quorum.tessera.config.ServerConfig;
+import com.quorum.tessera.discovery.Discovery;
 import com.quorum.tessera.q2t.internal.BatchPayloadPublisherProvider;
 import com.quorum.tessera.transaction.publish.BatchPayloadPublisher;
 import com.quorum.tessera.transaction.publish.PayloadPublisher;
+import java.util.Map;
 import org.junit.Test;
 
 public class BatchPayloadPublisherProviderTest {
 
   @Test
   public void provider() {
+    ServerConfig serverConfig = mock(ServerConfig.class);
+    when(serverConfig.getProperties()).thenReturn(Map.of("batchPublishExecutor", "virtual"));
+    Config config = mock(Config.class);
+    when(config.getP2PServerConfig()).thenReturn(serverConfig);
 
-    try (var payloadPublisherMockedStatic = mockStatic(PayloadPublisher.class)) {
+    BatchPayloadPublisher result = provide(config);
+
+    assertThat(result).isNotNull();
+    verify(serverConfig).getProperties();
+  }
+
+  @Test
+  public void providerWithoutP2PServerUsesDefaults() {
+    BatchPayloadPublisher result = provide(mock(Config.class));
+    assertThat(result).isNotNull();
+  }
+
+  @Test
+  public void defaultConstructorForCoverage() {
+    assertThat(new BatchPayloadPublisherProvider()).isNotNull();
+  }
+
+  private static BatchPayloadPublisher provide(Config config) {
+    ConfigFactory configFactory = mock(ConfigFactory.class);
+    when(configFactory.getConfig()).thenReturn(config);
+
+    try (var configFactoryMockedStatic = mockStatic(ConfigFactory.class);
+        var payloadPublisherMockedStatic = mockStatic(PayloadPublisher.class);
+        var discoveryMockedStatic = mockStatic(Discovery.class)) {
+      configFactoryMockedStatic.when(ConfigFactory::create).thenReturn(configFactory);
       payloadPublisherMockedStatic
           .when(PayloadPublisher::create)
           .thenReturn(mock(PayloadPublisher.class));
+      discoveryMockedStatic.when(Discovery::create).thenReturn(mock(Discovery.class));
 
       BatchPayloadPublisher result = BatchPayloadPublisherProvider.provider();
-      assertThat(result).isNotNull();
+
       payloadPublisherMockedStatic.verify(PayloadPublisher::create);
+      discoveryMockedStatic.verify(Discovery::create);
+      configFactoryMockedStatic.verify(ConfigFactory::create);
+      return result;
     }
   }
 }
@@ -4,6 +4,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import com.quorum.tessera.api.ReceiveBatchItem;
+import com.quorum.tessera.api.ReceiveBatchRequest;
+import com.quorum.tessera.api.ReceiveBatchResponse;
+import com.quorum.tessera.api.SendBatchRequest;
+import com.quorum.tessera.api.SendBatchResponse;
 import com.quorum.tessera.api.SendRequest;
 import com.quorum.tessera.api.SendResponse;
 import com.quorum.tessera.api.SendSignedRequest;
@@ -13,7 +18,10 @@ import com.quorum.tessera.enclave.PrivacyMode;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.privacygroup.PrivacyGroupManager;
 import com.quorum.tessera.transaction.ReceiveResponse;
+import com.quorum.tessera.transaction.ReceiveResult;
 import com.quorum.tessera.transaction.TransactionManager;
+import com.quorum.tessera.transaction.exception.RecipientKeyNotFoundException;
+import com.quorum.tessera.transaction.exception.TransactionNotFoundException;
 import jakarta.ws.rs.core.Response;
 import java.util.*;
 import org.junit.After;
@@ -76,6 +84,82 @@ public class TransactionResource3Test {
     verify(transactionManager).receive(any(com.quorum.tessera.transaction.ReceiveRequest.class));
   }
 
+  @Test
+  public void receiveBatch() {
+    final PublicKey sender = PublicKey.from("sender".getBytes());
+    final PublicKey recipient = PublicKey.from("recipient".getBytes());
+    final MessageHash found = new MessageHash("found".getBytes());
+    final MessageHash missing = new MessageHash("missing".getBytes());
+    final MessageHash undecryptable = new MessageHash("undecryptable".getBytes());
+
+    final ReceiveResponse receiveResponse =
+        ReceiveResponse.Builder.create()
+            .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
+            .withUnencryptedTransactionData("Result".getBytes())
+            .withManagedParties(Set.of(recipient))
+            .withSender(sender)
+            .build();
+
+    when(transactionManager.receiveAll(List.of(found, missing, undecryptable), recipient))
+        .thenReturn(
+            List.of(
+                ReceiveResult.success(found, receiveResponse),
+                ReceiveResult.failure(missing, new TransactionNotFoundException("not found")),
+                ReceiveResult.failure(
+                    undecryptable, new RecipientKeyNotFoundException("no key"))));
+
+    final ReceiveBatchRequest request = new ReceiveBatchRequest();
+    request.setKeys(
+        new String[] {
+          Base64.getEncoder().encodeToString("found".getBytes()),
+          Base64.getEncoder().encodeToString("missing".getBytes()),
+          Base64.getEncoder().encodeToString("undecryptable".getBytes())
+        });
+    request.setTo(recipient.encodeToBase64());
+
+    final Response result = transactionResource.receiveBatch(request);
+
+    assertThat(result.getStatus()).isEqualTo(200);
+
+    final ReceiveBatchItem[] items = ((ReceiveBatchResponse) result.getEntity()).getTransactions();
+    assertThat(items)
+        .extracting(ReceiveBatchItem::getKey)
+        .containsExactly(
+            Base64.getEncoder().encodeToString("found".getBytes()),
+            Base64.getEncoder().encodeToString("missing".getBytes()),
+            Base64.getEncoder().encodeToString("undecryptable".getBytes()));
+    assertThat(items).extracting(ReceiveBatchItem::getStatus).containsExactly(200, 404, 500);
+    assertThat(items)
+        .extracting(ReceiveBatchItem::getError)
+        .containsExactly(null, "not found", "no key");
+
+    assertThat(items[0].getTransaction().getPayload()).isEqualTo("Result".getBytes());
+    assertThat(items[0].getTransaction().getSenderKey()).isEqualTo(sender.encodeToBase64());
+    assertThat(items[0].getTransaction().getManagedParties())
+        .containsExactly(recipient.encodeToBase64());
+    assertThat(items[1].getTransaction()).isNull();
+    assertThat(items[2].getTransaction()).isNull();
+
+    verify(transactionManager).receiveAll(List.of(found, missing, undecryptable), recipient);
+  }
+
+  @Test
+  public void receiveBatchWithoutRecipient() {
+    final MessageHash hash = new MessageHash("hash".getBytes());
+    when(transactionManager.receiveAll(List.of(hash), null))
+        .thenReturn(List.of(ReceiveResult.failure(hash, new TransactionNotFoundException("gone"))));
+
+    final ReceiveBatchRequest request = new ReceiveBatchRequest();
+    request.setKeys(new String[] {Base64.getEncoder().encodeToString("hash".getBytes())});
+
+    final Response result = transactionResource.receiveBatch(request);
+
+    assertThat(result.getStatus()).isEqualTo(200);
+    assertThat(((ReceiveBatchResponse) result.getEntity()).getTransactions()).hasSize(1);
+
+    verify(transactionManager).receiveAll(List.of(hash), null);
+  }
+
   @Test
   public void receivePrivateStateValidation() {
     final PublicKey senderPublicKey = PublicKey.from("sender".getBytes());
@@ -206,6 +290,64 @@ public class TransactionResource3Test {
     assertThat(businessObject.getPrivacyGroupId()).isEmpty();
   }
 
+  @Test
+  public void sendBatch() {
+    final PublicKey sender = PublicKey.from("sender".getBytes());
+    final PublicKey recipient = PublicKey.from("recipient".getBytes());
+    when(transactionManager.defaultPublicKey()).thenReturn(sender);
+
+    final SendRequest first = new SendRequest();
+    first.setPayload("first".getBytes());
+    first.setTo(recipient.encodeToBase64());
+    final SendRequest second = new SendRequest();
+    second.setPayload("second".getBytes());
+    second.setFrom(recipient.encodeToBase64());
+    final SendBatchRequest sendBatchRequest = new SendBatchRequest();
+    sendBatchRequest.setRequests(List.of(first, second));
+
+    when(transactionManager.sendAll(anyList()))
+        .thenReturn(
+            List.of(
+                com.quorum.tessera.transaction.SendResponse.Builder.create()
+                    .withMessageHash(new MessageHash("firstHash".getBytes()))
+                    .withManagedParties(Set.of(sender))
+                    .withSender(sender)
+                    .build(),
+                com.quorum.tessera.transaction.SendResponse.Builder.create()
+                    .withMessageHash(new MessageHash("secondHash".getBytes()))
+                    .withManagedParties(Set.of(recipient))
+                    .withSender(recipient)
+                    .build()));
+
+    final Response result = transactionResource.sendBatch(sendBatchRequest);
+
+    assertThat(result.getStatus()).isEqualTo(200);
+    final SendResponse[] responses = ((SendBatchResponse) result.getEntity()).getResponses();
+    assertThat(responses)
+        .extracting(SendResponse::getKey)
+        .containsExactly(
+            Base64.getEncoder().encodeToString("firstHash".getBytes()),
+            Base64.getEncoder().encodeToString("secondHash".getBytes()));
+    assertThat(responses)
+        .extracting(SendResponse::getSenderKey)
+        .containsExactly(sender.encodeToBase64(), recipient.encodeToBase64());
+    assertThat(responses[1].getManagedParties()).containsExactly(recipient.encodeToBase64());
+
+    final ArgumentCaptor<List<com.quorum.tessera.transaction.SendRequest>> argumentCaptor =
+        ArgumentCaptor.forClass(List.class);
+    verify(transactionManager).sendAll(argumentCaptor.capture());
+    verify(transactionManager).defaultPublicKey();
+
+    final List<com.quorum.tessera.transaction.SendRequest> requests = argumentCaptor.getValue();
+    assertThat(requests).hasSize(2);
+    assertThat(requests.get(0).getPayload()).isEqualTo("first".getBytes());
+    assertThat(requests.get(0).getSender()).isEqualTo(sender);
+    assertThat(requests.get(0).getRecipients()).containsExactly(recipient);
+    assertThat(requests.get(1).getPayload()).isEqualTo("second".getBytes());
+    assertThat(requests.get(1).getSender()).isEqualTo(recipient);
+    assertThat(requests.get(1).getRecipients()).isEmpty();
+  }
+
   @Test
   public void sendWithPrivacy() {
     final Base64.Encoder base64Encoder = Base64.getEncoder();
@@ -4,190 +4,288 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.ThrowableAssert.catchThrowable;
 import static org.mockito.Mockito.*;
 
+import com.quorum.tessera.discovery.Discovery;
 import com.quorum.tessera.enclave.EncodedPayload;
+import com.quorum.tessera.encryption.KeyNotFoundException;
 import com.quorum.tessera.encryption.PublicKey;
-import com.quorum.tessera.threading.CancellableCountDownLatch;
-import com.quorum.tessera.threading.CancellableCountDownLatchFactory;
+import com.quorum.tessera.partyinfo.node.NodeInfo;
 import com.quorum.tessera.threading.ExecutorFactory;
 import com.quorum.tessera.transaction.publish.BatchPublishPayloadException;
 import com.quorum.tessera.transaction.publish.PayloadPublisher;
 import com.quorum.tessera.transaction.publish.PublishPayloadException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 public class AsyncBatchPayloadPublisherTest {
 
-  private AsyncBatchPayloadPublisher asyncPublisher;
+  private final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
 
-  private Executor executor;
+  private final PublicKey otherRecipient = PublicKey.from("OTHERRECIPIENT".getBytes());
 
-  private ExecutorFactory executorFactory;
+  private final List<PublicKey> recipients = List.of(recipient, otherRecipient);
 
-  private CancellableCountDownLatch countDownLatch;
+  private final List<Runnable> pending = new ArrayList<>();
 
-  private CancellableCountDownLatchFactory countDownLatchFactory;
+  private AsyncBatchPayloadPublisher asyncPublisher;
+
+  private ExecutorFactory executorFactory;
 
   private PayloadPublisher publisher;
 
+  private Discovery discovery;
+
+  private EncodedPayload payload;
+
   @Before
   public void onSetup() {
     this.executorFactory = mock(ExecutorFactory.class);
-    this.executor = mock(Executor.class);
-    when(executorFactory.createCachedThreadPool()).thenReturn(executor);
-
-    this.countDownLatchFactory = mock(CancellableCountDownLatchFactory.class);
-    this.countDownLatch = mock(CancellableCountDownLatch.class);
-    when(countDownLatchFactory.create(anyInt())).thenReturn(countDownLatch);
+    // run each push straight away on the calling thread
+    when(executorFactory.createCachedThreadPool()).thenReturn(Runnable::run);
 
     this.publisher = mock(PayloadPublisher.class);
-    this.asyncPublisher =
-        new AsyncBatchPayloadPublisher(executorFactory, countDownLatchFactory, publisher);
+    this.discovery = mock(Discovery.class);
+    final NodeInfo peer = mock(NodeInfo.class);
+    when(peer.getUrl()).thenReturn("http://peer");
+    final NodeInfo otherPeer = mock(NodeInfo.class);
+    when(otherPeer.getUrl()).thenReturn("http://otherpeer");
+    when(discovery.getRemoteNodeInfo(recipient)).thenReturn(peer);
+    when(discovery.getRemoteNodeInfo(otherRecipient)).thenReturn(otherPeer);
+    this.asyncPublisher = new AsyncBatchPayloadPublisher(executorFactory, publisher, discovery);
+
+    this.payload =
+        EncodedPayload.Builder.create()
+            .withSenderKey(mock(PublicKey.class))
+            .withRecipientKeys(recipients)
+            .withRecipientBoxes(List.of("box1".getBytes(), "box2".getBytes()))
+            .build();
   }
 
   @After
   public void onTeardown() {
-    verifyNoMoreInteractions(
-        executor, executorFactory, countDownLatch, countDownLatchFactory, publisher);
+    verifyNoMoreInteractions(executorFactory, publisher);
   }
 
   @Test
-  public void publishPayloadUsesThreadForEachRecipient() throws InterruptedException {
-    final EncodedPayload payload = mock(EncodedPayload.class);
-
-    final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
-    final PublicKey otherRecipient = PublicKey.from("OTHERRECIPIENT".getBytes());
-
-    final List<PublicKey> recipients = List.of(recipient, otherRecipient);
-
+  public void publishPayloadStripsAndPublishes() {
     asyncPublisher.publishPayload(payload, recipients);
 
-    verify(countDownLatchFactory).create(2);
     verify(executorFactory).createCachedThreadPool();
-    verify(executor, times(2)).execute(any(Runnable.class));
-    verify(countDownLatch).await();
+    verify(publisher).publishPayload(any(), eq(recipient));
+    verify(publisher).publishPayload(any(), eq(otherRecipient));
   }
 
   @Test
-  public void publishPayloadStripsAndPublishes() throws InterruptedException {
-    final Executor realExecutor = Executors.newSingleThreadExecutor();
-    when(executorFactory.createCachedThreadPool()).thenReturn(realExecutor);
-
-    asyncPublisher =
-        new AsyncBatchPayloadPublisher(executorFactory, countDownLatchFactory, publisher);
-
-    final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
-    final PublicKey otherRecipient = PublicKey.from("OTHERRECIPIENT".getBytes());
+  public void publishPayloadNoRecipientsDoesNothing() {
+    asyncPublisher.publishPayload(mock(EncodedPayload.class), Collections.emptyList());
 
-    final List<PublicKey> recipients = List.of(recipient, otherRecipient);
+    verify(executorFactory).createCachedThreadPool();
+  }
 
-    final EncodedPayload payload =
+  @Test
+  public void publishPayloadsPushesEachRecipientItsStrippedPayloadsTogether() {
+    final EncodedPayload other =
         EncodedPayload.Builder.create()
             .withSenderKey(mock(PublicKey.class))
-            .withRecipientKeys(recipients)
-            .withRecipientBoxes(List.of("box1".getBytes(), "box2".getBytes()))
+            .withRecipientKeys(List.of(recipient))
+            .withRecipientBoxes(List.of("box3".getBytes()))
             .build();
 
-    doAnswer(
-            invocation -> {
-              // sleep main thread so publish threads can work
-              Thread.sleep(200);
-              return null;
-            })
-        .when(countDownLatch)
-        .await();
+    final Map<PublicKey, List<EncodedPayload>> payloadsByRecipient = new LinkedHashMap<>();
+    payloadsByRecipient.put(recipient, List.of(payload, other));
+    payloadsByRecipient.put(otherRecipient, List.of(payload));
 
-    asyncPublisher.publishPayload(payload, recipients);
+    asyncPublisher.publishPayloads(payloadsByRecipient);
 
-    verify(executorFactory, times(2)).createCachedThreadPool();
-    verify(countDownLatchFactory).create(2);
-    verify(publisher).publishPayload(any(), eq(recipient));
-    verify(publisher).publishPayload(any(), eq(otherRecipient));
-    verify(countDownLatch, times(2)).countDown();
-    verify(countDownLatch).await();
+    final ArgumentCaptor<List<EncodedPayload>> toRecipient = ArgumentCaptor.forClass(List.class);
+    final ArgumentCaptor<List<EncodedPayload>> toOtherRecipient =
+        ArgumentCaptor.forClass(List.class);
+    verify(executorFactory).createCachedThreadPool();
+    verify(publisher).publishPayloads(toRecipient.capture(), eq(recipient));
+    verify(publisher).publishPayloads(toOtherRecipient.capture(), eq(otherRecipient));
+
+    assertThat(toRecipient.getValue())
+        .extracting(p -> p.getRecipientBoxes().get(0).getData())
+        .containsExactly("box1".getBytes(), "box3".getBytes());
+    assertThat(toOtherRecipient.getValue())
+        .extracting(p -> p.getRecipientBoxes().get(0).getData())
+        .containsExactly("box2".getBytes());
   }
 
   @Test
-  public void publishPayloadNoRecipientsDoesNothing() {
-    final EncodedPayload payload = mock(EncodedPayload.class);
-    final List<PublicKey> recipients = Collections.emptyList();
+  public void publishPayloadsNoRecipientsDoesNothing() {
+    asyncPublisher.publishPayloads(Map.of());
 
-    asyncPublisher.publishPayload(payload, recipients);
+    verify(executorFactory).createCachedThreadPool();
+  }
 
+  @Test
+  public void publishPayloadsThrowsFailure() {
+    final PublishPayloadException cause = new PublishPayloadException("some exception");
+    doThrow(cause).when(publisher).publishPayloads(anyList(), eq(recipient));
+
+    final Throwable ex =
+        catchThrowable(() -> asyncPublisher.publishPayloads(Map.of(recipient, List.of(payload))));
+
+    assertThat(ex).isSameAs(cause);
     verify(executorFactory).createCachedThreadPool();
+    verify(publisher).publishPayloads(anyList(), eq(recipient));
   }
 
   @Test
-  public void publishPayloadWrapsInterruptedException() throws InterruptedException {
-    EncodedPayload payload = mock(EncodedPayload.class);
+  public void publishPayloadThrowsFirstFailure() {
+    final PublishPayloadException cause = new PublishPayloadException("some exception");
+    doThrow(cause).when(publisher).publishPayload(any(EncodedPayload.class), eq(recipient));
 
-    PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
-    PublicKey otherRecipient = PublicKey.from("OTHERRECIPIENT".getBytes());
+    final Throwable ex = catchThrowable(() -> asyncPublisher.publishPayload(payload, recipients));
 
-    List<PublicKey> recipients = List.of(recipient, otherRecipient);
+    assertThat(ex).isSameAs(cause);
+    verify(executorFactory).createCachedThreadPool();
+    verify(publisher).publishPayload(any(), eq(recipient));
+    verify(publisher).publishPayload(any(), eq(otherRecipient));
+  }
 
-    InterruptedException cause = new InterruptedException("some exception");
+  @Test
+  public void publishPayloadWrapsInterruptedException() {
+    when(executorFactory.createCachedThreadPool()).thenReturn(pending::add);
+    asyncPublisher = new AsyncBatchPayloadPublisher(executorFactory, publisher, discovery);
 
-    doThrow(cause).when(countDownLatch).await();
+    Thread.currentThread().interrupt();
+    final Throwable ex = catchThrowable(() -> asyncPublisher.publishPayload(payload, recipients));
+    // clear the flag in case the wait didn't
+    Thread.interrupted();
 
-    Throwable ex = catchThrowable(() -> asyncPublisher.publishPayload(payload, recipients));
     assertThat(ex).isExactlyInstanceOf(BatchPublishPayloadException.class);
-    assertThat(ex).hasCause(cause);
-
-    verify(executorFactory).createCachedThreadPool();
-    verify(executor, times(2)).execute(any(Runnable.class));
-    verify(countDownLatchFactory).create(2);
-    verify(countDownLatch).await();
+    assertThat(ex).hasCauseExactlyInstanceOf(InterruptedException.class);
+    assertThat(pending).hasSize(2);
+    verify(executorFactory, times(2)).createCachedThreadPool();
   }
 
   @Test
-  public void publishPayloadCancelsCountDownLatchIfOneTaskFails() throws InterruptedException {
-    final Executor realExecutor = Executors.newCachedThreadPool();
-    when(executorFactory.createCachedThreadPool()).thenReturn(realExecutor);
+  public void publishPayloadReturnsAtDeadlineAndFinishesInBackground() {
+    final Executor executor = pending::add;
+    when(executorFactory.createCachedThreadPool()).thenReturn(executor);
+    final BatchPublishConfig config =
+        new BatchPublishConfig(false, 0, Duration.ofMillis(10), false);
+    asyncPublisher = new AsyncBatchPayloadPublisher(executorFactory, publisher, discovery, config);
 
-    asyncPublisher =
-        new AsyncBatchPayloadPublisher(executorFactory, countDownLatchFactory, publisher);
+    asyncPublisher.publishPayload(payload, recipients);
 
-    final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
-    final PublicKey otherRecipient = PublicKey.from("OTHERRECIPIENT".getBytes());
+    verifyNoInteractions(publisher);
 
-    final List<PublicKey> recipients = List.of(recipient, otherRecipient);
+    // a push failing after the deadline is only logged
+    doThrow(new PublishPayloadException("some exception"))
+        .when(publisher)
+        .publishPayload(any(EncodedPayload.class), eq(recipient));
+    pending.forEach(Runnable::run);
 
-    final EncodedPayload payload =
-        EncodedPayload.Builder.create()
-            .withSenderKey(mock(PublicKey.class))
-            .withRecipientKeys(recipients)
-            .withRecipientBoxes(List.of("box1".getBytes(), "box2".getBytes()))
-            .build();
+    verify(executorFactory, times(2)).createCachedThreadPool();
+    verify(publisher).publishPayload(any(), eq(recipient));
+    verify(publisher).publishPayload(any(), eq(otherRecipient));
+  }
 
+  @Test
+  public void publishPayloadWithDeadlineStillThrowsEarlyFailure() {
+    final BatchPublishConfig config =
+        new BatchPublishConfig(false, 0, Duration.ofSeconds(5), false);
+    asyncPublisher = new AsyncBatchPayloadPublisher(executorFactory, publisher, discovery, config);
     final PublishPayloadException cause = new PublishPayloadException("some exception");
+    doThrow(cause).when(publisher).publishPayload(any(EncodedPayload.class), eq(otherRecipient));
 
-    doThrow(cause)
-        .doNothing()
-        .when(publisher)
-        .publishPayload(any(EncodedPayload.class), any(PublicKey.class));
+    final Throwable ex = catchThrowable(() -> asyncPublisher.publishPayload(payload, recipients));
+
+    assertThat(ex).isSameAs(cause);
+    verify(executorFactory, times(2)).createCachedThreadPool();
+    verify(publisher).publishPayload(any(), eq(recipient));
+    verify(publisher).publishPayload(any(), eq(otherRecipient));
+  }
 
-    doAnswer(
-            invocation -> {
-              // sleep main thread so publish threads can work
-              Thread.sleep(200);
-              return null;
-            })
-        .when(countDownLatch)
-        .await();
+  @Test
+  public void publishPayloadWithDeadlineReturnsOnceAllSucceed() {
+    final BatchPublishConfig config =
+        new BatchPublishConfig(false, 0, Duration.ofSeconds(5), false);
+    asyncPublisher = new AsyncBatchPayloadPublisher(executorFactory, publisher, discovery, config);
 
     asyncPublisher.publishPayload(payload, recipients);
 
     verify(executorFactory, times(2)).createCachedThreadPool();
-    verify(countDownLatchFactory).create(2);
     verify(publisher).publishPayload(any(), eq(recipient));
     verify(publisher).publishPayload(any(), eq(otherRecipient));
-    verify(countDownLatch).countDown();
-    verify(countDownLatch).cancelWithException(cause);
-    verify(countDownLatch).await();
+  }
+
+  @Test
+  public void asyncPublishReturnsImmediately() {
+    when(executorFactory.createVirtualThreadPerTaskExecutor()).thenReturn(pending::add);
+    asyncPublisher =
+        new AsyncBatchPayloadPublisher(
+            executorFactory,
+            publisher,
+            discovery,
+            new BatchPublishConfig(true, 1, Duration.ZERO, true));
+
+    asyncPublisher.publishPayload(payload, List.of(recipient, recipient));
+
+    // only one push to the same peer is started at a time
+    assertThat(pending).hasSize(1);
+    verifyNoInteractions(publisher);
+
+    pending.remove(0).run();
+    assertThat(pending).hasSize(1);
+    pending.remove(0).run();
+
+    verify(executorFactory).createCachedThreadPool();
+    verify(executorFactory).createVirtualThreadPerTaskExecutor();
+    verify(publisher, times(2)).publishPayload(any(), eq(recipient));
+  }
+
+  @Test
+  public void pushesToKeysOfTheSamePeerShareItsLimit() {
+    final PublicKey samePeerRecipient = PublicKey.from("SAMEPEER".getBytes());
+    final NodeInfo peer = discovery.getRemoteNodeInfo(recipient);
+    when(discovery.getRemoteNodeInfo(samePeerRecipient)).thenReturn(peer);
+    when(executorFactory.createVirtualThreadPerTaskExecutor()).thenReturn(pending::add);
+    asyncPublisher =
+        new AsyncBatchPayloadPublisher(
+            executorFactory,
+            publisher,
+            discovery,
+            new BatchPublishConfig(true, 1, Duration.ZERO, true));
+
+    asyncPublisher.publishPayload(payload, List.of(recipient, samePeerRecipient, otherRecipient));
+
+    // the two keys of the same peer are pushed one after the other
+    assertThat(pending).hasSize(2);
+
+    verify(executorFactory).createCachedThreadPool();
+    verify(executorFactory).createVirtualThreadPerTaskExecutor();
+  }
+
+  @Test
+  public void unknownRecipientIsStillPushedSoThePushReportsIt() {
+    final PublicKey unknown = PublicKey.from("UNKNOWN".getBytes());
+    final EncodedPayload toUnknown =
+        EncodedPayload.Builder.create()
+            .withSenderKey(mock(PublicKey.class))
+            .withRecipientKeys(List.of(unknown))
+            .withRecipientBoxes(List.of("box".getBytes()))
+            .build();
+    final KeyNotFoundException cause = new KeyNotFoundException("Recipient not found");
+    when(discovery.getRemoteNodeInfo(unknown)).thenThrow(cause);
+    doThrow(cause).when(publisher).publishPayload(any(EncodedPayload.class), eq(unknown));
+
+    final Throwable ex =
+        catchThrowable(() -> asyncPublisher.publishPayload(toUnknown, List.of(unknown)));
+
+    assertThat(ex).isSameAs(cause);
+    verify(executorFactory).createCachedThreadPool();
+    verify(publisher).publishPayload(any(), eq(unknown));
   }
 }
@@ -0,0 +1,56 @@
+package com.quorum.tessera.q2t.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Map;
+import org.junit.Test;
+
+public class BatchPublishConfigTest {
+
+  @Test
+  public void defaults() {
+    BatchPublishConfig config = BatchPublishConfig.defaults();
+
+    assertThat(config.isVirtualThreads()).isFalse();
+    assertThat(config.getMaxConcurrencyPerPeer()).isZero();
+    assertThat(config.getDeadline()).isEqualTo(Duration.ZERO);
+    assertThat(config.isAsync()).isFalse();
+  }
+
+  @Test
+  public void fromProperties() {
+    BatchPublishConfig config =
+        BatchPublishConfig.from(
+            Map.of(
+                BatchPublishConfig.EXECUTOR_PROPERTY, "VIRTUAL",
+                BatchPublishConfig.MAX_CONCURRENCY_PER_PEER_PROPERTY, "4",
+                BatchPublishConfig.DEADLINE_PROPERTY, "2500",
+                BatchPublishConfig.ASYNC_PROPERTY, "true"));
+
+    assertThat(config.isVirtualThreads()).isTrue();
+    assertThat(config.getMaxConcurrencyPerPeer()).isEqualTo(4);
+    assertThat(config.getDeadline()).isEqualTo(Duration.ofMillis(2500));
+    assertThat(config.isAsync()).isTrue();
+  }
+
+  @Test
+  public void fromNullPropertiesUsesDefaults() {
+    BatchPublishConfig config = BatchPublishConfig.from(null);
+
+    assertThat(config.isVirtualThreads()).isFalse();
+    assertThat(config.getDeadline()).isEqualTo(Duration.ZERO);
+  }
+
+  @Test
+  public void unparseablePropertyUsesDefaults() {
+    BatchPublishConfig config =
+        BatchPublishConfig.from(
+            Map.of(
+                BatchPublishConfig.EXECUTOR_PROPERTY, "virtual",
+                BatchPublishConfig.DEADLINE_PROPERTY, "soon"));
+
+    assertThat(config.isVirtualThreads()).isFalse();
+    assertThat(config.getDeadline()).isEqualTo(Duration.ZERO);
+  }
+}
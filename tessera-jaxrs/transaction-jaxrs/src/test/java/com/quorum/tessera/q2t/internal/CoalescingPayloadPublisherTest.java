@@ -0,0 +1,238 @@
+package com.quorum.tessera.q2t.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.*;
+
+import com.quorum.tessera.discovery.Discovery;
+import com.quorum.tessera.enclave.EncodedPayload;
+import com.quorum.tessera.encryption.KeyNotFoundException;
+import com.quorum.tessera.encryption.PublicKey;
+import com.quorum.tessera.partyinfo.node.NodeInfo;
+import com.quorum.tessera.transaction.publish.NodeOfflineException;
+import com.quorum.tessera.transaction.publish.PublishPayloadException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class CoalescingPayloadPublisherTest {
+
+  private RestPayloadPublisher publisher;
+
+  private Discovery discovery;
+
+  private PublicKey recipientKey;
+
+  @Before
+  public void beforeTest() {
+    publisher = mock(RestPayloadPublisher.class);
+    recipientKey = PublicKey.from("RECIPIENT".getBytes());
+
+    discovery = mock(Discovery.class);
+    final NodeInfo peer = mock(NodeInfo.class);
+    when(peer.getUrl()).thenReturn("http://peer");
+    when(discovery.getRemoteNodeInfo(recipientKey)).thenReturn(peer);
+  }
+
+  @After
+  public void afterTest() {
+    verifyNoMoreInteractions(publisher);
+  }
+
+  @Test
+  public void fullBatchIsPushedTogetherWithoutWaitingForLinger() {
+    final EncodedPayload first = mock(EncodedPayload.class);
+    final EncodedPayload second = mock(EncodedPayload.class);
+    when(publisher.publishEach(anyList(), eq(recipientKey)))
+        .thenReturn(List.of(Optional.empty(), Optional.empty()));
+
+    final CoalescingPayloadPublisher coalescingPublisher =
+        new CoalescingPayloadPublisher(publisher, discovery, Duration.ofHours(1), 2);
+
+    final CompletableFuture<Void> other =
+        CompletableFuture.runAsync(() -> coalescingPublisher.publishPayload(first, recipientKey));
+    coalescingPublisher.publishPayload(second, recipientKey);
+    other.join();
+
+    final ArgumentCaptor<List<EncodedPayload>> captor = ArgumentCaptor.forClass(List.class);
+    verify(publisher).publishEach(captor.capture(), eq(recipientKey));
+    assertThat(captor.getValue()).containsExactlyInAnyOrder(first, second);
+  }
+
+  @Test
+  public void eachCallerSeesOnlyTheFailureOfItsOwnPayload() {
+    final EncodedPayload stored = mock(EncodedPayload.class);
+    final EncodedPayload rejected = mock(EncodedPayload.class);
+    final PublishPayloadException failure = new PublishPayloadException("Rejected");
+    when(publisher.publishEach(anyList(), eq(recipientKey)))
+        .thenAnswer(
+            invocation ->
+                invocation.<List<EncodedPayload>>getArgument(0).stream()
+                    .map(p -> p == rejected ? Optional.of(failure) : Optional.empty())
+                    .collect(Collectors.toList()));
+
+    final CoalescingPayloadPublisher coalescingPublisher =
+        new CoalescingPayloadPublisher(publisher, discovery, Duration.ofHours(1), 2);
+
+    final CompletableFuture<Void> other =
+        CompletableFuture.runAsync(() -> coalescingPublisher.publishPayload(stored, recipientKey));
+    final Throwable throwable =
+        catchThrowable(() -> coalescingPublisher.publishPayload(rejected, recipientKey));
+    other.join();
+
+    assertThat(throwable).isSameAs(failure);
+    verify(publisher).publishEach(anyList(), eq(recipientKey));
+  }
+
+  @Test
+  public void payloadIsPushedAloneOnceLingerExpires() {
+    final EncodedPayload payload = mock(EncodedPayload.class);
+    when(publisher.publishEach(List.of(payload), recipientKey))
+        .thenReturn(List.of(Optional.empty()));
+
+    final CoalescingPayloadPublisher coalescingPublisher =
+        new CoalescingPayloadPublisher(publisher, discovery, Duration.ofMillis(5), 10);
+
+    coalescingPublisher.publishPayload(payload, recipientKey);
+    coalescingPublisher.publishPayload(payload, recipientKey);
+
+    verify(publisher, times(2)).publishEach(List.of(payload), recipientKey);
+  }
+
+  @Test
+  public void failedPushFailsEveryPayloadInTheBatch() {
+    final EncodedPayload payload = mock(EncodedPayload.class);
+    final NodeOfflineException failure = new NodeOfflineException(URI.create("http://peer"));
+    when(publisher.publishEach(List.of(payload), recipientKey)).thenThrow(failure);
+
+    final CoalescingPayloadPublisher coalescingPublisher =
+        new CoalescingPayloadPublisher(publisher, discovery, Duration.ofMillis(5), 10);
+
+    final Throwable throwable =
+        catchThrowable(() -> coalescingPublisher.publishPayload(payload, recipientKey));
+
+    assertThat(throwable).isSameAs(failure);
+    verify(publisher).publishEach(List.of(payload), recipientKey);
+  }
+
+  @Test
+  public void interruptedCallerStillPushesItsBatch() {
+    final EncodedPayload payload = mock(EncodedPayload.class);
+    when(publisher.publishEach(List.of(payload), recipientKey))
+        .thenReturn(List.of(Optional.empty()));
+
+    final CoalescingPayloadPublisher coalescingPublisher =
+        new CoalescingPayloadPublisher(publisher, discovery, Duration.ofHours(1), 10);
+
+    Thread.currentThread().interrupt();
+    coalescingPublisher.publishPayload(payload, recipientKey);
+
+    assertThat(Thread.interrupted()).isTrue();
+    verify(publisher).publishEach(List.of(payload), recipientKey);
+  }
+
+  @Test
+  public void payloadsForKeysOfTheSamePeerArePushedTogether() {
+    final PublicKey samePeerKey = PublicKey.from("SAME_PEER".getBytes());
+    final NodeInfo peer = discovery.getRemoteNodeInfo(recipientKey);
+    when(discovery.getRemoteNodeInfo(samePeerKey)).thenReturn(peer);
+
+    final EncodedPayload first = mock(EncodedPayload.class);
+    final EncodedPayload second = mock(EncodedPayload.class);
+    when(publisher.publishEach(anyList(), any(PublicKey.class)))
+        .thenReturn(List.of(Optional.empty(), Optional.empty()));
+
+    final CoalescingPayloadPublisher coalescingPublisher =
+        new CoalescingPayloadPublisher(publisher, discovery, Duration.ofHours(1), 2);
+
+    final CompletableFuture<Void> other =
+        CompletableFuture.runAsync(() -> coalescingPublisher.publishPayload(first, recipientKey));
+    coalescingPublisher.publishPayload(second, samePeerKey);
+    other.join();
+
+    final ArgumentCaptor<List<EncodedPayload>> captor = ArgumentCaptor.forClass(List.class);
+    verify(publisher).publishEach(captor.capture(), any(PublicKey.class));
+    assertThat(captor.getValue()).containsExactlyInAnyOrder(first, second);
+  }
+
+  @Test
+  public void payloadForUnknownKeyIsPushedSoThePushReportsIt() {
+    final PublicKey unknownKey = PublicKey.from("UNKNOWN".getBytes());
+    final KeyNotFoundException failure = new KeyNotFoundException("Unknown");
+    when(discovery.getRemoteNodeInfo(unknownKey)).thenThrow(failure);
+
+    final EncodedPayload payload = mock(EncodedPayload.class);
+    when(publisher.publishEach(List.of(payload), unknownKey)).thenThrow(failure);
+
+    final CoalescingPayloadPublisher coalescingPublisher =
+        new CoalescingPayloadPublisher(publisher, discovery, Duration.ofMillis(5), 10);
+
+    final Throwable throwable =
+        catchThrowable(() -> coalescingPublisher.publishPayload(payload, unknownKey));
+
+    assertThat(throwable).isSameAs(failure);
+    verify(publisher).publishEach(List.of(payload), unknownKey);
+  }
+
+  @Test
+  public void errorDuringPushStillCompletesEveryPayload() {
+    final Error error = new Error("Push failed");
+    when(publisher.publishEach(anyList(), eq(recipientKey))).thenThrow(error);
+
+    final CoalescingPayloadPublisher coalescingPublisher =
+        new CoalescingPayloadPublisher(publisher, discovery, Duration.ofHours(1), 2);
+
+    final CompletableFuture<Void> other =
+        CompletableFuture.runAsync(
+            () -> coalescingPublisher.publishPayload(mock(EncodedPayload.class), recipientKey));
+    final Throwable throwable =
+        catchThrowable(
+            () -> coalescingPublisher.publishPayload(mock(EncodedPayload.class), recipientKey));
+    final Throwable otherThrowable = catchThrowable(other::join);
+
+    assertThat(otherThrowable).isInstanceOf(CompletionException.class);
+    // whichever caller pushed sees the error, the other that its payload was not acknowledged
+    assertThat(List.of(throwable, otherThrowable.getCause()))
+        .contains(error)
+        .hasAtLeastOneElementOfType(PublishPayloadException.class);
+    verify(publisher).publishEach(anyList(), eq(recipientKey));
+  }
+
+  @Test
+  public void missingResultFailsItsPayload() {
+    final EncodedPayload payload = mock(EncodedPayload.class);
+    when(publisher.publishEach(List.of(payload), recipientKey)).thenReturn(List.of());
+
+    final CoalescingPayloadPublisher coalescingPublisher =
+        new CoalescingPayloadPublisher(publisher, discovery, Duration.ofMillis(5), 10);
+
+    final Throwable throwable =
+        catchThrowable(() -> coalescingPublisher.publishPayload(payload, recipientKey));
+
+    assertThat(throwable)
+        .isExactlyInstanceOf(PublishPayloadException.class)
+        .hasMessage("Payload was not acknowledged by the push to http://peer");
+    verify(publisher).publishEach(List.of(payload), recipientKey);
+  }
+
+  @Test
+  public void publishPayloadsIsPushedStraightAway() {
+    final List<EncodedPayload> payloads =
+        List.of(mock(EncodedPayload.class), mock(EncodedPayload.class));
+
+    final CoalescingPayloadPublisher coalescingPublisher =
+        new CoalescingPayloadPublisher(publisher, discovery, Duration.ofHours(1), 10);
+
+    coalescingPublisher.publishPayloads(payloads, recipientKey);
+
+    verify(publisher).publishPayloads(payloads, recipientKey);
+  }
+}
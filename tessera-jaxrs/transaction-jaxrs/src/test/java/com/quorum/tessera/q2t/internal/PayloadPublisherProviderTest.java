@@ -8,6 +8,7 @@ import com.quorum.tessera.config.ConfigFactory;
 import com.quorum.tessera.config.ServerConfig;
 import com.quorum.tessera.discovery.Discovery;
 import com.quorum.tessera.transaction.publish.PayloadPublisher;
+import java.util.Map;
 import org.junit.Test;
 
 public class PayloadPublisherProviderTest {
@@ -28,7 +29,7 @@ public class PayloadPublisherProviderTest {
       discoveryMockedStatic.when(Discovery::create).thenReturn(mock(Discovery.class));
 
       PayloadPublisher payloadPublisher = PayloadPublisherProvider.provider();
-      assertThat(payloadPublisher).isNotNull();
+      assertThat(payloadPublisher).isExactlyInstanceOf(RestPayloadPublisher.class);
 
       configFactoryMockedStatic.verify(ConfigFactory::create);
       configFactoryMockedStatic.verifyNoMoreInteractions();
@@ -38,6 +39,28 @@ public class PayloadPublisherProviderTest {
     }
   }
 
+  @Test
+  public void providerWithLingerCoalescesPushes() {
+
+    ConfigFactory configFactory = mock(ConfigFactory.class);
+    Config config = mock(Config.class);
+    ServerConfig serverConfig = mock(ServerConfig.class);
+    when(serverConfig.getProperties())
+        .thenReturn(Map.of(PushCoalescingConfig.LINGER_PROPERTY, "5"));
+    when(config.getP2PServerConfig()).thenReturn(serverConfig);
+    when(configFactory.getConfig()).thenReturn(config);
+
+    try (var configFactoryMockedStatic = mockStatic(ConfigFactory.class);
+        var discoveryMockedStatic = mockStatic(Discovery.class)) {
+
+      configFactoryMockedStatic.when(ConfigFactory::create).thenReturn(configFactory);
+      discoveryMockedStatic.when(Discovery::create).thenReturn(mock(Discovery.class));
+
+      PayloadPublisher payloadPublisher = PayloadPublisherProvider.provider();
+      assertThat(payloadPublisher).isExactlyInstanceOf(CoalescingPayloadPublisher.class);
+    }
+  }
+
   @Test
   public void defaultConstructorForCoverage() {
     assertThat(new PayloadPublisherProvider()).isNotNull();
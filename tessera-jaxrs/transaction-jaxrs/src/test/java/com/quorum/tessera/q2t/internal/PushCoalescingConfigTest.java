@@ -0,0 +1,63 @@
+package com.quorum.tessera.q2t.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Map;
+import org.junit.Test;
+
+public class PushCoalescingConfigTest {
+
+  @Test
+  public void defaults() {
+    PushCoalescingConfig config = PushCoalescingConfig.defaults();
+
+    assertThat(config.getLinger()).isEqualTo(Duration.ZERO);
+    assertThat(config.getMaxBatchSize()).isEqualTo(100);
+    assertThat(config.isEnabled()).isFalse();
+  }
+
+  @Test
+  public void fromProperties() {
+    PushCoalescingConfig config =
+        PushCoalescingConfig.from(
+            Map.of(
+                PushCoalescingConfig.LINGER_PROPERTY, "5",
+                PushCoalescingConfig.MAX_BATCH_SIZE_PROPERTY, "20"));
+
+    assertThat(config.getLinger()).isEqualTo(Duration.ofMillis(5));
+    assertThat(config.getMaxBatchSize()).isEqualTo(20);
+    assertThat(config.isEnabled()).isTrue();
+  }
+
+  @Test
+  public void fromNullPropertiesUsesDefaults() {
+    PushCoalescingConfig config = PushCoalescingConfig.from(null);
+
+    assertThat(config.getLinger()).isEqualTo(Duration.ZERO);
+    assertThat(config.getMaxBatchSize()).isEqualTo(100);
+  }
+
+  @Test
+  public void unparseablePropertyUsesDefaults() {
+    PushCoalescingConfig config =
+        PushCoalescingConfig.from(
+            Map.of(
+                PushCoalescingConfig.LINGER_PROPERTY, "5",
+                PushCoalescingConfig.MAX_BATCH_SIZE_PROPERTY, "lots"));
+
+    assertThat(config.getLinger()).isEqualTo(Duration.ZERO);
+    assertThat(config.isEnabled()).isFalse();
+  }
+
+  @Test
+  public void batchOfOneIsNotCoalesced() {
+    PushCoalescingConfig config =
+        PushCoalescingConfig.from(
+            Map.of(
+                PushCoalescingConfig.LINGER_PROPERTY, "5",
+                PushCoalescingConfig.MAX_BATCH_SIZE_PROPERTY, "1"));
+
+    assertThat(config.isEnabled()).isFalse();
+  }
+}
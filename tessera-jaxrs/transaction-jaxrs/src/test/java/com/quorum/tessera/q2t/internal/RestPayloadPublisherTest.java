@@ -4,6 +4,9 @@ import static org.assertj.core.api.Assertions.*;
 import static org.assertj.core.api.Fail.failBecauseExceptionWasNotThrown;
 import static org.mockito.Mockito.*;
 
+import com.quorum.tessera.api.PushAcknowledgement;
+import com.quorum.tessera.api.PushManyRequest;
+import com.quorum.tessera.api.PushManyResponse;
 import com.quorum.tessera.discovery.Discovery;
 import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.enclave.EncodedPayloadCodec;
@@ -25,12 +28,18 @@ import jakarta.ws.rs.client.WebTarget;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import org.assertj.core.api.Assertions;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.MockedStatic;
 
 public class RestPayloadPublisherTest {
@@ -229,4 +238,372 @@ public class RestPayloadPublisherTest {
     payloadEncoderFactoryFunction.verify(
         () -> PayloadEncoder.create(any(EncodedPayloadCodec.class)));
   }
+
+  @Test
+  public void publishEachPushesTogetherToPeerThatSupportsPushMany() {
+    final String targetUrl = "http://peer";
+    final PublicKey recipientKey = PublicKey.from("RECIPIENT".getBytes());
+    remoteNode(recipientKey, targetUrl, Set.of(EnhancedPrivacyVersion.API_VERSION_2, "7.0"));
+
+    final EncodedPayload stored = payload(PrivacyMode.STANDARD_PRIVATE, "STORED");
+    final EncodedPayload unsupported = payload(PrivacyMode.MANDATORY_RECIPIENTS, "UNSUPPORTED");
+    final EncodedPayload rejected = payload(PrivacyMode.STANDARD_PRIVATE, "REJECTED");
+
+    final Invocation.Builder invocationBuilder = invocationBuilder(targetUrl);
+    final Response response = mock(Response.class);
+    when(response.getStatus()).thenReturn(200);
+    when(response.readEntity(PushManyResponse.class))
+        .thenReturn(acknowledgements(stored("STORED"), notStored("Not stored")));
+    when(invocationBuilder.post(any(Entity.class))).thenReturn(response);
+
+    final List<Optional<RuntimeException>> acknowledgements =
+        payloadPublisher.publishEach(List.of(stored, unsupported, rejected), recipientKey);
+
+    assertThat(acknowledgements).hasSize(3);
+    assertThat(acknowledgements.get(0)).isEmpty();
+    assertThat(acknowledgements.get(1).get())
+        .isInstanceOf(MandatoryRecipientsNotSupportedException.class);
+    assertThat(acknowledgements.get(2).get())
+        .isInstanceOf(PublishPayloadException.class)
+        .hasMessage("Unable to push payload to recipient url http://peer: Not stored");
+
+    final ArgumentCaptor<Entity> captor = ArgumentCaptor.forClass(Entity.class);
+    verify(invocationBuilder).post(captor.capture());
+    assertThat(captor.getValue().getMediaType()).isEqualTo(MediaType.APPLICATION_JSON_TYPE);
+    assertThat(captor.getValue().getEntity()).isInstanceOf(PushManyRequest.class);
+    assertThat(((PushManyRequest) captor.getValue().getEntity()).getEncodedPayloads())
+        .containsExactly("STORED".getBytes(), "REJECTED".getBytes());
+
+    verify(client).target(targetUrl);
+    verify(discovery).getRemoteNodeInfo(recipientKey);
+    verify(payloadEncoder).encode(stored);
+    verify(payloadEncoder).encode(rejected);
+    payloadEncoderFactoryFunction.verify(
+        () -> PayloadEncoder.create(any(EncodedPayloadCodec.class)));
+  }
+
+  @Test
+  public void publishPayloadsThrowsFirstFailureOnceAllArePushed() {
+    final String targetUrl = "http://peer";
+    final PublicKey recipientKey = PublicKey.from("RECIPIENT".getBytes());
+    remoteNode(recipientKey, targetUrl, Set.of("7.0"));
+
+    final EncodedPayload unsupported = payload(PrivacyMode.PARTY_PROTECTION, "UNSUPPORTED");
+    final EncodedPayload stored = payload(PrivacyMode.STANDARD_PRIVATE, "STORED");
+    final EncodedPayload other = payload(PrivacyMode.STANDARD_PRIVATE, "OTHER");
+
+    final Invocation.Builder invocationBuilder = invocationBuilder(targetUrl);
+    final Response response = mock(Response.class);
+    when(response.getStatus()).thenReturn(200);
+    when(response.readEntity(PushManyResponse.class))
+        .thenReturn(acknowledgements(stored("STORED"), stored("OTHER")));
+    when(invocationBuilder.post(any(Entity.class))).thenReturn(response);
+
+    assertThatExceptionOfType(EnhancedPrivacyNotSupportedException.class)
+        .isThrownBy(
+            () ->
+                payloadPublisher.publishPayloads(
+                    List.of(unsupported, stored, other), recipientKey));
+
+    verify(invocationBuilder).post(any(Entity.class));
+    verify(client).target(targetUrl);
+    verify(discovery).getRemoteNodeInfo(recipientKey);
+    verify(payloadEncoder).encode(stored);
+    verify(payloadEncoder).encode(other);
+    payloadEncoderFactoryFunction.verify(
+        () -> PayloadEncoder.create(any(EncodedPayloadCodec.class)));
+  }
+
+  @Test
+  public void publishPayloadsToPeerThatDoesNotSupportPushMany() {
+    final String targetUrl = "http://peer";
+    final PublicKey recipientKey = PublicKey.from("RECIPIENT".getBytes());
+    remoteNode(recipientKey, targetUrl, Set.of(EnhancedPrivacyVersion.API_VERSION_2, "4.0"));
+
+    final EncodedPayload first = payload(PrivacyMode.STANDARD_PRIVATE, "FIRST");
+    final EncodedPayload second = payload(PrivacyMode.STANDARD_PRIVATE, "SECOND");
+
+    final Invocation.Builder invocationBuilder = invocationBuilder(targetUrl);
+    when(invocationBuilder.post(any(Entity.class)))
+        .thenReturn(Response.status(Response.Status.CREATED).build());
+
+    payloadPublisher.publishPayloads(List.of(first, second), recipientKey);
+
+    verify(invocationBuilder)
+        .post(Entity.entity("FIRST".getBytes(), MediaType.APPLICATION_OCTET_STREAM_TYPE));
+    verify(invocationBuilder)
+        .post(Entity.entity("SECOND".getBytes(), MediaType.APPLICATION_OCTET_STREAM_TYPE));
+    verify(client, times(2)).target(targetUrl);
+    verify(discovery).getRemoteNodeInfo(recipientKey);
+    verify(payloadEncoder).encode(first);
+    verify(payloadEncoder).encode(second);
+    payloadEncoderFactoryFunction.verify(
+        () -> PayloadEncoder.create(any(EncodedPayloadCodec.class)), times(2));
+  }
+
+  @Test
+  public void publishEachPushesSinglePayloadOnItsOwn() {
+    final String targetUrl = "http://peer";
+    final PublicKey recipientKey = PublicKey.from("RECIPIENT".getBytes());
+    remoteNode(recipientKey, targetUrl, Set.of("7.0"));
+
+    final EncodedPayload payload = payload(PrivacyMode.STANDARD_PRIVATE, "ONLY");
+
+    final Invocation.Builder invocationBuilder = invocationBuilder(targetUrl);
+    when(invocationBuilder.post(any(Entity.class)))
+        .thenReturn(Response.status(Response.Status.BAD_REQUEST).build());
+
+    final List<Optional<RuntimeException>> acknowledgements =
+        payloadPublisher.publishEach(List.of(payload), recipientKey);
+
+    assertThat(acknowledgements).hasSize(1);
+    assertThat(acknowledgements.get(0).get()).isInstanceOf(PublishPayloadException.class);
+
+    verify(invocationBuilder)
+        .post(Entity.entity("ONLY".getBytes(), MediaType.APPLICATION_OCTET_STREAM_TYPE));
+    verify(client).target(targetUrl);
+    verify(discovery).getRemoteNodeInfo(recipientKey);
+    verify(payloadEncoder).encode(payload);
+    payloadEncoderFactoryFunction.verify(
+        () -> PayloadEncoder.create(any(EncodedPayloadCodec.class)));
+  }
+
+  @Test
+  public void publishEachWithNoSupportedPayloadsPushesNothing() {
+    final PublicKey recipientKey = PublicKey.from("RECIPIENT".getBytes());
+    remoteNode(recipientKey, "http://peer", Set.of("7.0"));
+
+    final EncodedPayload first = payload(PrivacyMode.PARTY_PROTECTION, "FIRST");
+    final EncodedPayload second = payload(PrivacyMode.PRIVATE_STATE_VALIDATION, "SECOND");
+
+    final List<Optional<RuntimeException>> acknowledgements =
+        payloadPublisher.publishEach(List.of(first, second), recipientKey);
+
+    assertThat(acknowledgements)
+        .allSatisfy(
+            a -> assertThat(a.get()).isInstanceOf(EnhancedPrivacyNotSupportedException.class));
+
+    verify(discovery).getRemoteNodeInfo(recipientKey);
+    payloadEncoderFactoryFunction.verify(
+        () -> PayloadEncoder.create(any(EncodedPayloadCodec.class)));
+  }
+
+  @Test
+  public void publishEachFallsBackToPushWhenPeerDoesNotAcceptPushMany() {
+    final String targetUrl = "http://peer";
+    final PublicKey recipientKey = PublicKey.from("RECIPIENT".getBytes());
+    remoteNode(recipientKey, targetUrl, Set.of("7.0"));
+
+    final EncodedPayload first = payload(PrivacyMode.STANDARD_PRIVATE, "FIRST");
+    final EncodedPayload second = payload(PrivacyMode.STANDARD_PRIVATE, "SECOND");
+
+    final Invocation.Builder invocationBuilder = invocationBuilder(targetUrl);
+    when(invocationBuilder.post(any(Entity.class)))
+        .thenReturn(Response.status(Response.Status.NOT_FOUND).build())
+        .thenReturn(Response.status(Response.Status.CREATED).build());
+
+    final List<Optional<RuntimeException>> acknowledgements =
+        payloadPublisher.publishEach(List.of(first, second), recipientKey);
+
+    assertThat(acknowledgements).containsExactly(Optional.empty(), Optional.empty());
+
+    verify(invocationBuilder, times(3)).post(any(Entity.class));
+    verify(client, times(3)).target(targetUrl);
+    verify(discovery).getRemoteNodeInfo(recipientKey);
+    verify(payloadEncoder, times(2)).encode(first);
+    verify(payloadEncoder, times(2)).encode(second);
+    payloadEncoderFactoryFunction.verify(
+        () -> PayloadEncoder.create(any(EncodedPayloadCodec.class)), times(3));
+  }
+
+  @Test
+  public void publishEachFailsWhenPushManyIsRejected() {
+    final String targetUrl = "http://peer";
+    final PublicKey recipientKey = PublicKey.from("RECIPIENT".getBytes());
+    remoteNode(recipientKey, targetUrl, Set.of("7.0"));
+
+    final EncodedPayload first = payload(PrivacyMode.STANDARD_PRIVATE, "FIRST");
+    final EncodedPayload second = payload(PrivacyMode.STANDARD_PRIVATE, "SECOND");
+
+    final Invocation.Builder invocationBuilder = invocationBuilder(targetUrl);
+    when(invocationBuilder.post(any(Entity.class)))
+        .thenReturn(Response.status(Response.Status.INTERNAL_SERVER_ERROR).build());
+
+    assertThatExceptionOfType(PublishPayloadException.class)
+        .isThrownBy(() -> payloadPublisher.publishEach(List.of(first, second), recipientKey))
+        .withMessage("Unable to push payloads to recipient url http://peer");
+
+    verify(invocationBuilder).post(any(Entity.class));
+    verify(client).target(targetUrl);
+    verify(discovery).getRemoteNodeInfo(recipientKey);
+    verify(payloadEncoder).encode(first);
+    verify(payloadEncoder).encode(second);
+    payloadEncoderFactoryFunction.verify(
+        () -> PayloadEncoder.create(any(EncodedPayloadCodec.class)));
+  }
+
+  @Test
+  public void publishEachFailsWhenAcknowledgementsDoNotMatch() {
+    final String targetUrl = "http://peer";
+    final PublicKey recipientKey = PublicKey.from("RECIPIENT".getBytes());
+    remoteNode(recipientKey, targetUrl, Set.of("7.0"));
+
+    final EncodedPayload first = payload(PrivacyMode.STANDARD_PRIVATE, "FIRST");
+    final EncodedPayload second = payload(PrivacyMode.STANDARD_PRIVATE, "SECOND");
+
+    final Invocation.Builder invocationBuilder = invocationBuilder(targetUrl);
+    final Response response = mock(Response.class);
+    when(response.getStatus()).thenReturn(200);
+    when(response.readEntity(PushManyResponse.class))
+        .thenReturn(acknowledgements(stored("FIRST")));
+    when(invocationBuilder.post(any(Entity.class))).thenReturn(response);
+
+    assertThatExceptionOfType(PublishPayloadException.class)
+        .isThrownBy(() -> payloadPublisher.publishEach(List.of(first, second), recipientKey))
+        .withMessage("Unexpected acknowledgements from recipient url http://peer");
+
+    verify(invocationBuilder).post(any(Entity.class));
+    verify(client).target(targetUrl);
+    verify(discovery).getRemoteNodeInfo(recipientKey);
+    verify(payloadEncoder).encode(first);
+    verify(payloadEncoder).encode(second);
+    payloadEncoderFactoryFunction.verify(
+        () -> PayloadEncoder.create(any(EncodedPayloadCodec.class)));
+  }
+
+  @Test
+  public void publishEachSplitsPayloadsIntoRequestsThePeerAccepts() {
+    final String targetUrl = "http://peer";
+    final PublicKey recipientKey = PublicKey.from("RECIPIENT".getBytes());
+    remoteNode(recipientKey, targetUrl, Set.of("7.0"));
+
+    final List<EncodedPayload> payloads =
+        IntStream.rangeClosed(0, PushManyRequest.MAX_PAYLOADS)
+            .mapToObj(i -> payload(PrivacyMode.STANDARD_PRIVATE, "PAYLOAD" + i))
+            .collect(Collectors.toList());
+
+    final Invocation.Builder invocationBuilder = invocationBuilder(targetUrl);
+    final Response response = mock(Response.class);
+    when(response.getStatus()).thenReturn(200);
+    when(response.readEntity(PushManyResponse.class))
+        .thenReturn(
+            acknowledgements(
+                Stream.generate(() -> stored("KEY"))
+                    .limit(PushManyRequest.MAX_PAYLOADS)
+                    .toArray(PushAcknowledgement[]::new)),
+            acknowledgements(notStored("Not stored")));
+    when(invocationBuilder.post(any(Entity.class))).thenReturn(response);
+
+    final List<Optional<RuntimeException>> acknowledgements =
+        payloadPublisher.publishEach(payloads, recipientKey);
+
+    assertThat(acknowledgements).hasSize(PushManyRequest.MAX_PAYLOADS + 1);
+    assertThat(acknowledgements.subList(0, PushManyRequest.MAX_PAYLOADS))
+        .allMatch(Optional::isEmpty);
+    assertThat(acknowledgements.get(PushManyRequest.MAX_PAYLOADS).get())
+        .isInstanceOf(PublishPayloadException.class);
+
+    final ArgumentCaptor<Entity> captor = ArgumentCaptor.forClass(Entity.class);
+    verify(invocationBuilder, times(2)).post(captor.capture());
+    assertThat(captor.getAllValues())
+        .extracting(entity -> ((PushManyRequest) entity.getEntity()).getEncodedPayloads().size())
+        .containsExactly(PushManyRequest.MAX_PAYLOADS, 1);
+
+    verify(client, times(2)).target(targetUrl);
+    verify(discovery).getRemoteNodeInfo(recipientKey);
+    payloads.forEach(payload -> verify(payloadEncoder).encode(payload));
+    payloadEncoderFactoryFunction.verify(
+        () -> PayloadEncoder.create(any(EncodedPayloadCodec.class)));
+  }
+
+  @Test
+  public void publishEachFailsWhenThereAreNoAcknowledgements() {
+    final String targetUrl = "http://peer";
+    final PublicKey recipientKey = PublicKey.from("RECIPIENT".getBytes());
+    remoteNode(recipientKey, targetUrl, Set.of("7.0"));
+
+    final EncodedPayload first = payload(PrivacyMode.STANDARD_PRIVATE, "FIRST");
+    final EncodedPayload second = payload(PrivacyMode.STANDARD_PRIVATE, "SECOND");
+
+    final Invocation.Builder invocationBuilder = invocationBuilder(targetUrl);
+    final Response response = mock(Response.class);
+    when(response.getStatus()).thenReturn(200);
+    when(invocationBuilder.post(any(Entity.class))).thenReturn(response);
+
+    assertThatExceptionOfType(PublishPayloadException.class)
+        .isThrownBy(() -> payloadPublisher.publishEach(List.of(first, second), recipientKey))
+        .withMessage("Unexpected acknowledgements from recipient url http://peer");
+
+    verify(invocationBuilder).post(any(Entity.class));
+    verify(client).target(targetUrl);
+    verify(discovery).getRemoteNodeInfo(recipientKey);
+    verify(payloadEncoder).encode(first);
+    verify(payloadEncoder).encode(second);
+    payloadEncoderFactoryFunction.verify(
+        () -> PayloadEncoder.create(any(EncodedPayloadCodec.class)));
+  }
+
+  @Test
+  public void publishEachHandlesConnectionError() {
+    final String targetUrl = "http://peer";
+    final PublicKey recipientKey = PublicKey.from("RECIPIENT".getBytes());
+    remoteNode(recipientKey, targetUrl, Set.of("7.0"));
+
+    final EncodedPayload first = payload(PrivacyMode.STANDARD_PRIVATE, "FIRST");
+    final EncodedPayload second = payload(PrivacyMode.STANDARD_PRIVATE, "SECOND");
+
+    when(client.target(targetUrl)).thenThrow(ProcessingException.class);
+
+    assertThatExceptionOfType(NodeOfflineException.class)
+        .isThrownBy(() -> payloadPublisher.publishEach(List.of(first, second), recipientKey))
+        .withMessageContaining(targetUrl);
+
+    verify(client).target(targetUrl);
+    verify(discovery).getRemoteNodeInfo(recipientKey);
+    verify(payloadEncoder).encode(first);
+    verify(payloadEncoder).encode(second);
+    payloadEncoderFactoryFunction.verify(
+        () -> PayloadEncoder.create(any(EncodedPayloadCodec.class)));
+  }
+
+  private void remoteNode(PublicKey recipientKey, String targetUrl, Set<String> versions) {
+    final NodeInfo nodeInfo = mock(NodeInfo.class);
+    when(nodeInfo.supportedApiVersions()).thenReturn(versions);
+    when(nodeInfo.getUrl()).thenReturn(targetUrl);
+    when(discovery.getRemoteNodeInfo(recipientKey)).thenReturn(nodeInfo);
+  }
+
+  private static PushAcknowledgement stored(String key) {
+    final PushAcknowledgement acknowledgement = new PushAcknowledgement();
+    acknowledgement.setKey(key);
+    return acknowledgement;
+  }
+
+  private static PushAcknowledgement notStored(String error) {
+    final PushAcknowledgement acknowledgement = new PushAcknowledgement();
+    acknowledgement.setError(error);
+    return acknowledgement;
+  }
+
+  private static PushManyResponse acknowledgements(PushAcknowledgement... acknowledgements) {
+    final PushManyResponse pushManyResponse = new PushManyResponse();
+    pushManyResponse.setAcknowledgements(acknowledgements);
+    return pushManyResponse;
+  }
+
+  private EncodedPayload payload(PrivacyMode privacyMode, String data) {
+    final EncodedPayload payload = mock(EncodedPayload.class);
+    when(payload.getPrivacyMode()).thenReturn(privacyMode);
+    when(payloadEncoder.encode(payload)).thenReturn(data.getBytes());
+    return payload;
+  }
+
+  private Invocation.Builder invocationBuilder(String targetUrl) {
+    final WebTarget webTarget = mock(WebTarget.class);
+    when(client.target(targetUrl)).thenReturn(webTarget);
+    when(webTarget.path(anyString())).thenReturn(webTarget);
+    final Invocation.Builder invocationBuilder = mock(Invocation.Builder.class);
+    when(webTarget.request()).thenReturn(invocationBuilder);
+    return invocationBuilder;
+  }
 }
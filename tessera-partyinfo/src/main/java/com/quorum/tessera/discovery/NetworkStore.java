@@ -1,5 +1,8 @@
 package com.quorum.tessera.discovery;
 
+import com.quorum.tessera.encryption.PublicKey;
+import com.quorum.tessera.partyinfo.node.NodeInfo;
+import java.util.Optional;
 import java.util.ServiceLoader;
 import java.util.stream.Stream;
 
@@ -11,6 +14,22 @@ public interface NetworkStore {
 
   Stream<ActiveNode> getActiveNodes();
 
+  /**
+   * Find the node that advertises the given key.
+   *
+   * @param publicKey the key to look up
+   * @return the node holding the key, or empty if no known node holds it
+   */
+  Optional<ActiveNode> getActiveNode(PublicKey publicKey);
+
+  /**
+   * Find the node that advertises the given key, described as it would be sent to that node.
+   *
+   * @param publicKey the key to look up
+   * @return the node holding the key, or empty if no known node holds it
+   */
+  Optional<NodeInfo> getNodeInfo(PublicKey publicKey);
+
   static NetworkStore getInstance() {
     return ServiceLoader.load(NetworkStore.class).findFirst().get();
   }
@@ -3,39 +3,125 @@ package com.quorum.tessera.discovery.internal;
 import com.quorum.tessera.discovery.ActiveNode;
 import com.quorum.tessera.discovery.NetworkStore;
 import com.quorum.tessera.discovery.NodeUri;
-import java.util.Set;
+import com.quorum.tessera.encryption.PublicKey;
+import com.quorum.tessera.partyinfo.node.NodeInfo;
+import com.quorum.tessera.partyinfo.node.Recipient;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Holds the known nodes indexed both by URI and by each key they advertise, so that finding where
+ * to send a transaction for a key is a single lookup rather than a scan of every node.
+ *
+ * <p>Reads never lock. Writes are serialised so the two indexes stay consistent with each other,
+ * and the list handed out by {@link #getActiveNodes()} is an immutable snapshot that is only
+ * rebuilt on the first read after a change.
+ */
 public enum DefaultNetworkStore implements NetworkStore {
   INSTANCE;
 
-  private final Set<ActiveNode> activeNodes = ConcurrentHashMap.newKeySet();
+  private final Map<NodeUri, IndexedNode> nodesByUri = new ConcurrentHashMap<>();
+
+  private final Map<PublicKey, IndexedNode> nodesByKey = new ConcurrentHashMap<>();
+
+  private volatile List<ActiveNode> snapshot = List.of();
 
   private static final Logger LOGGER = LoggerFactory.getLogger(DefaultNetworkStore.class);
 
   @Override
-  public NetworkStore store(ActiveNode activeNode) {
+  public synchronized NetworkStore store(ActiveNode activeNode) {
+
+    final IndexedNode indexedNode = new IndexedNode(activeNode);
 
-    activeNodes.removeIf(a -> a.getUri().equals(activeNode.getUri()));
-    activeNodes.add(activeNode);
+    final IndexedNode previous = nodesByUri.put(activeNode.getUri(), indexedNode);
+    if (Objects.nonNull(previous)) {
+      unindexKeys(previous, activeNode.getKeys());
+    }
+    activeNode.getKeys().forEach(k -> nodesByKey.put(k, indexedNode));
+    snapshot = null;
 
-    LOGGER.debug("Stored node {}. Active node count {}", activeNode.getUri(), activeNodes.size());
+    LOGGER.debug("Stored node {}. Active node count {}", activeNode.getUri(), nodesByUri.size());
     return this;
   }
 
   @Override
-  public NetworkStore remove(NodeUri nodeUri) {
-    activeNodes.removeIf(a -> a.getUri().equals(nodeUri));
-    LOGGER.debug("Removed node {}. Active node count {}", nodeUri, activeNodes.size());
+  public synchronized NetworkStore remove(NodeUri nodeUri) {
+    final IndexedNode previous = nodesByUri.remove(nodeUri);
+    if (Objects.nonNull(previous)) {
+      unindexKeys(previous, Set.of());
+      snapshot = null;
+    }
+    LOGGER.debug("Removed node {}. Active node count {}", nodeUri, nodesByUri.size());
     return this;
   }
 
   @Override
   public Stream<ActiveNode> getActiveNodes() {
+    List<ActiveNode> activeNodes = snapshot;
+    if (Objects.isNull(activeNodes)) {
+      activeNodes = takeSnapshot();
+    }
     LOGGER.debug("Fetching active nodes {}", activeNodes);
     return activeNodes.stream();
   }
+
+  @Override
+  public Optional<ActiveNode> getActiveNode(PublicKey publicKey) {
+    return Optional.ofNullable(nodesByKey.get(publicKey)).map(n -> n.activeNode);
+  }
+
+  @Override
+  public Optional<NodeInfo> getNodeInfo(PublicKey publicKey) {
+    return Optional.ofNullable(nodesByKey.get(publicKey)).map(n -> n.nodeInfo);
+  }
+
+  private synchronized List<ActiveNode> takeSnapshot() {
+    if (Objects.isNull(snapshot)) {
+      snapshot =
+          nodesByUri.values().stream()
+              .map(n -> n.activeNode)
+              .collect(Collectors.toUnmodifiableList());
+    }
+    return snapshot;
+  }
+
+  // Drop the index entries of a replaced or removed node for every key it no longer holds. A key
+  // that was also advertised by another node is handed over to that node rather than dropped.
+  private void unindexKeys(IndexedNode previous, Set<PublicKey> retainedKeys) {
+    previous.activeNode.getKeys().stream()
+        .filter(k -> !retainedKeys.contains(k))
+        .filter(k -> nodesByKey.remove(k, previous))
+        .forEach(
+            k ->
+                nodesByUri.values().stream()
+                    .filter(n -> n.activeNode.getKeys().contains(k))
+                    .findAny()
+                    .ifPresent(n -> nodesByKey.put(k, n)));
+  }
+
+  private static class IndexedNode {
+
+    private final ActiveNode activeNode;
+
+    private final NodeInfo nodeInfo;
+
+    private IndexedNode(ActiveNode activeNode) {
+      final String url = activeNode.getUri().asString();
+
+      this.activeNode = activeNode;
+      this.nodeInfo =
+          NodeInfo.Builder.create()
+              .withUrl(url)
+              .withRecipients(
+                  activeNode.getKeys().stream()
+                      .map(k -> Recipient.of(k, url))
+                      .collect(Collectors.toSet()))
+              .withSupportedApiVersions(activeNode.getSupportedVersions())
+              .build();
+    }
+  }
 }
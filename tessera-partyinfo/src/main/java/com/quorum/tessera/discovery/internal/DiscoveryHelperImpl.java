@@ -75,32 +75,12 @@ public class DiscoveryHelperImpl implements DiscoveryHelper {
 
   @Override
   public NodeInfo buildRemoteNodeInfo(PublicKey recipientKey) {
-
-    final ActiveNode activeNode =
-        networkStore
-            .getActiveNodes()
-            .filter(node -> node.getKeys().contains(recipientKey))
-            .findAny()
-            .orElseThrow(
-                () ->
-                    new KeyNotFoundException(
-                        "Recipient not found for key: " + recipientKey.encodeToBase64()));
-
-    final String nodeUrl = activeNode.getUri().asString();
-
-    final Set<Recipient> recipients =
-        activeNode.getKeys().stream()
-            .map(k -> Recipient.of(k, nodeUrl))
-            .collect(Collectors.toSet());
-
-    final NodeInfo nodeInfo =
-        NodeInfo.Builder.create()
-            .withUrl(nodeUrl)
-            .withRecipients(recipients)
-            .withSupportedApiVersions(activeNode.getSupportedVersions())
-            .build();
-
-    return nodeInfo;
+    return networkStore
+        .getNodeInfo(recipientKey)
+        .orElseThrow(
+            () ->
+                new KeyNotFoundException(
+                    "Recipient not found for key: " + recipientKey.encodeToBase64()));
   }
 
   @Override
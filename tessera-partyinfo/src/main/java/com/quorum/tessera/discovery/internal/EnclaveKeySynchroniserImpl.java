@@ -6,6 +6,7 @@ import com.quorum.tessera.discovery.EnclaveKeySynchroniser;
 import com.quorum.tessera.discovery.NetworkStore;
 import com.quorum.tessera.discovery.NodeUri;
 import com.quorum.tessera.enclave.Enclave;
+import com.quorum.tessera.enclave.EnclaveClient;
 import com.quorum.tessera.encryption.PublicKey;
 import java.util.List;
 import java.util.Objects;
@@ -28,6 +29,10 @@ class EnclaveKeySynchroniserImpl implements EnclaveKeySynchroniser {
   @Override
   public void syncKeys() {
 
+    if (enclave instanceof EnclaveClient) {
+      ((EnclaveClient) enclave).refreshKeys();
+    }
+
     NodeUri nodeUri =
         Optional.of(RuntimeContext.getInstance())
             .map(RuntimeContext::getP2pServerUri)
@@ -7,6 +7,15 @@ public interface P2pClient {
 
   boolean sendPartyInfo(String targetUrl, byte[] data);
 
+  /**
+   * Sends the changes to this node's partyinfo since the snapshot the target last acknowledged
+   *
+   * @param targetUrl the node to send the changes to
+   * @param data the encoded changes
+   * @return whether the target applied the changes; if not, the target needs the full partyinfo
+   */
+  boolean sendPartyInfoDelta(String targetUrl, byte[] data);
+
   static P2pClient create() {
     return ServiceLoaderUtil.loadSingle(ServiceLoader.load(P2pClient.class));
   }
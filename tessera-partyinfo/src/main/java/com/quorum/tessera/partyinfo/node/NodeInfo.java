@@ -41,16 +41,19 @@ public interface NodeInfo {
 
       Objects.requireNonNull(url, "URL is required");
 
+      final Set<Recipient> recipients = Set.copyOf(this.recipients);
+      final Set<String> supportedApiVersions = Set.copyOf(this.supportedApiVersions);
+
       return new NodeInfo() {
 
         @Override
         public Set<Recipient> getRecipients() {
-          return Set.copyOf(recipients);
+          return recipients;
         }
 
         @Override
         public Set<String> supportedApiVersions() {
-          return Set.copyOf(supportedApiVersions);
+          return supportedApiVersions;
         }
 
         @Override
@@ -3,6 +3,11 @@ package com.quorum.tessera.discovery;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.quorum.tessera.discovery.internal.DefaultNetworkStore;
+import com.quorum.tessera.encryption.PublicKey;
+import com.quorum.tessera.partyinfo.node.NodeInfo;
+import com.quorum.tessera.partyinfo.node.Recipient;
+import java.util.List;
+import java.util.stream.Stream;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -49,4 +54,105 @@ public class NetworkStoreTest {
 
     assertThat(networkStore.getActiveNodes().count()).isEqualTo(2L);
   }
+
+  @Test
+  public void findNodeByKey() {
+    final PublicKey key = PublicKey.from("key".getBytes());
+    final PublicKey otherKey = PublicKey.from("otherKey".getBytes());
+    final ActiveNode activeNode =
+        ActiveNode.Builder.create()
+            .withUri(NodeUri.create("http://someaddress.com"))
+            .withKeys(List.of(key, otherKey))
+            .withSupportedVersions(List.of("v1"))
+            .build();
+
+    networkStore.store(activeNode);
+
+    assertThat(networkStore.getActiveNode(key)).containsSame(activeNode);
+    assertThat(networkStore.getActiveNode(PublicKey.from("unknown".getBytes()))).isEmpty();
+
+    final NodeInfo nodeInfo = networkStore.getNodeInfo(key).get();
+    assertThat(nodeInfo.getUrl()).isEqualTo("http://someaddress.com/");
+    assertThat(nodeInfo.getRecipients())
+        .containsExactlyInAnyOrder(
+            Recipient.of(key, "http://someaddress.com/"),
+            Recipient.of(otherKey, "http://someaddress.com/"));
+    assertThat(nodeInfo.supportedApiVersions()).containsExactly("v1");
+    assertThat(networkStore.getNodeInfo(otherKey)).containsSame(nodeInfo);
+  }
+
+  @Test
+  public void replacingNodeDropsKeysItNoLongerHolds() {
+    final NodeUri nodeUri = NodeUri.create("http://someaddress.com");
+    final PublicKey key = PublicKey.from("key".getBytes());
+    final PublicKey otherKey = PublicKey.from("otherKey".getBytes());
+
+    networkStore.store(
+        ActiveNode.Builder.create().withUri(nodeUri).withKeys(List.of(key, otherKey)).build());
+
+    final ActiveNode replacement =
+        ActiveNode.Builder.create().withUri(nodeUri).withKeys(List.of(key)).build();
+    networkStore.store(replacement);
+
+    assertThat(networkStore.getActiveNodes()).containsExactly(replacement);
+    assertThat(networkStore.getActiveNode(key)).containsSame(replacement);
+    assertThat(networkStore.getActiveNode(otherKey)).isEmpty();
+    assertThat(networkStore.getNodeInfo(key).get().getRecipients()).hasSize(1);
+  }
+
+  @Test
+  public void removingNodeDropsItsKeys() {
+    final NodeUri nodeUri = NodeUri.create("http://someaddress.com");
+    final PublicKey key = PublicKey.from("key".getBytes());
+
+    networkStore.store(ActiveNode.Builder.create().withUri(nodeUri).withKeys(List.of(key)).build());
+    networkStore.remove(nodeUri);
+
+    assertThat(networkStore.getActiveNode(key)).isEmpty();
+    assertThat(networkStore.getNodeInfo(key)).isEmpty();
+
+    networkStore.remove(nodeUri);
+    assertThat(networkStore.getActiveNodes()).isEmpty();
+  }
+
+  @Test
+  public void keySharedByTwoNodesMovesToRemainingNode() {
+    final PublicKey sharedKey = PublicKey.from("sharedKey".getBytes());
+
+    final ActiveNode first =
+        ActiveNode.Builder.create()
+            .withUri(NodeUri.create("http://first.com"))
+            .withKeys(List.of(sharedKey))
+            .build();
+    final ActiveNode second =
+        ActiveNode.Builder.create()
+            .withUri(NodeUri.create("http://second.com"))
+            .withKeys(List.of(sharedKey))
+            .build();
+
+    networkStore.store(first);
+    networkStore.store(second);
+
+    assertThat(networkStore.getActiveNode(sharedKey)).containsSame(second);
+
+    networkStore.remove(second.getUri());
+
+    assertThat(networkStore.getActiveNode(sharedKey)).containsSame(first);
+  }
+
+  @Test
+  public void activeNodesAreASnapshot() {
+    final ActiveNode activeNode =
+        ActiveNode.Builder.create().withUri(NodeUri.create("http://someaddress.com")).build();
+
+    networkStore.store(activeNode);
+
+    final Stream<ActiveNode> beforeChange = networkStore.getActiveNodes();
+
+    networkStore.store(
+        ActiveNode.Builder.create().withUri(NodeUri.create("http://someotheraddress.com")).build());
+
+    assertThat(beforeChange).containsExactly(activeNode);
+    assertThat(networkStore.getActiveNodes().count()).isEqualTo(2L);
+  }
 }
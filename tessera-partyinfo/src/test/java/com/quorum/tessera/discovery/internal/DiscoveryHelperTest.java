@@ -17,6 +17,7 @@ import com.quorum.tessera.partyinfo.node.NodeInfo;
 import com.quorum.tessera.partyinfo.node.Recipient;
 import java.net.URI;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -149,45 +150,33 @@ public class DiscoveryHelperTest {
     String url = "http://nodeurl.com/";
 
     final PublicKey key = PublicKey.from("key".getBytes());
-    final PublicKey anotherKey = PublicKey.from("anotherKey".getBytes());
-
-    final Recipient recipient = Recipient.of(key, url);
-    final Recipient sameNodeDifferentKey = Recipient.of(anotherKey, url);
 
-    ActiveNode activeNode = mock(ActiveNode.class);
-    when(activeNode.getUri()).thenReturn(NodeUri.create(url));
-    when(activeNode.getKeys()).thenReturn(Set.of(key, anotherKey));
-    when(activeNode.getSupportedVersions()).thenReturn(Set.of("v1", "v2"));
+    final NodeInfo nodeInfo =
+        NodeInfo.Builder.create()
+            .withUrl(url)
+            .withRecipients(List.of(Recipient.of(key, url)))
+            .withSupportedApiVersions(Set.of("v1", "v2"))
+            .build();
 
-    when(networkStore.getActiveNodes()).thenReturn(Stream.of(activeNode));
+    when(networkStore.getNodeInfo(key)).thenReturn(Optional.of(nodeInfo));
 
     final NodeInfo result = discoveryHelper.buildRemoteNodeInfo(key);
 
-    assertThat(result).isNotNull();
-    assertThat(result.getUrl()).isEqualTo(url);
-    assertThat(result.getRecipients()).containsExactlyInAnyOrder(recipient, sameNodeDifferentKey);
-    assertThat(result.supportedApiVersions()).containsExactlyInAnyOrder("v1", "v2");
-    verify(networkStore).getActiveNodes();
+    assertThat(result).isSameAs(nodeInfo);
+    verify(networkStore).getNodeInfo(key);
   }
 
   @Test
   public void recipientKeyNotFound() {
-    String url = "http://nodeurl.com/";
 
-    final PublicKey key = PublicKey.from("key".getBytes());
     final PublicKey anotherKey = PublicKey.from("anotherKey".getBytes());
 
-    ActiveNode activeNode = mock(ActiveNode.class);
-    when(activeNode.getUri()).thenReturn(NodeUri.create(url));
-    when(activeNode.getKeys()).thenReturn(Set.of(key));
-    when(activeNode.getSupportedVersions()).thenReturn(Set.of("v1", "v2"));
-
-    when(networkStore.getActiveNodes()).thenReturn(Stream.of(activeNode));
+    when(networkStore.getNodeInfo(anotherKey)).thenReturn(Optional.empty());
 
     assertThatExceptionOfType(KeyNotFoundException.class)
         .isThrownBy(() -> discoveryHelper.buildRemoteNodeInfo(anotherKey));
 
-    verify(networkStore).getActiveNodes();
+    verify(networkStore).getNodeInfo(anotherKey);
   }
 
   @Test
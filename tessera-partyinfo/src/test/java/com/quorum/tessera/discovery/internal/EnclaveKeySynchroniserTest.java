@@ -8,6 +8,7 @@ import com.quorum.tessera.discovery.EnclaveKeySynchroniser;
 import com.quorum.tessera.discovery.NetworkStore;
 import com.quorum.tessera.discovery.NodeUri;
 import com.quorum.tessera.enclave.Enclave;
+import com.quorum.tessera.enclave.EnclaveClient;
 import com.quorum.tessera.encryption.PublicKey;
 import java.net.URI;
 import java.util.Set;
@@ -75,6 +76,24 @@ public class EnclaveKeySynchroniserTest {
     mockedStaticRuntimeContext.verify(RuntimeContext::getInstance);
   }
 
+  @Test
+  public void syncKeysRefreshesRemoteEnclaveKeys() {
+    URI uri = URI.create("http://somedomain.com/");
+    when(runtimeContext.getP2pServerUri()).thenReturn(uri);
+    when(networkStore.getActiveNodes()).thenReturn(Stream.empty());
+
+    EnclaveClient enclaveClient = mock(EnclaveClient.class);
+
+    new EnclaveKeySynchroniserImpl(enclaveClient, networkStore).syncKeys();
+
+    verify(enclaveClient).refreshKeys();
+    verifyNoMoreInteractions(enclaveClient);
+    verify(runtimeContext).getP2pServerUri();
+    verify(networkStore).getActiveNodes();
+
+    mockedStaticRuntimeContext.verify(RuntimeContext::getInstance);
+  }
+
   @Test
   public void syncWithChanges() {
 
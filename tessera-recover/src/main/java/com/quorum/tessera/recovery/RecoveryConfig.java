@@ -0,0 +1,105 @@
+package com.quorum.tessera.recovery;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * How {@link Recovery} requests transactions from peers, read from the P2P server properties.
+ *
+ * <p>By default up to ten resend requests are in flight at once, transactions are staged with the
+ * staging query, staged transactions are stored one at a time, and no progress file is kept, so an
+ * interrupted recovery has to be started again from empty staging tables.
+ */
+public class RecoveryConfig {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RecoveryConfig.class);
+
+  static final String PARALLELISM_PROPERTY = "recoveryParallelism";
+
+  static final String SYNC_PARALLELISM_PROPERTY = "recoverySyncParallelism";
+
+  static final String TOPOLOGICAL_STAGING_PROPERTY = "recoveryTopologicalStaging";
+
+  static final String PROGRESS_FILE_PROPERTY = "recoveryProgressFile";
+
+  private final int parallelism;
+
+  private final int syncParallelism;
+
+  private final boolean topologicalStaging;
+
+  private final Path progressFile;
+
+  public RecoveryConfig(
+      final int parallelism,
+      final int syncParallelism,
+      final boolean topologicalStaging,
+      final Path progressFile) {
+    this.parallelism = parallelism;
+    this.syncParallelism = syncParallelism;
+    this.topologicalStaging = topologicalStaging;
+    this.progressFile = progressFile;
+  }
+
+  public static RecoveryConfig defaults() {
+    return new RecoveryConfig(10, 1, false, null);
+  }
+
+  public static RecoveryConfig from(final Map<String, String> properties) {
+    final Map<String, String> props =
+        Optional.ofNullable(properties).orElse(Collections.emptyMap());
+    final boolean topologicalStaging =
+        Boolean.parseBoolean(props.getOrDefault(TOPOLOGICAL_STAGING_PROPERTY, "false"));
+    final Path progressFile =
+        Optional.ofNullable(props.get(PROGRESS_FILE_PROPERTY)).map(Paths::get).orElse(null);
+    try {
+      final int parallelism = Integer.parseInt(props.getOrDefault(PARALLELISM_PROPERTY, "10"));
+      final int syncParallelism =
+          Integer.parseInt(props.getOrDefault(SYNC_PARALLELISM_PROPERTY, "1"));
+      return new RecoveryConfig(
+          Math.max(1, parallelism), Math.max(1, syncParallelism), topologicalStaging, progressFile);
+    } catch (NumberFormatException ex) {
+      LOGGER.warn("Not able to parse configured property. Will use default value instead");
+      final RecoveryConfig defaults = defaults();
+      return new RecoveryConfig(
+          defaults.getParallelism(),
+          defaults.getSyncParallelism(),
+          topologicalStaging,
+          progressFile);
+    }
+  }
+
+  /** @return the number of resend requests that may be in flight at once, across all peers */
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * @return the number of staged transactions of the same stage that may be stored at once, or 1
+   *     to store them one at a time
+   */
+  public int getSyncParallelism() {
+    return syncParallelism;
+  }
+
+  /**
+   * @return whether all stages are worked out at once from the dependencies between transactions,
+   *     rather than by querying for the next stage until no transaction is left to stage
+   */
+  public boolean isTopologicalStaging() {
+    return topologicalStaging;
+  }
+
+  /**
+   * @return the file that records which resend requests have completed, so that an interrupted
+   *     recovery can skip them when it is run again
+   */
+  public Optional<Path> getProgressFile() {
+    return Optional.ofNullable(progressFile);
+  }
+}
@@ -5,25 +5,42 @@ import static java.util.stream.Collectors.toList;
 import com.quorum.tessera.data.staging.StagingEntityDAO;
 import com.quorum.tessera.data.staging.StagingTransaction;
 import com.quorum.tessera.discovery.Discovery;
+import com.quorum.tessera.enclave.Enclave;
 import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.enclave.PrivacyMode;
+import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.partyinfo.node.NodeInfo;
 import com.quorum.tessera.recovery.Recovery;
+import com.quorum.tessera.recovery.RecoveryConfig;
 import com.quorum.tessera.recovery.RecoveryResult;
 import com.quorum.tessera.recovery.resend.BatchTransactionRequester;
+import com.quorum.tessera.threading.ExecutorFactory;
 import com.quorum.tessera.transaction.TransactionManager;
 import com.quorum.tessera.transaction.exception.PrivacyViolationException;
 import com.quorum.tessera.version.EnhancedPrivacyVersion;
 import jakarta.persistence.PersistenceException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.function.Predicate;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Recovers the transactions of this node from its peers.
+ *
+ * <p>Resend requests for every local key are made to every peer at once, up to the configured
+ * parallelism, and are interleaved across peers so that no single peer receives all of them. The
+ * requests that completed are recorded in the progress file, if one is configured, so that a
+ * recovery that was interrupted can be run again on the same staging tables and only make the
+ * remaining requests.
+ *
+ * <p>Staged transactions are stored one stage after another. Within a stage they are independent
+ * of each other and may be stored concurrently, up to the configured sync parallelism.
+ */
 class RecoveryImpl implements Recovery {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(RecoveryImpl.class);
@@ -38,57 +55,152 @@ class RecoveryImpl implements Recovery {
 
   private final TransactionManager transactionManager;
 
+  private final Enclave enclave;
+
+  private final int parallelism;
+
+  private final int syncParallelism;
+
+  private final TopologicalStaging topologicalStaging;
+
+  private final RecoveryJournal journal;
+
+  private final RecoveryProgress progress = new RecoveryProgress();
+
+  private final ExecutorFactory executorFactory = new ExecutorFactory();
+
   RecoveryImpl(
       StagingEntityDAO stagingEntityDAO,
       Discovery discovery,
       BatchTransactionRequester transactionRequester,
-      TransactionManager transactionManager) {
+      TransactionManager transactionManager,
+      Enclave enclave,
+      RecoveryConfig config) {
     this.stagingEntityDAO = Objects.requireNonNull(stagingEntityDAO);
     this.discovery = Objects.requireNonNull(discovery);
     this.transactionRequester = Objects.requireNonNull(transactionRequester);
     this.transactionManager = Objects.requireNonNull(transactionManager);
+    this.enclave = Objects.requireNonNull(enclave);
+    this.parallelism = config.getParallelism();
+    this.syncParallelism = config.getSyncParallelism();
+    this.topologicalStaging =
+        config.isTopologicalStaging() ? new TopologicalStaging(stagingEntityDAO, BATCH_SIZE) : null;
+    this.journal = new RecoveryJournal(config.getProgressFile().orElse(null));
   }
 
   @Override
   public RecoveryResult request() {
 
     final Set<NodeInfo> remoteNodeInfos = discovery.getRemoteNodeInfos();
+    final Set<PublicKey> keys = enclave.getPublicKeys();
 
-    final Predicate<NodeInfo> sendRequestsToNode =
-        nodeInfo ->
-            nodeInfo.supportedApiVersions().contains(EnhancedPrivacyVersion.API_VERSION_2)
-                && transactionRequester.requestAllTransactionsFromNode(nodeInfo.getUrl());
+    remoteNodeInfos.forEach(nodeInfo -> progress.requested(nodeInfo.getUrl(), keys.size()));
 
-    final Predicate<NodeInfo> sendRequestsToLegacyNode =
-        nodeInfo ->
-            !nodeInfo.supportedApiVersions().contains(EnhancedPrivacyVersion.API_VERSION_2)
-                && transactionRequester.requestAllTransactionsFromLegacyNode(nodeInfo.getUrl());
+    final Map<String, List<CompletableFuture<Boolean>>> requests = new LinkedHashMap<>();
+    remoteNodeInfos.forEach(nodeInfo -> requests.put(nodeInfo.getUrl(), new ArrayList<>()));
 
-    final long failures =
-        remoteNodeInfos.stream()
-            .filter(sendRequestsToNode.or(sendRequestsToLegacyNode).negate())
-            .peek(p -> LOGGER.warn("Fail resend request to {}", p.getUrl()))
-            .count();
+    final ExecutorService executor = executorFactory.createFixedThreadPool(parallelism);
+    try {
+      for (final PublicKey key : keys) {
+        for (final NodeInfo nodeInfo : remoteNodeInfos) {
+          requests
+              .get(nodeInfo.getUrl())
+              .add(
+                  CompletableFuture.supplyAsync(() -> request(nodeInfo, key), executor)
+                      .exceptionally(ex -> onFailure(nodeInfo.getUrl(), key, ex)));
+        }
+      }
 
-    if (failures > 0) {
-      if (failures == remoteNodeInfos.size()) {
-        return RecoveryResult.FAILURE;
+      CompletableFuture.allOf(
+              requests.values().stream()
+                  .flatMap(List::stream)
+                  .toArray(CompletableFuture[]::new))
+          .join();
+
+      final long failures =
+          requests.entrySet().stream()
+              .filter(e -> !e.getValue().stream().allMatch(CompletableFuture::join))
+              .peek(e -> LOGGER.warn("Fail resend request to {}", e.getKey()))
+              .count();
+
+      progress
+          .getPeers()
+          .forEach((url, peerProgress) -> LOGGER.info("Resend from {}: {}", url, peerProgress));
+
+      if (failures > 0) {
+        if (failures == remoteNodeInfos.size()) {
+          return RecoveryResult.FAILURE;
+        }
+        return RecoveryResult.PARTIAL_SUCCESS;
       }
-      return RecoveryResult.PARTIAL_SUCCESS;
+      return RecoveryResult.SUCCESS;
+    } finally {
+      executor.shutdown();
     }
-    return RecoveryResult.SUCCESS;
+  }
+
+  private boolean request(final NodeInfo nodeInfo, final PublicKey key) {
+    final String url = nodeInfo.getUrl();
+
+    if (journal.isCompleted(url, key)) {
+      LOGGER.debug("Transactions for key {} already received from {}", key, url);
+      progress.completed(url, 0);
+      return true;
+    }
+
+    final long received;
+    if (nodeInfo.supportedApiVersions().contains(EnhancedPrivacyVersion.API_VERSION_2)) {
+      received = transactionRequester.requestTransactionsFromNode(url, key);
+    } else {
+      received = transactionRequester.requestTransactionsFromLegacyNode(url, key) ? 0 : -1;
+    }
+
+    if (received < 0) {
+      LOGGER.warn("Resend request to {} for key {} failed ({})", url, key, progress.failed(url));
+      return false;
+    }
+
+    journal.complete(url, key);
+    LOGGER.info(
+        "Received {} transactions from {} for key {} ({})",
+        received,
+        url,
+        key,
+        progress.completed(url, received));
+    return true;
+  }
+
+  private boolean onFailure(final String url, final PublicKey key, final Throwable ex) {
+    LOGGER.warn("Resend request to {} for key {} failed ({})", url, key, progress.failed(url));
+    LOGGER.debug(null, ex);
+    return false;
+  }
+
+  RecoveryProgress getProgress() {
+    return progress;
   }
 
   @Override
   public RecoveryResult stage() {
 
-    final AtomicLong stage = new AtomicLong(0);
-
-    while (stagingEntityDAO.updateStageForBatch(BATCH_SIZE, stage.incrementAndGet()) != 0) {}
+    // rows staged by an interrupted recovery keep their stages. Each stage holds at least one row,
+    // so new stages that start after the number of staged rows come after all of the old ones.
+    long stage = stagingEntityDAO.countStaged();
+    if (Objects.nonNull(topologicalStaging)) {
+      topologicalStaging.stage(stage);
+    } else {
+      int staged;
+      do {
+        staged = stagingEntityDAO.updateStageForBatch(BATCH_SIZE, ++stage);
+        LOGGER.debug("Staged {} transactions at stage {}", staged, stage);
+      } while (staged != 0);
+    }
 
     final long totalCount = stagingEntityDAO.countAll();
     final long validatedCount = stagingEntityDAO.countStaged();
 
+    LOGGER.info("Staged {} of {} received transactions", validatedCount, totalCount);
+
     if (validatedCount < totalCount) {
       if (validatedCount == 0) {
         return RecoveryResult.FAILURE;
@@ -106,32 +218,36 @@ class RecoveryImpl implements Recovery {
 
     final int maxResult = BATCH_SIZE;
 
-    for (int offset = 0; offset < stagingEntityDAO.countAll(); offset += maxResult) {
-
-      final List<StagingTransaction> transactions =
-          stagingEntityDAO.retrieveTransactionBatchOrderByStageAndHash(offset, maxResult);
-
-      final Map<String, List<StagingTransaction>> grouped =
-          transactions.stream()
-              .collect(
-                  Collectors.groupingBy(StagingTransaction::getHash, LinkedHashMap::new, toList()));
-
-      grouped.forEach(
-          (key, value) ->
-              value.stream()
-                  .filter(
-                      t -> {
-                        payloadCount.incrementAndGet();
-                        EncodedPayload encodedPayload = t.getEncodedPayload();
-                        try {
-                          transactionManager.storePayload(encodedPayload);
-                        } catch (PrivacyViolationException | PersistenceException ex) {
-                          LOGGER.error("An error occurred during batch resend sync stage.", ex);
-                          syncFailureCount.incrementAndGet();
-                        }
-                        return PrivacyMode.PRIVATE_STATE_VALIDATION == t.getPrivacyMode();
-                      })
-                  .findFirst());
+    final Consumer<List<StagingTransaction>> storeVersions =
+        versions -> store(versions, payloadCount, syncFailureCount);
+
+    final ExecutorService executor = executorFactory.createFixedThreadPool(syncParallelism);
+    try {
+      final List<StagingTransaction> pending = new ArrayList<>();
+
+      List<StagingTransaction> transactions;
+      StagingTransaction last = null;
+
+      do {
+        transactions =
+            stagingEntityDAO.retrieveTransactionBatchOrderByStageAndHashAfter(last, maxResult);
+
+        for (final StagingTransaction transaction : transactions) {
+          if (isEndOfGroup(pending, transaction, maxResult)) {
+            syncGroup(pending, storeVersions, executor);
+            pending.clear();
+          }
+          pending.add(transaction);
+        }
+
+        if (!transactions.isEmpty()) {
+          last = transactions.get(transactions.size() - 1);
+        }
+      } while (transactions.size() == maxResult);
+
+      syncGroup(pending, storeVersions, executor);
+    } finally {
+      executor.shutdown();
     }
 
     if (syncFailureCount.get() > 0) {
@@ -146,19 +262,94 @@ class RecoveryImpl implements Recovery {
     return RecoveryResult.SUCCESS;
   }
 
+  /**
+   * Pending transactions are stored together once the next transaction is of a different stage,
+   * or once there are as many as a batch and the next transaction has a different hash, so that
+   * all versions of a transaction in a stage are stored by the same task.
+   */
+  private static boolean isEndOfGroup(
+      final List<StagingTransaction> pending, final StagingTransaction next, final int maxSize) {
+    if (pending.isEmpty()) {
+      return false;
+    }
+    final StagingTransaction previous = pending.get(pending.size() - 1);
+    if (!Objects.equals(previous.getValidationStage(), next.getValidationStage())) {
+      return true;
+    }
+    return pending.size() >= maxSize && !previous.getHash().equals(next.getHash());
+  }
+
+  /**
+   * Transactions of the same stage do not depend on each other, so the versions of each
+   * transaction are stored concurrently and the next group only starts once all of them are
+   * stored. Transactions that could not be staged have no such guarantee and are stored in order.
+   */
+  private static void syncGroup(
+      final List<StagingTransaction> group,
+      final Consumer<List<StagingTransaction>> storeVersions,
+      final ExecutorService executor) {
+
+    final Collection<List<StagingTransaction>> versionsByHash =
+        group.stream()
+            .collect(
+                Collectors.groupingBy(StagingTransaction::getHash, LinkedHashMap::new, toList()))
+            .values();
+
+    if (group.isEmpty() || Objects.isNull(group.get(0).getValidationStage())) {
+      versionsByHash.forEach(storeVersions);
+      return;
+    }
+
+    CompletableFuture.allOf(
+            versionsByHash.stream()
+                .map(
+                    versions ->
+                        CompletableFuture.runAsync(() -> storeVersions.accept(versions), executor))
+                .toArray(CompletableFuture[]::new))
+        .join();
+  }
+
+  private void store(
+      final List<StagingTransaction> versions,
+      final AtomicInteger payloadCount,
+      final AtomicInteger syncFailureCount) {
+    versions.stream()
+        .filter(
+            t -> {
+              payloadCount.incrementAndGet();
+              EncodedPayload encodedPayload = t.getEncodedPayload();
+              try {
+                transactionManager.storePayload(encodedPayload);
+              } catch (PrivacyViolationException | PersistenceException ex) {
+                LOGGER.error("An error occurred during batch resend sync stage.", ex);
+                syncFailureCount.incrementAndGet();
+              }
+              return PrivacyMode.PRIVATE_STATE_VALIDATION == t.getPrivacyMode();
+            })
+        .findFirst();
+  }
+
   @Override
   public int recover() {
 
-    try {
-      if (stagingEntityDAO.countAll() != 0 || stagingEntityDAO.countAllAffected() != 0) {
+    if (journal.size() > 0) {
+      LOGGER.info(
+          "Resuming recovery. {} resend requests completed by an earlier run will not be repeated",
+          journal.size());
+      // the rows staged by the earlier run keep their ids, so new rows have to come after them
+      stagingEntityDAO.resumeIds();
+    } else {
+      try {
+        if (stagingEntityDAO.countAll() != 0 || stagingEntityDAO.countAllAffected() != 0) {
+          LOGGER.error(
+              "Staging tables are not empty. Please ensure database has been setup correctly for recovery process");
+          return RecoveryResult.FAILURE.getCode();
+        }
+      } catch (Exception ex) {
         LOGGER.error(
-            "Staging tables are not empty. Please ensure database has been setup correctly for recovery process");
+            "Attempt to query failed. Please ensure database has been setup correctly for recovery process");
         return RecoveryResult.FAILURE.getCode();
       }
-    } catch (Exception ex) {
-      LOGGER.error(
-          "Attempt to query failed. Please ensure database has been setup correctly for recovery process");
-      return RecoveryResult.FAILURE.getCode();
     }
 
     final long startTime = System.nanoTime();
@@ -190,9 +381,16 @@ class RecoveryImpl implements Recovery {
     final long endTime = System.nanoTime();
     LOGGER.info("Recovery process took {} ms", (endTime - startTime) / 1000000);
 
-    return Stream.of(resendResult, stageResult, syncResult)
-        .map(RecoveryResult::getCode)
-        .reduce(Integer::max)
-        .get();
+    final int result =
+        Stream.of(resendResult, stageResult, syncResult)
+            .map(RecoveryResult::getCode)
+            .reduce(Integer::max)
+            .get();
+
+    // a recovery that did not fully succeed can be run again and only repeat what failed
+    if (result == RecoveryResult.SUCCESS.getCode()) {
+      journal.clear();
+    }
+    return result;
   }
 }
@@ -0,0 +1,92 @@
+package com.quorum.tessera.recovery.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.quorum.tessera.encryption.PublicKey;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records which resend requests of a recovery have completed, one peer URL and key per line.
+ *
+ * <p>The transactions of a completed request are already in the staging tables, so a recovery that
+ * is run again after a crash only needs to make the requests that are not in the journal. Without
+ * a file the journal only lives in memory.
+ */
+class RecoveryJournal {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RecoveryJournal.class);
+
+  private final Path file;
+
+  private final Set<String> completed = ConcurrentHashMap.newKeySet();
+
+  RecoveryJournal(final Path file) {
+    this.file = file;
+    Optional.ofNullable(file).filter(Files::exists).ifPresent(this::load);
+  }
+
+  private void load(final Path path) {
+    try {
+      Files.readAllLines(path, UTF_8).stream().filter(l -> !l.isBlank()).forEach(completed::add);
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Unable to read recovery progress file " + path, ex);
+    }
+  }
+
+  private static String entry(final String url, final PublicKey key) {
+    return url + " " + key.encodeToBase64();
+  }
+
+  /** @return how many requests an earlier recovery completed */
+  int size() {
+    return completed.size();
+  }
+
+  boolean isCompleted(final String url, final PublicKey key) {
+    return completed.contains(entry(url, key));
+  }
+
+  /**
+   * Records that all transactions for the key have been received from the peer. A failure to
+   * write the file is logged and otherwise ignored, as it only means the request is made again if
+   * the recovery is restarted.
+   */
+  synchronized void complete(final String url, final PublicKey key) {
+    final String entry = entry(url, key);
+    if (!completed.add(entry) || file == null) {
+      return;
+    }
+    try {
+      Files.write(
+          file,
+          (entry + System.lineSeparator()).getBytes(UTF_8),
+          StandardOpenOption.CREATE,
+          StandardOpenOption.APPEND,
+          StandardOpenOption.DSYNC);
+    } catch (IOException ex) {
+      LOGGER.warn("Unable to record recovery progress in {}: {}", file, ex.getMessage());
+    }
+  }
+
+  /** Forgets all completed requests, so that the next recovery starts from the beginning. */
+  synchronized void clear() {
+    completed.clear();
+    if (file == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException ex) {
+      LOGGER.warn("Unable to delete recovery progress file {}: {}", file, ex.getMessage());
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package com.quorum.tessera.recovery.internal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts, for each peer, the resend requests made during a recovery and the transactions received
+ * in answer to them.
+ *
+ * <p>A peer answers a resend request only after it has pushed all the transactions, and each push
+ * is written to the staging tables before it is acknowledged, so every transaction counted as
+ * received is already staged for the later stages of the recovery.
+ */
+class RecoveryProgress {
+
+  static class PeerProgress {
+
+    private final AtomicInteger requested = new AtomicInteger();
+
+    private final AtomicInteger completed = new AtomicInteger();
+
+    private final AtomicInteger failed = new AtomicInteger();
+
+    private final AtomicLong received = new AtomicLong();
+
+    /** @return the number of keys transactions have been requested for */
+    int getRequested() {
+      return requested.get();
+    }
+
+    /** @return the number of keys the peer has sent all transactions for */
+    int getCompleted() {
+      return completed.get();
+    }
+
+    /** @return the number of keys the request failed for */
+    int getFailed() {
+      return failed.get();
+    }
+
+    /** @return the number of transactions received and staged, not counting legacy resends */
+    long getReceived() {
+      return received.get();
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%d of %d keys done, %d failed, %d transactions received",
+          getCompleted(), getRequested(), getFailed(), getReceived());
+    }
+  }
+
+  private final Map<String, PeerProgress> peers = new ConcurrentHashMap<>();
+
+  PeerProgress get(final String url) {
+    return peers.computeIfAbsent(url, u -> new PeerProgress());
+  }
+
+  PeerProgress requested(final String url, final int keys) {
+    final PeerProgress progress = get(url);
+    progress.requested.addAndGet(keys);
+    return progress;
+  }
+
+  PeerProgress completed(final String url, final long transactions) {
+    final PeerProgress progress = get(url);
+    progress.received.addAndGet(transactions);
+    progress.completed.incrementAndGet();
+    return progress;
+  }
+
+  PeerProgress failed(final String url) {
+    final PeerProgress progress = get(url);
+    progress.failed.incrementAndGet();
+    return progress;
+  }
+
+  Map<String, PeerProgress> getPeers() {
+    return Map.copyOf(peers);
+  }
+}
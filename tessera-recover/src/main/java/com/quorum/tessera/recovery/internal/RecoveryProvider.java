@@ -1,10 +1,15 @@
 package com.quorum.tessera.recovery.internal;
 
+import com.quorum.tessera.config.ConfigFactory;
+import com.quorum.tessera.config.ServerConfig;
 import com.quorum.tessera.data.staging.StagingEntityDAO;
 import com.quorum.tessera.discovery.Discovery;
+import com.quorum.tessera.enclave.Enclave;
 import com.quorum.tessera.recovery.Recovery;
+import com.quorum.tessera.recovery.RecoveryConfig;
 import com.quorum.tessera.recovery.resend.BatchTransactionRequester;
 import com.quorum.tessera.transaction.TransactionManager;
+import java.util.Optional;
 
 public class RecoveryProvider {
 
@@ -15,8 +20,20 @@ public class RecoveryProvider {
     BatchTransactionRequester batchTransactionRequester = BatchTransactionRequester.create();
 
     TransactionManager transactionManager = TransactionManager.create();
+    Enclave enclave = Enclave.create();
+
+    RecoveryConfig recoveryConfig =
+        RecoveryConfig.from(
+            Optional.ofNullable(ConfigFactory.create().getConfig().getP2PServerConfig())
+                .map(ServerConfig::getProperties)
+                .orElse(null));
 
     return new RecoveryImpl(
-        stagingEntityDAO, discovery, batchTransactionRequester, transactionManager);
+        stagingEntityDAO,
+        discovery,
+        batchTransactionRequester,
+        transactionManager,
+        enclave,
+        recoveryConfig);
   }
 }
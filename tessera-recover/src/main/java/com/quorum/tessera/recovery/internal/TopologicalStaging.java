@@ -0,0 +1,161 @@
+package com.quorum.tessera.recovery.internal;
+
+import com.quorum.tessera.data.staging.StagingEntityDAO;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Works out the validation stages of all staging transactions at once, instead of querying for
+ * the transactions that can be staged next once per stage.
+ *
+ * <p>Each transaction hash is a node and each affected transaction an edge to the node it
+ * depends on. The nodes are held as array indexes and the edges as arrays of indexes, and the
+ * stages are computed with Kahn's algorithm: a transaction is staged one stage after the last of
+ * the transactions it affects. As with the staging query, a transaction is never staged if it
+ * affects a transaction that is not in the staging tables, or one that is never staged itself,
+ * which includes every transaction in a cycle.
+ */
+class TopologicalStaging {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TopologicalStaging.class);
+
+  // kept below the limits some databases put on the number of values in an IN list
+  static final int HASHES_PER_UPDATE = 500;
+
+  private final StagingEntityDAO stagingEntityDAO;
+
+  private final int batchSize;
+
+  TopologicalStaging(final StagingEntityDAO stagingEntityDAO, final int batchSize) {
+    this.stagingEntityDAO = Objects.requireNonNull(stagingEntityDAO);
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Stages all transactions that can be staged.
+   *
+   * @param lastStage the highest stage that may already be in use; new stages start after it
+   * @return the number of rows that have been staged
+   */
+  long stage(final long lastStage) {
+
+    final Map<String, Long> unstagedByHash = stagingEntityDAO.countUnstagedByHash();
+
+    final String[] hashes = unstagedByHash.keySet().toArray(new String[0]);
+    final Map<String, Integer> indexes = new HashMap<>(hashes.length * 2);
+    final boolean[] staged = new boolean[hashes.length];
+    for (int i = 0; i < hashes.length; i++) {
+      indexes.put(hashes[i], i);
+      staged[i] = unstagedByHash.get(hashes[i]) == 0;
+    }
+
+    final boolean[] blocked = new boolean[hashes.length];
+    final int[] pendingDependencies = new int[hashes.length];
+    final IntPairs edges = new IntPairs();
+
+    stagingEntityDAO.forEachAffectedHash(
+        batchSize,
+        (hash, affectedHash) -> {
+          final int dependent = indexes.get(hash);
+          final Integer dependency = indexes.get(affectedHash);
+          if (staged[dependent]) {
+            return;
+          }
+          if (Objects.isNull(dependency)) {
+            blocked[dependent] = true;
+          } else if (!staged[dependency]) {
+            pendingDependencies[dependent]++;
+            edges.add(dependency, dependent);
+          }
+        });
+
+    // the dependents of each transaction, laid out one transaction after another
+    final int[] offsets = new int[hashes.length + 1];
+    for (int i = 0; i < edges.size(); i++) {
+      offsets[edges.first(i) + 1]++;
+    }
+    for (int i = 0; i < hashes.length; i++) {
+      offsets[i + 1] += offsets[i];
+    }
+    final int[] dependents = new int[edges.size()];
+    final int[] next = Arrays.copyOf(offsets, hashes.length);
+    for (int i = 0; i < edges.size(); i++) {
+      dependents[next[edges.first(i)]++] = edges.second(i);
+    }
+
+    List<Integer> level = new ArrayList<>();
+    for (int i = 0; i < hashes.length; i++) {
+      if (!staged[i] && !blocked[i] && pendingDependencies[i] == 0) {
+        level.add(i);
+      }
+    }
+
+    long stage = lastStage;
+    long updated = 0;
+    while (!level.isEmpty()) {
+      stage++;
+
+      final List<Integer> nextLevel = new ArrayList<>();
+      for (final int node : level) {
+        for (int d = offsets[node]; d < offsets[node + 1]; d++) {
+          final int dependent = dependents[d];
+          if (--pendingDependencies[dependent] == 0 && !blocked[dependent]) {
+            nextLevel.add(dependent);
+          }
+        }
+      }
+
+      updated += update(level, hashes, stage);
+      level = nextLevel;
+    }
+
+    LOGGER.debug("Staged {} transactions in {} stages", updated, stage - lastStage);
+    return updated;
+  }
+
+  private int update(final List<Integer> level, final String[] hashes, final long stage) {
+    int updated = 0;
+    for (int from = 0; from < level.size(); from += HASHES_PER_UPDATE) {
+      final List<String> batch = new ArrayList<>();
+      level.subList(from, Math.min(level.size(), from + HASHES_PER_UPDATE))
+          .forEach(node -> batch.add(hashes[node]));
+      updated += stagingEntityDAO.updateStageForHashes(batch, stage);
+    }
+    return updated;
+  }
+
+  /** A growable list of pairs of ints, stored in one array. */
+  private static class IntPairs {
+
+    private int[] values = new int[32];
+
+    private int size;
+
+    void add(final int first, final int second) {
+      if (2 * size + 2 > values.length) {
+        values = Arrays.copyOf(values, values.length * 2);
+      }
+      values[2 * size] = first;
+      values[2 * size + 1] = second;
+      size++;
+    }
+
+    int size() {
+      return size;
+    }
+
+    int first(final int i) {
+      return values[2 * i];
+    }
+
+    int second(final int i) {
+      return values[2 * i + 1];
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package com.quorum.tessera.recovery.resend;
 
+import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.serviceloader.ServiceLoaderUtil;
 import java.util.ServiceLoader;
 
@@ -13,20 +14,24 @@ public interface BatchTransactionRequester {
   int MAX_ATTEMPTS = 5;
 
   /**
-   * Makes a request to the given node to resend transactions for
+   * Makes a request to the given node to resend all transactions for the given key. The call
+   * returns once the node has pushed all the transactions.
    *
    * @param url the URL to contact for resending
-   * @return whether all the resend requests for all keys was successful or not
+   * @param key the local public key that transactions should be resent for
+   * @return the number of transactions the node resent, or -1 if the request failed
    */
-  boolean requestAllTransactionsFromNode(String url);
+  long requestTransactionsFromNode(String url, PublicKey key);
 
   /**
-   * Makes a request to the given node that run on a legacy version to resend transactions
+   * Makes a request to the given node that run on a legacy version to resend all transactions for
+   * the given key
    *
-   * @param url
-   * @return
+   * @param url the URL to contact for resending
+   * @param key the local public key that transactions should be resent for
+   * @return whether the resend request was successful or not
    */
-  boolean requestAllTransactionsFromLegacyNode(String url);
+  boolean requestTransactionsFromLegacyNode(String url, PublicKey key);
 
   static BatchTransactionRequester create() {
     return ServiceLoaderUtil.loadSingle(ServiceLoader.load(BatchTransactionRequester.class));
@@ -0,0 +1,66 @@
+package com.quorum.tessera.recovery.resend;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * How a node serves a resend batch request from a recovering peer, read from the P2P server
+ * properties.
+ *
+ * <p>By default four threads prepare the transactions for the peer and up to two batches are
+ * pushed to the peer at once.
+ */
+public class ResendBatchConfig {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ResendBatchConfig.class);
+
+  static final String PARALLELISM_PROPERTY = "resendBatchParallelism";
+
+  static final String MAX_IN_FLIGHT_BATCHES_PROPERTY = "resendBatchMaxInFlight";
+
+  private final int parallelism;
+
+  private final int maxInFlightBatches;
+
+  public ResendBatchConfig(final int parallelism, final int maxInFlightBatches) {
+    this.parallelism = parallelism;
+    this.maxInFlightBatches = maxInFlightBatches;
+  }
+
+  public static ResendBatchConfig defaults() {
+    return new ResendBatchConfig(4, 2);
+  }
+
+  public static ResendBatchConfig from(final Map<String, String> properties) {
+    final Map<String, String> props =
+        Optional.ofNullable(properties).orElse(Collections.emptyMap());
+    try {
+      final int parallelism = Integer.parseInt(props.getOrDefault(PARALLELISM_PROPERTY, "4"));
+      final int maxInFlightBatches =
+          Integer.parseInt(props.getOrDefault(MAX_IN_FLIGHT_BATCHES_PROPERTY, "2"));
+      return new ResendBatchConfig(Math.max(1, parallelism), Math.max(1, maxInFlightBatches));
+    } catch (NumberFormatException ex) {
+      LOGGER.warn("Not able to parse configured property. Will use default value instead");
+      return defaults();
+    }
+  }
+
+  /**
+   * @return the number of transactions that may be filtered and prepared for the recovering peer
+   *     at once
+   */
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * @return the number of batches that may be pushed to the recovering peer before the first of
+   *     them has been acknowledged
+   */
+  public int getMaxInFlightBatches() {
+    return maxInFlightBatches;
+  }
+}
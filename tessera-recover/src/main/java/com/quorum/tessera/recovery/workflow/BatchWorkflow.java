@@ -5,4 +5,10 @@ public interface BatchWorkflow extends BatchWorkflowAction {
   boolean execute(BatchWorkflowContext context);
 
   long getPublishedMessageCount();
+
+  /**
+   * Waits until every message published by the workflow has been delivered. Workflows that
+   * publish on the calling thread have nothing to wait for.
+   */
+  default void awaitPublished() {}
 }
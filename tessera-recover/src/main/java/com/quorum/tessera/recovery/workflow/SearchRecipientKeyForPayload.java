@@ -3,23 +3,16 @@ package com.quorum.tessera.recovery.workflow;
 import com.quorum.tessera.data.EncryptedTransaction;
 import com.quorum.tessera.data.MessageHash;
 import com.quorum.tessera.enclave.Enclave;
-import com.quorum.tessera.enclave.EnclaveNotAvailableException;
 import com.quorum.tessera.enclave.EncodedPayload;
-import com.quorum.tessera.encryption.EncryptorException;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.transaction.exception.RecipientKeyNotFoundException;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 public class SearchRecipientKeyForPayload implements BatchWorkflowAction {
 
-  private static final Logger LOGGER = LoggerFactory.getLogger(SearchRecipientKeyForPayload.class);
-
   private final Enclave enclave;
 
   public SearchRecipientKeyForPayload(final Enclave enclave) {
@@ -44,7 +37,8 @@ public class SearchRecipientKeyForPayload implements BatchWorkflowAction {
                 payload -> {
                   // this is a pre-PE tx, so find the recipient key
                   final PublicKey recipientKey =
-                      searchForRecipientKey(payload)
+                      enclave
+                          .findRecipientKey(payload)
                           .orElseThrow(
                               () -> {
                                 final EncryptedTransaction encryptedTransaction =
@@ -65,16 +59,4 @@ public class SearchRecipientKeyForPayload implements BatchWorkflowAction {
 
     return true;
   }
-
-  private Optional<PublicKey> searchForRecipientKey(final EncodedPayload payload) {
-    for (final PublicKey potentialMatchingKey : enclave.getPublicKeys()) {
-      try {
-        enclave.unencryptTransaction(payload, potentialMatchingKey);
-        return Optional.of(potentialMatchingKey);
-      } catch (EnclaveNotAvailableException | IndexOutOfBoundsException | EncryptorException ex) {
-        LOGGER.debug("Attempted payload decryption using wrong key, discarding.");
-      }
-    }
-    return Optional.empty();
-  }
 }
@@ -1,7 +1,9 @@
 package com.quorum.tessera.recovery.workflow.internal;
 
+import com.quorum.tessera.data.EncryptedTransaction;
 import com.quorum.tessera.data.EncryptedTransactionDAO;
 import com.quorum.tessera.data.staging.StagingEntityDAO;
+import com.quorum.tessera.data.staging.StagingTransaction;
 import com.quorum.tessera.data.staging.StagingTransactionUtils;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.recovery.resend.PushBatchRequest;
@@ -11,12 +13,19 @@ import com.quorum.tessera.recovery.workflow.BatchResendManager;
 import com.quorum.tessera.recovery.workflow.BatchWorkflow;
 import com.quorum.tessera.recovery.workflow.BatchWorkflowContext;
 import com.quorum.tessera.recovery.workflow.BatchWorkflowFactory;
+import com.quorum.tessera.threading.ExecutorFactory;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.IntStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-public class BatchResendManagerImpl implements BatchResendManager {
+public class BatchResendManagerImpl implements BatchResendManager, AutoCloseable {
 
   private final StagingEntityDAO stagingEntityDAO;
 
@@ -26,23 +35,31 @@ public class BatchResendManagerImpl implements BatchResendManager {
 
   private final BatchWorkflowFactory batchWorkflowFactory;
 
+  // shared by all resend requests, so at most parallelism transactions are prepared at once
+  private final ExecutorService executor;
+
   public BatchResendManagerImpl(
       StagingEntityDAO stagingEntityDAO,
       EncryptedTransactionDAO encryptedTransactionDAO,
       int maxResults,
-      BatchWorkflowFactory batchWorkflowFactory) {
+      BatchWorkflowFactory batchWorkflowFactory,
+      int parallelism) {
 
     this.stagingEntityDAO = Objects.requireNonNull(stagingEntityDAO);
     this.encryptedTransactionDAO = Objects.requireNonNull(encryptedTransactionDAO);
     this.maxResults = maxResults;
 
     this.batchWorkflowFactory = batchWorkflowFactory;
+    this.executor = new ExecutorFactory().createFixedThreadPool(parallelism);
   }
 
-  static int calculateBatchCount(long maxResults, long total) {
-    return (int) Math.ceil((double) total / maxResults);
-  }
-
+  /**
+   * Sends all transactions of the requested recipient to the recovering peer. The transactions are
+   * streamed from the database a page at a time on the request thread, and each page is passed
+   * through the workflow by a pool of threads while the next page is being read, so at most two
+   * pages are held at once. The workflow publishes the batches to the peer on other threads, and
+   * the request does not return until they are published, even if preparing a page failed.
+   */
   @Override
   public ResendBatchResponse resendBatch(ResendBatchRequest request) {
 
@@ -50,33 +67,81 @@ public class BatchResendManagerImpl implements BatchResendManager {
     final byte[] publicKeyData = Base64.getDecoder().decode(request.getPublicKey());
     final PublicKey recipientPublicKey = PublicKey.from(publicKeyData);
 
-    final long transactionCount = encryptedTransactionDAO.transactionCount();
-    final long batchCount = calculateBatchCount(maxResults, transactionCount);
-
+    final long transactionCount =
+        encryptedTransactionDAO.transactionCountForRecipient(recipientPublicKey);
     final BatchWorkflow batchWorkflow = batchWorkflowFactory.create(transactionCount);
 
-    IntStream.range(0, (int) batchCount)
-        .map(i -> i * maxResults)
-        .mapToObj(offset -> encryptedTransactionDAO.retrieveTransactions(offset, maxResults))
-        .flatMap(List::stream)
-        .forEach(
-            encryptedTransaction -> {
-              final BatchWorkflowContext context = new BatchWorkflowContext();
-              context.setEncryptedTransaction(encryptedTransaction);
-              context.setEncodedPayload(encryptedTransaction.getPayload());
-              context.setRecipientKey(recipientPublicKey);
-              context.setBatchSize(batchSize);
-              batchWorkflow.execute(context);
-            });
+    try (Stream<EncryptedTransaction> transactions =
+        encryptedTransactionDAO.streamTransactionsForRecipient(recipientPublicKey)) {
+      final Iterator<EncryptedTransaction> iterator = transactions.iterator();
+
+      List<EncryptedTransaction> page = nextPage(iterator);
+      while (!page.isEmpty()) {
+        final CompletableFuture<Void> executed =
+            CompletableFuture.allOf(
+                page.stream()
+                    .map(
+                        encryptedTransaction -> {
+                          final BatchWorkflowContext context = new BatchWorkflowContext();
+                          context.setEncryptedTransaction(encryptedTransaction);
+                          context.setEncodedPayload(encryptedTransaction.getPayload());
+                          context.setRecipientKey(recipientPublicKey);
+                          context.setBatchSize(batchSize);
+                          return CompletableFuture.runAsync(
+                              () -> batchWorkflow.execute(context), executor);
+                        })
+                    .toArray(CompletableFuture[]::new));
+
+        final List<EncryptedTransaction> nextPage = nextPage(iterator);
+
+        join(executed);
+        page = nextPage;
+      }
+    } finally {
+      batchWorkflow.awaitPublished();
+    }
 
     return ResendBatchResponse.from(batchWorkflow.getPublishedMessageCount());
   }
 
+  /**
+   * Stores the payloads of one push in a single database transaction. Pushes from different peers
+   * do not share any rows, so they are decoded and stored concurrently.
+   */
   @Override
-  public synchronized void storeResendBatch(PushBatchRequest request) {
-    request.getEncodedPayloads().stream()
-        .map(p -> StagingTransactionUtils.fromRawPayload(p, request.getEncodedPayloadCodec()))
-        .forEach(stagingEntityDAO::save);
+  public void storeResendBatch(PushBatchRequest request) {
+    final List<StagingTransaction> stagingTransactions =
+        request.getEncodedPayloads().stream()
+            .map(p -> StagingTransactionUtils.fromRawPayload(p, request.getEncodedPayloadCodec()))
+            .collect(Collectors.toList());
+
+    stagingEntityDAO.saveAll(stagingTransactions);
+  }
+
+  /** Stops the threads preparing transactions once the transactions handed to them are done. */
+  @Override
+  public void close() {
+    executor.shutdown();
+  }
+
+  private List<EncryptedTransaction> nextPage(final Iterator<EncryptedTransaction> iterator) {
+    final List<EncryptedTransaction> page = new ArrayList<>(maxResults);
+    while (page.size() < maxResults && iterator.hasNext()) {
+      page.add(iterator.next());
+    }
+    return page;
+  }
+
+  // rethrows the failure of a workflow as it would have been thrown on the request thread
+  private static void join(final CompletableFuture<Void> future) {
+    try {
+      future.join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw ex;
+    }
   }
 
   private int validateRequestBatchSize(int s) {
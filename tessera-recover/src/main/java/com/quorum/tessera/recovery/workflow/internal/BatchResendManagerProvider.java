@@ -1,9 +1,13 @@
 package com.quorum.tessera.recovery.workflow.internal;
 
+import com.quorum.tessera.config.ConfigFactory;
+import com.quorum.tessera.config.ServerConfig;
 import com.quorum.tessera.data.EncryptedTransactionDAO;
 import com.quorum.tessera.data.staging.StagingEntityDAO;
+import com.quorum.tessera.recovery.resend.ResendBatchConfig;
 import com.quorum.tessera.recovery.workflow.BatchResendManager;
 import com.quorum.tessera.recovery.workflow.BatchWorkflowFactory;
+import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,9 +33,21 @@ public class BatchResendManagerProvider {
 
     BatchWorkflowFactory batchWorkflowFactory = BatchWorkflowFactory.create();
 
-    BatchResendManager batchResendManager =
+    ResendBatchConfig resendBatchConfig =
+        ResendBatchConfig.from(
+            Optional.ofNullable(ConfigFactory.create().getConfig().getP2PServerConfig())
+                .map(ServerConfig::getProperties)
+                .orElse(null));
+
+    BatchResendManagerImpl batchResendManager =
         new BatchResendManagerImpl(
-            stagingEntityDAO, encryptedTransactionDAO, defaultMaxResults, batchWorkflowFactory);
+            stagingEntityDAO,
+            encryptedTransactionDAO,
+            defaultMaxResults,
+            batchWorkflowFactory,
+            resendBatchConfig.getParallelism());
+
+    Runtime.getRuntime().addShutdownHook(new Thread(batchResendManager::close));
 
     return BatchResendManagerHolder.INSTANCE.setBatchResendManager(batchResendManager);
   }
@@ -6,10 +6,11 @@ import com.quorum.tessera.recovery.resend.ResendBatchPublisher;
 import com.quorum.tessera.recovery.workflow.*;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 
-class BatchWorkflowFactoryImpl implements BatchWorkflowFactory {
+class BatchWorkflowFactoryImpl implements BatchWorkflowFactory, AutoCloseable {
 
   private final Enclave enclave;
 
@@ -17,13 +18,29 @@ class BatchWorkflowFactoryImpl implements BatchWorkflowFactory {
 
   private final ResendBatchPublisher resendBatchPublisher;
 
+  // shared by all workflows, each of which bounds the number of batches it has in flight
+  private final ExecutorService publishExecutor;
+
+  private final int maxInFlightBatches;
+
   BatchWorkflowFactoryImpl(
-      Enclave enclave, Discovery discovery, ResendBatchPublisher resendBatchPublisher) {
+      Enclave enclave,
+      Discovery discovery,
+      ResendBatchPublisher resendBatchPublisher,
+      ExecutorService publishExecutor,
+      int maxInFlightBatches) {
     this.enclave = Objects.requireNonNull(enclave);
     this.discovery = Objects.requireNonNull(discovery);
     this.resendBatchPublisher = Objects.requireNonNull(resendBatchPublisher);
+    this.publishExecutor = Objects.requireNonNull(publishExecutor);
+    this.maxInFlightBatches = maxInFlightBatches;
   }
 
+  /**
+   * Creates a workflow that may be executed from several threads at once. The filters run
+   * concurrently, while the payloads that pass them are collected into batches one at a time, and
+   * the batches are published on other threads with at most {@code maxInFlightBatches} in flight.
+   */
   @Override
   public BatchWorkflow create(long transactionCount) {
 
@@ -35,8 +52,11 @@ class BatchWorkflowFactoryImpl implements BatchWorkflowFactory {
     SearchRecipientKeyForPayload searchRecipientKeyForPayload =
         new SearchRecipientKeyForPayload(enclave);
     SenderIsNotRecipient senderIsNotRecipient = new SenderIsNotRecipient(enclave);
+    PipelinedResendBatchPublisher pipelinedResendBatchPublisher =
+        new PipelinedResendBatchPublisher(
+            resendBatchPublisher, publishExecutor, maxInFlightBatches);
     EncodedPayloadPublisher encodedPayloadPublisher =
-        new EncodedPayloadPublisher(resendBatchPublisher);
+        new EncodedPayloadPublisher(pipelinedResendBatchPublisher);
 
     List<BatchWorkflowAction> handlers =
         List.of(
@@ -45,8 +65,7 @@ class BatchWorkflowFactoryImpl implements BatchWorkflowFactory {
             preparePayloadForRecipient,
             searchRecipientKeyForPayload,
             findRecipientFromPartyInfo,
-            senderIsNotRecipient,
-            encodedPayloadPublisher);
+            senderIsNotRecipient);
 
     return new BatchWorkflow() {
 
@@ -55,22 +74,38 @@ class BatchWorkflowFactoryImpl implements BatchWorkflowFactory {
       @Override
       public boolean execute(BatchWorkflowContext context) {
 
-        context.setExpectedTotal(filteredMessageCount.get());
-
         boolean outcome =
             handlers.stream().filter(Predicate.not(h -> h.execute(context))).findFirst().isEmpty();
 
-        if (!outcome) {
-          context.setExpectedTotal(filteredMessageCount.decrementAndGet());
-          encodedPayloadPublisher.checkOutstandingPayloads(context);
+        synchronized (encodedPayloadPublisher) {
+          if (outcome) {
+            context.setExpectedTotal(filteredMessageCount.get());
+            encodedPayloadPublisher.execute(context);
+          } else {
+            context.setExpectedTotal(filteredMessageCount.decrementAndGet());
+            encodedPayloadPublisher.checkOutstandingPayloads(context);
+          }
         }
         return outcome;
       }
 
       @Override
       public long getPublishedMessageCount() {
-        return encodedPayloadPublisher.getPublishedCount();
+        synchronized (encodedPayloadPublisher) {
+          return encodedPayloadPublisher.getPublishedCount();
+        }
+      }
+
+      @Override
+      public void awaitPublished() {
+        pipelinedResendBatchPublisher.awaitPublished();
       }
     };
   }
+
+  /** Stops the threads publishing batches once the batches already handed to them are sent. */
+  @Override
+  public void close() {
+    publishExecutor.shutdown();
+  }
 }
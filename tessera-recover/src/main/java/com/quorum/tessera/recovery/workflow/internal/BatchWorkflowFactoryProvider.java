@@ -1,18 +1,48 @@
 package com.quorum.tessera.recovery.workflow.internal;
 
+import com.quorum.tessera.config.ConfigFactory;
+import com.quorum.tessera.config.ServerConfig;
 import com.quorum.tessera.discovery.Discovery;
 import com.quorum.tessera.enclave.Enclave;
+import com.quorum.tessera.recovery.resend.ResendBatchConfig;
 import com.quorum.tessera.recovery.resend.ResendBatchPublisher;
 import com.quorum.tessera.recovery.workflow.BatchWorkflowFactory;
+import com.quorum.tessera.threading.ExecutorFactory;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 
 public class BatchWorkflowFactoryProvider {
 
+  // the number of recovering peers whose batches are published at once, the batches of any
+  // further peers wait in the queue of the publishing pool
+  static final int MAX_PUBLISHING_PEERS = 4;
+
   public static BatchWorkflowFactory provider() {
 
     Enclave enclave = Enclave.create();
     Discovery discovery = Discovery.create();
     ResendBatchPublisher resendBatchPublisher = ResendBatchPublisher.create();
 
-    return new BatchWorkflowFactoryImpl(enclave, discovery, resendBatchPublisher);
+    ResendBatchConfig resendBatchConfig =
+        ResendBatchConfig.from(
+            Optional.ofNullable(ConfigFactory.create().getConfig().getP2PServerConfig())
+                .map(ServerConfig::getProperties)
+                .orElse(null));
+
+    final int publishThreads = MAX_PUBLISHING_PEERS * resendBatchConfig.getMaxInFlightBatches();
+    final ExecutorService publishExecutor =
+        new ExecutorFactory().createFixedThreadPool(publishThreads);
+
+    final BatchWorkflowFactoryImpl batchWorkflowFactory =
+        new BatchWorkflowFactoryImpl(
+            enclave,
+            discovery,
+            resendBatchPublisher,
+            publishExecutor,
+            resendBatchConfig.getMaxInFlightBatches());
+
+    Runtime.getRuntime().addShutdownHook(new Thread(batchWorkflowFactory::close));
+
+    return batchWorkflowFactory;
   }
 }
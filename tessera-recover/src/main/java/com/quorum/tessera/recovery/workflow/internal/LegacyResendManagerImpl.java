@@ -16,7 +16,7 @@ import com.quorum.tessera.transaction.exception.TransactionNotFoundException;
 import com.quorum.tessera.transaction.publish.PayloadPublisher;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 public class LegacyResendManagerImpl implements LegacyResendManager {
 
@@ -24,8 +24,6 @@ public class LegacyResendManagerImpl implements LegacyResendManager {
 
   private final EncryptedTransactionDAO encryptedTransactionDAO;
 
-  private final int resendFetchSize;
-
   private final PayloadPublisher payloadPublisher;
 
   private final Discovery discovery;
@@ -33,12 +31,10 @@ public class LegacyResendManagerImpl implements LegacyResendManager {
   public LegacyResendManagerImpl(
       final Enclave enclave,
       final EncryptedTransactionDAO encryptedTransactionDAO,
-      final int resendFetchSize,
       final PayloadPublisher payloadPublisher,
       final Discovery discovery) {
     this.enclave = Objects.requireNonNull(enclave);
     this.encryptedTransactionDAO = Objects.requireNonNull(encryptedTransactionDAO);
-    this.resendFetchSize = resendFetchSize;
     this.payloadPublisher = Objects.requireNonNull(payloadPublisher);
     this.discovery = Objects.requireNonNull(discovery);
   }
@@ -54,22 +50,18 @@ public class LegacyResendManagerImpl implements LegacyResendManager {
 
     final BatchWorkflow batchWorkflow = batchWorkflowFactory.create();
 
-    final long transactionCount = encryptedTransactionDAO.transactionCount();
-    final long batchCount = calculateBatchCount(resendFetchSize, transactionCount);
-
-    IntStream.range(0, (int) batchCount)
-        .map(i -> i * resendFetchSize)
-        .mapToObj(offset -> encryptedTransactionDAO.retrieveTransactions(offset, resendFetchSize))
-        .flatMap(List::stream)
-        .forEach(
-            encryptedTransaction -> {
-              final BatchWorkflowContext context = new BatchWorkflowContext();
-              context.setEncryptedTransaction(encryptedTransaction);
-              context.setEncodedPayload(encryptedTransaction.getPayload());
-              context.setRecipientKey(request.getRecipient());
-              context.setBatchSize(1);
-              batchWorkflow.execute(context);
-            });
+    try (Stream<EncryptedTransaction> transactions =
+        encryptedTransactionDAO.streamTransactionsForRecipient(request.getRecipient())) {
+      transactions.forEach(
+          encryptedTransaction -> {
+            final BatchWorkflowContext context = new BatchWorkflowContext();
+            context.setEncryptedTransaction(encryptedTransaction);
+            context.setEncodedPayload(encryptedTransaction.getPayload());
+            context.setRecipientKey(request.getRecipient());
+            context.setBatchSize(1);
+            batchWorkflow.execute(context);
+          });
+    }
 
     return ResendResponse.Builder.create().build();
   }
@@ -128,8 +120,4 @@ public class LegacyResendManagerImpl implements LegacyResendManager {
 
     return ResendResponse.Builder.create().withPayload(builder.build()).build();
   }
-
-  static int calculateBatchCount(long maxResults, long total) {
-    return (int) Math.ceil((double) total / maxResults);
-  }
 }
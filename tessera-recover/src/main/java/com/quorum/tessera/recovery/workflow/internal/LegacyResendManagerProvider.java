@@ -11,11 +11,10 @@ public class LegacyResendManagerProvider {
   public static LegacyResendManager provider() {
     final Enclave enclave = Enclave.create();
     final EncryptedTransactionDAO encryptedTransactionDAO = EncryptedTransactionDAO.create();
-    final int resendFetchSize = 100;
     final PayloadPublisher payloadPublisher = PayloadPublisher.create();
     final Discovery discovery = Discovery.create();
 
     return new LegacyResendManagerImpl(
-        enclave, encryptedTransactionDAO, resendFetchSize, payloadPublisher, discovery);
+        enclave, encryptedTransactionDAO, payloadPublisher, discovery);
   }
 }
@@ -0,0 +1,89 @@
+package com.quorum.tessera.recovery.workflow.internal;
+
+import com.quorum.tessera.enclave.EncodedPayload;
+import com.quorum.tessera.recovery.resend.ResendBatchPublisher;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publishes batches on another thread, so the next batch can be prepared while the last one is
+ * being encoded and sent.
+ *
+ * <p>At most the given number of batches are in flight at once; publishing another batch blocks
+ * until one of them has been delivered. Once a batch has failed, no more batches are published
+ * and the failure is thrown to the caller.
+ */
+class PipelinedResendBatchPublisher implements ResendBatchPublisher {
+
+  private final ResendBatchPublisher resendBatchPublisher;
+
+  private final Executor executor;
+
+  private final Semaphore inFlight;
+
+  private final Queue<CompletableFuture<Void>> published = new ConcurrentLinkedQueue<>();
+
+  private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+  PipelinedResendBatchPublisher(
+      final ResendBatchPublisher resendBatchPublisher,
+      final Executor executor,
+      final int maxInFlightBatches) {
+    this.resendBatchPublisher = Objects.requireNonNull(resendBatchPublisher);
+    this.executor = Objects.requireNonNull(executor);
+    this.inFlight = new Semaphore(maxInFlightBatches);
+  }
+
+  @Override
+  public void publishBatch(final List<EncodedPayload> payloads, final String targetUrl) {
+    inFlight.acquireUninterruptibly();
+    if (Objects.nonNull(failure.get())) {
+      inFlight.release();
+      throw failure.get();
+    }
+
+    final CompletableFuture<Void> future =
+        CompletableFuture.runAsync(
+                () -> resendBatchPublisher.publishBatch(payloads, targetUrl), executor)
+            .whenComplete(
+                (result, ex) -> {
+                  if (Objects.nonNull(ex)) {
+                    failure.compareAndSet(null, unwrap(ex));
+                  }
+                  inFlight.release();
+                });
+
+    published.add(future);
+  }
+
+  /**
+   * Waits until every batch published so far has been delivered.
+   *
+   * @throws RuntimeException the first failure of a batch
+   */
+  void awaitPublished() {
+    CompletableFuture<Void> future;
+    while ((future = published.poll()) != null) {
+      future.exceptionally(ex -> null).join();
+    }
+    if (Objects.nonNull(failure.get())) {
+      throw failure.get();
+    }
+  }
+
+  // the failures of an async task are always wrapped in a CompletionException
+  private static RuntimeException unwrap(final Throwable ex) {
+    final Throwable cause = ex.getCause();
+    if (cause instanceof RuntimeException) {
+      return (RuntimeException) cause;
+    }
+    return new CompletionException(cause);
+  }
+}
@@ -0,0 +1,71 @@
+package com.quorum.tessera.recovery;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Paths;
+import java.util.Map;
+import org.junit.Test;
+
+public class RecoveryConfigTest {
+
+  @Test
+  public void defaults() {
+    RecoveryConfig config = RecoveryConfig.defaults();
+
+    assertThat(config.getParallelism()).isEqualTo(10);
+    assertThat(config.getSyncParallelism()).isEqualTo(1);
+    assertThat(config.isTopologicalStaging()).isFalse();
+    assertThat(config.getProgressFile()).isEmpty();
+  }
+
+  @Test
+  public void fromProperties() {
+    RecoveryConfig config =
+        RecoveryConfig.from(
+            Map.of(
+                RecoveryConfig.PARALLELISM_PROPERTY, "32",
+                RecoveryConfig.SYNC_PARALLELISM_PROPERTY, "8",
+                RecoveryConfig.TOPOLOGICAL_STAGING_PROPERTY, "true",
+                RecoveryConfig.PROGRESS_FILE_PROPERTY, "/tmp/recovery.progress"));
+
+    assertThat(config.getParallelism()).isEqualTo(32);
+    assertThat(config.getSyncParallelism()).isEqualTo(8);
+    assertThat(config.isTopologicalStaging()).isTrue();
+    assertThat(config.getProgressFile()).contains(Paths.get("/tmp/recovery.progress"));
+  }
+
+  @Test
+  public void fromNullPropertiesUsesDefaults() {
+    RecoveryConfig config = RecoveryConfig.from(null);
+
+    assertThat(config.getParallelism()).isEqualTo(10);
+    assertThat(config.getProgressFile()).isEmpty();
+  }
+
+  @Test
+  public void parallelismIsAtLeastOne() {
+    RecoveryConfig config =
+        RecoveryConfig.from(
+            Map.of(
+                RecoveryConfig.PARALLELISM_PROPERTY, "0",
+                RecoveryConfig.SYNC_PARALLELISM_PROPERTY, "-2"));
+
+    assertThat(config.getParallelism()).isEqualTo(1);
+    assertThat(config.getSyncParallelism()).isEqualTo(1);
+  }
+
+  @Test
+  public void unparseablePropertyUsesDefaults() {
+    RecoveryConfig config =
+        RecoveryConfig.from(
+            Map.of(
+                RecoveryConfig.SYNC_PARALLELISM_PROPERTY, "many",
+                RecoveryConfig.TOPOLOGICAL_STAGING_PROPERTY, "true",
+                RecoveryConfig.PROGRESS_FILE_PROPERTY, "/tmp/recovery.progress"));
+
+    assertThat(config.getParallelism()).isEqualTo(10);
+    assertThat(config.getSyncParallelism()).isEqualTo(1);
+    assertThat(config.isTopologicalStaging()).isTrue();
+    assertThat(config.getProgressFile()).contains(Paths.get("/tmp/recovery.progress"));
+  }
+}
@@ -1,28 +1,47 @@
 package com.quorum.tessera.recovery.internal;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.Mockito.*;
 
 import com.quorum.tessera.data.MessageHash;
 import com.quorum.tessera.data.staging.StagingEntityDAO;
 import com.quorum.tessera.data.staging.StagingTransaction;
 import com.quorum.tessera.discovery.Discovery;
+import com.quorum.tessera.enclave.Enclave;
 import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.enclave.PrivacyMode;
+import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.recovery.Recovery;
+import com.quorum.tessera.recovery.RecoveryConfig;
 import com.quorum.tessera.recovery.RecoveryResult;
 import com.quorum.tessera.recovery.RecoveryTestCase;
 import com.quorum.tessera.recovery.resend.BatchTransactionRequester;
 import com.quorum.tessera.transaction.TransactionManager;
 import com.quorum.tessera.transaction.exception.PrivacyViolationException;
 import jakarta.persistence.PersistenceException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.InOrder;
 
 public class RecoveryImplTest extends RecoveryTestCase {
 
+  private static final PublicKey KEY_ONE = PublicKey.from(new byte[] {1});
+
+  private static final PublicKey KEY_TWO = PublicKey.from(new byte[] {2});
+
   private Recovery recovery;
 
   private StagingEntityDAO stagingEntityDAO;
@@ -33,6 +52,10 @@ public class RecoveryImplTest extends RecoveryTestCase {
 
   private TransactionManager transactionManager;
 
+  private Enclave enclave;
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
   @Before
   public void onSetUp() {
 
@@ -41,13 +64,53 @@ public class RecoveryImplTest extends RecoveryTestCase {
     when(discovery.getRemoteNodeInfos()).thenReturn(getAllNodeInfos());
 
     transactionRequester = mock(BatchTransactionRequester.class);
-    when(transactionRequester.requestAllTransactionsFromNode(anyString())).thenReturn(true);
+    when(transactionRequester.requestTransactionsFromNode(anyString(), any(PublicKey.class)))
+        .thenReturn(10L);
 
     stagingEntityDAO = mock(StagingEntityDAO.class);
     transactionManager = mock(TransactionManager.class);
 
+    enclave = mock(Enclave.class);
+    when(enclave.getPublicKeys()).thenReturn(Set.of(KEY_ONE, KEY_TWO));
+
     this.recovery =
-        new RecoveryImpl(stagingEntityDAO, discovery, transactionRequester, transactionManager);
+        new RecoveryImpl(
+            stagingEntityDAO,
+            discovery,
+            transactionRequester,
+            transactionManager,
+            enclave,
+            RecoveryConfig.defaults());
+  }
+
+  private RecoveryImpl recoveryWithProgressFile(Path progressFile) {
+    return new RecoveryImpl(
+        stagingEntityDAO,
+        discovery,
+        transactionRequester,
+        transactionManager,
+        enclave,
+        new RecoveryConfig(2, 2, false, progressFile));
+  }
+
+  private RecoveryImpl recoveryWithSyncParallelism(int syncParallelism) {
+    return new RecoveryImpl(
+        stagingEntityDAO,
+        discovery,
+        transactionRequester,
+        transactionManager,
+        enclave,
+        new RecoveryConfig(2, syncParallelism, false, null));
+  }
+
+  private static StagingTransaction staged(long id, String hash, Long stage, PrivacyMode mode) {
+    final StagingTransaction stagingTransaction = new StagingTransaction();
+    stagingTransaction.setId(id);
+    stagingTransaction.setHash(hash);
+    stagingTransaction.setValidationStage(stage);
+    stagingTransaction.setPrivacyMode(mode);
+    stagingTransaction.setEncodedPayload(mock(EncodedPayload.class));
+    return stagingTransaction;
   }
 
   @After
@@ -56,54 +119,209 @@ public class RecoveryImplTest extends RecoveryTestCase {
     verifyNoMoreInteractions(discovery);
     verifyNoMoreInteractions(stagingEntityDAO);
     verifyNoMoreInteractions(transactionManager);
+    verifyNoMoreInteractions(enclave);
   }
 
   @Test
   public void testRequestSuccess() {
 
-    when(transactionRequester.requestAllTransactionsFromLegacyNode(anyString())).thenReturn(true);
+    when(transactionRequester.requestTransactionsFromLegacyNode(anyString(), any(PublicKey.class)))
+        .thenReturn(true);
 
     final RecoveryResult result = recovery.request();
 
     assertThat(result).isEqualTo(RecoveryResult.SUCCESS);
 
-    verify(transactionRequester).requestAllTransactionsFromNode("http://party1/");
-    verify(transactionRequester).requestAllTransactionsFromNode("http://party3/");
+    for (PublicKey key : List.of(KEY_ONE, KEY_TWO)) {
+      verify(transactionRequester).requestTransactionsFromNode("http://party1/", key);
+      verify(transactionRequester).requestTransactionsFromNode("http://party3/", key);
 
-    verify(transactionRequester).requestAllTransactionsFromLegacyNode("http://party2/");
-    verify(transactionRequester).requestAllTransactionsFromLegacyNode("http://party4/");
+      verify(transactionRequester).requestTransactionsFromLegacyNode("http://party2/", key);
+      verify(transactionRequester).requestTransactionsFromLegacyNode("http://party4/", key);
+    }
 
     verify(discovery).getRemoteNodeInfos();
+    verify(enclave).getPublicKeys();
+
+    final RecoveryProgress.PeerProgress progress =
+        ((RecoveryImpl) recovery).getProgress().get("http://party1/");
+    assertThat(progress.getRequested()).isEqualTo(2);
+    assertThat(progress.getCompleted()).isEqualTo(2);
+    assertThat(progress.getFailed()).isZero();
+    assertThat(progress.getReceived()).isEqualTo(20L);
+    assertThat(progress).hasToString("2 of 2 keys done, 0 failed, 20 transactions received");
+
+    final RecoveryProgress.PeerProgress legacyProgress =
+        ((RecoveryImpl) recovery).getProgress().get("http://party2/");
+    assertThat(legacyProgress.getCompleted()).isEqualTo(2);
+    assertThat(legacyProgress.getReceived()).isZero();
   }
 
   @Test
   public void testRequestPartialSuccess() {
 
-    when(transactionRequester.requestAllTransactionsFromLegacyNode(eq("http://party2")))
+    when(transactionRequester.requestTransactionsFromLegacyNode(anyString(), any(PublicKey.class)))
+        .thenReturn(true);
+    when(transactionRequester.requestTransactionsFromLegacyNode("http://party2/", KEY_TWO))
         .thenReturn(false);
 
     final RecoveryResult result = recovery.request();
 
     assertThat(result).isEqualTo(RecoveryResult.PARTIAL_SUCCESS);
 
-    verify(transactionRequester, times(2)).requestAllTransactionsFromNode(anyString());
-    verify(transactionRequester, times(2)).requestAllTransactionsFromLegacyNode(anyString());
+    verify(transactionRequester, times(4)).requestTransactionsFromNode(anyString(), any());
+    verify(transactionRequester, times(4)).requestTransactionsFromLegacyNode(anyString(), any());
     verify(discovery).getRemoteNodeInfos();
+    verify(enclave).getPublicKeys();
+
+    final RecoveryProgress.PeerProgress progress =
+        ((RecoveryImpl) recovery).getProgress().get("http://party2/");
+    assertThat(progress.getCompleted()).isEqualTo(1);
+    assertThat(progress.getFailed()).isEqualTo(1);
   }
 
   @Test
   public void testRequestFailed() {
 
-    when(transactionRequester.requestAllTransactionsFromNode(anyString())).thenReturn(false);
-    when(transactionRequester.requestAllTransactionsFromLegacyNode(anyString())).thenReturn(false);
+    when(transactionRequester.requestTransactionsFromNode(anyString(), any(PublicKey.class)))
+        .thenReturn(-1L);
+    when(transactionRequester.requestTransactionsFromLegacyNode(anyString(), any(PublicKey.class)))
+        .thenReturn(false);
 
     final RecoveryResult result = recovery.request();
 
     assertThat(result).isEqualTo(RecoveryResult.FAILURE);
 
-    verify(transactionRequester, times(2)).requestAllTransactionsFromNode(anyString());
-    verify(transactionRequester, times(2)).requestAllTransactionsFromLegacyNode(anyString());
+    verify(transactionRequester, times(4)).requestTransactionsFromNode(anyString(), any());
+    verify(transactionRequester, times(4)).requestTransactionsFromLegacyNode(anyString(), any());
     verify(discovery).getRemoteNodeInfos();
+    verify(enclave).getPublicKeys();
+  }
+
+  @Test
+  public void testRequestThrowsCountsAsFailure() {
+
+    when(transactionRequester.requestTransactionsFromNode(anyString(), any(PublicKey.class)))
+        .thenThrow(new IllegalStateException("OUCH"));
+    when(transactionRequester.requestTransactionsFromLegacyNode(anyString(), any(PublicKey.class)))
+        .thenReturn(true);
+
+    final RecoveryResult result = recovery.request();
+
+    assertThat(result).isEqualTo(RecoveryResult.PARTIAL_SUCCESS);
+
+    verify(transactionRequester, times(4)).requestTransactionsFromNode(anyString(), any());
+    verify(transactionRequester, times(4)).requestTransactionsFromLegacyNode(anyString(), any());
+    verify(discovery).getRemoteNodeInfos();
+    verify(enclave).getPublicKeys();
+
+    assertThat(((RecoveryImpl) recovery).getProgress().get("http://party1/").getFailed())
+        .isEqualTo(2);
+  }
+
+  @Test
+  public void testRequestNoPeers() {
+
+    when(discovery.getRemoteNodeInfos()).thenReturn(Set.of());
+
+    assertThat(recovery.request()).isEqualTo(RecoveryResult.SUCCESS);
+
+    verify(discovery).getRemoteNodeInfos();
+    verify(enclave).getPublicKeys();
+  }
+
+  @Test
+  public void testRequestSkipsRequestsRecordedInProgressFile() throws Exception {
+
+    final Path progressFile = temporaryFolder.getRoot().toPath().resolve("progress");
+    Files.write(
+        progressFile,
+        List.of(
+            "http://party1/ " + KEY_ONE.encodeToBase64(),
+            "",
+            "http://party2/ " + KEY_ONE.encodeToBase64()));
+
+    when(transactionRequester.requestTransactionsFromLegacyNode(anyString(), any(PublicKey.class)))
+        .thenReturn(true);
+
+    final RecoveryImpl resumed = recoveryWithProgressFile(progressFile);
+
+    assertThat(resumed.request()).isEqualTo(RecoveryResult.SUCCESS);
+
+    verify(transactionRequester).requestTransactionsFromNode("http://party1/", KEY_TWO);
+    verify(transactionRequester).requestTransactionsFromNode("http://party3/", KEY_ONE);
+    verify(transactionRequester).requestTransactionsFromNode("http://party3/", KEY_TWO);
+    verify(transactionRequester).requestTransactionsFromLegacyNode("http://party2/", KEY_TWO);
+    verify(transactionRequester).requestTransactionsFromLegacyNode("http://party4/", KEY_ONE);
+    verify(transactionRequester).requestTransactionsFromLegacyNode("http://party4/", KEY_TWO);
+    verify(discovery).getRemoteNodeInfos();
+    verify(enclave).getPublicKeys();
+
+    assertThat(resumed.getProgress().get("http://party1/").getCompleted()).isEqualTo(2);
+    assertThat(resumed.getProgress().get("http://party1/").getReceived()).isEqualTo(10L);
+
+    assertThat(Files.readAllLines(progressFile))
+        .hasSize(9)
+        .contains(
+            "http://party1/ " + KEY_TWO.encodeToBase64(),
+            "http://party3/ " + KEY_ONE.encodeToBase64(),
+            "http://party4/ " + KEY_TWO.encodeToBase64());
+  }
+
+  @Test
+  public void testRequestFailuresAreNotRecordedInProgressFile() throws Exception {
+
+    final Path progressFile = temporaryFolder.getRoot().toPath().resolve("progress");
+
+    when(transactionRequester.requestTransactionsFromNode(anyString(), any(PublicKey.class)))
+        .thenReturn(-1L);
+    when(transactionRequester.requestTransactionsFromLegacyNode(anyString(), any(PublicKey.class)))
+        .thenReturn(true);
+
+    final RecoveryImpl recoveryImpl = recoveryWithProgressFile(progressFile);
+
+    assertThat(recoveryImpl.request()).isEqualTo(RecoveryResult.PARTIAL_SUCCESS);
+
+    verify(transactionRequester, times(4)).requestTransactionsFromNode(anyString(), any());
+    verify(transactionRequester, times(4)).requestTransactionsFromLegacyNode(anyString(), any());
+    verify(discovery).getRemoteNodeInfos();
+    verify(enclave).getPublicKeys();
+
+    assertThat(Files.readAllLines(progressFile))
+        .hasSize(4)
+        .allMatch(l -> l.startsWith("http://party2/") || l.startsWith("http://party4/"));
+  }
+
+  @Test
+  public void testRequestUnwritableProgressFileIsIgnored() {
+
+    final Path progressFile = temporaryFolder.getRoot().toPath().resolve("missing/progress");
+
+    when(transactionRequester.requestTransactionsFromLegacyNode(anyString(), any(PublicKey.class)))
+        .thenReturn(true);
+
+    final RecoveryImpl recoveryImpl = recoveryWithProgressFile(progressFile);
+
+    assertThat(recoveryImpl.request()).isEqualTo(RecoveryResult.SUCCESS);
+
+    verify(transactionRequester, times(4)).requestTransactionsFromNode(anyString(), any());
+    verify(transactionRequester, times(4)).requestTransactionsFromLegacyNode(anyString(), any());
+    verify(discovery).getRemoteNodeInfos();
+    verify(enclave).getPublicKeys();
+
+    assertThat(progressFile).doesNotExist();
+  }
+
+  @Test
+  public void testUnreadableProgressFile() throws Exception {
+
+    final Path progressFile = temporaryFolder.newFolder("progress").toPath();
+
+    final Throwable ex = catchThrowable(() -> recoveryWithProgressFile(progressFile));
+
+    assertThat(ex)
+        .isInstanceOf(UncheckedIOException.class)
+        .hasMessageContaining("Unable to read recovery progress file");
   }
 
   @Test
@@ -115,7 +333,7 @@ public class RecoveryImplTest extends RecoveryTestCase {
     when(stagingEntityDAO.updateStageForBatch(anyInt(), eq(3L))).thenReturn(0);
 
     when(stagingEntityDAO.countAll()).thenReturn(2L);
-    when(stagingEntityDAO.countStaged()).thenReturn(2L);
+    when(stagingEntityDAO.countStaged()).thenReturn(0L, 2L);
 
     RecoveryResult result = recovery.stage();
 
@@ -123,7 +341,7 @@ public class RecoveryImplTest extends RecoveryTestCase {
 
     verify(stagingEntityDAO, times(3)).updateStageForBatch(anyInt(), anyLong());
     verify(stagingEntityDAO).countAll();
-    verify(stagingEntityDAO).countStaged();
+    verify(stagingEntityDAO, times(2)).countStaged();
   }
 
   @Test
@@ -137,9 +355,10 @@ public class RecoveryImplTest extends RecoveryTestCase {
 
     assertThat(result).isEqualTo(RecoveryResult.PARTIAL_SUCCESS);
 
-    verify(stagingEntityDAO).updateStageForBatch(anyInt(), anyLong());
+    // the row staged by an earlier run keeps its stage, so staging continues at stage 2
+    verify(stagingEntityDAO).updateStageForBatch(anyInt(), eq(2L));
     verify(stagingEntityDAO).countAll();
-    verify(stagingEntityDAO).countStaged();
+    verify(stagingEntityDAO, times(2)).countStaged();
   }
 
   @Test
@@ -154,9 +373,35 @@ public class RecoveryImplTest extends RecoveryTestCase {
 
     assertThat(result).isEqualTo(RecoveryResult.FAILURE);
 
-    verify(stagingEntityDAO).updateStageForBatch(anyInt(), anyLong());
+    verify(stagingEntityDAO).updateStageForBatch(anyInt(), eq(1L));
+    verify(stagingEntityDAO).countAll();
+    verify(stagingEntityDAO, times(2)).countStaged();
+  }
+
+  @Test
+  public void testTopologicalStaging() {
+
+    final Recovery topological =
+        new RecoveryImpl(
+            stagingEntityDAO,
+            discovery,
+            transactionRequester,
+            transactionManager,
+            enclave,
+            new RecoveryConfig(2, 1, true, null));
+
+    when(stagingEntityDAO.countUnstagedByHash()).thenReturn(Map.of("TXN1", 1L));
+    when(stagingEntityDAO.updateStageForHashes(List.of("TXN1"), 4L)).thenReturn(1);
+    when(stagingEntityDAO.countAll()).thenReturn(4L);
+    when(stagingEntityDAO.countStaged()).thenReturn(3L, 4L);
+
+    assertThat(topological.stage()).isEqualTo(RecoveryResult.SUCCESS);
+
+    verify(stagingEntityDAO).countUnstagedByHash();
+    verify(stagingEntityDAO).forEachAffectedHash(anyInt(), any());
+    verify(stagingEntityDAO).updateStageForHashes(List.of("TXN1"), 4L);
     verify(stagingEntityDAO).countAll();
-    verify(stagingEntityDAO).countStaged();
+    verify(stagingEntityDAO, times(2)).countStaged();
   }
 
   @Test
@@ -174,9 +419,8 @@ public class RecoveryImplTest extends RecoveryTestCase {
     when(version1.getEncodedPayload()).thenReturn(firstPayload);
     when(version2.getEncodedPayload()).thenReturn(secondPayload);
 
-    when(stagingEntityDAO.retrieveTransactionBatchOrderByStageAndHash(anyInt(), anyInt()))
+    when(stagingEntityDAO.retrieveTransactionBatchOrderByStageAndHashAfter(isNull(), anyInt()))
         .thenReturn(List.of(version1, version2));
-    when(stagingEntityDAO.countAll()).thenReturn(2L);
 
     when(transactionManager.storePayload(any())).thenReturn(new MessageHash("hash".getBytes()));
 
@@ -184,8 +428,7 @@ public class RecoveryImplTest extends RecoveryTestCase {
 
     assertThat(result).isEqualTo(RecoveryResult.SUCCESS);
 
-    verify(stagingEntityDAO).retrieveTransactionBatchOrderByStageAndHash(anyInt(), anyInt());
-    verify(stagingEntityDAO, times(2)).countAll();
+    verify(stagingEntityDAO).retrieveTransactionBatchOrderByStageAndHashAfter(isNull(), anyInt());
 
     verify(transactionManager).storePayload(firstPayload);
     verify(transactionManager).storePayload(secondPayload);
@@ -200,9 +443,8 @@ public class RecoveryImplTest extends RecoveryTestCase {
     when(version1.getHash()).thenReturn("TXN1");
     when(version2.getHash()).thenReturn("TXN1");
 
-    when(stagingEntityDAO.retrieveTransactionBatchOrderByStageAndHash(anyInt(), anyInt()))
+    when(stagingEntityDAO.retrieveTransactionBatchOrderByStageAndHashAfter(isNull(), anyInt()))
         .thenReturn(List.of(version1, version2));
-    when(stagingEntityDAO.countAll()).thenReturn(2L);
 
     EncodedPayload encodedPayload = mock(EncodedPayload.class);
     EncodedPayload encodedPayload2 = mock(EncodedPayload.class);
@@ -217,8 +459,7 @@ public class RecoveryImplTest extends RecoveryTestCase {
 
     assertThat(result).isEqualTo(RecoveryResult.PARTIAL_SUCCESS);
 
-    verify(stagingEntityDAO).retrieveTransactionBatchOrderByStageAndHash(anyInt(), anyInt());
-    verify(stagingEntityDAO, times(2)).countAll();
+    verify(stagingEntityDAO).retrieveTransactionBatchOrderByStageAndHashAfter(isNull(), anyInt());
 
     verify(transactionManager).storePayload(encodedPayload);
     verify(transactionManager).storePayload(encodedPayload2);
@@ -240,19 +481,16 @@ public class RecoveryImplTest extends RecoveryTestCase {
 
     List<StagingTransaction> stagingTransactions = List.of(version1, version2);
 
-    when(stagingEntityDAO.retrieveTransactionBatchOrderByStageAndHash(anyInt(), anyInt()))
+    when(stagingEntityDAO.retrieveTransactionBatchOrderByStageAndHashAfter(isNull(), anyInt()))
         .thenReturn(stagingTransactions);
 
-    when(stagingEntityDAO.countAll()).thenReturn((long) stagingTransactions.size());
-
     when(transactionManager.storePayload(any())).thenThrow(PrivacyViolationException.class);
 
     RecoveryResult result = recovery.sync();
 
     assertThat(result).isEqualTo(RecoveryResult.FAILURE);
 
-    verify(stagingEntityDAO).retrieveTransactionBatchOrderByStageAndHash(anyInt(), anyInt());
-    verify(stagingEntityDAO, times(2)).countAll();
+    verify(stagingEntityDAO).retrieveTransactionBatchOrderByStageAndHashAfter(isNull(), anyInt());
 
     verify(transactionManager, times(2)).storePayload(any());
   }
@@ -279,9 +517,8 @@ public class RecoveryImplTest extends RecoveryTestCase {
     when(version2.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
     when(anotherTx.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
 
-    when(stagingEntityDAO.retrieveTransactionBatchOrderByStageAndHash(anyInt(), anyInt()))
+    when(stagingEntityDAO.retrieveTransactionBatchOrderByStageAndHashAfter(isNull(), anyInt()))
         .thenReturn(List.of(version1, version2, anotherTx));
-    when(stagingEntityDAO.countAll()).thenReturn(3L);
 
     when(transactionManager.storePayload(any())).thenThrow(PrivacyViolationException.class);
 
@@ -289,13 +526,104 @@ public class RecoveryImplTest extends RecoveryTestCase {
 
     assertThat(result).isEqualTo(RecoveryResult.FAILURE);
 
-    verify(stagingEntityDAO).retrieveTransactionBatchOrderByStageAndHash(anyInt(), anyInt());
-    verify(stagingEntityDAO, times(2)).countAll();
+    verify(stagingEntityDAO).retrieveTransactionBatchOrderByStageAndHashAfter(isNull(), anyInt());
 
     verify(transactionManager).storePayload(encodedPayload);
     verify(transactionManager).storePayload(encodedPayload2);
   }
 
+  @Test
+  public void testParallelSyncStoresStagesInOrder() {
+
+    final StagingTransaction firstVersion = staged(1, "A", 1L, PrivacyMode.STANDARD_PRIVATE);
+    final StagingTransaction secondVersion = staged(2, "A", 1L, PrivacyMode.STANDARD_PRIVATE);
+    final StagingTransaction other = staged(3, "B", 1L, PrivacyMode.STANDARD_PRIVATE);
+    final StagingTransaction dependent = staged(4, "C", 2L, PrivacyMode.STANDARD_PRIVATE);
+    final StagingTransaction unstaged = staged(5, "D", null, PrivacyMode.STANDARD_PRIVATE);
+
+    when(stagingEntityDAO.retrieveTransactionBatchOrderByStageAndHashAfter(isNull(), anyInt()))
+        .thenReturn(List.of(firstVersion, secondVersion, other, dependent, unstaged));
+
+    final List<EncodedPayload> stored = new CopyOnWriteArrayList<>();
+    when(transactionManager.storePayload(any()))
+        .thenAnswer(
+            invocation -> {
+              stored.add(invocation.getArgument(0));
+              return new MessageHash("hash".getBytes());
+            });
+
+    assertThat(recoveryWithSyncParallelism(4).sync()).isEqualTo(RecoveryResult.SUCCESS);
+
+    assertThat(stored)
+        .hasSize(5)
+        .endsWith(dependent.getEncodedPayload(), unstaged.getEncodedPayload());
+    assertThat(stored.indexOf(firstVersion.getEncodedPayload()))
+        .isLessThan(stored.indexOf(secondVersion.getEncodedPayload()));
+
+    verify(stagingEntityDAO).retrieveTransactionBatchOrderByStageAndHashAfter(isNull(), anyInt());
+    verify(transactionManager, times(5)).storePayload(any());
+  }
+
+  @Test
+  public void testParallelSyncPsvTransactionOnlySentOnce() {
+
+    final StagingTransaction firstVersion =
+        staged(1, "A", 1L, PrivacyMode.PRIVATE_STATE_VALIDATION);
+    final StagingTransaction secondVersion =
+        staged(2, "A", 1L, PrivacyMode.PRIVATE_STATE_VALIDATION);
+    final StagingTransaction other = staged(3, "B", 1L, PrivacyMode.STANDARD_PRIVATE);
+
+    when(stagingEntityDAO.retrieveTransactionBatchOrderByStageAndHashAfter(isNull(), anyInt()))
+        .thenReturn(List.of(firstVersion, secondVersion, other));
+
+    when(transactionManager.storePayload(other.getEncodedPayload()))
+        .thenThrow(PrivacyViolationException.class);
+
+    assertThat(recoveryWithSyncParallelism(4).sync()).isEqualTo(RecoveryResult.PARTIAL_SUCCESS);
+
+    verify(stagingEntityDAO).retrieveTransactionBatchOrderByStageAndHashAfter(isNull(), anyInt());
+    verify(transactionManager).storePayload(firstVersion.getEncodedPayload());
+    verify(transactionManager).storePayload(other.getEncodedPayload());
+  }
+
+  @Test
+  public void testParallelSyncSplitsLargeStagesBetweenHashes() {
+
+    final List<StagingTransaction> firstBatch =
+        IntStream.range(0, 10000)
+            .mapToObj(i -> staged(i, "H" + (i / 2), 1L, PrivacyMode.STANDARD_PRIVATE))
+            .collect(Collectors.toList());
+    final StagingTransaction lastVersion =
+        staged(10000, "H4999", 1L, PrivacyMode.STANDARD_PRIVATE);
+    final StagingTransaction next = staged(10001, "H5000", 1L, PrivacyMode.STANDARD_PRIVATE);
+
+    when(stagingEntityDAO.retrieveTransactionBatchOrderByStageAndHashAfter(isNull(), anyInt()))
+        .thenReturn(firstBatch);
+    when(stagingEntityDAO.retrieveTransactionBatchOrderByStageAndHashAfter(
+            eq(firstBatch.get(9999)), anyInt()))
+        .thenReturn(List.of(lastVersion, next));
+
+    final List<EncodedPayload> stored = new CopyOnWriteArrayList<>();
+    when(transactionManager.storePayload(any()))
+        .thenAnswer(
+            invocation -> {
+              stored.add(invocation.getArgument(0));
+              return new MessageHash("hash".getBytes());
+            });
+
+    assertThat(recoveryWithSyncParallelism(4).sync()).isEqualTo(RecoveryResult.SUCCESS);
+
+    // the versions of H4999 stay together, so the stage is only split before H5000
+    assertThat(stored).hasSize(10002).last().isSameAs(next.getEncodedPayload());
+    assertThat(stored.indexOf(firstBatch.get(9999).getEncodedPayload()))
+        .isLessThan(stored.indexOf(lastVersion.getEncodedPayload()));
+
+    verify(stagingEntityDAO).retrieveTransactionBatchOrderByStageAndHashAfter(isNull(), anyInt());
+    verify(stagingEntityDAO)
+        .retrieveTransactionBatchOrderByStageAndHashAfter(eq(firstBatch.get(9999)), anyInt());
+    verify(transactionManager, times(10002)).storePayload(any());
+  }
+
   @Test
   public void testRecoverSuccess() {
 
@@ -389,4 +717,83 @@ public class RecoveryImplTest extends RecoveryTestCase {
 
     verify(stagingEntityDAO).countAll();
   }
+
+  @Test
+  public void testRecoverResumesWithoutCheckingStagingTables() throws Exception {
+
+    final Path progressFile = temporaryFolder.getRoot().toPath().resolve("progress");
+    Files.write(progressFile, List.of("http://party1/ " + KEY_ONE.encodeToBase64()));
+
+    final Recovery spy = spy(recoveryWithProgressFile(progressFile));
+
+    doReturn(RecoveryResult.SUCCESS).when(spy).request();
+    doReturn(RecoveryResult.SUCCESS).when(spy).stage();
+    doReturn(RecoveryResult.SUCCESS).when(spy).sync();
+
+    assertThat(spy.recover()).isEqualTo(0);
+
+    final InOrder inOrder = inOrder(stagingEntityDAO, spy);
+    inOrder.verify(stagingEntityDAO).resumeIds();
+    inOrder.verify(spy).request();
+    inOrder.verify(spy).stage();
+    inOrder.verify(spy).sync();
+
+    assertThat(progressFile).doesNotExist();
+  }
+
+  @Test
+  public void testRecoverKeepsProgressFileIfNotSuccessful() throws Exception {
+
+    final Path progressFile = temporaryFolder.getRoot().toPath().resolve("progress");
+    Files.write(progressFile, List.of("http://party1/ " + KEY_ONE.encodeToBase64()));
+
+    final Recovery spy = spy(recoveryWithProgressFile(progressFile));
+
+    doReturn(RecoveryResult.PARTIAL_SUCCESS).when(spy).request();
+    doReturn(RecoveryResult.SUCCESS).when(spy).stage();
+    doReturn(RecoveryResult.SUCCESS).when(spy).sync();
+
+    assertThat(spy.recover()).isEqualTo(1);
+
+    verify(stagingEntityDAO).resumeIds();
+    verify(spy).request();
+    verify(spy).stage();
+    verify(spy).sync();
+
+    assertThat(progressFile).exists();
+  }
+
+  @Test
+  public void testRecoverProgressFileThatCannotBeDeleted() throws Exception {
+
+    final Path progressFile = temporaryFolder.newFolder("progress").toPath();
+
+    final RecoveryImpl recoveryImpl = recoveryWithProgressFile(progressFile.resolve("file"));
+    when(transactionRequester.requestTransactionsFromLegacyNode(anyString(), any(PublicKey.class)))
+        .thenReturn(true);
+    recoveryImpl.request();
+
+    // a non-empty directory in place of the file
+    Files.delete(progressFile.resolve("file"));
+    Files.createDirectories(progressFile.resolve("file").resolve("child"));
+
+    final Recovery spy = spy(recoveryImpl);
+
+    doReturn(RecoveryResult.SUCCESS).when(spy).request();
+    doReturn(RecoveryResult.SUCCESS).when(spy).stage();
+    doReturn(RecoveryResult.SUCCESS).when(spy).sync();
+
+    assertThat(spy.recover()).isEqualTo(0);
+
+    verify(transactionRequester, times(4)).requestTransactionsFromNode(anyString(), any());
+    verify(transactionRequester, times(4)).requestTransactionsFromLegacyNode(anyString(), any());
+    verify(discovery).getRemoteNodeInfos();
+    verify(enclave).getPublicKeys();
+    verify(stagingEntityDAO).resumeIds();
+    verify(spy).request();
+    verify(spy).stage();
+    verify(spy).sync();
+
+    assertThat(progressFile.resolve("file")).exists();
+  }
 }
@@ -3,11 +3,16 @@ package com.quorum.tessera.recovery.internal;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
+import com.quorum.tessera.config.Config;
+import com.quorum.tessera.config.ConfigFactory;
+import com.quorum.tessera.config.ServerConfig;
 import com.quorum.tessera.data.staging.StagingEntityDAO;
 import com.quorum.tessera.discovery.Discovery;
+import com.quorum.tessera.enclave.Enclave;
 import com.quorum.tessera.recovery.Recovery;
 import com.quorum.tessera.recovery.resend.BatchTransactionRequester;
 import com.quorum.tessera.transaction.TransactionManager;
+import java.util.Map;
 import org.junit.Test;
 
 public class RecoveryProviderTest {
@@ -23,7 +28,9 @@ public class RecoveryProviderTest {
     try (var staticStagingEntityDAO = mockStatic(StagingEntityDAO.class);
         var staticDiscovery = mockStatic(Discovery.class);
         var staticBatchTransactionRequester = mockStatic(BatchTransactionRequester.class);
-        var staticTransactionManager = mockStatic(TransactionManager.class)) {
+        var staticTransactionManager = mockStatic(TransactionManager.class);
+        var staticEnclave = mockStatic(Enclave.class);
+        var staticConfigFactory = mockStatic(ConfigFactory.class)) {
 
       staticStagingEntityDAO
           .when(StagingEntityDAO::create)
@@ -38,6 +45,16 @@ public class RecoveryProviderTest {
       TransactionManager transactionManager = mock(TransactionManager.class);
       staticTransactionManager.when(TransactionManager::create).thenReturn(transactionManager);
 
+      staticEnclave.when(Enclave::create).thenReturn(mock(Enclave.class));
+
+      ServerConfig serverConfig = mock(ServerConfig.class);
+      when(serverConfig.getProperties()).thenReturn(Map.of("recoveryParallelism", "4"));
+      Config config = mock(Config.class);
+      when(config.getP2PServerConfig()).thenReturn(serverConfig);
+      ConfigFactory configFactory = mock(ConfigFactory.class);
+      when(configFactory.getConfig()).thenReturn(config);
+      staticConfigFactory.when(ConfigFactory::create).thenReturn(configFactory);
+
       Recovery recovery = RecoveryProvider.provider();
 
       assertThat(recovery).isNotNull().isExactlyInstanceOf(RecoveryImpl.class);
@@ -54,6 +71,12 @@ public class RecoveryProviderTest {
 
       staticTransactionManager.verify(TransactionManager::create);
       staticTransactionManager.verifyNoMoreInteractions();
+
+      staticEnclave.verify(Enclave::create);
+      staticEnclave.verifyNoMoreInteractions();
+
+      staticConfigFactory.verify(ConfigFactory::create);
+      staticConfigFactory.verifyNoMoreInteractions();
     }
   }
 }
@@ -0,0 +1,146 @@
+package com.quorum.tessera.recovery.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.quorum.tessera.data.staging.StagingEntityDAO;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TopologicalStagingTest {
+
+  private StagingEntityDAO stagingEntityDAO;
+
+  private TopologicalStaging topologicalStaging;
+
+  private Map<String, Long> unstaged;
+
+  private List<String[]> affected;
+
+  private Map<String, Long> stages;
+
+  @Before
+  public void beforeTest() {
+    stagingEntityDAO = mock(StagingEntityDAO.class);
+    topologicalStaging = new TopologicalStaging(stagingEntityDAO, 10);
+
+    unstaged = new HashMap<>();
+    affected = new ArrayList<>();
+    stages = new HashMap<>();
+
+    when(stagingEntityDAO.countUnstagedByHash()).thenReturn(unstaged);
+    doAnswer(
+            invocation -> {
+              final BiConsumer<String, String> consumer = invocation.getArgument(1);
+              affected.forEach(pair -> consumer.accept(pair[0], pair[1]));
+              return null;
+            })
+        .when(stagingEntityDAO)
+        .forEachAffectedHash(eq(10), any());
+    when(stagingEntityDAO.updateStageForHashes(anyCollection(), anyLong()))
+        .thenAnswer(
+            invocation -> {
+              final Collection<String> hashes = invocation.getArgument(0);
+              final long stage = invocation.getArgument(1);
+              hashes.forEach(hash -> assertThat(stages.put(hash, stage)).isNull());
+              return (int) hashes.stream().mapToLong(unstaged::get).sum();
+            });
+  }
+
+  @After
+  public void afterTest() {
+    verify(stagingEntityDAO).countUnstagedByHash();
+    verify(stagingEntityDAO).forEachAffectedHash(eq(10), any());
+    verify(stagingEntityDAO, atLeast(0)).updateStageForHashes(anyCollection(), anyLong());
+    verifyNoMoreInteractions(stagingEntityDAO);
+  }
+
+  private void transaction(String hash, long unstagedRows, String... affectedHashes) {
+    unstaged.put(hash, unstagedRows);
+    for (String affectedHash : affectedHashes) {
+      affected.add(new String[] {hash, affectedHash});
+    }
+  }
+
+  @Test
+  public void stagesMatchTheStagingQuery() {
+    // the same transactions as the staging query is tested with
+    transaction("TXN1", 1);
+    transaction("TXN2", 2, "TXN1", "TXN1");
+    transaction("TXN3", 1, "TXN1");
+    transaction("TXN4", 1, "TXN3");
+    transaction("TXN5", 1, "TXN6");
+    transaction("TXN7", 1, "TXN1", "TXN4");
+
+    assertThat(topologicalStaging.stage(0)).isEqualTo(6);
+
+    assertThat(stages)
+        .containsOnly(
+            Map.entry("TXN1", 1L),
+            Map.entry("TXN2", 2L),
+            Map.entry("TXN3", 2L),
+            Map.entry("TXN4", 3L),
+            Map.entry("TXN7", 4L));
+  }
+
+  @Test
+  public void transactionsDependingOnUnstageableTransactionsAreNotStaged() {
+    transaction("MISSING_DEPENDENCY", 1, "UNKNOWN");
+    transaction("DEPENDS_ON_UNSTAGEABLE", 1, "MISSING_DEPENDENCY");
+    transaction("CYCLE_A", 1, "CYCLE_B");
+    transaction("CYCLE_B", 1, "CYCLE_A");
+    transaction("SELF", 1, "SELF");
+    transaction("FREE", 1);
+
+    assertThat(topologicalStaging.stage(0)).isEqualTo(1);
+
+    assertThat(stages).containsOnly(Map.entry("FREE", 1L));
+  }
+
+  @Test
+  public void stagesContinueAfterTransactionsStagedEarlier() {
+    transaction("STAGED", 0);
+    transaction("STAGED_WITH_DEPENDENCY", 0, "STAGED");
+    transaction("PARTLY_STAGED", 1, "STAGED");
+    transaction("DEPENDENT", 1, "PARTLY_STAGED", "STAGED");
+
+    assertThat(topologicalStaging.stage(5)).isEqualTo(2);
+
+    assertThat(stages).containsOnly(Map.entry("PARTLY_STAGED", 6L), Map.entry("DEPENDENT", 7L));
+  }
+
+  @Test
+  public void nothingToStage() {
+    assertThat(topologicalStaging.stage(0)).isZero();
+
+    assertThat(stages).isEmpty();
+  }
+
+  @Test
+  public void largeStagesAreUpdatedInBatches() {
+    transaction("ROOT", 1);
+    final List<String> dependents =
+        IntStream.range(0, TopologicalStaging.HASHES_PER_UPDATE + 1)
+            .mapToObj(i -> "TXN" + i)
+            .collect(Collectors.toList());
+    dependents.forEach(hash -> transaction(hash, 1, "ROOT"));
+
+    assertThat(topologicalStaging.stage(0)).isEqualTo(dependents.size() + 1);
+
+    assertThat(stages).hasSize(dependents.size() + 1).containsEntry("ROOT", 1L);
+    dependents.forEach(hash -> assertThat(stages).containsEntry(hash, 2L));
+
+    verify(stagingEntityDAO).updateStageForHashes(List.of("ROOT"), 1L);
+    verify(stagingEntityDAO, times(2)).updateStageForHashes(anyCollection(), eq(2L));
+  }
+}
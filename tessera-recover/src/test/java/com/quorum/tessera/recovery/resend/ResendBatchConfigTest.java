@@ -0,0 +1,61 @@
+package com.quorum.tessera.recovery.resend;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import org.junit.Test;
+
+public class ResendBatchConfigTest {
+
+  @Test
+  public void defaults() {
+    ResendBatchConfig config = ResendBatchConfig.defaults();
+
+    assertThat(config.getParallelism()).isEqualTo(4);
+    assertThat(config.getMaxInFlightBatches()).isEqualTo(2);
+  }
+
+  @Test
+  public void fromProperties() {
+    ResendBatchConfig config =
+        ResendBatchConfig.from(
+            Map.of(
+                ResendBatchConfig.PARALLELISM_PROPERTY, "16",
+                ResendBatchConfig.MAX_IN_FLIGHT_BATCHES_PROPERTY, "8"));
+
+    assertThat(config.getParallelism()).isEqualTo(16);
+    assertThat(config.getMaxInFlightBatches()).isEqualTo(8);
+  }
+
+  @Test
+  public void valuesBelowOneAreRaisedToOne() {
+    ResendBatchConfig config =
+        ResendBatchConfig.from(
+            Map.of(
+                ResendBatchConfig.PARALLELISM_PROPERTY, "0",
+                ResendBatchConfig.MAX_IN_FLIGHT_BATCHES_PROPERTY, "-3"));
+
+    assertThat(config.getParallelism()).isOne();
+    assertThat(config.getMaxInFlightBatches()).isOne();
+  }
+
+  @Test
+  public void fromNullPropertiesUsesDefaults() {
+    ResendBatchConfig config = ResendBatchConfig.from(null);
+
+    assertThat(config.getParallelism()).isEqualTo(4);
+    assertThat(config.getMaxInFlightBatches()).isEqualTo(2);
+  }
+
+  @Test
+  public void unparseablePropertyUsesDefaults() {
+    ResendBatchConfig config =
+        ResendBatchConfig.from(
+            Map.of(
+                ResendBatchConfig.PARALLELISM_PROPERTY, "8",
+                ResendBatchConfig.MAX_IN_FLIGHT_BATCHES_PROPERTY, "many"));
+
+    assertThat(config.getParallelism()).isEqualTo(4);
+    assertThat(config.getMaxInFlightBatches()).isEqualTo(2);
+  }
+}
@@ -15,6 +15,7 @@ import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.partyinfo.node.NodeInfo;
 import com.quorum.tessera.partyinfo.node.Recipient;
 import com.quorum.tessera.transaction.publish.PayloadPublisher;
+import java.util.Optional;
 import java.util.Set;
 import org.junit.After;
 import org.junit.Before;
@@ -70,8 +71,8 @@ public class LegacyResendWorkflowFactoryTest {
     final EncryptedTransaction encryptedTx = mock(EncryptedTransaction.class);
 
     when(enclave.getPublicKeys()).thenReturn(Set.of(localRecipient));
-    when(enclave.unencryptTransaction(any(EncodedPayload.class), eq(localRecipient)))
-        .thenReturn(new byte[0]);
+    when(enclave.findRecipientKey(any(EncodedPayload.class)))
+        .thenReturn(Optional.of(localRecipient));
 
     final BatchWorkflow batchWorkflow = wfFactory.create();
     final BatchWorkflowContext context = new BatchWorkflowContext();
@@ -86,8 +87,8 @@ public class LegacyResendWorkflowFactoryTest {
     verify(discovery).getCurrent();
     verify(payloadPublisher).publishPayload(any(EncodedPayload.class), eq(targetResendKey));
     verify(enclave).status();
-    verify(enclave, times(2)).getPublicKeys();
-    verify(enclave).unencryptTransaction(any(EncodedPayload.class), eq(localRecipient));
+    verify(enclave).getPublicKeys();
+    verify(enclave).findRecipientKey(any(EncodedPayload.class));
   }
 
   @Test
@@ -7,13 +7,10 @@ import static org.mockito.Mockito.*;
 import com.quorum.tessera.data.EncryptedTransaction;
 import com.quorum.tessera.data.MessageHash;
 import com.quorum.tessera.enclave.Enclave;
-import com.quorum.tessera.enclave.EnclaveNotAvailableException;
 import com.quorum.tessera.enclave.EncodedPayload;
-import com.quorum.tessera.encryption.EncryptorException;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.transaction.exception.RecipientKeyNotFoundException;
-import java.util.LinkedHashSet;
-import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import org.junit.After;
 import org.junit.Before;
@@ -76,18 +73,8 @@ public class SearchRecipientKeyForPayloadTest {
     final PublicKey recipient1 = PublicKey.from("sample-public-key-1".getBytes());
     final PublicKey recipient2 = PublicKey.from("sample-public-key-2".getBytes());
 
-    // Using this LinkedHashSet instead of Set.of(...) to provide a defined iteration order.
-    final LinkedHashSet<PublicKey> enclaveKeys = new LinkedHashSet<>();
-    enclaveKeys.add(recipient1);
-    enclaveKeys.add(recipient2);
-
-    when(enclave.getPublicKeys()).thenReturn(enclaveKeys);
-    when(enclave.unencryptTransaction(encodedPayloadForRecipient1, recipient1))
-        .thenReturn(new byte[0]);
-    when(enclave.unencryptTransaction(encodedPayloadForRecipient2, recipient2))
-        .thenReturn(new byte[0]);
-    when(enclave.unencryptTransaction(encodedPayloadForRecipient2, recipient1))
-        .thenThrow(EncryptorException.class);
+    when(enclave.findRecipientKey(encodedPayloadForRecipient1)).thenReturn(Optional.of(recipient1));
+    when(enclave.findRecipientKey(encodedPayloadForRecipient2)).thenReturn(Optional.of(recipient2));
 
     searchRecipientKeyForPayload.execute(workflowEvent);
 
@@ -101,48 +88,29 @@ public class SearchRecipientKeyForPayloadTest {
                 .withRecipientKey(recipient2)
                 .build());
 
-    verify(enclave).unencryptTransaction(encodedPayloadForRecipient1, recipient1);
-    verify(enclave).unencryptTransaction(encodedPayloadForRecipient2, recipient1);
-    verify(enclave).unencryptTransaction(encodedPayloadForRecipient2, recipient2);
-    verify(enclave, times(2)).getPublicKeys();
-
-    verifyNoMoreInteractions(enclave);
+    verify(enclave).findRecipientKey(encodedPayloadForRecipient1);
+    verify(enclave).findRecipientKey(encodedPayloadForRecipient2);
   }
 
   @Test
-  public void executeHandleEnclaveExceptions() {
-    final List<Class<? extends Exception>> handledExceptionTypes =
-        List.of(
-            EnclaveNotAvailableException.class,
-            IndexOutOfBoundsException.class,
-            EncryptorException.class);
-
-    handledExceptionTypes.forEach(
-        t -> {
-          final BatchWorkflowContext workflowEvent = new BatchWorkflowContext();
-
-          final EncryptedTransaction encryptedTransaction = new EncryptedTransaction();
-          encryptedTransaction.setHash(new MessageHash("sampleHash".getBytes()));
-          workflowEvent.setEncryptedTransaction(encryptedTransaction);
-
-          final EncodedPayload encodedPayload = EncodedPayload.Builder.create().build();
-          workflowEvent.setPayloadsToPublish(Set.of(encodedPayload));
-
-          final PublicKey publicKey = PublicKey.from("sample-public-key".getBytes());
-          when(enclave.getPublicKeys()).thenReturn(Set.of(publicKey));
-          when(enclave.unencryptTransaction(encodedPayload, publicKey)).thenThrow(t);
-
-          final Throwable throwable =
-              catchThrowable(() -> searchRecipientKeyForPayload.execute(workflowEvent));
-          assertThat(throwable)
-              .isInstanceOf(RecipientKeyNotFoundException.class)
-              .hasMessage("No key found as recipient of message c2FtcGxlSGFzaA==");
-
-          verify(enclave).unencryptTransaction(encodedPayload, publicKey);
-          verify(enclave).getPublicKeys();
-
-          verifyNoMoreInteractions(enclave);
-          reset(enclave);
-        });
+  public void executeWhenNoKeyIsRecipient() {
+    final BatchWorkflowContext workflowEvent = new BatchWorkflowContext();
+
+    final EncryptedTransaction encryptedTransaction = new EncryptedTransaction();
+    encryptedTransaction.setHash(new MessageHash("sampleHash".getBytes()));
+    workflowEvent.setEncryptedTransaction(encryptedTransaction);
+
+    final EncodedPayload encodedPayload = EncodedPayload.Builder.create().build();
+    workflowEvent.setPayloadsToPublish(Set.of(encodedPayload));
+
+    when(enclave.findRecipientKey(encodedPayload)).thenReturn(Optional.empty());
+
+    final Throwable throwable =
+        catchThrowable(() -> searchRecipientKeyForPayload.execute(workflowEvent));
+    assertThat(throwable)
+        .isInstanceOf(RecipientKeyNotFoundException.class)
+        .hasMessage("No key found as recipient of message c2FtcGxlSGFzaA==");
+
+    verify(enclave).findRecipientKey(encodedPayload);
   }
 }
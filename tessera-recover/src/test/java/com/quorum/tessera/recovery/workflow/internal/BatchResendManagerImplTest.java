@@ -3,8 +3,7 @@ package com.quorum.tessera.recovery.workflow.internal;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.AdditionalMatchers.gt;
-import static org.mockito.AdditionalMatchers.lt;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.Mockito.*;
 
 import com.quorum.tessera.base64.Base64Codec;
@@ -25,8 +24,10 @@ import com.quorum.tessera.recovery.workflow.BatchWorkflowFactory;
 import java.util.List;
 import java.util.Optional;
 import java.util.ServiceLoader;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -39,12 +40,14 @@ public class BatchResendManagerImplTest {
 
   private EncryptedTransactionDAO encryptedTransactionDAO;
 
-  private BatchResendManager manager;
+  private BatchResendManagerImpl manager;
 
   private static final String KEY_STRING = "ROAZBWtSacxXQrOe3FGAqJDyJjFePR5ce4TSIzmJ0Bc=";
 
   private final PublicKey publicKey = PublicKey.from(Base64Codec.create().decode(KEY_STRING));
 
+  private final AtomicBoolean streamClosed = new AtomicBoolean();
+
   private BatchWorkflowFactory batchWorkflowFactory;
 
   @Before
@@ -56,11 +59,12 @@ public class BatchResendManagerImplTest {
 
     manager =
         new BatchResendManagerImpl(
-            stagingEntityDAO, encryptedTransactionDAO, 5, batchWorkflowFactory);
+            stagingEntityDAO, encryptedTransactionDAO, 5, batchWorkflowFactory, 3);
   }
 
   @After
   public void tearDown() {
+    manager.close();
     verifyNoMoreInteractions(payloadEncoder);
     verifyNoMoreInteractions(stagingEntityDAO);
     verifyNoMoreInteractions(encryptedTransactionDAO);
@@ -73,16 +77,9 @@ public class BatchResendManagerImplTest {
     ResendBatchRequest request =
         ResendBatchRequest.Builder.create().withBatchSize(3).withPublicKey(KEY_STRING).build();
 
-    List<EncryptedTransaction> transactions =
-        IntStream.range(0, 5)
-            .mapToObj(i -> mock(EncryptedTransaction.class))
-            .collect(Collectors.toUnmodifiableList());
-
-    when(encryptedTransactionDAO.transactionCount()).thenReturn(101L);
+    when(encryptedTransactionDAO.transactionCountForRecipient(publicKey)).thenReturn(101L);
 
-    when(encryptedTransactionDAO.retrieveTransactions(lt(100), anyInt())).thenReturn(transactions);
-    when(encryptedTransactionDAO.retrieveTransactions(gt(99), anyInt()))
-        .thenReturn(singletonList(mock(EncryptedTransaction.class)));
+    mockTransactionPages();
 
     BatchWorkflow batchWorkflow = mock(BatchWorkflow.class);
     when(batchWorkflow.getPublishedMessageCount()).thenReturn(999L);
@@ -95,10 +92,11 @@ public class BatchResendManagerImplTest {
     verify(batchWorkflow).getPublishedMessageCount();
 
     verify(batchWorkflow, times(101)).execute(any(BatchWorkflowContext.class));
+    verify(batchWorkflow).awaitPublished();
 
-    verify(encryptedTransactionDAO, times(21)).retrieveTransactions(anyInt(), anyInt());
+    verifyTransactionPagesRead();
 
-    verify(encryptedTransactionDAO).transactionCount();
+    verify(encryptedTransactionDAO).transactionCountForRecipient(publicKey);
 
     verify(batchWorkflowFactory).create(101L);
   }
@@ -109,12 +107,7 @@ public class BatchResendManagerImplTest {
     final ResendBatchRequest request =
         ResendBatchRequest.Builder.create().withPublicKey(KEY_STRING).build();
 
-    List<EncryptedTransaction> transactions =
-        IntStream.range(0, 5)
-            .mapToObj(i -> mock(EncryptedTransaction.class))
-            .collect(Collectors.toUnmodifiableList());
-
-    when(encryptedTransactionDAO.transactionCount()).thenReturn(101L);
+    when(encryptedTransactionDAO.transactionCountForRecipient(publicKey)).thenReturn(101L);
 
     BatchWorkflow batchWorkflow = mock(BatchWorkflow.class);
 
@@ -123,9 +116,7 @@ public class BatchResendManagerImplTest {
 
     when(batchWorkflowFactory.create(101L)).thenReturn(batchWorkflow);
 
-    when(encryptedTransactionDAO.retrieveTransactions(lt(100), anyInt())).thenReturn(transactions);
-    when(encryptedTransactionDAO.retrieveTransactions(gt(99), anyInt()))
-        .thenReturn(List.of(mock(EncryptedTransaction.class)));
+    mockTransactionPages();
 
     final ResendBatchResponse result = manager.resendBatch(request);
 
@@ -133,8 +124,8 @@ public class BatchResendManagerImplTest {
 
     verify(batchWorkflow, times(101)).execute(any(BatchWorkflowContext.class));
 
-    verify(encryptedTransactionDAO, times(21)).retrieveTransactions(anyInt(), anyInt());
-    verify(encryptedTransactionDAO).transactionCount();
+    verifyTransactionPagesRead();
+    verify(encryptedTransactionDAO).transactionCountForRecipient(publicKey);
 
     verify(batchWorkflowFactory).create(101L);
   }
@@ -148,16 +139,9 @@ public class BatchResendManagerImplTest {
             .withPublicKey(KEY_STRING)
             .build();
 
-    List<EncryptedTransaction> transactions =
-        IntStream.range(0, 5)
-            .mapToObj(i -> mock(EncryptedTransaction.class))
-            .collect(Collectors.toUnmodifiableList());
+    when(encryptedTransactionDAO.transactionCountForRecipient(publicKey)).thenReturn(101L);
 
-    when(encryptedTransactionDAO.transactionCount()).thenReturn(101L);
-
-    when(encryptedTransactionDAO.retrieveTransactions(lt(100), anyInt())).thenReturn(transactions);
-    when(encryptedTransactionDAO.retrieveTransactions(gt(99), anyInt()))
-        .thenReturn(singletonList(mock(EncryptedTransaction.class)));
+    mockTransactionPages();
 
     final BatchWorkflow batchWorkflow = mock(BatchWorkflow.class);
     when(batchWorkflow.getPublishedMessageCount()).thenReturn(999L);
@@ -168,39 +152,97 @@ public class BatchResendManagerImplTest {
 
     verify(batchWorkflow, times(101)).execute(any(BatchWorkflowContext.class));
 
-    verify(encryptedTransactionDAO, times(21)).retrieveTransactions(anyInt(), anyInt());
+    verifyTransactionPagesRead();
 
-    verify(encryptedTransactionDAO).transactionCount();
+    verify(encryptedTransactionDAO).transactionCountForRecipient(publicKey);
 
     verify(batchWorkflowFactory).create(101L);
   }
 
   @Test
-  public void createWithMinimalConstructor() {
-    assertThat(
-            new BatchResendManagerImpl(
-                stagingEntityDAO, encryptedTransactionDAO, 1, mock(BatchWorkflowFactory.class)))
-        .isNotNull();
+  public void workflowFailureIsThrownAfterThePageIsDone() {
+
+    final ResendBatchRequest request =
+        ResendBatchRequest.Builder.create().withBatchSize(3).withPublicKey(KEY_STRING).build();
+
+    when(encryptedTransactionDAO.transactionCountForRecipient(publicKey)).thenReturn(101L);
+
+    mockTransactionPages();
+
+    final RuntimeException exception = new RuntimeException("enclave gone");
+    final BatchWorkflow batchWorkflow = mock(BatchWorkflow.class);
+    when(batchWorkflow.execute(any(BatchWorkflowContext.class))).thenThrow(exception);
+    when(batchWorkflowFactory.create(101L)).thenReturn(batchWorkflow);
+
+    final Throwable result = catchThrowable(() -> manager.resendBatch(request));
+    assertThat(result).isSameAs(exception);
+
+    // the second page was read while the first was being executed, and no more after it failed
+    verify(batchWorkflow, times(5)).execute(any(BatchWorkflowContext.class));
+    verify(batchWorkflow).awaitPublished();
+    verifyTransactionPagesRead();
+    verify(encryptedTransactionDAO).transactionCountForRecipient(publicKey);
+    verify(batchWorkflowFactory).create(101L);
+    verifyNoMoreInteractions(batchWorkflow);
   }
 
   @Test
-  public void calculateBatchCount() {
-    long numberOfRecords = 10;
-    long maxResults = 3;
+  public void workflowErrorIsThrownWrapped() {
+
+    final ResendBatchRequest request =
+        ResendBatchRequest.Builder.create().withBatchSize(3).withPublicKey(KEY_STRING).build();
 
-    int batchCount = BatchResendManagerImpl.calculateBatchCount(maxResults, numberOfRecords);
+    when(encryptedTransactionDAO.transactionCountForRecipient(publicKey)).thenReturn(1L);
+    when(encryptedTransactionDAO.streamTransactionsForRecipient(publicKey))
+        .thenReturn(Stream.of(mock(EncryptedTransaction.class)));
 
-    assertThat(batchCount).isEqualTo(4);
+    final AssertionError error = new AssertionError("broken");
+    final BatchWorkflow batchWorkflow = mock(BatchWorkflow.class);
+    when(batchWorkflow.execute(any(BatchWorkflowContext.class))).thenThrow(error);
+    when(batchWorkflowFactory.create(1L)).thenReturn(batchWorkflow);
+
+    final Throwable result = catchThrowable(() -> manager.resendBatch(request));
+    assertThat(result).isInstanceOf(CompletionException.class).hasCause(error);
+
+    verify(batchWorkflow).execute(any(BatchWorkflowContext.class));
+    verify(batchWorkflow).awaitPublished();
+    verify(encryptedTransactionDAO).streamTransactionsForRecipient(publicKey);
+    verify(encryptedTransactionDAO).transactionCountForRecipient(publicKey);
+    verify(batchWorkflowFactory).create(1L);
+    verifyNoMoreInteractions(batchWorkflow);
   }
 
   @Test
-  public void calculateBatchCountTotalLowerThanBatchSizeIsSingleBatch() {
-    long numberOfRecords = 100;
-    long maxResults = 10;
+  public void closedManagerRejectsResends() {
+
+    final ResendBatchRequest request =
+        ResendBatchRequest.Builder.create().withBatchSize(3).withPublicKey(KEY_STRING).build();
+
+    when(encryptedTransactionDAO.transactionCountForRecipient(publicKey)).thenReturn(101L);
+
+    mockTransactionPages();
+
+    final BatchWorkflow batchWorkflow = mock(BatchWorkflow.class);
+    when(batchWorkflowFactory.create(101L)).thenReturn(batchWorkflow);
+
+    manager.close();
+
+    final Throwable result = catchThrowable(() -> manager.resendBatch(request));
+    assertThat(result).isInstanceOf(RejectedExecutionException.class);
 
-    int batchCount = BatchResendManagerImpl.calculateBatchCount(maxResults, numberOfRecords);
+    verify(batchWorkflow).awaitPublished();
+    verifyTransactionPagesRead();
+    verify(encryptedTransactionDAO).transactionCountForRecipient(publicKey);
+    verify(batchWorkflowFactory).create(101L);
+    verifyNoMoreInteractions(batchWorkflow);
+  }
 
-    assertThat(batchCount).isEqualTo(10);
+  @Test
+  public void createWithMinimalConstructor() {
+    assertThat(
+            new BatchResendManagerImpl(
+                stagingEntityDAO, encryptedTransactionDAO, 1, mock(BatchWorkflowFactory.class), 1))
+        .isNotNull();
   }
 
   @Test
@@ -264,11 +306,27 @@ public class BatchResendManagerImplTest {
 
       manager.storeResendBatch(request);
 
-      verify(stagingEntityDAO).save(any(StagingTransaction.class));
+      final String hash = Base64Codec.create().encodeToString("cipherText".getBytes());
+      verify(stagingEntityDAO)
+          .saveAll(argThat(l -> l.size() == 1 && l.get(0).getHash().equals(hash)));
       verify(payloadEncoder).decode(any());
       verify(payloadEncoder).encodedPayloadCodec();
       payloadDigestMockedStatic.verify(PayloadDigest::create);
       payloadDigestMockedStatic.verifyNoMoreInteractions();
     }
   }
+
+  // 101 transactions: 20 full pages of 5 followed by a single transaction
+  private void mockTransactionPages() {
+    when(encryptedTransactionDAO.streamTransactionsForRecipient(publicKey))
+        .thenReturn(
+            Stream.generate(() -> mock(EncryptedTransaction.class))
+                .limit(101)
+                .onClose(() -> streamClosed.set(true)));
+  }
+
+  private void verifyTransactionPagesRead() {
+    verify(encryptedTransactionDAO).streamTransactionsForRecipient(publicKey);
+    assertThat(streamClosed).isTrue();
+  }
 }
@@ -3,10 +3,14 @@ package com.quorum.tessera.recovery.workflow.internal;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
+import com.quorum.tessera.config.Config;
+import com.quorum.tessera.config.ConfigFactory;
+import com.quorum.tessera.config.ServerConfig;
 import com.quorum.tessera.data.EncryptedTransactionDAO;
 import com.quorum.tessera.data.staging.StagingEntityDAO;
 import com.quorum.tessera.recovery.workflow.BatchResendManager;
 import com.quorum.tessera.recovery.workflow.BatchWorkflowFactory;
+import java.util.Map;
 import org.junit.Test;
 
 public class BatchResendManagerProviderTest {
@@ -21,7 +25,8 @@ public class BatchResendManagerProviderTest {
 
     try (var staticEncryptedTransactionDAO = mockStatic(EncryptedTransactionDAO.class);
         var staticStagingEntityDAO = mockStatic(StagingEntityDAO.class);
-        var staticBatchWorkflowFactory = mockStatic(BatchWorkflowFactory.class); ) {
+        var staticBatchWorkflowFactory = mockStatic(BatchWorkflowFactory.class);
+        var staticConfigFactory = mockStatic(ConfigFactory.class)) {
 
       staticEncryptedTransactionDAO
           .when(EncryptedTransactionDAO::create)
@@ -33,6 +38,14 @@ public class BatchResendManagerProviderTest {
           .when(BatchWorkflowFactory::create)
           .thenReturn(mock(BatchWorkflowFactory.class));
 
+      ServerConfig serverConfig = mock(ServerConfig.class);
+      when(serverConfig.getProperties()).thenReturn(Map.of("resendBatchParallelism", "2"));
+      Config config = mock(Config.class);
+      when(config.getP2PServerConfig()).thenReturn(serverConfig);
+      ConfigFactory configFactory = mock(ConfigFactory.class);
+      when(configFactory.getConfig()).thenReturn(config);
+      staticConfigFactory.when(ConfigFactory::create).thenReturn(configFactory);
+
       BatchResendManager batchResendManager = BatchResendManagerProvider.provider();
       assertThat(batchResendManager).isNotNull().isExactlyInstanceOf(BatchResendManagerImpl.class);
 
@@ -43,6 +56,8 @@ public class BatchResendManagerProviderTest {
       staticEncryptedTransactionDAO.verifyNoMoreInteractions();
       staticStagingEntityDAO.verifyNoMoreInteractions();
       staticBatchWorkflowFactory.verifyNoMoreInteractions();
+      staticConfigFactory.verify(ConfigFactory::create);
+      staticConfigFactory.verifyNoMoreInteractions();
 
       assertThat(BatchResendManagerHolder.INSTANCE.getBatchResendManager())
           .isPresent()
@@ -1,6 +1,7 @@
 package com.quorum.tessera.recovery.workflow.internal;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.Mockito.*;
 
 import com.quorum.tessera.data.EncryptedTransaction;
@@ -15,8 +16,14 @@ import com.quorum.tessera.recovery.workflow.BatchWorkflow;
 import com.quorum.tessera.recovery.workflow.BatchWorkflowContext;
 import com.quorum.tessera.recovery.workflow.BatchWorkflowFactory;
 import com.quorum.tessera.service.Service;
+import com.quorum.tessera.transaction.publish.PublishPayloadException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -30,6 +37,7 @@ public class BatchWorkflowFactoryImplTest {
   private final MockedStatic<EncodedPayload.Builder> mockStaticPayloadBuilder =
       mockStatic(EncodedPayload.Builder.class);
   private final EncodedPayload.Builder mockPayloadBuilder = mock(EncodedPayload.Builder.class);
+  private final ExecutorService publishExecutor = Executors.newFixedThreadPool(3);
 
   @Before
   public void setUp() {
@@ -40,6 +48,7 @@ public class BatchWorkflowFactoryImplTest {
 
   @After
   public void onTearDown() {
+    publishExecutor.shutdown();
     verifyNoMoreInteractions(enclave, discovery, resendBatchPublisher, mockPayloadBuilder);
     try {
       mockStaticPayloadBuilder.verifyNoMoreInteractions();
@@ -52,16 +61,26 @@ public class BatchWorkflowFactoryImplTest {
   public void loadMockBatchWorkflowFactory() {
 
     BatchWorkflowFactory batchWorkflowFactory =
-        new BatchWorkflowFactoryImpl(enclave, discovery, resendBatchPublisher);
+        new BatchWorkflowFactoryImpl(enclave, discovery, resendBatchPublisher, publishExecutor, 1);
 
     assertThat(batchWorkflowFactory).isExactlyInstanceOf(BatchWorkflowFactoryImpl.class);
   }
 
+  @Test
+  public void closeShutsDownThePublishExecutor() {
+    ExecutorService executor = mock(ExecutorService.class);
+
+    new BatchWorkflowFactoryImpl(enclave, discovery, resendBatchPublisher, executor, 1).close();
+
+    verify(executor).shutdown();
+    verifyNoMoreInteractions(executor);
+  }
+
   @Test
   public void createBatchWorkflowFactoryImplAndExecuteWorkflow() {
 
     BatchWorkflowFactoryImpl batchWorkflowFactory =
-        new BatchWorkflowFactoryImpl(enclave, discovery, resendBatchPublisher);
+        new BatchWorkflowFactoryImpl(enclave, discovery, resendBatchPublisher, publishExecutor, 1);
 
     BatchWorkflow batchWorkflow = batchWorkflowFactory.create(1L);
 
@@ -93,6 +112,7 @@ public class BatchWorkflowFactoryImplTest {
     when(discovery.getCurrent()).thenReturn(nodeInfo);
 
     assertThat(batchWorkflow.execute(batchWorkflowContext)).isTrue();
+    batchWorkflow.awaitPublished();
     assertThat(batchWorkflow.getPublishedMessageCount()).isOne();
 
     verify(enclave).status();
@@ -108,7 +128,7 @@ public class BatchWorkflowFactoryImplTest {
   public void workflowExecutedReturnFalse() {
 
     BatchWorkflowFactoryImpl batchWorkflowFactory =
-        new BatchWorkflowFactoryImpl(enclave, discovery, resendBatchPublisher);
+        new BatchWorkflowFactoryImpl(enclave, discovery, resendBatchPublisher, publishExecutor, 1);
 
     BatchWorkflow batchWorkflow = batchWorkflowFactory.create(999L);
 
@@ -126,8 +146,132 @@ public class BatchWorkflowFactoryImplTest {
     when(enclave.status()).thenReturn(Service.Status.STARTED);
 
     assertThat(batchWorkflow.execute(batchWorkflowContext)).isFalse();
+    batchWorkflow.awaitPublished();
     assertThat(batchWorkflow.getPublishedMessageCount()).isZero();
 
     verify(enclave).status();
   }
+
+  @Test
+  public void executeWorkflowFromManyThreads() throws Exception {
+
+    BatchWorkflowFactoryImpl batchWorkflowFactory =
+        new BatchWorkflowFactoryImpl(enclave, discovery, resendBatchPublisher, publishExecutor, 3);
+
+    final int transactionCount = 1000;
+    BatchWorkflow batchWorkflow = batchWorkflowFactory.create(transactionCount);
+
+    PublicKey recipientKey = PublicKey.from("recipient".getBytes());
+    PublicKey ownedKey = PublicKey.from("owned".getBytes());
+
+    when(enclave.status()).thenReturn(Service.Status.STARTED);
+    when(enclave.getPublicKeys()).thenReturn(Set.of(ownedKey));
+
+    NodeInfo nodeInfo = mock(NodeInfo.class);
+    when(nodeInfo.getRecipients()).thenReturn(Set.of(Recipient.of(recipientKey, "url")));
+    when(discovery.getCurrent()).thenReturn(nodeInfo);
+
+    List<EncodedPayload> published = Collections.synchronizedList(new ArrayList<>());
+    doAnswer(
+            invocation -> {
+              published.addAll(invocation.getArgument(0));
+              return null;
+            })
+        .when(resendBatchPublisher)
+        .publishBatch(any(), eq("url"));
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    // static mocks only apply to the thread that created them, so the payloads are built and
+    // formatted for the recipient on the executor threads
+    Future<EncodedPayload> sentPayload =
+        executor.submit(
+            () ->
+                EncodedPayload.Builder.create()
+                    .withSenderKey(ownedKey)
+                    .withRecipientKeys(List.of(recipientKey))
+                    .withRecipientBoxes(List.of("box".getBytes()))
+                    .build());
+    Future<EncodedPayload> otherPayload =
+        executor.submit(
+            () ->
+                EncodedPayload.Builder.create()
+                    .withSenderKey(PublicKey.from("other".getBytes()))
+                    .build());
+
+    List<Future<Boolean>> outcomes = new ArrayList<>();
+    for (int i = 0; i < transactionCount; i++) {
+      // every tenth payload is neither sent by this node nor by the recipient, so is filtered out
+      EncodedPayload payload = i % 10 == 0 ? otherPayload.get() : sentPayload.get();
+      outcomes.add(
+          executor.submit(
+              () -> {
+                BatchWorkflowContext context = new BatchWorkflowContext();
+                context.setRecipientKey(recipientKey);
+                context.setEncryptedTransaction(mock(EncryptedTransaction.class));
+                context.setEncodedPayload(payload);
+                context.setBatchSize(7);
+                return batchWorkflow.execute(context);
+              }));
+    }
+    for (Future<Boolean> outcome : outcomes) {
+      outcome.get();
+    }
+    executor.shutdown();
+
+    batchWorkflow.awaitPublished();
+
+    assertThat(batchWorkflow.getPublishedMessageCount()).isEqualTo(900);
+    assertThat(published).hasSize(900);
+
+    verify(enclave, times(transactionCount)).status();
+    verify(enclave, times(1800)).getPublicKeys();
+    verify(discovery, times(900)).getCurrent();
+    verify(resendBatchPublisher, atLeast(129)).publishBatch(any(), eq("url"));
+  }
+
+  @Test
+  public void failedPublishIsThrownWhenAwaitingPublished() {
+
+    BatchWorkflowFactoryImpl batchWorkflowFactory =
+        new BatchWorkflowFactoryImpl(enclave, discovery, resendBatchPublisher, publishExecutor, 1);
+
+    BatchWorkflow batchWorkflow = batchWorkflowFactory.create(1L);
+
+    PublicKey recipientKey = mock(PublicKey.class);
+    PublicKey ownedKey = mock(PublicKey.class);
+
+    EncodedPayload encodedPayload = mock(EncodedPayload.class);
+    when(encodedPayload.getSenderKey()).thenReturn(ownedKey);
+    when(encodedPayload.getRecipientKeys()).thenReturn(List.of(recipientKey));
+    when(mockPayloadBuilder.build()).thenReturn(encodedPayload);
+
+    when(enclave.status()).thenReturn(Service.Status.STARTED);
+    when(enclave.getPublicKeys()).thenReturn(Set.of(ownedKey));
+
+    NodeInfo nodeInfo = mock(NodeInfo.class);
+    when(nodeInfo.getRecipients()).thenReturn(Set.of(Recipient.of(recipientKey, "url")));
+    when(discovery.getCurrent()).thenReturn(nodeInfo);
+
+    PublishPayloadException exception = new PublishPayloadException("push failed");
+    doThrow(exception).when(resendBatchPublisher).publishBatch(any(), any());
+
+    BatchWorkflowContext context = new BatchWorkflowContext();
+    context.setRecipientKey(recipientKey);
+    context.setEncryptedTransaction(mock(EncryptedTransaction.class));
+    context.setEncodedPayload(encodedPayload);
+    context.setBatchSize(100);
+
+    assertThat(batchWorkflow.execute(context)).isTrue();
+
+    Throwable result = catchThrowable(batchWorkflow::awaitPublished);
+    assertThat(result).isSameAs(exception);
+
+    verify(enclave).status();
+    verify(enclave, times(2)).getPublicKeys();
+    mockStaticPayloadBuilder.verify(() -> EncodedPayload.Builder.forRecipient(any(), any()));
+    verify(mockPayloadBuilder).build();
+    verify(discovery).getCurrent();
+    verify(resendBatchPublisher).publishBatch(any(), any());
+  }
 }
@@ -3,6 +3,8 @@ package com.quorum.tessera.recovery.workflow.internal;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
+import com.quorum.tessera.config.Config;
+import com.quorum.tessera.config.ConfigFactory;
 import com.quorum.tessera.discovery.Discovery;
 import com.quorum.tessera.enclave.Enclave;
 import com.quorum.tessera.recovery.resend.ResendBatchPublisher;
@@ -21,13 +23,19 @@ public class BatchWorkflowFactoryProviderTest {
 
     try (var staticEnclave = mockStatic(Enclave.class);
         var staticDiscovery = mockStatic(Discovery.class);
-        var staticResendBatchPublisher = mockStatic(ResendBatchPublisher.class)) {
+        var staticResendBatchPublisher = mockStatic(ResendBatchPublisher.class);
+        var staticConfigFactory = mockStatic(ConfigFactory.class)) {
       staticEnclave.when(Enclave::create).thenReturn(mock(Enclave.class));
       staticDiscovery.when(Discovery::create).thenReturn(mock(Discovery.class));
       staticResendBatchPublisher
           .when(ResendBatchPublisher::create)
           .thenReturn(mock(ResendBatchPublisher.class));
 
+      Config config = mock(Config.class);
+      ConfigFactory configFactory = mock(ConfigFactory.class);
+      when(configFactory.getConfig()).thenReturn(config);
+      staticConfigFactory.when(ConfigFactory::create).thenReturn(configFactory);
+
       BatchWorkflowFactory batchWorkflowFactory = BatchWorkflowFactoryProvider.provider();
       assertThat(batchWorkflowFactory)
           .isNotNull()
@@ -40,6 +48,8 @@ public class BatchWorkflowFactoryProviderTest {
       staticEnclave.verifyNoMoreInteractions();
       staticDiscovery.verifyNoMoreInteractions();
       staticResendBatchPublisher.verifyNoMoreInteractions();
+      staticConfigFactory.verify(ConfigFactory::create);
+      staticConfigFactory.verifyNoMoreInteractions();
     }
   }
 }
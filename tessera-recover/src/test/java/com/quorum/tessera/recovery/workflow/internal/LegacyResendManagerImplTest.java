@@ -21,7 +21,8 @@ import com.quorum.tessera.transaction.exception.TransactionNotFoundException;
 import com.quorum.tessera.transaction.publish.PayloadPublisher;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -45,7 +46,7 @@ public class LegacyResendManagerImplTest {
     this.publisher = mock(PayloadPublisher.class);
     this.dao = mock(EncryptedTransactionDAO.class);
 
-    this.resendManager = new LegacyResendManagerImpl(enclave, dao, 1, publisher, discovery);
+    this.resendManager = new LegacyResendManagerImpl(enclave, dao, publisher, discovery);
   }
 
   @After
@@ -163,8 +164,7 @@ public class LegacyResendManagerImplTest {
             .build();
 
     when(dao.retrieveByHash(any(MessageHash.class))).thenReturn(Optional.of(databaseTx));
-    when(enclave.getPublicKeys()).thenReturn(Set.of(localRecipientKey));
-    when(enclave.unencryptTransaction(any(), eq(localRecipientKey))).thenReturn(new byte[0]);
+    when(enclave.findRecipientKey(any())).thenReturn(Optional.of(localRecipientKey));
 
     final ResendResponse response = resendManager.resend(request);
 
@@ -174,8 +174,7 @@ public class LegacyResendManagerImplTest {
     assertThat(response.getPayload()).isEqualToComparingFieldByFieldRecursively(expected);
 
     verify(dao).retrieveByHash(txHash);
-    verify(enclave).getPublicKeys();
-    verify(enclave).unencryptTransaction(any(), eq(localRecipientKey));
+    verify(enclave).findRecipientKey(any());
   }
 
   @Test
@@ -192,17 +191,20 @@ public class LegacyResendManagerImplTest {
     // We are not testing the workflow itself, only that the workflow gets the right amount of
     // transactions
 
-    when(dao.transactionCount()).thenReturn(2L);
-    when(dao.retrieveTransactions(0, 1)).thenReturn(List.of(new EncryptedTransaction()));
-    when(dao.retrieveTransactions(1, 1)).thenReturn(List.of(new EncryptedTransaction()));
+    final AtomicBoolean closed = new AtomicBoolean();
+    when(dao.streamTransactionsForRecipient(targetResendKey))
+        .thenReturn(
+            Stream.of(
+                    new EncryptedTransaction(new MessageHash("first".getBytes()), null),
+                    new EncryptedTransaction(new MessageHash("second".getBytes()), null))
+                .onClose(() -> closed.set(true)));
 
     final ResendResponse response = resendManager.resend(request);
     assertThat(response).isNotNull();
     assertThat(response.getPayload()).isNull();
+    assertThat(closed).isTrue();
 
     verify(enclave, times(2)).status();
-    verify(dao).transactionCount();
-    verify(dao).retrieveTransactions(0, 1);
-    verify(dao).retrieveTransactions(1, 1);
+    verify(dao).streamTransactionsForRecipient(targetResendKey);
   }
 }
@@ -0,0 +1,131 @@
+package com.quorum.tessera.recovery.workflow.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.*;
+
+import com.quorum.tessera.enclave.EncodedPayload;
+import com.quorum.tessera.recovery.resend.ResendBatchPublisher;
+import com.quorum.tessera.transaction.publish.PublishPayloadException;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PipelinedResendBatchPublisherTest {
+
+  private ResendBatchPublisher resendBatchPublisher;
+
+  private ExecutorService executor;
+
+  @Before
+  public void beforeTest() {
+    resendBatchPublisher = mock(ResendBatchPublisher.class);
+    executor = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void afterTest() {
+    executor.shutdownNow();
+    verifyNoMoreInteractions(resendBatchPublisher);
+  }
+
+  @Test
+  public void publishesEveryBatch() {
+    PipelinedResendBatchPublisher publisher =
+        new PipelinedResendBatchPublisher(resendBatchPublisher, executor, 2);
+
+    List<EncodedPayload> first = List.of(mock(EncodedPayload.class));
+    List<EncodedPayload> second = List.of(mock(EncodedPayload.class));
+
+    publisher.publishBatch(first, "url");
+    publisher.publishBatch(second, "url");
+    publisher.awaitPublished();
+
+    verify(resendBatchPublisher).publishBatch(first, "url");
+    verify(resendBatchPublisher).publishBatch(second, "url");
+  }
+
+  @Test
+  public void publishingBlocksWhileTooManyBatchesAreInFlight() throws Exception {
+    PipelinedResendBatchPublisher publisher =
+        new PipelinedResendBatchPublisher(resendBatchPublisher, executor, 2);
+
+    CountDownLatch delivered = new CountDownLatch(1);
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    doAnswer(
+            invocation -> {
+              maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+              delivered.await();
+              inFlight.decrementAndGet();
+              return null;
+            })
+        .when(resendBatchPublisher)
+        .publishBatch(any(), any());
+
+    ExecutorService caller = Executors.newSingleThreadExecutor();
+    Future<?> publishing =
+        caller.submit(
+            () -> {
+              for (int i = 0; i < 5; i++) {
+                publisher.publishBatch(List.of(), "url");
+              }
+            });
+
+    Throwable blocked = catchThrowable(() -> publishing.get(500, TimeUnit.MILLISECONDS));
+    assertThat(blocked).isInstanceOf(TimeoutException.class);
+
+    delivered.countDown();
+    publishing.get();
+    caller.shutdown();
+    publisher.awaitPublished();
+
+    assertThat(maxInFlight.get()).isEqualTo(2);
+    verify(resendBatchPublisher, times(5)).publishBatch(List.of(), "url");
+  }
+
+  @Test
+  public void failureIsThrownWhenAwaitingPublishedAndStopsFurtherBatches() {
+    PipelinedResendBatchPublisher publisher =
+        new PipelinedResendBatchPublisher(resendBatchPublisher, executor, 1);
+
+    PublishPayloadException exception = new PublishPayloadException("push failed");
+    doThrow(exception).when(resendBatchPublisher).publishBatch(any(), any());
+
+    publisher.publishBatch(List.of(), "url");
+
+    // the next batch waits for the failed one to complete, then sees its failure
+    Throwable next = catchThrowable(() -> publisher.publishBatch(List.of(), "url"));
+    assertThat(next).isSameAs(exception);
+
+    Throwable awaited = catchThrowable(publisher::awaitPublished);
+    assertThat(awaited).isSameAs(exception);
+
+    verify(resendBatchPublisher).publishBatch(List.of(), "url");
+  }
+
+  @Test
+  public void errorIsWrapped() {
+    PipelinedResendBatchPublisher publisher =
+        new PipelinedResendBatchPublisher(resendBatchPublisher, executor, 1);
+
+    AssertionError error = new AssertionError("broken");
+    doThrow(error).when(resendBatchPublisher).publishBatch(any(), any());
+
+    publisher.publishBatch(List.of(), "url");
+
+    Throwable awaited = catchThrowable(publisher::awaitPublished);
+    assertThat(awaited).isExactlyInstanceOf(CompletionException.class).hasCause(error);
+
+    verify(resendBatchPublisher).publishBatch(List.of(), "url");
+  }
+}
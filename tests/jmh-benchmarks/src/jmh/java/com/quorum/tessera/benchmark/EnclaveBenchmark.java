@@ -0,0 +1,88 @@
+package com.quorum.tessera.benchmark;
+
+import com.quorum.tessera.enclave.EnclaveImpl;
+import com.quorum.tessera.enclave.EncodedPayload;
+import com.quorum.tessera.enclave.PrivacyMetadata;
+import com.quorum.tessera.enclave.SharedKeyCache;
+import com.quorum.tessera.encryption.Encryptor;
+import com.quorum.tessera.encryption.KeyManagerImpl;
+import com.quorum.tessera.encryption.KeyPair;
+import com.quorum.tessera.encryption.PublicKey;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures encrypting a payload for a set of recipients and decrypting it as one of them, with and
+ * without the shared key cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EnclaveBenchmark {
+
+  @Param({"1", "10", "100"})
+  public int recipients;
+
+  @Param({"256", "16384", "1048576"})
+  public int payloadSize;
+
+  @Param({"true", "false"})
+  public boolean sharedKeyCache;
+
+  private EnclaveImpl enclave;
+
+  private PublicKey senderKey;
+
+  private PublicKey localRecipientKey;
+
+  private List<PublicKey> recipientKeys;
+
+  private PrivacyMetadata privacyMetadata;
+
+  private byte[] message;
+
+  private EncodedPayload payload;
+
+  @Setup
+  public void setUp() {
+    final Encryptor encryptor = Encryptors.create("NACL");
+
+    final KeyPair sender = encryptor.generateNewKeys();
+    final KeyPair localRecipient = encryptor.generateNewKeys();
+
+    final SharedKeyCache cache =
+        sharedKeyCache ? new SharedKeyCache(1000, Duration.ofHours(1)) : SharedKeyCache.disabled();
+    enclave =
+        new EnclaveImpl(
+            encryptor, new KeyManagerImpl(List.of(sender, localRecipient), Set.of()), cache);
+
+    senderKey = sender.getPublicKey();
+    localRecipientKey = localRecipient.getPublicKey();
+
+    recipientKeys = new ArrayList<>();
+    recipientKeys.add(localRecipientKey);
+    IntStream.range(1, recipients)
+        .mapToObj(i -> encryptor.generateNewKeys().getPublicKey())
+        .forEach(recipientKeys::add);
+
+    privacyMetadata = PrivacyMetadata.Builder.forStandardPrivate().build();
+    message = PayloadCodecBenchmark.randomBytes(new Random(payloadSize), payloadSize);
+    payload = enclave.encryptPayload(message, senderKey, recipientKeys, privacyMetadata);
+  }
+
+  @Benchmark
+  public EncodedPayload encryptPayload() {
+    return enclave.encryptPayload(message, senderKey, recipientKeys, privacyMetadata);
+  }
+
+  @Benchmark
+  public byte[] unencryptTransaction() {
+    return enclave.unencryptTransaction(payload, localRecipientKey);
+  }
+}
@@ -0,0 +1,132 @@
+package com.quorum.tessera.benchmark;
+
+import com.quorum.tessera.data.EncryptedTransaction;
+import com.quorum.tessera.data.EncryptedTransactionDAO;
+import com.quorum.tessera.data.MessageHash;
+import com.quorum.tessera.data.internal.EncryptedTransactionDAOImpl;
+import com.quorum.tessera.enclave.EncodedPayload;
+import com.quorum.tessera.enclave.PrivacyMode;
+import com.quorum.tessera.encryption.Nonce;
+import com.quorum.tessera.encryption.PublicKey;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.*;
+
+/** Measures the save and retrieve paths of the transaction DAO against an in-memory H2 database. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EncryptedTransactionDAOBenchmark {
+
+  @Param({"1000", "10000"})
+  public int storedTransactions;
+
+  @Param({"1", "10"})
+  public int recipients;
+
+  private EntityManagerFactory entityManagerFactory;
+
+  private EncryptedTransactionDAO encryptedTransactionDAO;
+
+  private EncodedPayload payload;
+
+  private PublicKey recipientKey;
+
+  private final AtomicLong nextHash = new AtomicLong();
+
+  private final Random random = new Random(1);
+
+  @Setup
+  public void setUp() {
+    entityManagerFactory =
+        Persistence.createEntityManagerFactory(
+            "tessera",
+            Map.of(
+                "jakarta.persistence.jdbc.url",
+                "jdbc:h2:mem:benchmark-" + storedTransactions + "-" + recipients,
+                "jakarta.persistence.jdbc.user",
+                "sa",
+                "jakarta.persistence.jdbc.password",
+                "",
+                "jakarta.persistence.schema-generation.database.action",
+                "create",
+                "eclipselink.logging.level",
+                "WARNING"));
+    encryptedTransactionDAO = new EncryptedTransactionDAOImpl(entityManagerFactory);
+
+    final List<PublicKey> recipientKeys =
+        IntStream.range(0, recipients)
+            .mapToObj(i -> PublicKey.from(PayloadCodecBenchmark.randomBytes(random, 32)))
+            .collect(Collectors.toList());
+    recipientKey = recipientKeys.get(0);
+
+    payload =
+        EncodedPayload.Builder.create()
+            .withSenderKey(PublicKey.from(PayloadCodecBenchmark.randomBytes(random, 32)))
+            .withCipherText(PayloadCodecBenchmark.randomBytes(random, 1024))
+            .withCipherTextNonce(new Nonce(PayloadCodecBenchmark.randomBytes(random, 24)))
+            .withRecipientBoxes(
+                recipientKeys.stream()
+                    .map(k -> PayloadCodecBenchmark.randomBytes(random, 48))
+                    .collect(Collectors.toList()))
+            .withRecipientNonce(new Nonce(PayloadCodecBenchmark.randomBytes(random, 24)))
+            .withRecipientKeys(recipientKeys)
+            .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
+            .withAffectedContractTransactions(Map.of())
+            .withExecHash(new byte[0])
+            .build();
+
+    IntStream.range(0, storedTransactions).forEach(i -> save());
+  }
+
+  @TearDown
+  public void tearDown() {
+    entityManagerFactory.close();
+  }
+
+  @Benchmark
+  public EncryptedTransaction save() {
+    return encryptedTransactionDAO.save(new EncryptedTransaction(newHash(), payload));
+  }
+
+  @Benchmark
+  public Optional<EncryptedTransaction> retrieveByHash() {
+    final long stored = random.nextInt(storedTransactions);
+    return encryptedTransactionDAO.retrieveByHash(hash(stored));
+  }
+
+  @Benchmark
+  public List<EncryptedTransaction> retrieveFirstPage() {
+    return encryptedTransactionDAO.retrieveTransactionsAfter(0L, null, 100);
+  }
+
+  @Benchmark
+  public List<EncryptedTransaction> retrieveFirstPageForRecipient() {
+    return encryptedTransactionDAO.retrieveTransactionsForRecipientAfter(
+        recipientKey, 0L, null, 100);
+  }
+
+  @Benchmark
+  public long streamAllHeaders() {
+    try (var transactions = encryptedTransactionDAO.streamAll()) {
+      return transactions.map(EncryptedTransaction::getPayloadHeader).count();
+    }
+  }
+
+  private MessageHash newHash() {
+    return hash(nextHash.getAndIncrement());
+  }
+
+  private static MessageHash hash(final long value) {
+    return new MessageHash(ByteBuffer.allocate(Long.BYTES).putLong(value).array());
+  }
+}
@@ -0,0 +1,67 @@
+package com.quorum.tessera.benchmark;
+
+import com.quorum.tessera.encryption.Encryptor;
+import com.quorum.tessera.encryption.KeyPair;
+import com.quorum.tessera.encryption.Nonce;
+import com.quorum.tessera.encryption.SharedKey;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Compares the JNaCl, Kalium and elliptic curve encryptors. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EncryptorBenchmark {
+
+  @Param({"NACL", "EC", "CUSTOM"})
+  public String encryptorType;
+
+  @Param({"256", "16384", "1048576"})
+  public int messageSize;
+
+  private Encryptor encryptor;
+
+  private KeyPair sender;
+
+  private KeyPair recipient;
+
+  private SharedKey sharedKey;
+
+  private Nonce nonce;
+
+  private byte[] message;
+
+  private byte[] cipherText;
+
+  @Setup
+  public void setUp() {
+    encryptor = Encryptors.create(encryptorType);
+    sender = encryptor.generateNewKeys();
+    recipient = encryptor.generateNewKeys();
+    sharedKey = encryptor.computeSharedKey(recipient.getPublicKey(), sender.getPrivateKey());
+    nonce = encryptor.randomNonce();
+    message = PayloadCodecBenchmark.randomBytes(new Random(messageSize), messageSize);
+    cipherText = encryptor.sealAfterPrecomputation(message, nonce, sharedKey);
+  }
+
+  @Benchmark
+  public KeyPair generateNewKeys() {
+    return encryptor.generateNewKeys();
+  }
+
+  @Benchmark
+  public SharedKey computeSharedKey() {
+    return encryptor.computeSharedKey(recipient.getPublicKey(), sender.getPrivateKey());
+  }
+
+  @Benchmark
+  public byte[] sealAfterPrecomputation() {
+    return encryptor.sealAfterPrecomputation(message, nonce, sharedKey);
+  }
+
+  @Benchmark
+  public byte[] openAfterPrecomputation() {
+    return encryptor.openAfterPrecomputation(cipherText, nonce, sharedKey);
+  }
+}
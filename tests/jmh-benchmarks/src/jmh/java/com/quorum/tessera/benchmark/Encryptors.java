@@ -0,0 +1,33 @@
+package com.quorum.tessera.benchmark;
+
+import com.quorum.tessera.encryption.Encryptor;
+import com.quorum.tessera.encryption.ec.EllipticalCurveEncryptorFactory;
+import com.quorum.tessera.encryption.nacl.jnacl.JnaclFactory;
+import com.quorum.tessera.encryption.nacl.kalium.KaliumFactory;
+import java.util.Map;
+
+/**
+ * Creates encryptors by their configured type. The factories are constructed directly because
+ * their service declarations are only visible on the module path.
+ */
+final class Encryptors {
+
+  private Encryptors() {}
+
+  /**
+   * @param type one of NACL (JNaCl), CUSTOM (Kalium, which needs libsodium installed) or EC
+   * @return a new encryptor of that type
+   */
+  static Encryptor create(final String type) {
+    switch (type) {
+      case "NACL":
+        return new JnaclFactory().create(Map.of());
+      case "CUSTOM":
+        return new KaliumFactory().create(Map.of());
+      case "EC":
+        return new EllipticalCurveEncryptorFactory().create(Map.of());
+      default:
+        throw new IllegalArgumentException("Unknown encryptor type " + type);
+    }
+  }
+}
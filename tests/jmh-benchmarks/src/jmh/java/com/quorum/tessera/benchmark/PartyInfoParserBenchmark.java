@@ -0,0 +1,72 @@
+package com.quorum.tessera.benchmark;
+
+import com.quorum.tessera.encryption.PublicKey;
+import com.quorum.tessera.p2p.partyinfo.PartyInfoParser;
+import com.quorum.tessera.partyinfo.model.Party;
+import com.quorum.tessera.partyinfo.model.PartyInfo;
+import com.quorum.tessera.partyinfo.model.Recipient;
+import java.io.ByteArrayInputStream;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.*;
+
+/** Measures encoding and decoding of the partyinfo exchanged between nodes. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PartyInfoParserBenchmark {
+
+  // 10000 keys guards against encoding or decoding becoming quadratic in the number of keys
+  @Param({"10", "100", "1000", "10000"})
+  public int keyCount;
+
+  private final PartyInfoParser parser = PartyInfoParser.create();
+
+  private PartyInfo partyInfo;
+
+  private byte[] encoded;
+
+  @Setup
+  public void setUp() {
+    final Random random = new Random(keyCount);
+
+    // one node in ten hosts several keys, as is typical for a network with a few tenanted nodes
+    final Set<Recipient> recipients =
+        IntStream.range(0, keyCount)
+            .mapToObj(
+                i ->
+                    Recipient.of(
+                        PublicKey.from(PayloadCodecBenchmark.randomBytes(random, 32)),
+                        nodeUrl(i / 10)))
+            .collect(Collectors.toSet());
+    final Set<Party> parties =
+        IntStream.range(0, Math.max(1, keyCount / 10))
+            .mapToObj(i -> new Party(nodeUrl(i)))
+            .collect(Collectors.toSet());
+
+    partyInfo = new PartyInfo(nodeUrl(0), recipients, parties);
+    encoded = parser.to(partyInfo);
+  }
+
+  @Benchmark
+  public byte[] to() {
+    return parser.to(partyInfo);
+  }
+
+  @Benchmark
+  public PartyInfo from() {
+    return parser.from(encoded);
+  }
+
+  @Benchmark
+  public PartyInfo fromStream() {
+    return parser.from(new ByteArrayInputStream(encoded));
+  }
+
+  private static String nodeUrl(final int node) {
+    return "http://node" + node + ".example.com:9001/";
+  }
+}
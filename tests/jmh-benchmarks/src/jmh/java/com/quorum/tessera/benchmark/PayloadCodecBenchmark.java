@@ -0,0 +1,115 @@
+package com.quorum.tessera.benchmark;
+
+import com.quorum.tessera.enclave.CBOREncoder;
+import com.quorum.tessera.enclave.EncodedPayload;
+import com.quorum.tessera.enclave.EncodedPayloadHeader;
+import com.quorum.tessera.enclave.EncodedPayloadView;
+import com.quorum.tessera.enclave.PayloadEncoderImpl;
+import com.quorum.tessera.enclave.PrivacyMode;
+import com.quorum.tessera.encryption.Nonce;
+import com.quorum.tessera.encryption.PublicKey;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares the legacy binary codec, read both by copying every field and as a view over the input,
+ * with the CBOR codec.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PayloadCodecBenchmark {
+
+  @Param({"1", "10", "100"})
+  public int recipients;
+
+  @Param({"256", "16384", "1048576"})
+  public int payloadSize;
+
+  private final PayloadEncoderImpl legacyEncoder = new PayloadEncoderImpl();
+
+  private final CBOREncoder cborEncoder = new CBOREncoder();
+
+  private EncodedPayload payload;
+
+  private byte[] legacyEncoded;
+
+  private byte[] cborEncoded;
+
+  @Setup
+  public void setUp() {
+    final Random random = new Random(recipients * 31L + payloadSize);
+
+    final List<PublicKey> recipientKeys =
+        IntStream.range(0, recipients)
+            .mapToObj(i -> PublicKey.from(randomBytes(random, 32)))
+            .collect(Collectors.toList());
+    final List<byte[]> recipientBoxes =
+        IntStream.range(0, recipients)
+            .mapToObj(i -> randomBytes(random, 48))
+            .collect(Collectors.toList());
+
+    payload =
+        EncodedPayload.Builder.create()
+            .withSenderKey(PublicKey.from(randomBytes(random, 32)))
+            .withCipherText(randomBytes(random, payloadSize))
+            .withCipherTextNonce(new Nonce(randomBytes(random, 24)))
+            .withRecipientBoxes(recipientBoxes)
+            .withRecipientNonce(new Nonce(randomBytes(random, 24)))
+            .withRecipientKeys(recipientKeys)
+            .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
+            .withAffectedContractTransactions(Map.of())
+            .withExecHash(new byte[0])
+            .build();
+
+    legacyEncoded = legacyEncoder.encode(payload);
+    cborEncoded = cborEncoder.encode(payload);
+  }
+
+  @Benchmark
+  public byte[] legacyEncode() {
+    return legacyEncoder.encode(payload);
+  }
+
+  @Benchmark
+  public EncodedPayload legacyDecode() {
+    return legacyEncoder.decode(legacyEncoded);
+  }
+
+  @Benchmark
+  public EncodedPayloadView legacyDecodeView() {
+    return legacyEncoder.decodeView(ByteBuffer.wrap(legacyEncoded));
+  }
+
+  @Benchmark
+  public EncodedPayloadHeader legacyDecodeHeader() {
+    return legacyEncoder.decodeHeader(legacyEncoded);
+  }
+
+  @Benchmark
+  public byte[] cborEncode() {
+    return cborEncoder.encode(payload);
+  }
+
+  @Benchmark
+  public EncodedPayload cborDecode() {
+    return cborEncoder.decode(cborEncoded);
+  }
+
+  @Benchmark
+  public EncodedPayloadHeader cborDecodeHeader() {
+    return cborEncoder.decodeHeader(cborEncoded);
+  }
+
+  static byte[] randomBytes(final Random random, final int length) {
+    final byte[] bytes = new byte[length];
+    random.nextBytes(bytes);
+    return bytes;
+  }
+}
@@ -0,0 +1,39 @@
+package com.quorum.tessera.benchmark;
+
+import com.quorum.tessera.enclave.DefaultPayloadDigest;
+import com.quorum.tessera.enclave.PayloadDigest;
+import com.quorum.tessera.enclave.SHA512256PayloadDigest;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Compares the SHA3-512 and SHA-512/256 digests used to hash cipher texts. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PayloadDigestBenchmark {
+
+  @Param({"256", "16384", "1048576"})
+  public int cipherTextSize;
+
+  private final PayloadDigest defaultDigest = new DefaultPayloadDigest();
+
+  private final PayloadDigest sha512256Digest = new SHA512256PayloadDigest();
+
+  private byte[] cipherText;
+
+  @Setup
+  public void setUp() {
+    cipherText = PayloadCodecBenchmark.randomBytes(new Random(cipherTextSize), cipherTextSize);
+  }
+
+  @Benchmark
+  public byte[] defaultDigest() {
+    return defaultDigest.digest(cipherText);
+  }
+
+  @Benchmark
+  public byte[] sha512256Digest() {
+    return sha512256Digest.digest(cipherText);
+  }
+}